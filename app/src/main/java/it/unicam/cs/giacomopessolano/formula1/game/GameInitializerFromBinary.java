@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGrid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TrackFile;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implementation of GameInitializer that reads a binary track file, see TrackFile. The grid is a
+ * PackedGrid on the file's track, while the roster is handed to a PlayerInitializerFromTxt, since
+ * it's stored in the same format as the .txt files.
+ * <p>
+ * Tracks are immutable, so the files requested most recently are kept loaded. A file on the file system
+ * is loaded again if its last modified time or its size changed since it was loaded.
+ */
+public class GameInitializerFromBinary implements GameInitializer {
+
+    /**
+     * Maximum number of files kept loaded.
+     */
+    private static final int MAX_FILES = 16;
+    /**
+     * Files loaded most recently, by file name, from the least to the most recently requested.
+     */
+    private static final Map<String, LoadedFile> FILES = new LinkedHashMap<>(MAX_FILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LoadedFile> eldest) {
+            return size() > MAX_FILES;
+        }
+    };
+    /**
+     * Grid on the file's track.
+     */
+    private final Grid grid;
+    /**
+     * Initializer responsible for the players.
+     */
+    private final PlayerInitializerFromTxt playerInitializer;
+
+    /**
+     * Constructs the initializer from a filename and a player initializer. The file is immediately
+     * loaded and the players are held by the player initializer.
+     *
+     * @param filename Name of the binary file.
+     * @param playerInitializer Initializer of the players.
+     * @throws IOException If problems arise during the initializations.
+     */
+    public GameInitializerFromBinary(String filename, PlayerInitializerFromTxt playerInitializer) throws IOException {
+        assert filename != null;
+        assert playerInitializer != null;
+
+        TrackFile file = load(filename);
+
+        this.grid = new PackedGrid(file.getTrack());
+        this.playerInitializer = playerInitializer;
+        playerInitializer.initialize(new BufferedReader(new StringReader(file.getRoster())));
+    }
+
+    /**
+     * Returns the file with the given name, loading it only if it isn't kept loaded or it changed since
+     * it was loaded.
+     *
+     * @param filename Name of the binary file.
+     * @return The loaded TrackFile.
+     * @throws IOException If the file is missing, can't be read or its format is incorrect.
+     */
+    private static TrackFile load(String filename) throws IOException {
+        long lastModified = -1;
+        long size = -1;
+        Path path = Path.of(filename);
+        //resources on the class path can't change while the program runs
+        if (Files.isRegularFile(path)) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            lastModified = attributes.lastModifiedTime().toMillis();
+            size = attributes.size();
+        }
+
+        synchronized (FILES) {
+            LoadedFile loaded = FILES.get(filename);
+            if (loaded != null && loaded.lastModified() == lastModified && loaded.size() == size) {
+                return loaded.file();
+            }
+        }
+        TrackFile file = TrackFile.load(filename);
+        synchronized (FILES) {
+            FILES.put(filename, new LoadedFile(file, lastModified, size));
+        }
+        return file;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Player, Position> parsePlayers() {
+        return playerInitializer.getPositions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> parseTurns() {
+        return playerInitializer.getPlayers();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Grid parseGrid() {
+        return grid;
+    }
+
+    /**
+     * Compares a GameInitializerFromBinary to another object.
+     *
+     * @param obj Object to compare the initializer to.
+     * @return True if the object has the same grid and player initializer.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof GameInitializerFromBinary other) {
+            return grid.equals(other.grid) && playerInitializer.equals(other.playerInitializer);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on a GameInitializerFromBinary's grid and player initializer.
+     *
+     * @return A hash value for this initializer.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(grid, playerInitializer);
+    }
+
+    /**
+     * File kept loaded, with the attributes it had when it was loaded.
+     *
+     * @param file         The loaded file.
+     * @param lastModified Last modified time of the file in milliseconds, or -1 if it's on the class path.
+     * @param size         Size of the file in bytes, or -1 if it's on the class path.
+     */
+    private record LoadedFile(TrackFile file, long lastModified, long size) {
+    }
+}
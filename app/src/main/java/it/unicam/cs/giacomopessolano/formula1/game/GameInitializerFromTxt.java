@@ -25,13 +25,17 @@
 
 package it.unicam.cs.giacomopessolano.formula1.game;
 
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
 import it.unicam.cs.giacomopessolano.formula1.grid.GridInitializerFromTxt;
 import it.unicam.cs.giacomopessolano.formula1.player.Player;
 import it.unicam.cs.giacomopessolano.formula1.player.PlayerInitializerFromTxt;
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,6 +44,10 @@ import java.util.Objects;
  * Implementation of GameInitializer that works by uniting a GridInitializer and PlayerInitializer to
  * parse information from the same .txt file. The format of the file is defined by the two initializers,
  * but the two should mesh well to correctly define where the players and the grid begin.
+ * <p>
+ * The file is opened and read only once: the player initializer reads the players from the shared
+ * reader and the grid initializer continues from where it stopped, unless it already loaded the file's
+ * track.
  */
 public class GameInitializerFromTxt implements GameInitializer {
 
@@ -54,7 +62,7 @@ public class GameInitializerFromTxt implements GameInitializer {
 
     /**
      * Constructs the initializer from a filename and the two specific initializers. The file is immediately
-     * initialized and the resulting data structures are held by the two smaller initializers.
+     * read in a single pass and the resulting data structures are held by the two smaller initializers.
      *
      * @param filename Name of the file.
      * @param gridInitializer Initializer of the grid.
@@ -68,9 +76,19 @@ public class GameInitializerFromTxt implements GameInitializer {
         assert playerInitializer != null;
 
         this.gridInitializer = gridInitializer;
-        gridInitializer.initialize(filename);
         this.playerInitializer = playerInitializer;
-        playerInitializer.initialize(filename);
+        gridInitializer.validateFileExtension(filename);
+
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filename);
+        if (inputStream == null) {
+            throw new UnrecognizedFileException(filename + " not found.");
+        }
+
+        //players come first in the file, the grid follows them
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream), 1 << 16)) {
+            playerInitializer.initialize(br);
+            gridInitializer.initialize(filename, br);
+        }
     }
 
     /**
@@ -41,6 +41,21 @@ public interface GameManager {
      */
     void startGame();
 
+    /**
+     * Starts the game using a seed for every random choice made during the game, so that a game
+     * started twice with the same seed plays out the same way. Can be used to reset the game when it's over.
+     *
+     * @param seed Seed of the game.
+     */
+    void startGame(long seed);
+
+    /**
+     * Returns the seed the game was started with.
+     *
+     * @return Seed of the game.
+     */
+    long getSeed();
+
     /**
      * Returns the game's playing grid.
      *
@@ -79,6 +94,14 @@ public interface GameManager {
      */
     Position getPlayerPosition(Player player);
 
+    /**
+     * Returns a 64-bit hash of the game's dynamic state: the players' positions, last moves and crashes,
+     * and whose turn it is. Games on the same track and in the same state have the same hash.
+     *
+     * @return Hash of the game's state.
+     */
+    long getStateHash();
+
     /**
      * Executes a turn and checks for the win condition. The player's movement and the updates to
      * the data structures are not the interface's responsibility.
@@ -101,4 +124,12 @@ public interface GameManager {
      */
     Player getWinner();
 
+    /**
+     * Creates an independent copy of the game in its current state. The copy can be advanced with
+     * nextTurn without affecting this game, and vice versa.
+     *
+     * @return A copy of the game.
+     */
+    GameManager fork();
+
 }
@@ -28,10 +28,13 @@ package it.unicam.cs.giacomopessolano.formula1.game;
 import it.unicam.cs.giacomopessolano.formula1.exceptions.ValidationFailedException;
 import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGrid;
+import it.unicam.cs.giacomopessolano.formula1.player.Move;
 import it.unicam.cs.giacomopessolano.formula1.player.Player;
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Implementation of GameManager that uses the grid and players of an initializer and stores their changes
@@ -79,6 +82,18 @@ public class GameManagerStandard implements GameManager {
      * Game's current turn.
      */
     private int turn;
+    /**
+     * Zobrist hash of the game's state, updated at every turn.
+     */
+    private long stateHash;
+    /**
+     * Seed the game was started with.
+     */
+    private long seed;
+    /**
+     * Generator seeded at the start of the game, which the players' strategies are split from.
+     */
+    private SplittableRandom random;
 
     /**
      * Constructs a GameManagerStandard with its initializer and turn manager. The constructor creates
@@ -116,19 +131,77 @@ public class GameManagerStandard implements GameManager {
     }
 
     /**
-     * Starts the game. Can be used to reset the game when it's over by cloning the original data.
+     * Constructs a copy of another game, sharing its original data structures.
+     *
+     * @param other Game to copy.
+     */
+    private GameManagerStandard(GameManagerStandard other) {
+        this.originalGrid = other.originalGrid;
+        this.originalPlayers = other.originalPlayers;
+        this.originalPositions = other.originalPositions;
+    }
+
+    /**
+     * Starts the game with a random seed. Can be used to reset the game when it's over by cloning
+     * the original data.
      */
     @Override
     public void startGame() {
+        startGame(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Starts the game with the given seed. Can be used to reset the game when it's over by cloning
+     * the original data. Every player gets a strategy with its own generator, split in turn order from
+     * a generator seeded with the given seed.
+     *
+     * @param seed Seed of the game.
+     */
+    @Override
+    public void startGame(long seed) {
         if (isGameRunning) return;
 
         isGameRunning = true;
         winner = null;
         crashedPlayers = 0;
         turn = 0;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
         cloneData();
 
         putStartingPositions();
+        stateHash = ZobristHash.of(players, playerPositions, turn);
+    }
+
+    /**
+     * Starts the game from a saved state instead of the first turn: the initializer's players and
+     * positions are taken as they were after some turns. Restarting the game later goes back to that state.
+     *
+     * @param seed    Seed the game was started with.
+     * @param turn    Index in turn order of the player who moves next.
+     * @param winner  Index in turn order of the winner, -1 if nobody won.
+     * @param running States if the game is still running.
+     */
+    void resume(long seed, int turn, int winner, boolean running) {
+        assert turn >= 0 && turn < originalPlayers.size();
+        assert winner < originalPlayers.size();
+
+        startGame(seed);
+        for (Player player : players) {
+            if (player.hasCrashed()) crashedPlayers++;
+        }
+        this.turn = turn;
+        this.winner = winner < 0 ? null : players.get(winner);
+        isGameRunning = running;
+        stateHash = ZobristHash.of(players, playerPositions, turn);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSeed() {
+        return seed;
     }
 
     /**
@@ -174,10 +247,22 @@ public class GameManagerStandard implements GameManager {
         return playerPositions.get(player);
     }
 
+    /**
+     * Returns the Zobrist hash of the game's state, which is kept up to date at every turn.
+     *
+     * @return Hash of the game's state.
+     */
+    @Override
+    public long getStateHash() {
+        return stateHash;
+    }
+
     /**
      * Executes a turn and checks for the win condition. The player's movement and the updates to
      * the data structures are the turn manager's responsibility.
      * The game ends when someone reaches the finish line or everyone has crashed.
+     * Only the keys of the player who moved and of the turn index change, so the state hash is updated
+     * in constant time. If the turn manager throws an unchecked exception, the game is left as it was.
      *
      * @param turnManager TurnManager to handle the game's logic.
      */
@@ -187,7 +272,10 @@ public class GameManagerStandard implements GameManager {
         Player currentPlayer = getCurrentPlayer();
 
         if (!currentPlayer.hasCrashed()) {
+            Position oldPosition = playerPositions.get(currentPlayer);
+            Move oldMove = currentPlayer.getLastMove();
             CellState result = turnManager.executeMove(grid, currentPlayer, playerPositions);
+            stateHash ^= ZobristHash.player(turn, oldPosition, oldMove, false);
 
             if (result.equals(CellState.OFFTRACK)) {
                 currentPlayer.crash();
@@ -202,9 +290,13 @@ public class GameManagerStandard implements GameManager {
                 isGameRunning = false;
             }
 
+            stateHash ^= ZobristHash.player(turn, playerPositions.get(currentPlayer),
+                    currentPlayer.getLastMove(), currentPlayer.hasCrashed());
         }
 
+        stateHash ^= ZobristHash.turn(turn);
         turn = (turn + 1) % players.size();
+        stateHash ^= ZobristHash.turn(turn);
     }
 
     /**
@@ -223,16 +315,56 @@ public class GameManagerStandard implements GameManager {
         return winner;
     }
 
+    /**
+     * Creates an independent copy of the game in its current state. Players are split and put on a
+     * PackedGrid over the grid's shared Track, whatever kind of grid the game is played on, so every
+     * player is copied once and no cell is copied.
+     * The fork's strategies get generators split from this game's, so its random choices don't
+     * interfere with the original game's.
+     *
+     * @return A copy of the game.
+     */
+    @Override
+    public GameManagerStandard fork() {
+        GameManagerStandard fork = new GameManagerStandard(this);
+        fork.isGameRunning = isGameRunning;
+        fork.crashedPlayers = crashedPlayers;
+        fork.turn = turn;
+        fork.seed = seed;
+        fork.stateHash = stateHash;
+
+        if (grid == null) return fork;
+
+        fork.random = random.split();
+        fork.grid = new PackedGrid(grid.getTrack());
+        for (Player player : players) {
+            Player clone = player.split(fork.random);
+            Position position = playerPositions.get(player);
+            fork.players.add(clone);
+            fork.playerPositions.put(clone, position);
+            fork.grid.getCell(position).occupy(clone);
+
+            if (player == winner) {
+                fork.winner = clone;
+            }
+        }
+
+        return fork;
+    }
+
     /**
      * Instantiates the grid and player managing fields with clones of the original data structures.
+     * The grid is cloned without players, since the game's own are put on it. Grids that share an
+     * immutable track, like PackedGrid, copy nothing else, so many games can be started on the same
+     * original grid without duplicating its cells.
      */
     private void cloneData() {
-        this.grid = originalGrid.clone();
+        this.grid = originalGrid.cloneEmpty();
 
         players.clear();
         playerPositions.clear();
         for (Player player : originalPlayers) {
-            Player clone = player.clone();
+            Player clone = player.split(random);
             players.add(clone);
             playerPositions.put(clone, originalPositions.get(player));
         }
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a game on its own thread, independently of the user interface. After a turn, a fork of the game
+ * replaces the snapshot waiting for the interface, so the interface always takes the latest state and the
+ * states it had no time to display are dropped. Forks are published at most once per publish interval,
+ * so their cost stays bounded however fast turns are played, and the simulation is never slowed down by
+ * rendering. The final state of the game is always published.
+ */
+public class GameSimulation implements Runnable {
+
+    /**
+     * Game being simulated.
+     */
+    private final GameManager game;
+    /**
+     * Class that updates the game.
+     */
+    private final TurnManager turnManager;
+    /**
+     * Minimum time between the start of two turns, in nanoseconds.
+     */
+    private final long turnInterval;
+    /**
+     * Minimum time between two published snapshots, in nanoseconds.
+     */
+    private final long publishInterval;
+    /**
+     * Latest snapshot not yet taken by the interface.
+     */
+    private final AtomicReference<GameManager> snapshot = new AtomicReference<>();
+    /**
+     * Checks if the simulation has been asked to stop.
+     */
+    private volatile boolean stopped = false;
+    /**
+     * Number of turns played.
+     */
+    private volatile long turns = 0;
+
+    /**
+     * Constructs a GameSimulation that plays turns as fast as possible.
+     *
+     * @param game        Game to simulate. It must have been started and must not be used by other threads.
+     * @param turnManager Class that updates the game.
+     */
+    public GameSimulation(GameManager game, TurnManager turnManager) {
+        this(game, turnManager, 0);
+    }
+
+    /**
+     * Constructs a GameSimulation that plays at most a given number of turns per second and publishes
+     * every turn.
+     *
+     * @param game           Game to simulate. It must have been started and must not be used by other threads.
+     * @param turnManager    Class that updates the game.
+     * @param turnsPerSecond Maximum turns per second, or 0 for no limit.
+     */
+    public GameSimulation(GameManager game, TurnManager turnManager, int turnsPerSecond) {
+        this(game, turnManager, turnsPerSecond, 0);
+    }
+
+    /**
+     * Constructs a GameSimulation that plays at most a given number of turns per second.
+     *
+     * @param game            Game to simulate. It must have been started and must not be used by other threads.
+     * @param turnManager     Class that updates the game.
+     * @param turnsPerSecond  Maximum turns per second, or 0 for no limit.
+     * @param publishInterval Minimum time between two published snapshots in nanoseconds, or 0 to publish
+     *                        every turn.
+     */
+    public GameSimulation(GameManager game, TurnManager turnManager, int turnsPerSecond, long publishInterval) {
+        assert game != null;
+        assert turnManager != null;
+        assert turnsPerSecond >= 0;
+        assert publishInterval >= 0;
+
+        this.game = game;
+        this.turnManager = turnManager;
+        this.turnInterval = turnsPerSecond == 0 ? 0 : 1_000_000_000L / turnsPerSecond;
+        this.publishInterval = publishInterval;
+    }
+
+    /**
+     * Plays the game until it ends or the simulation is stopped.
+     */
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        long published = next - publishInterval;
+        while (game.isGameRunning() && !stopped) {
+            if (turnInterval > 0) {
+                next += turnInterval;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+
+            game.nextTurn(turnManager);
+            turns++;
+            //a snapshot the interface hasn't taken yet is replaced, since it is older than the game
+            long now = System.nanoTime();
+            if (now - published >= publishInterval) {
+                snapshot.set(game.fork());
+                published = now;
+            }
+        }
+        snapshot.set(game.fork());
+    }
+
+    /**
+     * Takes the latest snapshot of the game, if a new one was published since the last call. Snapshots
+     * published before it and never taken are dropped.
+     *
+     * @return A fork of the game, or null if no turn was played since the last snapshot was taken.
+     */
+    public GameManager poll() {
+        return snapshot.getAndSet(null);
+    }
+
+    /**
+     * Asks the simulation to stop after the current turn.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the number of turns played so far.
+     *
+     * @return Number of turns played.
+     */
+    public long getTurns() {
+        return turns;
+    }
+}
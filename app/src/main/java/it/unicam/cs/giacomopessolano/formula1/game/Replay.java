@@ -0,0 +1,412 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Record of a played game: the seed, the track it was played on, the players in turn order with their
+ * starting positions and directions, and the direction chosen in every move. Moves take four bits each,
+ * so a game costs about half a byte per move; the strategies are not needed to play it again, since
+ * the moves are applied as they were recorded.
+ * <p>
+ * The track is identified by its name and by a fingerprint of its cells, so that a replay is never
+ * played on a track that changed since it was recorded.
+ */
+public final class Replay {
+
+    /**
+     * Value recorded for a player who had no possible move.
+     */
+    public static final int NO_MOVE = 0xF;
+    /**
+     * Strategy of the replayed players, which must never be asked for a move.
+     */
+    static final Strategy REPLAYED = (grid, lastMove, position) -> {
+        throw new IllegalStateException("Replayed players don't choose their moves.");
+    };
+
+    /**
+     * Name of the track.
+     */
+    private final String trackName;
+    /**
+     * Fingerprint of the track's cells.
+     */
+    private final long fingerprint;
+    /**
+     * Seed the game was started with.
+     */
+    private final long seed;
+    /**
+     * Players in turn order.
+     */
+    private final List<Entrant> roster;
+    /**
+     * Moves, two per byte, the first one in the low four bits.
+     */
+    private final byte[] moves;
+    /**
+     * Number of moves.
+     */
+    private final int moveCount;
+
+    /**
+     * Constructs a Replay.
+     *
+     * @param trackName   Name of the track.
+     * @param fingerprint Fingerprint of the track's cells.
+     * @param seed        Seed the game was started with.
+     * @param roster      Players in turn order.
+     * @param moves       Moves, two per byte, the first one in the low four bits.
+     * @param moveCount   Number of moves.
+     */
+    public Replay(String trackName, long fingerprint, long seed, List<Entrant> roster, byte[] moves,
+                  int moveCount) {
+        assert trackName != null;
+        assert roster != null && !roster.isEmpty();
+        assert moves != null && moves.length >= (moveCount + 1) / 2;
+
+        this.trackName = trackName;
+        this.fingerprint = fingerprint;
+        this.seed = seed;
+        this.roster = List.copyOf(roster);
+        this.moves = moves;
+        this.moveCount = moveCount;
+    }
+
+    /**
+     * Returns a recorded move.
+     *
+     * @param index Index of the move, counting the moves of every player.
+     * @return Ordinal of the direction chosen, or NO_MOVE if the player had no possible move.
+     */
+    public int getMove(int index) {
+        assert index >= 0 && index < moveCount;
+        return moves[index >>> 1] >>> ((index & 1) << 2) & 0xF;
+    }
+
+    /**
+     * Creates an initializer of the recorded game on a grid, after checking that it is the recorded track.
+     *
+     * @param grid Grid of the track. Its players are ignored.
+     * @return Initializer of the replayed players on the grid.
+     * @throws IncorrectConfigurationException If the grid is not the track the game was recorded on, or a
+     *                                         player starts outside of it.
+     */
+    public GameInitializer initializer(Grid grid) throws IncorrectConfigurationException {
+        assert grid != null;
+        if (grid.getFingerprint() != fingerprint) {
+            throw new IncorrectConfigurationException("The replay was recorded on a different track.");
+        }
+        for (Entrant entrant : roster) {
+            Position position = entrant.position();
+            if (position.x() >= grid.getWidth() || position.y() >= grid.getHeight()) {
+                throw new IncorrectConfigurationException("A replayed player starts outside the track.");
+            }
+        }
+
+        List<Player> players = new ArrayList<>();
+        Map<Player, Position> positions = new HashMap<>();
+        for (Entrant entrant : roster) {
+            Player player = new PlayerFormula1(entrant.name(), REPLAYED, entrant.direction());
+            players.add(player);
+            positions.put(player, entrant.position());
+        }
+
+        return new GameInitializer() {
+            @Override
+            public Map<Player, Position> parsePlayers() {
+                return positions;
+            }
+
+            @Override
+            public List<Player> parseTurns() {
+                return players;
+            }
+
+            @Override
+            public Grid parseGrid() {
+                return grid;
+            }
+        };
+    }
+
+    /**
+     * Starts the recorded game on a grid. Its turns can then be played with a TurnManagerReplay.
+     *
+     * @param grid Grid of the track. Its players are ignored.
+     * @return The game at its first turn.
+     * @throws IncorrectConfigurationException If the grid is not the track the game was recorded on.
+     */
+    public GameManagerStandard start(Grid grid) throws IncorrectConfigurationException {
+        GameManagerStandard game = new GameManagerStandard(initializer(grid));
+        game.startGame(seed);
+        return game;
+    }
+
+    /**
+     * Plays the recorded game on a grid up to a turn.
+     *
+     * @param grid  Grid of the track. Its players are ignored.
+     * @param turns Number of turns to play. The game stops earlier if it ends.
+     * @return The game after the turns.
+     * @throws IncorrectConfigurationException If the grid is not the track the game was recorded on.
+     */
+    public GameManagerStandard playTo(Grid grid, long turns) throws IncorrectConfigurationException {
+        assert turns >= 0;
+        GameManagerStandard game = start(grid);
+        TurnManagerReplay turnManager = new TurnManagerReplay(this);
+        for (long turn = 0; turn < turns && game.isGameRunning(); turn++) {
+            game.nextTurn(turnManager);
+        }
+        return game;
+    }
+
+    /**
+     * Appends the replay to a stream: the seed, the fingerprint, then the track name, the roster and the
+     * moves, with every count and coordinate as a variable-length integer.
+     *
+     * @param out Stream to write to.
+     */
+    void write(ByteArrayOutputStream out) {
+        writeLong(out, seed);
+        writeLong(out, fingerprint);
+        writeString(out, trackName);
+        writeVarint(out, roster.size());
+        for (Entrant entrant : roster) {
+            writeString(out, entrant.name());
+            writeVarint(out, entrant.position().x());
+            writeVarint(out, entrant.position().y());
+            out.write(entrant.direction().ordinal());
+        }
+        writeVarint(out, moveCount);
+        out.write(moves, 0, (moveCount + 1) / 2);
+    }
+
+    /**
+     * Reads a replay written by write.
+     *
+     * @param buffer Buffer positioned at the start of the replay.
+     * @return The replay read.
+     * @throws UnrecognizedFileException If the buffer doesn't hold a valid replay.
+     */
+    static Replay read(ByteBuffer buffer) throws UnrecognizedFileException {
+        try {
+            long seed = buffer.getLong();
+            long fingerprint = buffer.getLong();
+            String trackName = readString(buffer);
+            int players = readVarint(buffer);
+            if (players == 0) throw new UnrecognizedFileException("A replay has no players.");
+
+            List<Entrant> roster = new ArrayList<>(Math.min(players, 64));
+            for (int i = 0; i < players; i++) {
+                String name = readString(buffer);
+                Position position = new Position(readVarint(buffer), readVarint(buffer));
+                int direction = buffer.get();
+                if (direction < 0 || direction >= Direction.COUNT) {
+                    throw new UnrecognizedFileException("A replay has an invalid direction.");
+                }
+                roster.add(new Entrant(name, position, Direction.fromOrdinal(direction)));
+            }
+
+            int moveCount = readVarint(buffer);
+            if ((moveCount + 1L) / 2 > buffer.remaining()) {
+                throw new UnrecognizedFileException("A replay is truncated.");
+            }
+            byte[] moves = new byte[(moveCount + 1) / 2];
+            buffer.get(moves);
+            return new Replay(trackName, fingerprint, seed, roster, moves, moveCount);
+        } catch (BufferUnderflowException e) {
+            throw new UnrecognizedFileException("A replay is truncated.");
+        }
+    }
+
+    /**
+     * Writes a long in big-endian order.
+     *
+     * @param out   Stream to write to.
+     * @param value Value to write.
+     */
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Writes a non-negative int in seven-bit groups, the lowest first, with the high bit set on every
+     * group but the last.
+     *
+     * @param out   Stream to write to.
+     * @param value Value to write.
+     */
+    static void writeVarint(ByteArrayOutputStream out, int value) {
+        assert value >= 0;
+        while (value >= 0x80) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Reads an int written by writeVarint.
+     *
+     * @param buffer Buffer to read from.
+     * @return The value read.
+     * @throws UnrecognizedFileException If the value is not a valid non-negative int.
+     */
+    static int readVarint(ByteBuffer buffer) throws UnrecognizedFileException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) break;
+                return value;
+            }
+        }
+        throw new UnrecognizedFileException("A replay has an invalid number.");
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes.
+     *
+     * @param out   Stream to write to.
+     * @param value String to write.
+     */
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param buffer Buffer to read from.
+     * @return The string read.
+     * @throws UnrecognizedFileException If the length is not valid.
+     */
+    private static String readString(ByteBuffer buffer) throws UnrecognizedFileException {
+        int length = readVarint(buffer);
+        if (length > buffer.remaining()) throw new UnrecognizedFileException("A replay is truncated.");
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the name of the track.
+     *
+     * @return Name of the track.
+     */
+    public String getTrackName() {
+        return trackName;
+    }
+
+    /**
+     * Returns the fingerprint of the track's cells.
+     *
+     * @return Fingerprint of the track.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the seed the game was started with.
+     *
+     * @return Seed of the game.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the players in turn order.
+     *
+     * @return Unmodifiable list of players.
+     */
+    public List<Entrant> getRoster() {
+        return roster;
+    }
+
+    /**
+     * Returns the number of recorded moves.
+     *
+     * @return Number of moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Compares a Replay to another object.
+     *
+     * @param obj Object to compare the Replay to.
+     * @return True if the object is a Replay of the same game with the same moves, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Replay other) {
+            return trackName.equals(other.trackName) && fingerprint == other.fingerprint && seed == other.seed
+                    && roster.equals(other.roster) && moveCount == other.moveCount
+                    && Arrays.equals(moves, 0, (moveCount + 1) / 2, other.moves, 0, (moveCount + 1) / 2);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on the Replay's game and number of moves.
+     *
+     * @return A hash value for this Replay.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(trackName, fingerprint, seed, roster, moveCount);
+    }
+
+    /**
+     * Player of a recorded game.
+     *
+     * @param name      Name of the player.
+     * @param position  Starting position of the player.
+     * @param direction Starting direction of the player.
+     */
+    public record Entrant(String name, Position position, Direction direction) {
+    }
+}
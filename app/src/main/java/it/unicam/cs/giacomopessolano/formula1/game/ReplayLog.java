@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Append-only file of replays. Every replay is a record that starts with a magic number and a version,
+ * so games can be appended one by one or in batches by different runs, and a file can be read while
+ * it grows. Files are mapped in memory to be read.
+ * <p>
+ * Extension: .f1r.
+ */
+public final class ReplayLog {
+
+    /**
+     * Extension of replay files.
+     */
+    public static final String EXTENSION = ".f1r";
+    /**
+     * Magic number at the start of every record: "F1RP".
+     */
+    private static final int MAGIC = 0x46315250;
+    /**
+     * Version of the record format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Bytes buffered before they are written.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Content of the file, positioned at the next record.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a ReplayLog that reads records from a buffer.
+     *
+     * @param buffer Content of the file.
+     */
+    private ReplayLog(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens a replay file to read it.
+     *
+     * @param path Path of the file.
+     * @return A ReplayLog positioned at the first replay.
+     * @throws IOException If the file can't be read.
+     */
+    public static ReplayLog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ReplayLog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Appends replays to a file, creating it if it doesn't exist.
+     *
+     * @param path    Path of the file.
+     * @param replays Replays to append.
+     * @throws IOException If the file can't be written.
+     */
+    public static void append(Path path, Collection<Replay> replays) throws IOException {
+        assert replays != null;
+        ByteArrayOutputStream records = new ByteArrayOutputStream(BUFFER_SIZE);
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            for (Replay replay : replays) {
+                records.write(MAGIC >>> 24);
+                records.write(MAGIC >>> 16);
+                records.write(MAGIC >>> 8);
+                records.write(MAGIC);
+                records.write(VERSION);
+                replay.write(records);
+                if (records.size() >= BUFFER_SIZE) {
+                    records.writeTo(out);
+                    records.reset();
+                }
+            }
+            records.writeTo(out);
+        }
+    }
+
+    /**
+     * Checks if there are more replays to read.
+     *
+     * @return True if there is at least another replay, false otherwise.
+     */
+    public boolean hasNext() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * Reads the next replay.
+     *
+     * @return The next replay.
+     * @throws UnrecognizedFileException If the file doesn't hold a valid replay at this position.
+     */
+    public Replay next() throws UnrecognizedFileException {
+        if (buffer.remaining() < Integer.BYTES + 1 || buffer.getInt() != MAGIC) {
+            throw new UnrecognizedFileException("The file is not a replay file.");
+        }
+        if (buffer.get() != VERSION) {
+            throw new UnrecognizedFileException("The replay was recorded with an unsupported version.");
+        }
+        return Replay.read(buffer);
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGrid;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Index of a Replay that can show the recorded game at any turn, forwards or backwards, without playing
+ * it again from the start. The game is played once when the timeline is built: every interval turns the
+ * state of all the players is saved in a keyframe, and every turn the new state of the player who moved
+ * is saved as a delta. Seeking a turn copies the keyframe before it and applies at most interval deltas,
+ * then resumes a GameManagerStandard from that state, which can be forked or played on with turnManager.
+ * <p>
+ * Keyframes and deltas only store numbers: a keyframe takes five ints per player and a delta takes
+ * two ints, two shorts and a bit, so the timeline of a long game is much smaller than its grids would be.
+ * The track is kept in a PackedGrid whatever grid it was given, so a seek never copies its cells.
+ */
+public class ReplayTimeline {
+
+    /**
+     * Number of turns between two keyframes when none is given.
+     */
+    public static final int DEFAULT_INTERVAL = 256;
+    /**
+     * Number of values a keyframe stores per player: position, last move and crash flag. After the players,
+     * a keyframe stores the index of the next recorded move.
+     */
+    private static final int STRIDE = 5;
+
+    /**
+     * Replay the timeline was built from.
+     */
+    private final Replay replay;
+    /**
+     * Grid of the track, with no players on it. It is packed so that every seek only creates its players.
+     */
+    private final PackedGrid track;
+    /**
+     * Number of turns between two keyframes.
+     */
+    private final int interval;
+    /**
+     * Names of the players in turn order.
+     */
+    private final String[] names;
+    /**
+     * Keyframes, one every interval turns, starting from turn 0.
+     */
+    private final List<int[]> keyframes = new ArrayList<>();
+    /**
+     * Positions of the player who moved in each turn, x before y.
+     */
+    private int[] positions;
+    /**
+     * Last moves of the player who moved in each turn, x before y.
+     */
+    private short[] moves;
+    /**
+     * Turns at the end of which the player who moved had crashed.
+     */
+    private final BitSet crashes = new BitSet();
+    /**
+     * Number of turns played.
+     */
+    private int turns;
+    /**
+     * Index of the winner in turn order, -1 if nobody won.
+     */
+    private int winner = -1;
+    /**
+     * Index of the next recorded move while the timeline is built.
+     */
+    private int moveIndex;
+    /**
+     * States if the game is still running after the last turn, which happens if the replay was cut short.
+     */
+    private boolean running;
+
+    /**
+     * Builds the timeline of a replay with the default distance between keyframes.
+     *
+     * @param replay Replay to index.
+     * @param grid   Grid of the track, with no players on it.
+     * @throws IncorrectConfigurationException If the grid is not the track the game was recorded on.
+     */
+    public ReplayTimeline(Replay replay, Grid grid) throws IncorrectConfigurationException {
+        this(replay, grid, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Builds the timeline of a replay by playing it once.
+     *
+     * @param replay   Replay to index.
+     * @param grid     Grid of the track, with no players on it.
+     * @param interval Number of turns between two keyframes. Seeking a turn applies at most this many deltas.
+     * @throws IncorrectConfigurationException If the grid is not the track the game was recorded on.
+     */
+    public ReplayTimeline(Replay replay, Grid grid, int interval) throws IncorrectConfigurationException {
+        assert replay != null;
+        assert grid != null;
+        assert interval > 0;
+
+        this.replay = replay;
+        this.track = new PackedGrid(grid.getTrack());
+        this.interval = interval;
+        this.names = new String[replay.getRoster().size()];
+        this.positions = new int[64];
+        this.moves = new short[64];
+        build();
+    }
+
+    /**
+     * Builds the timeline of the last game of a replay log that was recorded on a track.
+     *
+     * @param path Replay log.
+     * @param grid Grid of the track, with no players on it.
+     * @return Timeline of the game.
+     * @throws IOException If the log can't be read or has no games on the track.
+     */
+    public static ReplayTimeline fromLog(Path path, Grid grid) throws IOException {
+        assert path != null;
+        assert grid != null;
+
+        long fingerprint = grid.getFingerprint();
+        Replay last = null;
+        ReplayLog log = ReplayLog.open(path);
+        while (log.hasNext()) {
+            Replay replay = log.next();
+            if (replay.getFingerprint() == fingerprint) {
+                last = replay;
+            }
+        }
+        if (last == null) {
+            throw new IncorrectConfigurationException("The replay log has no games on this track.");
+        }
+        return new ReplayTimeline(last, grid);
+    }
+
+    /**
+     * Plays the replay once, saving the keyframes and the deltas.
+     *
+     * @throws IncorrectConfigurationException If the grid is not the track the game was recorded on.
+     */
+    private void build() throws IncorrectConfigurationException {
+        GameManagerStandard game = replay.start(track);
+        TurnManagerReplay turnManager = new TurnManagerReplay(replay);
+
+        //the ID of a player is its place in turn order
+        Player[] players = new Player[names.length];
+        for (Player player : game.getPlayerPositions().keySet()) {
+            players[Integer.parseInt(game.getID(player)) - 1] = player;
+        }
+        for (int i = 0; i < players.length; i++) {
+            names[i] = players[i].getName();
+        }
+
+        while (game.isGameRunning()) {
+            if (turns % interval == 0) {
+                keyframes.add(keyframe(game, players));
+            }
+            Player current = players[turns % players.length];
+            //a replay cut short runs out of moves before the game ends
+            if (!current.hasCrashed() && turnManager.getNext() == replay.getMoveCount()) break;
+
+            game.nextTurn(turnManager);
+            moveIndex = turnManager.getNext();
+            saveDelta(current, game.getPlayerPosition(current));
+            turns++;
+        }
+
+        if (turns % interval == 0 && keyframes.size() == turns / interval) {
+            keyframes.add(keyframe(game, players));
+        }
+        running = game.isGameRunning();
+        Player gameWinner = game.getWinner();
+        if (gameWinner != null) {
+            winner = Integer.parseInt(game.getID(gameWinner)) - 1;
+        }
+    }
+
+    /**
+     * Saves the state of every player.
+     *
+     * @param game    Game to save.
+     * @param players Players in turn order.
+     * @return The state of the players, STRIDE values each, and the index of the next move.
+     */
+    private int[] keyframe(GameManager game, Player[] players) {
+        int[] keyframe = new int[players.length * STRIDE + 1];
+        for (int i = 0; i < players.length; i++) {
+            Position position = game.getPlayerPosition(players[i]);
+            Move lastMove = players[i].getLastMove();
+            keyframe[i * STRIDE] = position.x();
+            keyframe[i * STRIDE + 1] = position.y();
+            keyframe[i * STRIDE + 2] = lastMove.x();
+            keyframe[i * STRIDE + 3] = lastMove.y();
+            keyframe[i * STRIDE + 4] = players[i].hasCrashed() ? 1 : 0;
+        }
+        keyframe[players.length * STRIDE] = moveIndex;
+        return keyframe;
+    }
+
+    /**
+     * Saves the state of the player who moved in the current turn.
+     *
+     * @param player   Player who moved.
+     * @param position Player's position after the turn.
+     */
+    private void saveDelta(Player player, Position position) {
+        if (turns * 2 == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        Move lastMove = player.getLastMove();
+        //a speed needs as many turns as its value to be reached, so it always fits a short
+        assert lastMove.x() == (short) lastMove.x() && lastMove.y() == (short) lastMove.y();
+
+        positions[turns * 2] = position.x();
+        positions[turns * 2 + 1] = position.y();
+        moves[turns * 2] = (short) lastMove.x();
+        moves[turns * 2 + 1] = (short) lastMove.y();
+        crashes.set(turns, player.hasCrashed());
+    }
+
+    /**
+     * Returns the recorded game as it was after a number of turns. The game's players can't choose moves,
+     * so it can be played on with the turn manager of the same turn.
+     *
+     * @param turn Number of turns played, between 0 and getTurns().
+     * @return The game after the given turn.
+     */
+    public GameManagerStandard seek(int turn) {
+        int[] state = state(turn);
+
+        List<Player> players = new ArrayList<>();
+        Map<Player, Position> playerPositions = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            int j = i * STRIDE;
+            Player player = new FramePlayer(names[i], new Move(state[j + 2], state[j + 3]), state[j + 4] == 1);
+            players.add(player);
+            playerPositions.put(player, new Position(state[j], state[j + 1]));
+        }
+
+        GameManagerStandard game = new GameManagerStandard(new GameInitializer() {
+            @Override
+            public Map<Player, Position> parsePlayers() {
+                return playerPositions;
+            }
+
+            @Override
+            public List<Player> parseTurns() {
+                return players;
+            }
+
+            @Override
+            public Grid parseGrid() {
+                return track;
+            }
+        });
+        game.resume(replay.getSeed(), turn % names.length, turn == turns ? winner : -1, turn < turns || running);
+        return game;
+    }
+
+    /**
+     * Returns a turn manager that plays the recorded moves from a turn on.
+     *
+     * @param turn Number of turns played, between 0 and getTurns().
+     * @return A TurnManagerReplay positioned at the move after the given turn.
+     */
+    public TurnManagerReplay turnManager(int turn) {
+        return new TurnManagerReplay(replay, state(turn)[names.length * STRIDE]);
+    }
+
+    /**
+     * Restores the state of the players after a number of turns.
+     *
+     * @param turn Number of turns played, between 0 and getTurns().
+     * @return The state of the players, STRIDE values each, and the index of the next move.
+     */
+    private int[] state(int turn) {
+        assert turn >= 0 && turn <= turns;
+
+        int[] state = keyframes.get(turn / interval).clone();
+        for (int t = turn - turn % interval; t < turn; t++) {
+            int i = (t % names.length) * STRIDE;
+            //crashed players skip their turns without using a move
+            if (state[i + 4] == 0) state[names.length * STRIDE]++;
+            state[i] = positions[t * 2];
+            state[i + 1] = positions[t * 2 + 1];
+            state[i + 2] = moves[t * 2];
+            state[i + 3] = moves[t * 2 + 1];
+            state[i + 4] = crashes.get(t) ? 1 : 0;
+        }
+        return state;
+    }
+
+    /**
+     * Returns the number of turns of the recorded game.
+     *
+     * @return Number of turns that can be seeked.
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Returns the number of turns between two keyframes.
+     *
+     * @return Distance between keyframes.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the replay the timeline was built from.
+     *
+     * @return The indexed replay.
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Player of a sought game, whose state is restored from the timeline instead of played.
+     */
+    private static class FramePlayer implements Player {
+
+        /**
+         * Player's name.
+         */
+        private final String name;
+        /**
+         * Player's last move.
+         */
+        private Move lastMove;
+        /**
+         * States if the player crashed.
+         */
+        private boolean hasCrashed;
+
+        /**
+         * Constructs a player with a restored state.
+         *
+         * @param name       Player's name.
+         * @param lastMove   Player's last move.
+         * @param hasCrashed States if the player crashed.
+         */
+        private FramePlayer(String name, Move lastMove, boolean hasCrashed) {
+            this.name = name;
+            this.lastMove = lastMove;
+            this.hasCrashed = hasCrashed;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns a strategy that can't be asked for moves, since the player's moves were recorded.
+         *
+         * @return The strategy of replayed players.
+         */
+        @Override
+        public Strategy getStrategy() {
+            return Replay.REPLAYED;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Move getLastMove() {
+            return lastMove;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void updateLastMove(Direction choice) {
+            lastMove = lastMove.update(choice);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void crash() {
+            hasCrashed = true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasCrashed() {
+            return hasCrashed;
+        }
+
+        /**
+         * Creates a copy of the player.
+         *
+         * @return A FramePlayer with the same state.
+         */
+        @Override
+        public FramePlayer clone() {
+            return new FramePlayer(name, lastMove, hasCrashed);
+        }
+
+        /**
+         * Creates a copy of the player. Its strategy doesn't use random numbers, so the generator is unused.
+         *
+         * @param random Generator to split.
+         * @return A FramePlayer with the same state.
+         */
+        @Override
+        public FramePlayer split(SplittableRandom random) {
+            return clone();
+        }
+    }
+}
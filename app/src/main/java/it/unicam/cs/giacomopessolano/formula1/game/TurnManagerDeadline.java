@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGrid;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Implementation of TurnManager that gives every player a deadline to choose their move. Strategies choose
+ * on an executor, on a copy of the grid, and are told the deadline so that search strategies can use
+ * all of their time budget. If a strategy misses the deadline, the player moves with the fallback move
+ * and the strategy's late choice is discarded; the strategy isn't asked again until it has finished.
+ * <p>
+ * The copy is a PackedGrid on the grid's shared Track with clones of its players, so no cell is copied.
+ * Finding the players takes O(players) on a PackedGrid but checks every cell of other grids, so
+ * PackedGrid is best suited to this manager.
+ */
+public class TurnManagerDeadline extends TurnManagerStandard {
+
+    /**
+     * Time a strategy has to choose, in nanoseconds.
+     */
+    private final long timeout;
+    /**
+     * Executor the strategies choose on.
+     */
+    private final Executor executor;
+    /**
+     * Choices that missed their deadline and are still being made, by strategy.
+     */
+    private final Map<Strategy, CompletableFuture<Direction>> late =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Constructs a TurnManagerDeadline whose strategies choose on daemon threads of its own.
+     *
+     * @param timeout Time a strategy has to choose. Must be higher than 0.
+     * @param unit    Unit of the timeout.
+     */
+    public TurnManagerDeadline(long timeout, TimeUnit unit) {
+        this(timeout, unit, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "strategy");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructs a TurnManagerDeadline whose strategies choose on the given executor.
+     *
+     * @param timeout  Time a strategy has to choose. Must be higher than 0.
+     * @param unit     Unit of the timeout.
+     * @param executor Executor the strategies choose on.
+     */
+    public TurnManagerDeadline(long timeout, TimeUnit unit, Executor executor) {
+        assert timeout > 0;
+        assert unit != null;
+        assert executor != null;
+
+        this.timeout = unit.toNanos(timeout);
+        this.executor = executor;
+    }
+
+    /**
+     * Asks the player's strategy for the next move and waits for it until the deadline. A strategy that
+     * is still making a late choice is not asked and the fallback move is used.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param player Player that moves on the grid.
+     * @param position Player's current position.
+     * @return The Direction chosen, or the fallback move if the deadline passed.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    protected Direction chooseDirection(Grid grid, Player player, Position position)
+            throws NoPossibleMoveException {
+        Strategy strategy = player.getStrategy();
+        Move lastMove = player.getLastMove();
+        if (late.containsKey(strategy)) {
+            return fallback(grid, lastMove, position);
+        }
+
+        long deadline = System.nanoTime() + timeout;
+        //the strategy may outlive the deadline, so it must not see the grid change
+        CompletableFuture<Direction> choice = strategy.makeChoiceAsync(copy(grid), lastMove, position,
+                deadline, executor);
+        try {
+            return choice.get(timeout, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(strategy, choice);
+            return fallback(grid, lastMove, position);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NoPossibleMoveException noMove) throw noMove;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(strategy, choice);
+            return fallback(grid, lastMove, position);
+        }
+    }
+
+    /**
+     * Copies the players of a grid on a grid that shares its track.
+     *
+     * @param grid Grid to copy.
+     * @return A PackedGrid on the grid's track with clones of its players.
+     */
+    private static Grid copy(Grid grid) {
+        PackedGrid copy = new PackedGrid(grid.getTrack());
+        for (Position position : grid.getOccupiedPositions()) {
+            copy.getCell(position).occupy(grid.getCell(position).getPlayer().clone());
+        }
+        return copy;
+    }
+
+    /**
+     * Remembers a choice that is still being computed after the player moved, so the strategy isn't asked
+     * again until it has finished.
+     *
+     * @param strategy Strategy computing the choice.
+     * @param choice   Choice that was given up on.
+     */
+    private void abandon(Strategy strategy, CompletableFuture<Direction> choice) {
+        late.put(strategy, choice);
+        choice.whenComplete((direction, error) -> late.remove(strategy));
+    }
+
+    /**
+     * Returns the move played when a strategy misses its deadline: the player keeps its speed if it can
+     * do so without leaving the track, otherwise it takes the first possible move that stays on it.
+     * If every move leaves the track, it keeps its speed or takes the first possible move.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by the player.
+     * @param position The current position of the player.
+     * @return The fallback Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    protected Direction fallback(Grid grid, Move lastMove, Position position) throws NoPossibleMoveException {
+        int choices = Strategy.possibleMovesMask(grid, lastMove, position);
+        if (choices == 0) {
+            throw new NoPossibleMoveException("No possible moves.");
+        }
+
+        boolean center = (choices & 1 << Direction.CENTER.ordinal()) != 0;
+        if (center && staysOnTrack(grid, lastMove, position, Direction.CENTER)) {
+            return Direction.CENTER;
+        }
+        for (int moves = choices; moves != 0; moves &= moves - 1) {
+            Direction direction = Direction.fromOrdinal(Integer.numberOfTrailingZeros(moves));
+            if (staysOnTrack(grid, lastMove, position, direction)) {
+                return direction;
+            }
+        }
+
+        return center ? Direction.CENTER : Direction.fromOrdinal(Integer.numberOfTrailingZeros(choices));
+    }
+
+    /**
+     * Checks if a move keeps the player on the track.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by the player.
+     * @param position The current position of the player.
+     * @param direction Direction of the move.
+     * @return True if the move doesn't traverse an OFFTRACK cell, false otherwise.
+     */
+    private static boolean staysOnTrack(Grid grid, Move lastMove, Position position, Direction direction) {
+        int newX = position.x() + lastMove.x() + direction.x();
+        int newY = position.y() + lastMove.y() + direction.y();
+        return grid.traverse(position.x(), position.y(), newX, newY) != CellState.OFFTRACK;
+    }
+}
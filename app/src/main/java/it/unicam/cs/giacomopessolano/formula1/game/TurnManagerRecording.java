@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of TurnManager that records the moves chosen in a game, so that it can be turned into
+ * a Replay. Moves are chosen by another TurnManagerStandard, like a TurnManagerDeadline, and played as usual.
+ * <p>
+ * An instance records one game at a time and is not thread-safe; reset makes it ready for the next game.
+ */
+public class TurnManagerRecording extends TurnManagerStandard {
+
+    /**
+     * Class that chooses the moves.
+     */
+    private final TurnManagerStandard delegate;
+    /**
+     * Moves recorded so far, two per byte.
+     */
+    private byte[] moves = new byte[64];
+    /**
+     * Number of moves recorded so far.
+     */
+    private int moveCount = 0;
+
+    /**
+     * Constructs a TurnManagerRecording whose moves are chosen as in TurnManagerStandard.
+     */
+    public TurnManagerRecording() {
+        this(new TurnManagerStandard());
+    }
+
+    /**
+     * Constructs a TurnManagerRecording whose moves are chosen by another TurnManagerStandard.
+     *
+     * @param delegate Class that chooses the moves.
+     */
+    public TurnManagerRecording(TurnManagerStandard delegate) {
+        assert delegate != null;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Asks the delegate for the next move and records it, or records that no move was possible.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param player Player that moves on the grid.
+     * @param position Player's current position.
+     * @return The Direction chosen.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    protected Direction chooseDirection(Grid grid, Player player, Position position)
+            throws NoPossibleMoveException {
+        try {
+            Direction choice = delegate.chooseDirection(grid, player, position);
+            record(choice.ordinal());
+            return choice;
+        } catch (NoPossibleMoveException e) {
+            record(Replay.NO_MOVE);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a replay of the game recorded so far.
+     *
+     * @param trackName   Name of the track the game is played on.
+     * @param initializer Initializer the game was created with.
+     * @param seed        Seed the game was started with.
+     * @return Replay of the game.
+     */
+    public Replay toReplay(String trackName, GameInitializer initializer, long seed) {
+        assert trackName != null;
+        assert initializer != null;
+
+        long fingerprint = initializer.parseGrid().getFingerprint();
+        Map<Player, Position> positions = initializer.parsePlayers();
+        List<Replay.Entrant> roster = new ArrayList<>();
+        for (Player player : initializer.parseTurns()) {
+            roster.add(new Replay.Entrant(player.getName(), positions.get(player), direction(player.getLastMove())));
+        }
+
+        return new Replay(trackName, fingerprint, seed, roster, Arrays.copyOf(moves, (moveCount + 1) / 2),
+                moveCount);
+    }
+
+    /**
+     * Forgets the moves recorded so far.
+     */
+    public void reset() {
+        Arrays.fill(moves, 0, (moveCount + 1) / 2, (byte) 0);
+        moveCount = 0;
+    }
+
+    /**
+     * Returns the number of moves recorded so far.
+     *
+     * @return Number of moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Appends a move to the record.
+     *
+     * @param move Ordinal of the direction, or Replay.NO_MOVE.
+     */
+    private void record(int move) {
+        int index = moveCount >>> 1;
+        if (index == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[index] |= (byte) (move << ((moveCount & 1) << 2));
+        moveCount++;
+    }
+
+    /**
+     * Returns the direction a player started with.
+     *
+     * @param move First move of the player.
+     * @return The direction whose components are the move's.
+     */
+    private static Direction direction(Move move) {
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction direction = Direction.fromOrdinal(i);
+            if (direction.x() == move.x() && direction.y() == move.y()) return direction;
+        }
+        throw new IllegalArgumentException("Players can only be recorded before their first move.");
+    }
+}
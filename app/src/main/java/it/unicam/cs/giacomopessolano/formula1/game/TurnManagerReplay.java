@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+
+/**
+ * Implementation of TurnManager that plays the moves of a Replay in order instead of asking the strategies,
+ * so the recorded game is played again exactly and as fast as the moves can be applied.
+ */
+public class TurnManagerReplay extends TurnManagerStandard {
+
+    /**
+     * Replay whose moves are played.
+     */
+    private final Replay replay;
+    /**
+     * Index of the next move.
+     */
+    private int next;
+
+    /**
+     * Constructs a TurnManagerReplay that starts from the first move of a replay.
+     *
+     * @param replay Replay whose moves are played.
+     */
+    public TurnManagerReplay(Replay replay) {
+        this(replay, 0);
+    }
+
+    /**
+     * Constructs a TurnManagerReplay that starts from a move of a replay.
+     *
+     * @param replay Replay whose moves are played.
+     * @param next   Index of the first move to play.
+     */
+    public TurnManagerReplay(Replay replay, int next) {
+        assert replay != null;
+        assert next >= 0 && next <= replay.getMoveCount();
+        this.replay = replay;
+        this.next = next;
+    }
+
+    /**
+     * Returns the next recorded move.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param player Player that moves on the grid.
+     * @param position Player's current position.
+     * @return The Direction recorded.
+     * @throws NoPossibleMoveException If the player had no possible move.
+     */
+    @Override
+    protected Direction chooseDirection(Grid grid, Player player, Position position)
+            throws NoPossibleMoveException {
+        if (next == replay.getMoveCount()) {
+            throw new IllegalStateException("The replay has no more moves.");
+        }
+        int move = replay.getMove(next++);
+        if (move == Replay.NO_MOVE) {
+            throw new NoPossibleMoveException("No possible moves.");
+        }
+        return Direction.fromOrdinal(move);
+    }
+
+    /**
+     * Returns the index of the next move to play.
+     *
+     * @return Index of the next move.
+     */
+    public int getNext() {
+        return next;
+    }
+}
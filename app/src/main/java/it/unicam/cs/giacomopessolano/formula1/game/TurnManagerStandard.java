@@ -62,8 +62,7 @@ public class TurnManagerStandard implements TurnManager {
 
         Direction choice;
         try {
-            choice = player.getStrategy().
-                    makeChoice(grid, player.getLastMove(), oldPosition);
+            choice = chooseDirection(grid, player, oldPosition);
         } catch (NoPossibleMoveException e) {
             return CellState.OFFTRACK;
         }
@@ -78,6 +77,20 @@ public class TurnManagerStandard implements TurnManager {
         return moveResult(grid, oldPosition, newPosition);
     }
 
+    /**
+     * Asks the player's strategy for the next move. Subclasses can change how and when it is asked.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param player Player that moves on the grid.
+     * @param position Player's current position.
+     * @return The Direction chosen.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    protected Direction chooseDirection(Grid grid, Player player, Position position)
+            throws NoPossibleMoveException {
+        return player.getStrategy().makeChoice(grid, player.getLastMove(), position);
+    }
+
     /**
      * Updates the grid by placing a player on a cell and freeing the old one.
      *
@@ -127,28 +140,7 @@ public class TurnManagerStandard implements TurnManager {
      * @return END or OFFTRACK if any cell had their state, TRACK otherwise.
      */
     private CellState moveResult(Grid grid, Position oldPosition, Position newPosition) {
-        int diffX = newPosition.x() - oldPosition.x();
-        int diffY = newPosition.y() - oldPosition.y();
-
-        //returns 1 or -1, which indicates the direction we move X/Y to reach the new X/Y coordinates
-        int stepX = Integer.compare(diffX, 0);
-        int stepY = Integer.compare(diffY, 0);
-
-        int x = oldPosition.x();
-        int y = oldPosition.y();
-        while (x != newPosition.x() || y != newPosition.y()) {
-
-            if (x == newPosition.x()) y += stepY;
-            else x += stepX;
-
-            CellState cell = grid.getCell(new Position(x, y)).getState();
-            if (cell.equals(CellState.END) || cell.equals(CellState.OFFTRACK)) {
-                return cell;
-            }
-
-        }
-
-        return CellState.TRACK;
+        return grid.traverse(oldPosition.x(), oldPosition.y(), newPosition.x(), newPosition.y());
     }
 
 }
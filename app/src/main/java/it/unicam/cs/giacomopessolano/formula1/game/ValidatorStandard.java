@@ -25,7 +25,6 @@
 
 package it.unicam.cs.giacomopessolano.formula1.game;
 
-import it.unicam.cs.giacomopessolano.formula1.grid.Cell;
 import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
 import it.unicam.cs.giacomopessolano.formula1.player.Player;
@@ -68,13 +67,13 @@ public class ValidatorStandard implements Validator {
      */
     private final int playerNumber;
     /**
-     * Cells with CellState.START type.
+     * Positions of the cells with CellState.START type.
      */
-    private final ArrayList<Cell> startCells;
+    private final ArrayList<Position> startCells;
     /**
-     * Cells with CellState.END type.
+     * Positions of the cells with CellState.END type.
      */
-    private final ArrayList<Cell> endCells;
+    private final ArrayList<Position> endCells;
 
     /**
      * Constructs a ValidatorStandard with the objects it's supposed to check.
@@ -144,7 +143,7 @@ public class ValidatorStandard implements Validator {
      */
     private boolean arePlayerPositionsCorrect() {
         for (Position position : startingPositions.values()) {
-            if (!startCells.contains(grid.getCell(position))) {
+            if (!startCells.contains(position)) {
                 return false;
             }
         }
@@ -164,18 +163,17 @@ public class ValidatorStandard implements Validator {
     }
 
     /**
-     * Looks for all instances of a specific type of cell in the grid.
+     * Looks for all instances of a specific type of cell in the grid. The grid is scanned row by row.
      *
      * @param type CellState value to look for.
-     * @return ArrayList of all cells of the specified type.
+     * @return ArrayList of the positions of all cells of the specified type.
      */
-    private ArrayList<Cell> findTypeCells(CellState type) {
-        ArrayList<Cell> cells = new ArrayList<>();
+    private ArrayList<Position> findTypeCells(CellState type) {
+        ArrayList<Position> cells = new ArrayList<>();
         for (int y = 0; y < grid.getHeight(); y++) {
             for (int x = 0; x < grid.getWidth(); x++) {
-                Cell cell = grid.getCell(new Position(x, y));
-                if (cell.getState() == type) {
-                    cells.add(cell);
+                if (grid.getState(x, y) == type) {
+                    cells.add(new Position(x, y));
                 }
             }
         }
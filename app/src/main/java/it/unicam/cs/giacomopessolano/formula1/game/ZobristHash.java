@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.player.Move;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zobrist hashing of a game's dynamic state. Every feature of the state (a player on a position, a player
+ * with a last move, a crashed player, the index of the turn) has a pseudo-random 64-bit key, and the hash
+ * of a state is the XOR of the keys of its features. When a player moves, only its old keys are XORed out
+ * and its new ones XORed in, so the hash is kept up to date in constant time.
+ * <p>
+ * Keys are derived from the features with a SplitMix64 finalizer instead of being stored in tables, so
+ * they cost no memory and positions are not limited by the size of a table.
+ */
+public final class ZobristHash {
+
+    /**
+     * Kind of the keys of the players' positions.
+     */
+    private static final int POSITION = 0;
+    /**
+     * Kind of the keys of the players' last moves.
+     */
+    private static final int MOVE = 1;
+    /**
+     * Kind of the keys of the crashed players.
+     */
+    private static final int CRASHED = 2;
+    /**
+     * Kind of the keys of the turn index.
+     */
+    private static final int TURN = 3;
+    /**
+     * Odd constant that spreads the kind and the player over the bits of a long.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Hashes are only computed through the static methods.
+     */
+    private ZobristHash() {
+    }
+
+    /**
+     * Computes the hash of a state from scratch.
+     *
+     * @param players   Players in turn order.
+     * @param positions Players' positions.
+     * @param turn      Index of the player whose turn it is.
+     * @return Hash of the state.
+     */
+    public static long of(List<Player> players, Map<Player, Position> positions, int turn) {
+        assert players != null;
+        assert positions != null;
+
+        long hash = turn(turn);
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            hash ^= player(i, positions.get(player), player.getLastMove(), player.hasCrashed());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the combined keys of a player's state.
+     *
+     * @param index    Player's index in turn order.
+     * @param position Player's position.
+     * @param lastMove Player's last move.
+     * @param crashed  States if the player has crashed.
+     * @return XOR of the keys of the player's state.
+     */
+    public static long player(int index, Position position, Move lastMove, boolean crashed) {
+        assert position != null;
+        assert lastMove != null;
+
+        long hash = key(POSITION, index, position.x(), position.y()) ^ key(MOVE, index, lastMove.x(), lastMove.y());
+        return crashed ? hash ^ key(CRASHED, index, 0, 0) : hash;
+    }
+
+    /**
+     * Returns the key of a turn index.
+     *
+     * @param turn Index of the player whose turn it is.
+     * @return Key of the turn.
+     */
+    public static long turn(int turn) {
+        return key(TURN, 0, turn, 0);
+    }
+
+    /**
+     * Derives the key of a feature. For a given kind and player, different values always give
+     * different keys.
+     *
+     * @param kind   Kind of the feature.
+     * @param player Index of the player.
+     * @param a      First value of the feature.
+     * @param b      Second value of the feature.
+     * @return Pseudo-random key of the feature.
+     */
+    private static long key(int kind, int player, int a, int b) {
+        long owner = mix(((long) kind << 32 | (player & 0xFFFFFFFFL)) * GOLDEN_GAMMA);
+        return mix(owner ^ ((long) a << 32 | (b & 0xFFFFFFFFL)));
+    }
+
+    /**
+     * SplitMix64 finalizer, a bijection that spreads every bit of the input over the output.
+     *
+     * @param z Value to mix.
+     * @return Mixed value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -47,6 +47,10 @@ public class ArrayGrid implements Grid {
      * Grid's height.
      */
     private final int height;
+    /**
+     * Values shared by the grid and its clones, which also identify their common track.
+     */
+    private final SharedTrack track;
 
     /**
      * Constructs an ArrayGrid with the given 2D array of Cell objects.
@@ -54,11 +58,23 @@ public class ArrayGrid implements Grid {
      * @param grid The 2D array of Cell objects representing the grid.
      */
     public ArrayGrid(Cell[][] grid) {
+        this(grid, new SharedTrack());
+    }
+
+    /**
+     * Constructs an ArrayGrid that shares the track of another grid.
+     *
+     * @param grid  The 2D array of Cell objects representing the grid.
+     * @param track Values shared with the other grid.
+     */
+    private ArrayGrid(Cell[][] grid, SharedTrack track) {
         assert grid != null;
+        assert track != null;
 
         this.grid = grid;
         this.width = grid[0].length;
         this.height = grid.length;
+        this.track = track;
     }
 
     /**
@@ -73,6 +89,22 @@ public class ArrayGrid implements Grid {
         return grid[position.y()][position.x()];
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CellState getState(int x, int y) {
+        return grid[y][x].getState();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isOccupied(int x, int y) {
+        return grid[y][x].isOccupied();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -89,6 +121,85 @@ public class ArrayGrid implements Grid {
         return height;
     }
 
+    /**
+     * Returns the distance field of the grid. Cells can't change state, so it's computed on the first
+     * call on the grid or any of its clones, and shared by all of them.
+     *
+     * @return The grid's distance field.
+     */
+    @Override
+    public DistanceField getDistanceField() {
+        DistanceField field = track.distanceField;
+        if (field == null) {
+            synchronized (track) {
+                field = track.distanceField;
+                if (field == null) {
+                    field = DistanceField.compute(this);
+                    track.distanceField = field;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Returns the speed limits of the grid. Cells can't change state, so they're computed on the first
+     * call on the grid or any of its clones, and shared by all of them.
+     *
+     * @return The grid's speed limits.
+     */
+    @Override
+    public SpeedLimits getSpeedLimits() {
+        SpeedLimits limits = track.speedLimits;
+        if (limits == null) {
+            synchronized (track) {
+                limits = track.speedLimits;
+                if (limits == null) {
+                    limits = SpeedLimits.compute(this);
+                    track.speedLimits = limits;
+                }
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Returns the fingerprint of the grid. Cells can't change state, so it's computed on the first
+     * call on the grid or any of its clones, and shared by all of them.
+     *
+     * @return A 64-bit FNV-1a hash of the grid.
+     */
+    @Override
+    public long getFingerprint() {
+        Long value = track.fingerprint;
+        if (value == null) {
+            value = Grid.super.getFingerprint();
+            track.fingerprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the track of the grid. Cells can't change state, so it's built on the first call on the
+     * grid or any of its clones, and shared by all of them.
+     *
+     * @return The grid's track.
+     */
+    @Override
+    public Track getTrack() {
+        Track packed = track.packed;
+        if (packed == null) {
+            synchronized (track) {
+                packed = track.packed;
+                if (packed == null) {
+                    packed = Grid.super.getTrack();
+                    track.packed = packed;
+                }
+            }
+        }
+        return packed;
+    }
+
     /**
      * Returns the 2D array of Cells that composes the grid.
      *
@@ -98,6 +209,22 @@ public class ArrayGrid implements Grid {
         return grid;
     }
 
+    /**
+     * Checks if another grid is an ArrayGrid cloned from the same grid as this one, or a PackedGrid on
+     * the Track returned by getTrack(), like the grids of forked games. States never change after
+     * construction, so clones always have the same track.
+     *
+     * @param other Grid to compare.
+     * @return True if the grids share their track, false otherwise.
+     */
+    @Override
+    public boolean hasSameTrack(Grid other) {
+        if (other instanceof PackedGrid packed) {
+            return track.packed != null && packed.getTrack() == track.packed;
+        }
+        return other instanceof ArrayGrid array && array.track == track;
+    }
+
     /**
      * Creates a deep copy (clone) of the ArrayGrid object, including its grid of cells.
      *
@@ -113,7 +240,25 @@ public class ArrayGrid implements Grid {
             }
         }
 
-        return new ArrayGrid(newGrid);
+        return new ArrayGrid(newGrid, track);
+    }
+
+    /**
+     * Creates a copy of the ArrayGrid with new cells in the same states and no players.
+     *
+     * @return An ArrayGrid that shares the track of this one and has no players.
+     */
+    @Override
+    public ArrayGrid cloneEmpty() {
+        Cell[][] newGrid = new Cell[height][width];
+
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                newGrid[i][j] = new Cell(grid[i][j].getState());
+            }
+        }
+
+        return new ArrayGrid(newGrid, track);
     }
 
     /**
@@ -139,4 +284,27 @@ public class ArrayGrid implements Grid {
     public int hashCode() {
         return Objects.hash(Arrays.deepHashCode(grid), width, height);
     }
-}
\ No newline at end of file
+
+    /**
+     * Values computed from the cells' states, which are the same for a grid and all its clones.
+     */
+    private static class SharedTrack {
+
+        /**
+         * Distance field of the track, null until computed.
+         */
+        private volatile DistanceField distanceField;
+        /**
+         * Speed limits of the track, null until computed.
+         */
+        private volatile SpeedLimits speedLimits;
+        /**
+         * Fingerprint of the track, null until computed.
+         */
+        private volatile Long fingerprint;
+        /**
+         * States of the track packed in a Track, null until built.
+         */
+        private volatile Track packed;
+    }
+}
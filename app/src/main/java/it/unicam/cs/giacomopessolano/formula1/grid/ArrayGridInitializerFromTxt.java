@@ -29,8 +29,7 @@ import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationE
 import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -41,6 +40,12 @@ import java.util.Objects;
  * and its end by the end of the file; each cell of the grid must be represented with a character that
  * indicates the state (X->OFFTRACK, R->TRACK, S->START, E->END). A grid must be rectangular,
  * however if that is not the case the shorter rows will be filled with OFFTRACK cells.
+ * <p>
+ * The grid can also be read from a reader that is already open, so that a file holding both players
+ * and grid is read only once.
+ * <p>
+ * The initializer can also compute the grid's distance field right after loading it, so that the
+ * games don't pay for it on their first use.
  */
 public class ArrayGridInitializerFromTxt implements GridInitializerFromTxt {
 
@@ -48,10 +53,31 @@ public class ArrayGridInitializerFromTxt implements GridInitializerFromTxt {
      * Parsed grid.
      */
     private Grid grid;
+    /**
+     * True if the distance field is computed when the grid is loaded.
+     */
+    private final boolean computeDistances;
+
+    /**
+     * Constructs an initializer that leaves the distance field to be computed on first use.
+     */
+    public ArrayGridInitializerFromTxt() {
+        this(false);
+    }
+
+    /**
+     * Constructs an initializer that can compute the distance field when the grid is loaded.
+     *
+     * @param computeDistances True to compute the distance field when the grid is loaded.
+     */
+    public ArrayGridInitializerFromTxt(boolean computeDistances) {
+        this.computeDistances = computeDistances;
+    }
 
     /**
      * Parses grid from a .txt file. The file is instantly validated to check that it has
-     * the correct extension. The field grid is instantiated.
+     * the correct extension. The field grid is instantiated, together with its distance field
+     * if requested.
      *
      * @param filename Name of the .txt file.
      * @throws IOException If there is an error while reading the file or its format is incorrect.
@@ -60,15 +86,27 @@ public class ArrayGridInitializerFromTxt implements GridInitializerFromTxt {
     public void initialize(String filename) throws IOException {
         validateFileExtension(filename);
 
-        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filename);
-        if (inputStream == null) {
-            throw new UnrecognizedFileException(filename + " not found.");
-        }
+        setGrid(loadGrid(filename));
+    }
 
-        List<char[]> rows = generateRows(inputStream);
-        int width = findMaxWidth(rows);
+    /**
+     * Parses grid from a reader, starting from the line "TRACK" and stopping at its end.
+     * The field grid is instantiated, together with its distance field if requested.
+     *
+     * @param reader Reader containing the grid.
+     * @throws IOException If there is an error while reading or the format is incorrect.
+     */
+    @Override
+    public void initialize(BufferedReader reader) throws IOException {
+        setGrid(readGrid(reader));
+    }
 
-        this.grid = createGrid(rows, width);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize(String filename, BufferedReader reader) throws IOException {
+        setGrid(readGrid(filename, reader));
     }
 
     /**
@@ -80,65 +118,129 @@ public class ArrayGridInitializerFromTxt implements GridInitializerFromTxt {
     }
 
     /**
-     * Reads the rows of characters representing the grid from the .txt file.
-     * It starts reading from the line "TRACK".
+     * Reads the file and creates the grid it describes.
      *
-     * @param inputStream The name of the .txt file containing grid information.
-     * @return A list of character arrays where each array represents a row of the grid.
-     * @throws IOException If there is an error while reading the file.
+     * @param filename Name of the .txt file.
+     * @return The parsed grid.
+     * @throws IOException If there is an error while reading the file or its format is incorrect.
      */
-    private List<char[]> generateRows(InputStream inputStream) throws IOException {
-        List<char[]> rows = new ArrayList<>();
+    protected Grid loadGrid(String filename) throws IOException {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filename);
+        if (inputStream == null) {
+            throw new UnrecognizedFileException(filename + " not found.");
+        }
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+            return readGrid(filename, br);
+        }
+    }
+
+    /**
+     * Creates the grid of a file from a reader of its text.
+     *
+     * @param filename Name of the .txt file.
+     * @param reader   Reader of the file, positioned before the grid.
+     * @return The parsed grid.
+     * @throws IOException If there is an error while reading the text or its format is incorrect.
+     */
+    protected Grid readGrid(String filename, BufferedReader reader) throws IOException {
+        return readGrid(reader);
+    }
 
-        BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
+    /**
+     * Reads the grid from a reader and creates it. Lines are skipped up to "TRACK", then the
+     * symbols are converted as they are read, without keeping the lines; every row ends at a line break.
+     *
+     * @param reader Reader containing the grid.
+     * @return The parsed grid.
+     * @throws IOException If there is an error while reading or the format is incorrect.
+     */
+    protected Grid readGrid(BufferedReader reader) throws IOException {
         String line;
-        boolean hasGridStarted = false;
-        while ((line = br.readLine()) != null) {
-            if (!hasGridStarted) {
-                hasGridStarted = line.equals("TRACK");
-                continue;
+        do {
+            line = reader.readLine();
+        } while (line != null && !line.equals("TRACK"));
+
+        byte[] states = new byte[1024];
+        int[] rowLengths = new int[64];
+        int size = 0;
+        int height = 0;
+        int width = 0;
+        int rowStart = 0;
+        char[] buffer = new char[8192];
+        boolean afterCarriageReturn = false;
+
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char symbol = buffer[i];
+                if (symbol == '\n' && afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    continue;
+                }
+                afterCarriageReturn = symbol == '\r';
+
+                if (symbol == '\n' || symbol == '\r') {
+                    if (height == rowLengths.length) rowLengths = Arrays.copyOf(rowLengths, 2 * height);
+                    rowLengths[height++] = size - rowStart;
+                    width = Math.max(width, size - rowStart);
+                    rowStart = size;
+                } else {
+                    if (size == states.length) states = Arrays.copyOf(states, 2 * size);
+                    states[size++] = (byte) symbolToState(symbol).ordinal();
+                }
             }
-            rows.add(line.toCharArray());
+        }
+        //the last row may have no line break
+        if (size > rowStart) {
+            if (height == rowLengths.length) rowLengths = Arrays.copyOf(rowLengths, height + 1);
+            rowLengths[height++] = size - rowStart;
+            width = Math.max(width, size - rowStart);
         }
 
-        return rows;
+        if (width == 0) {
+            throw new IncorrectConfigurationException("The file does not contain a track.");
+        }
+        return createGrid(padRows(states, rowLengths, height, width), width, height);
     }
 
     /**
-     * Determines the maximum width among all rows of the grid.
+     * Lays the rows out in a rectangle, filling the rows shorter than the width with OFFTRACK cells.
+     * If all rows are as wide as the grid, the states are already in place and are only trimmed.
      *
-     * @param rows A list of character arrays where each array represents a row of the grid.
-     * @return The maximum width among all rows.
-     */
-    private int findMaxWidth(List<char[]> rows) {
-        int maxLength = 0;
-        for (char[] row : rows) {
-            if (maxLength < row.length) {
-                maxLength = row.length;
-            }
+     * @param states     Ordinals of the cell states, one row after the other.
+     * @param rowLengths Length of each row.
+     * @param height     Number of rows.
+     * @param width      Length of the longest row.
+     * @return Ordinals of the cell states, width * height long.
+     */
+    private static byte[] padRows(byte[] states, int[] rowLengths, int height, int width) {
+        byte[] grid = new byte[width * height];
+        int from = 0;
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(states, from, grid, row * width, rowLengths[row]);
+            Arrays.fill(grid, row * width + rowLengths[row], (row + 1) * width, (byte) CellState.OFFTRACK.ordinal());
+            from += rowLengths[row];
         }
-        return maxLength;
+        return grid;
     }
 
     /**
-     * Creates a Grid object from the list of rows and the specified width. Rows shorter than
-     * the width will be filled with OFFTRACK cells.
+     * Creates a Grid object from the ordinals of its cell states.
      *
-     * @param rows  A list of character arrays where each array represents a row of the grid.
-     * @param width The width of the grid (maximum row length).
-     * @return A Grid object initialized based on the provided rows and width.
+     * @param states Ordinals of the cell states, row after row. Its length is width * height.
+     * @param width  The width of the grid (maximum row length).
+     * @param height The height of the grid.
+     * @return A Grid object initialized based on the provided states.
      * @throws IOException If there is an error while creating the grid.
      */
-    private Grid createGrid(List<char[]> rows, int width) throws IOException {
-        Cell[][] grid = new Cell[rows.size()][width];
+    protected Grid createGrid(byte[] states, int width, int height) throws IOException {
+        CellState[] values = CellState.values();
+        Cell[][] grid = new Cell[height][width];
 
-        for (int i = 0; i < rows.size(); i++) {
+        for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
-                if (j < rows.get(i).length) {
-                    grid[i][j] = symbolToCell(rows.get(i)[j]);
-                } else {
-                    grid[i][j] = symbolToCell('X');
-                }
+                grid[i][j] = new Cell(values[states[i * width + j]]);
             }
         }
 
@@ -146,18 +248,30 @@ public class ArrayGridInitializerFromTxt implements GridInitializerFromTxt {
     }
 
     /**
-     * Converts a symbol character to a Cell object representing its state.
+     * Stores the parsed grid, computing its distance field if requested.
+     *
+     * @param grid Parsed grid.
+     */
+    private void setGrid(Grid grid) {
+        this.grid = grid;
+        if (computeDistances) {
+            grid.getDistanceField();
+        }
+    }
+
+    /**
+     * Converts a symbol character to the state it represents.
      *
      * @param symbol The symbol character representing the state of a cell.
-     * @return A Cell object representing the state indicated by the symbol.
+     * @return The state indicated by the symbol.
      * @throws IncorrectConfigurationException If the symbol does not correspond to a valid state.
      */
-    private Cell symbolToCell(char symbol) throws IOException {
+    protected CellState symbolToState(char symbol) throws IOException {
         return switch (symbol) {
-            case 'R' -> new Cell(CellState.TRACK);
-            case 'S' -> new Cell(CellState.START);
-            case 'E' -> new Cell(CellState.END);
-            case 'X' -> new Cell(CellState.OFFTRACK);
+            case 'R' -> CellState.TRACK;
+            case 'S' -> CellState.START;
+            case 'E' -> CellState.END;
+            case 'X' -> CellState.OFFTRACK;
             default -> throw new IncorrectConfigurationException("The symbol " + symbol + " is not valid.");
         };
 
@@ -146,6 +146,6 @@ public class Cell implements Cloneable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(state, player);
+        return Objects.hash(state, getPlayer());
     }
 }
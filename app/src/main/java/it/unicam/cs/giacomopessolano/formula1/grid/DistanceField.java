@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable field of the shortest walking distances from every cell of a grid to the nearest END cell.
+ * Walks move horizontally or vertically and can't pass OFFTRACK cells, so END cells have distance 0 and
+ * cells that can't reach the finish line have distance UNREACHABLE.
+ * <p>
+ * The field is computed with a breadth-first search that starts from all END cells at once. Large grids
+ * expand each level of the search in parallel: cells are claimed with a compare-and-set, so every cell
+ * is added to the next level exactly once.
+ */
+public final class DistanceField {
+
+    /**
+     * Distance of the cells that can't reach an END cell.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * Number of cells from which the search is run in parallel.
+     */
+    private static final int PARALLEL_CELLS = 1 << 20;
+    /**
+     * Number of frontier cells each parallel task expands.
+     */
+    private static final int CHUNK = 4096;
+    /**
+     * Atomic access to the elements of the distances array.
+     */
+    private static final VarHandle DISTANCES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Distances of the cells, row after row.
+     */
+    private final int[] distances;
+    /**
+     * Field's width.
+     */
+    private final int width;
+    /**
+     * Field's height.
+     */
+    private final int height;
+
+    /**
+     * Constructs a field from the distances of its cells.
+     *
+     * @param distances Distances of the cells, row after row.
+     * @param width Field's width.
+     * @param height Field's height.
+     */
+    private DistanceField(int[] distances, int width, int height) {
+        this.distances = distances;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Computes the distance field of a grid, in parallel if the grid is large.
+     *
+     * @param grid Grid to measure.
+     * @return The grid's distance field.
+     */
+    public static DistanceField compute(Grid grid) {
+        assert grid != null;
+        boolean parallel = (long) grid.getWidth() * grid.getHeight() >= PARALLEL_CELLS
+                && Runtime.getRuntime().availableProcessors() > 1;
+        return compute(grid, parallel);
+    }
+
+    /**
+     * Computes the distance field of a grid.
+     *
+     * @param grid Grid to measure.
+     * @param parallel True to expand large levels of the search in parallel.
+     * @return The grid's distance field.
+     */
+    public static DistanceField compute(Grid grid, boolean parallel) {
+        assert grid != null;
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int[] distances = new int[width * height];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int[] frontier = new int[width * height];
+        int size = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (grid.getState(x, y) == CellState.END) {
+                    distances[y * width + x] = 0;
+                    frontier[size++] = y * width + x;
+                }
+            }
+        }
+
+        if (parallel) {
+            expandParallel(grid, distances, Arrays.copyOf(frontier, size));
+        } else {
+            expand(grid, distances, frontier, size);
+        }
+        return new DistanceField(distances, width, height);
+    }
+
+    /**
+     * Returns the distance of the cell at the given coordinates.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @return Distance from the nearest END cell, or UNREACHABLE.
+     */
+    public int getDistance(int x, int y) {
+        return distances[y * width + x];
+    }
+
+    /**
+     * Returns the distance of the cell at the given index.
+     *
+     * @param index Index of the cell, y * width + x.
+     * @return Distance from the nearest END cell, or UNREACHABLE.
+     */
+    public int getDistance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Returns the field's width.
+     *
+     * @return Field's width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the field's height.
+     *
+     * @return Field's height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Runs the search on a single thread, using the array as a queue.
+     *
+     * @param grid Grid to measure.
+     * @param distances Distances found so far.
+     * @param queue Queue holding the END cells.
+     * @param tail Number of END cells.
+     */
+    private static void expand(Grid grid, int[] distances, int[] queue, int tail) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            int x = cell % width;
+            int y = cell / width;
+            int next = distances[cell] + 1;
+            if (x > 0 && claim(grid, distances, x - 1, y, next)) queue[tail++] = cell - 1;
+            if (x < width - 1 && claim(grid, distances, x + 1, y, next)) queue[tail++] = cell + 1;
+            if (y > 0 && claim(grid, distances, x, y - 1, next)) queue[tail++] = cell - width;
+            if (y < height - 1 && claim(grid, distances, x, y + 1, next)) queue[tail++] = cell + width;
+        }
+    }
+
+    /**
+     * Runs the search one level at a time, splitting every level in chunks expanded in parallel.
+     *
+     * @param grid Grid to measure.
+     * @param distances Distances found so far.
+     * @param frontier END cells.
+     */
+    private static void expandParallel(Grid grid, int[] distances, int[] frontier) {
+        for (int level = 1; frontier.length > 0; level++) {
+            int[] current = frontier;
+            int next = level;
+            int chunks = (current.length + CHUNK - 1) / CHUNK;
+            frontier = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> expandChunk(grid, distances, current, chunk * CHUNK,
+                            Math.min(current.length, (chunk + 1) * CHUNK), next))
+                    .flatMapToInt(Arrays::stream)
+                    .toArray();
+        }
+    }
+
+    /**
+     * Expands part of a level, claiming the neighbours that have no distance yet.
+     *
+     * @param grid Grid to measure.
+     * @param distances Distances found so far.
+     * @param level Cells of the current level.
+     * @param from First cell of the part, inclusive.
+     * @param to Last cell of the part, exclusive.
+     * @param next Distance of the next level.
+     * @return Cells claimed for the next level.
+     */
+    private static int[] expandChunk(Grid grid, int[] distances, int[] level, int from, int to, int next) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int[] claimed = new int[4 * (to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int cell = level[i];
+            int x = cell % width;
+            int y = cell / width;
+            if (x > 0 && claimAtomic(grid, distances, x - 1, y, next)) claimed[size++] = cell - 1;
+            if (x < width - 1 && claimAtomic(grid, distances, x + 1, y, next)) claimed[size++] = cell + 1;
+            if (y > 0 && claimAtomic(grid, distances, x, y - 1, next)) claimed[size++] = cell - width;
+            if (y < height - 1 && claimAtomic(grid, distances, x, y + 1, next)) claimed[size++] = cell + width;
+        }
+        return Arrays.copyOf(claimed, size);
+    }
+
+    /**
+     * Gives a distance to a cell if it had none and it is not OFFTRACK.
+     *
+     * @param grid Grid to measure.
+     * @param distances Distances found so far.
+     * @param x Horizontal coordinate of the cell.
+     * @param y Vertical coordinate of the cell.
+     * @param distance Distance of the cell.
+     * @return True if the cell was given the distance, false otherwise.
+     */
+    private static boolean claim(Grid grid, int[] distances, int x, int y, int distance) {
+        int cell = y * grid.getWidth() + x;
+        if (distances[cell] != UNREACHABLE || grid.getState(x, y) == CellState.OFFTRACK) return false;
+        distances[cell] = distance;
+        return true;
+    }
+
+    /**
+     * Gives a distance to a cell if it had none and it is not OFFTRACK. When more threads try to claim
+     * the same cell, only one of them succeeds.
+     *
+     * @param grid Grid to measure.
+     * @param distances Distances found so far.
+     * @param x Horizontal coordinate of the cell.
+     * @param y Vertical coordinate of the cell.
+     * @param distance Distance of the cell.
+     * @return True if the cell was given the distance by this call, false otherwise.
+     */
+    private static boolean claimAtomic(Grid grid, int[] distances, int x, int y, int distance) {
+        int cell = y * grid.getWidth() + x;
+        if ((int) DISTANCES.getOpaque(distances, cell) != UNREACHABLE
+                || grid.getState(x, y) == CellState.OFFTRACK) return false;
+        return DISTANCES.compareAndSet(distances, cell, UNREACHABLE, distance);
+    }
+
+    /**
+     * Compares a DistanceField to another object.
+     *
+     * @param obj Object to compare the field to.
+     * @return True if the object has the same size and distances, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj instanceof DistanceField other) {
+            return width == other.width && height == other.height && Arrays.equals(distances, other.distances);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on a DistanceField's size and distances.
+     *
+     * @return A hash value for this field.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(distances), width, height);
+    }
+}
@@ -27,6 +27,9 @@ package it.unicam.cs.giacomopessolano.formula1.grid;
 
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interface that describes a grid made of Cell objects where the game takes place.
  */
@@ -54,8 +57,160 @@ public interface Grid extends Cloneable {
      */
     int getHeight();
 
+    /**
+     * Returns the state of the cell at the given coordinates. Implementations that don't store Cell
+     * objects should override it to avoid creating a view for every access.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @return State of the cell.
+     */
+    default CellState getState(int x, int y) {
+        return getCell(new Position(x, y)).getState();
+    }
+
+    /**
+     * Checks whether the cell at the given coordinates is occupied by a player.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @return True if a player is on the cell, false otherwise.
+     */
+    default boolean isOccupied(int x, int y) {
+        return getCell(new Position(x, y)).isOccupied();
+    }
+
+    /**
+     * Returns the positions of the cells occupied by a player, sorted by row and then by column.
+     * The default implementation checks every cell; implementations that keep track of their players
+     * should override it, so that finding them doesn't depend on the size of the grid.
+     *
+     * @return Positions of the occupied cells.
+     */
+    default List<Position> getOccupiedPositions() {
+        List<Position> positions = new ArrayList<>();
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < getWidth(); x++) {
+                if (isOccupied(x, y)) positions.add(new Position(x, y));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns a CellState based on the cells traversed moving between two positions. All the cells
+     * between the start and the end are checked, horizontal movement before the vertical one; the
+     * starting cell is not checked. As soon as an END or OFFTRACK cell is passed it is returned.
+     * Both positions must be within the grid.
+     *
+     * @param fromX Horizontal coordinate where the movement starts.
+     * @param fromY Vertical coordinate where the movement starts.
+     * @param toX   Horizontal coordinate where the movement ends.
+     * @param toY   Vertical coordinate where the movement ends.
+     * @return END or OFFTRACK if any cell had their state, TRACK otherwise.
+     */
+    default CellState traverse(int fromX, int fromY, int toX, int toY) {
+        //1 or -1, which indicates the direction we move X/Y to reach the new X/Y coordinates
+        int stepX = Integer.compare(toX, fromX);
+        int stepY = Integer.compare(toY, fromY);
+
+        for (int x = fromX; x != toX; ) {
+            x += stepX;
+            CellState cell = getState(x, fromY);
+            if (cell == CellState.END || cell == CellState.OFFTRACK) return cell;
+        }
+        for (int y = fromY; y != toY; ) {
+            y += stepY;
+            CellState cell = getState(toX, y);
+            if (cell == CellState.END || cell == CellState.OFFTRACK) return cell;
+        }
+
+        return CellState.TRACK;
+    }
+
+    /**
+     * Returns the shortest walking distance of every cell from an END cell. The default implementation
+     * computes it on every call; implementations whose cells can't change state should compute it once
+     * and share it with their clones.
+     *
+     * @return The grid's distance field.
+     */
+    default DistanceField getDistanceField() {
+        return DistanceField.compute(this);
+    }
+
+    /**
+     * Returns the highest safe speed of every cell along each heading. The default implementation
+     * computes it on every call; implementations whose cells can't change state should compute it once
+     * and share it with their clones.
+     *
+     * @return The grid's speed limits.
+     */
+    default SpeedLimits getSpeedLimits() {
+        return SpeedLimits.compute(this);
+    }
+
+    /**
+     * Computes a fingerprint of the grid's size and cell states, which doesn't depend on its players.
+     * Files that only make sense for one track, like replays and policy tables, store it to be recognized.
+     *
+     * @return A 64-bit FNV-1a hash of the grid.
+     */
+    default long getFingerprint() {
+        int width = getWidth();
+        int height = getHeight();
+        long hash = 0xCBF29CE484222325L;
+        hash = (hash ^ width) * 0x100000001B3L;
+        hash = (hash ^ height) * 0x100000001B3L;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                hash = (hash ^ getState(x, y).ordinal()) * 0x100000001B3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the immutable topology of the grid, which grids on the same track share instead of copying
+     * their cells. The default implementation builds a new Track on every call; implementations whose
+     * cells can't change state should build it once and share it with their clones.
+     *
+     * @return The grid's track.
+     */
+    default Track getTrack() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] states = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                states[y * width + x] = (byte) getState(x, y).ordinal();
+            }
+        }
+        return new Track(states, width, height);
+    }
+
+    /**
+     * Checks if another grid has the same cell states as this one because both were cloned from the same
+     * grid. Renderers use it to redraw only the players when they are given a copy of the game.
+     * The default implementation only recognizes the grid itself.
+     *
+     * @param other Grid to compare.
+     * @return True if the grids share their track, false if they might not.
+     */
+    default boolean hasSameTrack(Grid other) {
+        return this == other;
+    }
+
     /**
      * {@inheritDoc}
      */
     Grid clone();
+
+    /**
+     * Creates a copy of the grid with no players on it, so players can be placed on it without cloning
+     * the ones of this grid first.
+     *
+     * @return A cloned grid with the same cell states and no players.
+     */
+    Grid cloneEmpty();
 }
@@ -27,6 +27,7 @@ package it.unicam.cs.giacomopessolano.formula1.grid;
 
 import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 
 /**
@@ -42,6 +43,28 @@ public interface GridInitializerFromTxt {
      */
     void initialize(String filename) throws IOException;
 
+    /**
+     * Parses grid from text in the same format as the .txt files.
+     * The reader is not closed.
+     *
+     * @param reader Reader positioned before the grid.
+     * @throws IOException If there is an error while reading the text or its format is incorrect.
+     */
+    void initialize(BufferedReader reader) throws IOException;
+
+    /**
+     * Parses the grid of a .txt file that was already opened by the caller. Initializers that keep the
+     * tracks they loaded by file name can skip the text; the others read it like initialize(reader).
+     * The reader is not closed.
+     *
+     * @param filename Name of the .txt file.
+     * @param reader   Reader of the file, positioned before the grid.
+     * @throws IOException If there is an error while reading the text or its format is incorrect.
+     */
+    default void initialize(String filename, BufferedReader reader) throws IOException {
+        initialize(reader);
+    }
+
     /**
      * Returns the gird if initialized.
      *
@@ -0,0 +1,251 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+
+import java.util.Arrays;
+
+/**
+ * Map from cell indexes to the players occupying them, stored in two parallel arrays with open
+ * addressing. Keys are primitive ints, so lookups don't allocate. A game has few players, so the map
+ * is small and copying it is cheap.
+ */
+class OccupancyMap {
+
+    /**
+     * Marks an empty slot.
+     */
+    private static final int EMPTY = -1;
+    /**
+     * Cell indexes, or EMPTY.
+     */
+    private int[] keys;
+    /**
+     * Players, in the slot of their cell index.
+     */
+    private Player[] values;
+    /**
+     * Number of occupied cells.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty OccupancyMap.
+     */
+    OccupancyMap() {
+        this(8);
+    }
+
+    /**
+     * Constructs an empty OccupancyMap with the given number of slots.
+     *
+     * @param capacity Number of slots. Must be a power of two.
+     */
+    private OccupancyMap(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Player[capacity];
+    }
+
+    /**
+     * Returns the player on a cell.
+     *
+     * @param index Index of the cell.
+     * @return The player on the cell, or null if the cell is empty.
+     */
+    Player get(int index) {
+        int slot = find(index);
+        return keys[slot] == EMPTY ? null : values[slot];
+    }
+
+    /**
+     * Checks whether a cell is occupied.
+     *
+     * @param index Index of the cell.
+     * @return True if a player is on the cell, false otherwise.
+     */
+    boolean contains(int index) {
+        return keys[find(index)] != EMPTY;
+    }
+
+    /**
+     * Returns the indexes of the occupied cells in ascending order.
+     *
+     * @return Indexes of the occupied cells.
+     */
+    int[] indexes() {
+        int[] indexes = new int[size];
+        int count = 0;
+        for (int key : keys) {
+            if (key != EMPTY) indexes[count++] = key;
+        }
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    /**
+     * Puts a player on a cell, replacing the previous one.
+     *
+     * @param index  Index of the cell.
+     * @param player Player to put on the cell.
+     */
+    void put(int index, Player player) {
+        assert index >= 0;
+        assert player != null;
+
+        int slot = find(index);
+        if (keys[slot] == EMPTY) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                slot = find(index);
+            }
+            keys[slot] = index;
+            size++;
+        }
+        values[slot] = player;
+    }
+
+    /**
+     * Removes the player from a cell, if any.
+     *
+     * @param index Index of the cell.
+     */
+    void remove(int index) {
+        int slot = find(index);
+        if (keys[slot] == EMPTY) return;
+
+        //shifts back the following entries of the cluster, so that no lookup stops early
+        int mask = keys.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == EMPTY) break;
+            int home = hash(keys[next]) & mask;
+            //the entry can fill the hole only if its home slot is not between the hole and the entry
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        keys[slot] = EMPTY;
+        values[slot] = null;
+        size--;
+    }
+
+    /**
+     * Creates a copy of the map with clones of its players.
+     *
+     * @return A map with the same cells occupied by clones of the players.
+     */
+    OccupancyMap deepCopy() {
+        OccupancyMap copy = new OccupancyMap(keys.length);
+        System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) copy.values[i] = values[i].clone();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Finds the slot of a cell index, or the empty slot where it would be inserted.
+     *
+     * @param index Index of the cell.
+     * @return Slot of the index.
+     */
+    private int find(int index) {
+        int mask = keys.length - 1;
+        int slot = hash(index) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the number of slots.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        Player[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new Player[oldKeys.length * 2];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a cell index, so that neighbouring cells don't cluster.
+     *
+     * @param index Index of the cell.
+     * @return Hash of the index.
+     */
+    private static int hash(int index) {
+        int h = index * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Compares an OccupancyMap to another object.
+     *
+     * @param obj Object to compare the map to.
+     * @return True if the object has the same players on the same cells, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof OccupancyMap other) || size != other.size) return false;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && !values[i].equals(other.get(keys[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns hash value calculated on the occupied cells and their players.
+     *
+     * @return A hash value for this map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) hash += keys[i] ^ values[i].hashCode();
+        }
+        return hash;
+    }
+}
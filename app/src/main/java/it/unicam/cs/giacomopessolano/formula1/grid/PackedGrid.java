@@ -0,0 +1,334 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementation of the Grid interface that stores the cell states as bytes in a single row-major array
+ * and keeps the players in a separate map indexed by cell. Only the occupied cells cost an object, so
+ * very large tracks take about a byte per cell, and checking a cell's state or occupancy never allocates.
+ * <p>
+ * The states belong to an immutable Track that can be shared by many grids: each grid only owns
+ * the players placed on it. Cells returned by getCell are views on the grid: occupying or flushing them
+ * updates the grid.
+ */
+public class PackedGrid implements Grid {
+
+    /**
+     * Shared topology of the grid.
+     */
+    private final Track track;
+    /**
+     * Players on the grid, indexed by the cell they occupy.
+     */
+    private final OccupancyMap occupants;
+    /**
+     * Grid's width.
+     */
+    private final int width;
+    /**
+     * Grid's height.
+     */
+    private final int height;
+
+    /**
+     * Constructs an empty PackedGrid from the ordinals of its cell states.
+     *
+     * @param states Ordinals of the cell states, row after row. Its length must be width * height.
+     * @param width  Grid's width.
+     * @param height Grid's height.
+     */
+    public PackedGrid(byte[] states, int width, int height) {
+        this(new Track(states, width, height));
+    }
+
+    /**
+     * Constructs an empty PackedGrid on a shared track.
+     *
+     * @param track Topology of the grid.
+     */
+    public PackedGrid(Track track) {
+        this(track, new OccupancyMap());
+    }
+
+    /**
+     * Constructs a PackedGrid with the given track and occupants.
+     *
+     * @param track     Topology of the grid.
+     * @param occupants Players on the grid indexed by cell.
+     */
+    private PackedGrid(Track track, OccupancyMap occupants) {
+        assert track != null;
+        assert occupants != null;
+
+        this.track = track;
+        this.width = track.getWidth();
+        this.height = track.getHeight();
+        this.occupants = occupants;
+    }
+
+    /**
+     * Returns a view of the cell at the given position.
+     *
+     * @param position Position on the grid.
+     * @return Cell on the given Position's coordinates.
+     */
+    @Override
+    public Cell getCell(Position position) {
+        assert position != null;
+        assert position.x() >= 0 && position.x() < width;
+        assert position.y() >= 0 && position.y() < height;
+
+        int index = position.y() * width + position.x();
+        return new PackedCell(track.getState(index), index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CellState getState(int x, int y) {
+        return track.getState(y * width + x);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isOccupied(int x, int y) {
+        return occupants.contains(y * width + x);
+    }
+
+    /**
+     * Returns the positions of the cells occupied by a player, read from the occupants without checking
+     * the cells.
+     *
+     * @return Positions of the occupied cells.
+     */
+    @Override
+    public List<Position> getOccupiedPositions() {
+        int[] indexes = occupants.indexes();
+        List<Position> positions = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            positions.add(new Position(index % width, index / width));
+        }
+        return positions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the distance field of the track, which is computed once and shared by every grid on it.
+     *
+     * @return The track's distance field.
+     */
+    @Override
+    public DistanceField getDistanceField() {
+        return track.getDistanceField();
+    }
+
+    /**
+     * Returns the speed limits of the track, which are computed once and shared by every grid on it.
+     *
+     * @return The track's speed limits.
+     */
+    @Override
+    public SpeedLimits getSpeedLimits() {
+        return track.getSpeedLimits();
+    }
+
+    /**
+     * Returns the fingerprint of the track, which is computed once and shared by every grid on it.
+     *
+     * @return A 64-bit FNV-1a hash of the grid.
+     */
+    @Override
+    public long getFingerprint() {
+        return track.getFingerprint();
+    }
+
+    /**
+     * Checks if another grid is a PackedGrid on the same track, or an ArrayGrid whose getTrack() returns it.
+     *
+     * @param other Grid to compare.
+     * @return True if the grids share their track, false otherwise.
+     */
+    @Override
+    public boolean hasSameTrack(Grid other) {
+        if (other instanceof ArrayGrid array) {
+            return array.hasSameTrack(this);
+        }
+        return other instanceof PackedGrid packed && packed.track == track;
+    }
+
+    /**
+     * Returns the track shared by this grid.
+     *
+     * @return Topology of the grid.
+     */
+    @Override
+    public Track getTrack() {
+        return track;
+    }
+
+    /**
+     * Creates a copy of the grid with clones of its players. The track is immutable, so the copy
+     * shares it with the original and the cost depends only on the number of players.
+     *
+     * @return A cloned PackedGrid with independent occupants.
+     */
+    @Override
+    public PackedGrid clone() {
+        return new PackedGrid(track, occupants.deepCopy());
+    }
+
+    /**
+     * Creates an empty grid on the same track, whose cost doesn't depend on the size of the track.
+     *
+     * @return A PackedGrid with the same track and no players.
+     */
+    @Override
+    public PackedGrid cloneEmpty() {
+        return new PackedGrid(track);
+    }
+
+    /**
+     * Compares a PackedGrid to another object.
+     *
+     * @param obj Object to compare the PackedGrid to.
+     * @return True if the object has the same track and players, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof PackedGrid other) {
+            return track.equals(other.track) && occupants.equals(other.occupants);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on a PackedGrid's data structures.
+     *
+     * @return A hash value for this grid.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(track, occupants);
+    }
+
+    /**
+     * Cell that reads and writes its player on the grid that created it.
+     */
+    private class PackedCell extends Cell {
+
+        /**
+         * Index of the cell in the grid.
+         */
+        private final int index;
+
+        /**
+         * Constructs a view of the cell at the given index.
+         *
+         * @param state State of the cell.
+         * @param index Index of the cell in the grid.
+         */
+        private PackedCell(CellState state, int index) {
+            super(state);
+            this.index = index;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void occupy(Player player) {
+            if (player == null) {
+                occupants.remove(index);
+            } else {
+                occupants.put(index, player);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isOccupied() {
+            return occupants.contains(index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void flushPlayer() {
+            occupants.remove(index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Player getPlayer() {
+            return occupants.get(index);
+        }
+
+        /**
+         * Creates a detached copy of the cell, which no longer reads or writes the grid.
+         *
+         * @return A Cell with the same state and a clone of the player (if occupied).
+         */
+        @Override
+        public Cell clone() {
+            Cell cloned = new Cell(getState());
+            Player player = getPlayer();
+            if (player != null) {
+                cloned.occupy(player.clone());
+            }
+            return cloned;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Extension of ArrayGridInitializerFromTxt that reads the same .txt format but creates a PackedGrid,
+ * which is better suited for very large tracks.
+ * <p>
+ * Tracks are immutable, so each file is parsed only the first time it's requested: later
+ * initializations create an empty grid on the already loaded track. The distance field, when
+ * requested, is attached to the track and computed only once as well. A file opened by the caller is
+ * not read either when its track is loaded. Grids read from a reader without a file name are not cached.
+ */
+public class PackedGridInitializerFromTxt extends ArrayGridInitializerFromTxt {
+
+    /**
+     * Tracks already loaded, by file name.
+     */
+    private static final Map<String, Track> TRACKS = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an initializer that leaves the distance field to be computed on first use.
+     */
+    public PackedGridInitializerFromTxt() {
+        super();
+    }
+
+    /**
+     * Constructs an initializer that can compute the distance field when the grid is loaded.
+     *
+     * @param computeDistances True to compute the distance field when the grid is loaded.
+     */
+    public PackedGridInitializerFromTxt(boolean computeDistances) {
+        super(computeDistances);
+    }
+
+    /**
+     * Returns an empty PackedGrid on the file's track, parsing the file only if the track isn't
+     * loaded yet.
+     *
+     * @param filename Name of the .txt file.
+     * @return A PackedGrid on the file's track.
+     * @throws IOException If there is an error while reading the file or its format is incorrect.
+     */
+    @Override
+    protected Grid loadGrid(String filename) throws IOException {
+        Track track = TRACKS.get(filename);
+        return track == null ? super.loadGrid(filename) : new PackedGrid(track);
+    }
+
+    /**
+     * Returns an empty PackedGrid on the file's track, reading the text only if the track isn't
+     * loaded yet.
+     *
+     * @param filename Name of the .txt file.
+     * @param reader   Reader of the file, positioned before the grid.
+     * @return A PackedGrid on the file's track.
+     * @throws IOException If there is an error while reading the text or its format is incorrect.
+     */
+    @Override
+    protected Grid readGrid(String filename, BufferedReader reader) throws IOException {
+        Track track = TRACKS.get(filename);
+        if (track == null) {
+            PackedGrid grid = (PackedGrid) readGrid(reader);
+            //if another thread loaded the same file in the meantime, its track is kept
+            track = TRACKS.computeIfAbsent(filename, key -> grid.getTrack());
+        }
+
+        return new PackedGrid(track);
+    }
+
+    /**
+     * Creates a PackedGrid that uses the ordinals of the cell states directly.
+     *
+     * @param states Ordinals of the cell states, row after row. Its length is width * height.
+     * @param width  The width of the grid (maximum row length).
+     * @param height The height of the grid.
+     * @return A PackedGrid initialized based on the provided states.
+     */
+    @Override
+    protected Grid createGrid(byte[] states, int width, int height) {
+        return new PackedGrid(states, width, height);
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable table of the highest safe speed of every cell of a grid along the four headings UP, DOWN,
+ * LEFT and RIGHT. A car whose speed along a heading exceeds the limit of its cell can't stop turning
+ * towards the nearest wall in time: it is doomed to crash, even if its next move is still possible.
+ * Looking a state up takes constant time, so search strategies can drop doomed states before expanding them.
+ * <p>
+ * Every move passes its horizontal cells in the starting row and then its vertical cells in the landing
+ * column. The limit of a heading is therefore found going backwards from the far side of the grid: a car
+ * moving RIGHT at speed s must move between s - 1 and s + 1 cells right in its own row, and land where some
+ * cell of the same column, reachable without crossing a wall, allows that speed. The vertical velocity is
+ * ignored, which makes the limits optimistic: a state above them can never finish, but a state within them
+ * might still be doomed.
+ */
+public final class SpeedLimits {
+
+    /**
+     * Limit of the headings along which any speed is safe.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    /**
+     * Stored limit that stands for UNLIMITED.
+     */
+    private static final byte SATURATED = Byte.MAX_VALUE;
+    /**
+     * Class of the cells that a car can cross and stop on.
+     */
+    private static final byte PASSABLE = 0;
+    /**
+     * Class of the END cells.
+     */
+    private static final byte FINISH = 1;
+    /**
+     * Class of the OFFTRACK cells.
+     */
+    private static final byte WALL = 2;
+
+    /**
+     * Limits of the cells, four per cell in the order of the UP, DOWN, LEFT and RIGHT ordinals.
+     */
+    private final byte[] limits;
+    /**
+     * Table's width.
+     */
+    private final int width;
+    /**
+     * Table's height.
+     */
+    private final int height;
+
+    /**
+     * Constructs a table from the limits of its cells.
+     *
+     * @param limits Limits of the cells, four per cell.
+     * @param width Table's width.
+     * @param height Table's height.
+     */
+    private SpeedLimits(byte[] limits, int width, int height) {
+        this.limits = limits;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Computes the speed limits of a grid. The cost is proportional to the number of cells times the
+     * highest speed the grid allows.
+     *
+     * @param grid Grid to measure.
+     * @return The grid's speed limits.
+     */
+    public static SpeedLimits compute(Grid grid) {
+        assert grid != null;
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        byte[] classes = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                CellState state = grid.getState(x, y);
+                classes[y * width + x] = state == CellState.END ? FINISH
+                        : state == CellState.OFFTRACK ? WALL : PASSABLE;
+            }
+        }
+
+        byte[] limits = new byte[4 * width * height];
+        computeAcross(classes, width, height, 1, limits, Direction.RIGHT.ordinal());
+        computeAcross(classes, width, height, -1, limits, Direction.LEFT.ordinal());
+        computeAlong(classes, width, height, 1, limits, Direction.DOWN.ordinal());
+        computeAlong(classes, width, height, -1, limits, Direction.UP.ordinal());
+        return new SpeedLimits(limits, width, height);
+    }
+
+    /**
+     * Returns the highest safe speed of a cell along a heading.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @param heading UP, DOWN, LEFT or RIGHT.
+     * @return Highest safe speed, UNLIMITED if any speed is safe, 0 if the cell can't be stopped on.
+     */
+    public int getLimit(int x, int y, Direction heading) {
+        assert heading.ordinal() <= Direction.RIGHT.ordinal();
+        byte limit = limits[4 * (y * width + x) + heading.ordinal()];
+        return limit == SATURATED ? UNLIMITED : limit;
+    }
+
+    /**
+     * Checks if a car that stopped on a cell with the given velocity is doomed to crash. The result is
+     * only meaningful for TRACK and START cells.
+     *
+     * @param x Horizontal coordinate of the car.
+     * @param y Vertical coordinate of the car.
+     * @param moveX Horizontal component of the car's last move.
+     * @param moveY Vertical component of the car's last move.
+     * @return True if the car can't avoid crashing, false if it might.
+     */
+    public boolean isDoomed(int x, int y, int moveX, int moveY) {
+        int base = 4 * (y * width + x);
+        return moveY < 0 && exceeds(-moveY, limits[base + Direction.UP.ordinal()])
+                || moveY > 0 && exceeds(moveY, limits[base + Direction.DOWN.ordinal()])
+                || moveX < 0 && exceeds(-moveX, limits[base + Direction.LEFT.ordinal()])
+                || moveX > 0 && exceeds(moveX, limits[base + Direction.RIGHT.ordinal()]);
+    }
+
+    /**
+     * Returns the table's width.
+     *
+     * @return Table's width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the table's height.
+     *
+     * @return Table's height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if a speed is above a stored limit.
+     *
+     * @param speed Positive speed.
+     * @param limit Stored limit.
+     * @return True if the speed is not safe, false otherwise.
+     */
+    private static boolean exceeds(int speed, byte limit) {
+        return speed > limit && limit != SATURATED;
+    }
+
+    /**
+     * Computes the limits of a horizontal heading, one column at a time starting from the far side.
+     * After a column is done, each vertical run of passable cells in it gets the highest limit of its cells,
+     * which is what a car landing anywhere in the run can reach.
+     *
+     * @param classes Classes of the cells.
+     * @param width Grid's width.
+     * @param height Grid's height.
+     * @param step 1 for RIGHT, -1 for LEFT.
+     * @param limits Limits being computed.
+     * @param heading Ordinal of the heading.
+     */
+    private static void computeAcross(byte[] classes, int width, int height, int step, byte[] limits, int heading) {
+        int[] runs = new int[width * height];
+        boolean[] finishes = new boolean[width * height];
+        for (int y = 0; y < height; y++) {
+            int run = 0;
+            boolean finish = false;
+            for (int x = step > 0 ? width - 1 : 0; x >= 0 && x < width; x -= step) {
+                int cell = y * width + x;
+                runs[cell] = run;
+                finishes[cell] = finish;
+                run = classes[cell] == PASSABLE ? run + 1 : 0;
+                finish = classes[cell] == FINISH || classes[cell] == PASSABLE && finish;
+            }
+        }
+
+        byte[] reachable = new byte[width * height];
+        boolean[] winning = new boolean[width * height];
+        for (int x = step > 0 ? width - 1 : 0; x >= 0 && x < width; x -= step) {
+            int extent = Math.min(step > 0 ? width - 1 - x : x, SATURATED - 1);
+            for (int y = 0; y < height; y++) {
+                int cell = y * width + x;
+                if (classes[cell] != PASSABLE) continue;
+                int best = 0;
+                for (int speed = extent; speed > 0; speed--) {
+                    int landing = cell + step * speed;
+                    if (speed <= runs[cell] ? winning[landing] || reachable[landing] >= speed : finishes[cell]) {
+                        best = speed;
+                        break;
+                    }
+                }
+                limits[4 * cell + heading] = (byte) (best + 1);
+            }
+            spreadColumn(classes, width, height, x, limits, heading, reachable, winning);
+        }
+    }
+
+    /**
+     * Gives every cell of each vertical run of passable cells in a column the highest limit of the run,
+     * and marks the runs that touch an END cell.
+     *
+     * @param classes Classes of the cells.
+     * @param width Grid's width.
+     * @param height Grid's height.
+     * @param x Column to scan.
+     * @param limits Limits computed so far.
+     * @param heading Ordinal of the heading.
+     * @param reachable Highest limit reachable from each cell.
+     * @param winning Whether each cell can reach an END cell.
+     */
+    private static void spreadColumn(byte[] classes, int width, int height, int x, byte[] limits, int heading,
+                                     byte[] reachable, boolean[] winning) {
+        for (int y = 0; y < height; ) {
+            if (classes[y * width + x] != PASSABLE) {
+                y++;
+                continue;
+            }
+            int top = y;
+            byte highest = 0;
+            while (y < height && classes[y * width + x] == PASSABLE) {
+                highest = (byte) Math.max(highest, limits[4 * (y * width + x) + heading]);
+                y++;
+            }
+            boolean finish = top > 0 && classes[(top - 1) * width + x] == FINISH
+                    || y < height && classes[y * width + x] == FINISH;
+            for (int row = top; row < y; row++) {
+                reachable[row * width + x] = highest;
+                winning[row * width + x] = finish;
+            }
+        }
+    }
+
+    /**
+     * Computes the limits of a vertical heading, one row at a time starting from the far side. The
+     * horizontal part of a move comes first, so all the cells of a horizontal run of passable cells share
+     * their limit: a car can start the vertical part from any of them.
+     *
+     * @param classes Classes of the cells.
+     * @param width Grid's width.
+     * @param height Grid's height.
+     * @param step 1 for DOWN, -1 for UP.
+     * @param limits Limits being computed.
+     * @param heading Ordinal of the heading.
+     */
+    private static void computeAlong(byte[] classes, int width, int height, int step, byte[] limits, int heading) {
+        int[] runs = new int[width * height];
+        boolean[] finishes = new boolean[width * height];
+        for (int x = 0; x < width; x++) {
+            int run = 0;
+            boolean finish = false;
+            for (int y = step > 0 ? height - 1 : 0; y >= 0 && y < height; y -= step) {
+                int cell = y * width + x;
+                runs[cell] = run;
+                finishes[cell] = finish;
+                run = classes[cell] == PASSABLE ? run + 1 : 0;
+                finish = classes[cell] == FINISH || classes[cell] == PASSABLE && finish;
+            }
+        }
+
+        for (int y = step > 0 ? height - 1 : 0; y >= 0 && y < height; y -= step) {
+            int extent = Math.min(step > 0 ? height - 1 - y : y, SATURATED - 1);
+            for (int x = 0; x < width; ) {
+                if (classes[y * width + x] != PASSABLE) {
+                    x++;
+                    continue;
+                }
+                int left = x;
+                while (x < width && classes[y * width + x] == PASSABLE) x++;
+                boolean finish = left > 0 && classes[y * width + left - 1] == FINISH
+                        || x < width && classes[y * width + x] == FINISH;
+
+                int best = finish ? extent : 0;
+                for (int speed = extent; speed > best; speed--) {
+                    for (int column = left; column < x && best == 0; column++) {
+                        int cell = y * width + column;
+                        int landing = cell + step * speed * width;
+                        if (speed <= runs[cell] ? limits[4 * landing + heading] >= speed : finishes[cell]) {
+                            best = speed;
+                        }
+                    }
+                }
+                for (int column = left; column < x; column++) {
+                    limits[4 * (y * width + column) + heading] = (byte) (best + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares a SpeedLimits to another object.
+     *
+     * @param obj Object to compare the table to.
+     * @return True if the object has the same size and limits, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj instanceof SpeedLimits other) {
+            return width == other.width && height == other.height && Arrays.equals(limits, other.limits);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on a SpeedLimits' size and limits.
+     *
+     * @return A hash value for this table.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(limits), width, height);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable topology of a track: the state of each cell and the indexes of the START and END cells.
+ * A track holds no players, so it can be loaded once and shared by every game played on it.
+ * <p>
+ * Cells are indexed row after row, so the cell at (x, y) has index y * width + x.
+ */
+public final class Track {
+
+    /**
+     * Cell states indexed by their ordinal.
+     */
+    private static final CellState[] STATES = CellState.values();
+    /**
+     * Ordinals of the cell states, row after row.
+     */
+    private final byte[] states;
+    /**
+     * Track's width.
+     */
+    private final int width;
+    /**
+     * Track's height.
+     */
+    private final int height;
+    /**
+     * Indexes of the START cells.
+     */
+    private final int[] startIndexes;
+    /**
+     * Indexes of the END cells.
+     */
+    private final int[] endIndexes;
+    /**
+     * Distance field of the track, computed on first use.
+     */
+    private volatile DistanceField distanceField;
+    /**
+     * Speed limits of the track, computed on first use.
+     */
+    private volatile SpeedLimits speedLimits;
+    /**
+     * Fingerprint of the track, computed on first use.
+     */
+    private volatile Long fingerprint;
+
+    /**
+     * Constructs a Track from the ordinals of its cell states. The array must not be modified afterwards.
+     *
+     * @param states Ordinals of the cell states, row after row. Its length must be width * height.
+     * @param width  Track's width.
+     * @param height Track's height.
+     */
+    public Track(byte[] states, int width, int height) {
+        assert states != null;
+        assert width > 0 && height > 0;
+        assert states.length == width * height;
+
+        this.states = states;
+        this.width = width;
+        this.height = height;
+        this.startIndexes = findIndexes(CellState.START);
+        this.endIndexes = findIndexes(CellState.END);
+    }
+
+    /**
+     * Constructs a Track whose START and END indexes are already known, so the states don't have to be
+     * scanned. None of the arrays must be modified afterwards.
+     *
+     * @param states       Ordinals of the cell states, row after row. Its length must be width * height.
+     * @param width        Track's width.
+     * @param height       Track's height.
+     * @param startIndexes Indexes of the START cells in ascending order.
+     * @param endIndexes   Indexes of the END cells in ascending order.
+     */
+    Track(byte[] states, int width, int height, int[] startIndexes, int[] endIndexes) {
+        assert states != null && startIndexes != null && endIndexes != null;
+        assert width > 0 && height > 0;
+        assert states.length == width * height;
+
+        this.states = states;
+        this.width = width;
+        this.height = height;
+        this.startIndexes = startIndexes;
+        this.endIndexes = endIndexes;
+    }
+
+    /**
+     * Returns the state of the cell at the given index.
+     *
+     * @param index Index of the cell.
+     * @return State of the cell.
+     */
+    public CellState getState(int index) {
+        return STATES[states[index]];
+    }
+
+    /**
+     * Returns the state of the cell at the given coordinates.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @return State of the cell.
+     */
+    public CellState getState(int x, int y) {
+        return STATES[states[y * width + x]];
+    }
+
+    /**
+     * Returns the ordinals of the cell states without copying them. The array must not be modified.
+     *
+     * @return Ordinals of the cell states, row after row.
+     */
+    byte[] getStates() {
+        return states;
+    }
+
+    /**
+     * Returns the track's width.
+     *
+     * @return Track's width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the track's height.
+     *
+     * @return Track's height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the indexes of the START cells in ascending order.
+     *
+     * @return Copy of the START indexes.
+     */
+    public int[] getStartIndexes() {
+        return startIndexes.clone();
+    }
+
+    /**
+     * Returns the indexes of the END cells in ascending order.
+     *
+     * @return Copy of the END indexes.
+     */
+    public int[] getEndIndexes() {
+        return endIndexes.clone();
+    }
+
+    /**
+     * Returns the fingerprint of the track, the same that Grid.getFingerprint computes for its grids.
+     * It's computed on first use; threads that ask for it at the same time compute the same value.
+     *
+     * @return A 64-bit FNV-1a hash of the track.
+     */
+    public long getFingerprint() {
+        Long value = fingerprint;
+        if (value == null) {
+            long hash = 0xCBF29CE484222325L;
+            hash = (hash ^ width) * 0x100000001B3L;
+            hash = (hash ^ height) * 0x100000001B3L;
+            //states are stored row after row, in the order the grid visits them
+            for (byte state : states) {
+                hash = (hash ^ state) * 0x100000001B3L;
+            }
+            value = hash;
+            fingerprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the shortest walking distance of every cell from an END cell. The field is computed
+     * the first time it's requested and then shared by every game on the track.
+     *
+     * @return The track's distance field.
+     */
+    public DistanceField getDistanceField() {
+        DistanceField field = distanceField;
+        if (field == null) {
+            synchronized (this) {
+                field = distanceField;
+                if (field == null) {
+                    field = DistanceField.compute(new PackedGrid(this));
+                    distanceField = field;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Returns the highest safe speed of every cell along each heading. The table is computed the first
+     * time it's requested and then shared by every game on the track.
+     *
+     * @return The track's speed limits.
+     */
+    public SpeedLimits getSpeedLimits() {
+        SpeedLimits limits = speedLimits;
+        if (limits == null) {
+            synchronized (this) {
+                limits = speedLimits;
+                if (limits == null) {
+                    limits = SpeedLimits.compute(new PackedGrid(this));
+                    speedLimits = limits;
+                }
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Looks for the indexes of all cells of a specific type.
+     *
+     * @param type CellState value to look for.
+     * @return Indexes of the cells of the specified type.
+     */
+    private int[] findIndexes(CellState type) {
+        byte ordinal = (byte) type.ordinal();
+        int count = 0;
+        for (byte state : states) {
+            if (state == ordinal) count++;
+        }
+
+        int[] indexes = new int[count];
+        int next = 0;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == ordinal) indexes[next++] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * Compares a Track to another object.
+     *
+     * @param obj Object to compare the Track to.
+     * @return True if the object has the same size and states, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj instanceof Track other) {
+            return width == other.width && height == other.height && Arrays.equals(states, other.states);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on a Track's size and states.
+     *
+     * @return A hash value for this track.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(states), width, height);
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Binary file holding a track and its player roster, which loads without parsing each cell.
+ * <p>
+ * The file starts with a header: the magic number "F1TK", the format version, the width and the
+ * height, the roster as length-prefixed UTF-8 text in the PLAYERS format of the .txt files, then the
+ * number and indexes of the START cells and of the END cells. The body follows, made of one byte per
+ * cell holding the ordinal of its state, row after row. All numbers are big-endian ints.
+ * <p>
+ * Files found on the file system, directly or through the class path, are memory-mapped and the body
+ * is copied into the track with a single bulk read, then checked in one pass against the header.
+ */
+public final class TrackFile {
+
+    /**
+     * Extension of the binary track files.
+     */
+    public static final String EXTENSION = ".f1b";
+    /**
+     * First four bytes of every file, "F1TK" in ASCII.
+     */
+    private static final int MAGIC = 0x4631544B;
+    /**
+     * Version of the format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Track stored in the file.
+     */
+    private final Track track;
+    /**
+     * Player roster, in the PLAYERS format of the .txt files.
+     */
+    private final String roster;
+
+    /**
+     * Constructs a TrackFile from a track and its roster.
+     *
+     * @param track Track to store.
+     * @param roster Player roster, starting with the line "PLAYERS".
+     */
+    public TrackFile(Track track, String roster) {
+        assert track != null;
+        assert roster != null;
+
+        this.track = track;
+        this.roster = roster;
+    }
+
+    /**
+     * Loads a binary track file, looking for it first on the file system and then on the class path.
+     *
+     * @param filename Name of the file.
+     * @return The loaded TrackFile.
+     * @throws IOException If the file is missing, can't be read or its format is incorrect.
+     */
+    public static TrackFile load(String filename) throws IOException {
+        if (!filename.endsWith(EXTENSION)) {
+            throw new IncorrectConfigurationException("File must have a " + EXTENSION + " extension.");
+        }
+
+        Path path = Path.of(filename);
+        if (Files.isRegularFile(path)) {
+            return map(path);
+        }
+
+        URL url = TrackFile.class.getClassLoader().getResource(filename);
+        if (url == null) {
+            throw new UnrecognizedFileException(filename + " not found.");
+        }
+        if (url.getProtocol().equals("file")) {
+            try {
+                return map(Path.of(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new UnrecognizedFileException(filename + " not found.");
+            }
+        }
+
+        //resources inside archives can't be mapped
+        try (InputStream inputStream = url.openStream()) {
+            return read(ByteBuffer.wrap(inputStream.readAllBytes()));
+        }
+    }
+
+    /**
+     * Converts a .txt file in the format read by the txt initializers to a TrackFile. The PLAYERS
+     * section is kept as it is, up to the empty line that ends it.
+     *
+     * @param filename Name of the .txt file.
+     * @return TrackFile with the same track and players.
+     * @throws IOException If there is an error while reading the file or its format is incorrect.
+     */
+    public static TrackFile fromTxt(String filename) throws IOException {
+        ArrayGridInitializerFromTxt gridInitializer = new PackedGridInitializerFromTxt();
+        gridInitializer.validateFileExtension(filename);
+        InputStream inputStream = TrackFile.class.getClassLoader().getResourceAsStream(filename);
+        if (inputStream == null) {
+            throw new UnrecognizedFileException(filename + " not found.");
+        }
+
+        StringBuilder roster = new StringBuilder();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream), 1 << 16)) {
+            String line;
+            boolean havePlayersStarted = false;
+            while ((line = br.readLine()) != null && !line.trim().isEmpty()) {
+                havePlayersStarted = havePlayersStarted || line.equals("PLAYERS");
+                if (havePlayersStarted) {
+                    roster.append(line).append('\n');
+                }
+            }
+            gridInitializer.initialize(br);
+        }
+        Track track = ((PackedGrid) gridInitializer.getGrid()).getTrack();
+
+        return new TrackFile(track, roster.toString());
+    }
+
+    /**
+     * Writes the track file, replacing any file at the same path.
+     *
+     * @param path Path of the file to write.
+     * @throws IOException If there is an error while writing the file.
+     */
+    public void write(Path path) throws IOException {
+        byte[] rosterBytes = roster.getBytes(StandardCharsets.UTF_8);
+        int[] starts = track.getStartIndexes();
+        int[] ends = track.getEndIndexes();
+
+        ByteBuffer header = ByteBuffer.allocate(4 * (7 + starts.length + ends.length) + rosterBytes.length);
+        header.putInt(MAGIC).putInt(VERSION).putInt(track.getWidth()).putInt(track.getHeight());
+        header.putInt(rosterBytes.length).put(rosterBytes);
+        header.putInt(starts.length);
+        for (int index : starts) header.putInt(index);
+        header.putInt(ends.length);
+        for (int index : ends) header.putInt(index);
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(track.getStates());
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+        }
+    }
+
+    /**
+     * Returns the stored track.
+     *
+     * @return Track of the file.
+     */
+    public Track getTrack() {
+        return track;
+    }
+
+    /**
+     * Returns the stored player roster.
+     *
+     * @return Roster in the PLAYERS format of the .txt files.
+     */
+    public String getRoster() {
+        return roster;
+    }
+
+    /**
+     * Memory-maps a file and reads it.
+     *
+     * @param path Path of the file.
+     * @return The loaded TrackFile.
+     * @throws IOException If the file can't be read or its format is incorrect.
+     */
+    private static TrackFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a track file from a buffer.
+     *
+     * @param buffer Content of the file.
+     * @return The loaded TrackFile.
+     * @throws IOException If the format is incorrect.
+     */
+    private static TrackFile read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new UnrecognizedFileException("The file is not a binary track.");
+            }
+            if (buffer.getInt() != VERSION) {
+                throw new UnrecognizedFileException("The binary track version is not supported.");
+            }
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int rosterLength = buffer.getInt();
+            if (rosterLength < 0 || rosterLength > buffer.remaining()) {
+                throw new IncorrectConfigurationException("The binary track is truncated or corrupted.");
+            }
+            byte[] rosterBytes = new byte[rosterLength];
+            buffer.get(rosterBytes);
+            int[] starts = readIndexes(buffer, width, height);
+            int[] ends = readIndexes(buffer, width, height);
+            if (width <= 0 || height <= 0 || buffer.remaining() != (long) width * height) {
+                throw new IncorrectConfigurationException("The binary track has the wrong size.");
+            }
+
+            byte[] states = new byte[width * height];
+            buffer.get(states);
+            checkBody(states, starts, ends);
+            Track track = new Track(states, width, height, starts, ends);
+            return new TrackFile(track, new String(rosterBytes, StandardCharsets.UTF_8));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IncorrectConfigurationException("The binary track is truncated or corrupted.");
+        }
+    }
+
+    /**
+     * Reads a count followed by that many cell indexes.
+     *
+     * @param buffer Content of the file.
+     * @param width Track's width.
+     * @param height Track's height.
+     * @return The indexes read.
+     * @throws IOException If an index is outside the track.
+     */
+    private static int[] readIndexes(ByteBuffer buffer, int width, int height) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new IncorrectConfigurationException("The binary track is truncated or corrupted.");
+        }
+        int[] indexes = new int[count];
+        buffer.asIntBuffer().get(indexes);
+        buffer.position(buffer.position() + 4 * indexes.length);
+        for (int index : indexes) {
+            if (index < 0 || index >= (long) width * height) {
+                throw new IncorrectConfigurationException("The binary track has a cell outside the grid.");
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Checks that every byte of the body is the ordinal of a state, and that the START and END cells of the
+     * body are exactly the ones listed in the header, in ascending order.
+     *
+     * @param states Body of the file.
+     * @param starts START indexes listed in the header.
+     * @param ends END indexes listed in the header.
+     * @throws IOException If a byte is not a state or the header doesn't match the body.
+     */
+    private static void checkBody(byte[] states, int[] starts, int[] ends) throws IOException {
+        int stateCount = CellState.values().length;
+        int start = 0;
+        int end = 0;
+        for (int index = 0; index < states.length; index++) {
+            int ordinal = states[index];
+            if (ordinal < 0 || ordinal >= stateCount) {
+                throw new IncorrectConfigurationException("The binary track has an invalid cell.");
+            }
+            if (ordinal == CellState.START.ordinal()) {
+                if (start == starts.length || starts[start++] != index) {
+                    throw new IncorrectConfigurationException("The binary track header doesn't match its cells.");
+                }
+            } else if (ordinal == CellState.END.ordinal()) {
+                if (end == ends.length || ends[end++] != index) {
+                    throw new IncorrectConfigurationException("The binary track header doesn't match its cells.");
+                }
+            }
+        }
+        if (start != starts.length || end != ends.length) {
+            throw new IncorrectConfigurationException("The binary track header doesn't match its cells.");
+        }
+    }
+
+    /**
+     * Compares a TrackFile to another object.
+     *
+     * @param obj Object to compare the file to.
+     * @return True if the object has the same track and roster, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof TrackFile other) {
+            return track.equals(other.track) && roster.equals(other.roster);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash value calculated on a TrackFile's track and roster.
+     *
+     * @return A hash value for this file.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(track, roster);
+    }
+}
@@ -25,9 +25,13 @@
 
 package it.unicam.cs.giacomopessolano.formula1.player;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Enumeration representing directions on a grid.
  * Each direction has associated x and y coordinate changes.
+ * Sets of directions can be represented as bit masks, where the bit of a direction is 1 << ordinal().
  */
 public enum Direction {
     UP(0, -1),
@@ -40,6 +44,15 @@ public enum Direction {
     DOWNRIGHT(1, 1),
     CENTER(0, 0);
 
+    /**
+     * All directions in declaration order, so that they don't have to be copied by values().
+     */
+    private static final Direction[] VALUES = values();
+    /**
+     * Number of directions.
+     */
+    public static final int COUNT = VALUES.length;
+
     private final int x;
     private final int y;
 
@@ -71,4 +84,28 @@ public enum Direction {
     public int y() {
         return y;
     }
+
+    /**
+     * Returns the direction with the given ordinal.
+     *
+     * @param ordinal Ordinal of the direction.
+     * @return The direction.
+     */
+    public static Direction fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Translates a bit mask of directions into a list.
+     *
+     * @param mask Bit mask where the bit of each direction is 1 << ordinal().
+     * @return List of the directions in the mask, in declaration order.
+     */
+    public static List<Direction> fromMask(int mask) {
+        List<Direction> directions = new ArrayList<>(Integer.bitCount(mask));
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            directions.add(VALUES[Integer.numberOfTrailingZeros(bits)]);
+        }
+        return directions;
+    }
 }
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from long keys to int values, used by search strategies so that visited
+ * states don't have to be boxed. Keys are spread with a multiplicative hash and collisions are
+ * resolved by linear probing; the table doubles when it is half full. Long.MIN_VALUE is reserved
+ * as the empty marker and cannot be used as a key.
+ */
+final class LongIntMap {
+
+    /**
+     * Key of the slots that are not in use.
+     */
+    private static final long EMPTY = Long.MIN_VALUE;
+    /**
+     * Keys of the map.
+     */
+    private long[] keys;
+    /**
+     * Values of the map, at the same index as their key.
+     */
+    private int[] values;
+    /**
+     * Number of keys in the map.
+     */
+    private int size;
+
+    /**
+     * Creates an empty map with room for the given number of keys before it grows.
+     *
+     * @param expected Number of keys expected.
+     */
+    LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Returns the value associated with a key.
+     *
+     * @param key Key to look for.
+     * @param missing Value returned if the key is not in the map.
+     * @return The key's value, or missing.
+     */
+    int get(long key, int missing) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+            if (keys[i] == EMPTY) return missing;
+        }
+    }
+
+    /**
+     * Associates a value with a key, replacing the previous one.
+     *
+     * @param key Key to insert.
+     * @param value Value of the key.
+     */
+    void put(long key, int value) {
+        assert key != EMPTY;
+        if (2 * (size + 1) > keys.length) {
+            grow();
+        }
+
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Removes every key while keeping the allocated table.
+     */
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return Number of keys.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the table and reinserts every key.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = slot(oldKeys[j], mask);
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * Returns the first slot to probe for a key.
+     *
+     * @param key Key to place.
+     * @param mask Table length minus one.
+     * @return Index of the slot.
+     */
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -25,6 +25,8 @@
 
 package it.unicam.cs.giacomopessolano.formula1.player;
 
+import java.util.SplittableRandom;
+
 /**
  * Interface that describes a generic player of the Formula 1 game.
  */
@@ -74,4 +76,13 @@ public interface Player extends Cloneable {
      * {@inheritDoc}
      */
     Player clone();
+
+    /**
+     * Creates a copy of the player whose strategy draws its random numbers from a generator split
+     * from the given one.
+     *
+     * @param random Generator to split.
+     * @return A copy of the player with its own strategy.
+     */
+    Player split(SplittableRandom random);
 }
@@ -42,7 +42,7 @@ import java.util.*;
  * The format of the input stream is as follows: the start of the grid is signaled by the string "PLAYERS"
  * and its end by an empty line; each player's attributes (NAME X-AXIS-POSITION Y-AXIS-POSITION
  * STRATEGY FIRST-MOVE) are specified on the same line, separated by spaces or tabs.
- * The permitted Strategies are DUMB;
+ * The permitted Strategies are DUMB, OPTIMAL, OPTIMAL_TABLE, MCTS;
  * the permitted First-Moves are UP, DOWN, LEFT, RIGHT, CENTER.
  */
 public class PlayerBotInitializerFromTxt implements PlayerInitializerFromTxt {
@@ -55,6 +55,28 @@ public class PlayerBotInitializerFromTxt implements PlayerInitializerFromTxt {
      * Parsed list of players.
      */
     private List<Player> players;
+    /**
+     * Number of trees grown in parallel by MCTS players, or 0 for StrategyMCTS's default.
+     */
+    private final int mctsWorkers;
+
+    /**
+     * Constructs a PlayerBotInitializerFromTxt whose MCTS players grow StrategyMCTS's default number of trees.
+     */
+    public PlayerBotInitializerFromTxt() {
+        this(0);
+    }
+
+    /**
+     * Constructs a PlayerBotInitializerFromTxt whose MCTS players grow a given number of trees in parallel.
+     * Games that are already played in parallel should use 1.
+     *
+     * @param mctsWorkers Number of trees grown in parallel by MCTS players, or 0 for StrategyMCTS's default.
+     */
+    public PlayerBotInitializerFromTxt(int mctsWorkers) {
+        assert mctsWorkers >= 0;
+        this.mctsWorkers = mctsWorkers;
+    }
 
     /**
      * Parses player list and their positions from an InputStream created from the file's path.
@@ -72,8 +94,41 @@ public class PlayerBotInitializerFromTxt implements PlayerInitializerFromTxt {
             throw new UnrecognizedFileException(filename + " not found.");
         }
 
-        List<String[]> playerData = readPlayerData(inputStream);
-        findPlayers(playerData);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+            initialize(br);
+        }
+    }
+
+    /**
+     * Parses player list and their positions from a reader, starting from the line "PLAYERS" and
+     * stopping at the first empty line. Each line is turned into a player as soon as it's read.
+     * The fields players and playerPositionMap are instantiated.
+     *
+     * @param reader Reader containing player information.
+     * @throws IOException If there is an error while reading or the format is incorrect.
+     */
+    @Override
+    public void initialize(BufferedReader reader) throws IOException {
+        Map<Player, Position> localPositionMap = new HashMap<>();
+        List<Player> localPlayerList = new ArrayList<>();
+
+        String line;
+        boolean havePlayersStarted = false;
+        while ((line = reader.readLine()) != null && !line.trim().isEmpty()) {
+            if (!havePlayersStarted) {
+                havePlayersStarted = line.equals("PLAYERS");
+                continue;
+            }
+
+            addPlayer(line.split(" "), localPositionMap, localPlayerList);
+        }
+
+        if (localPlayerList.isEmpty()) {
+            throw new UnrecognizedFileException("The input stream does not contain valid player data.");
+        }
+
+        this.playerPositionMap = localPositionMap;
+        this.players = localPlayerList;
     }
 
     /**
@@ -93,65 +148,27 @@ public class PlayerBotInitializerFromTxt implements PlayerInitializerFromTxt {
     }
 
     /**
-     * Reads and parses player data from the specified InputStream.
-     * It starts reading from the line "PLAYERS".
-     *
-     * @param inputStream The InputStream containing player information.
-     * @return A list of string arrays, each containing player attributes parsed from the InputStream.
-     * @throws UnrecognizedFileException If there is an error while reading the stream or if its format is incorrect.
-     */
-    private List<String[]> readPlayerData(InputStream inputStream) throws IOException {
-        List<String[]> playerData = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
-            String line;
-            boolean havePlayersStarted = false;
-            while ((line = br.readLine()) != null && !line.trim().isEmpty()) {
-                if (!havePlayersStarted) {
-                    havePlayersStarted = line.equals("PLAYERS");
-                    continue;
-                }
-
-                String[] data = line.split(" ");
-                playerData.add(data);
-            }
-        }
-
-        if (playerData.isEmpty()) {
-            throw new UnrecognizedFileException("The input stream does not contain valid player data.");
-        }
-
-        return playerData;
-    }
-
-    /**
-     * Processes parsed player data to create Player objects and associate them with positions.
+     * Creates a Player from its parsed attributes and adds it to the list and the map.
      *
-     * @param playerData List of string arrays containing parsed player attributes.
-     * @throws IncorrectConfigurationException If there is an error while parsing the player data or if it is incorrectly formatted.
+     * @param playerInfo Player attributes.
+     * @param positions Map of players to their position.
+     * @param playerList List of players, in turn order.
+     * @throws IncorrectConfigurationException If the player data is incorrectly formatted.
      */
-    private void findPlayers(List<String[]> playerData) throws IOException {
-        Map<Player, Position> localPositionMap = new HashMap<>();
-        List<Player> localPlayerList = new ArrayList<>();
-
+    private void addPlayer(String[] playerInfo, Map<Player, Position> positions,
+                           List<Player> playerList) throws IOException {
         try {
-            for (String[] playerInfo : playerData) {
-
-                String name = playerInfo[0];
-                int x = Integer.parseInt(playerInfo[1]);
-                int y = Integer.parseInt(playerInfo[2]);
-                Strategy strategy = parseStrategy(playerInfo[3]);
-                Direction startingMove = parseDirection(playerInfo[4]);
-                Player newPlayer = new PlayerFormula1(name, strategy, startingMove);
-                localPositionMap.put(newPlayer, new Position(x, y));
-                localPlayerList.add(newPlayer);
-            }
+            String name = playerInfo[0];
+            int x = Integer.parseInt(playerInfo[1]);
+            int y = Integer.parseInt(playerInfo[2]);
+            Strategy strategy = parseStrategy(playerInfo[3]);
+            Direction startingMove = parseDirection(playerInfo[4]);
+            Player newPlayer = new PlayerFormula1(name, strategy, startingMove);
+            positions.put(newPlayer, new Position(x, y));
+            playerList.add(newPlayer);
         } catch (Exception e) {
             throw new IncorrectConfigurationException("The player data is incorrectly formatted.");
         }
-
-        this.playerPositionMap = localPositionMap;
-        this.players = localPlayerList;
     }
 
     /**
@@ -164,10 +181,22 @@ public class PlayerBotInitializerFromTxt implements PlayerInitializerFromTxt {
     protected Strategy parseStrategy(String s) throws IOException {
         return switch (s) {
             case "DUMB" -> new StrategyDumb();
+            case "OPTIMAL" -> new StrategyOptimal();
+            case "OPTIMAL_TABLE" -> new StrategyOptimalTable();
+            case "MCTS" -> createMCTS();
             default -> throw new IncorrectConfigurationException("The strategy " + s + " is not supported.");
         };
     }
 
+    /**
+     * Creates the strategy of an MCTS player with the initializer's number of workers.
+     *
+     * @return A new StrategyMCTS.
+     */
+    protected Strategy createMCTS() {
+        return mctsWorkers == 0 ? new StrategyMCTS() : new StrategyMCTS(mctsWorkers);
+    }
+
     /**
      * Parses a string representation of a direction into a Direction object.
      *
@@ -46,6 +46,19 @@ public class PlayerBotInteractiveInitializerFromTxt  extends PlayerBotInitialize
      * @param interactionHandler Interaction handler for interactive players.
      */
     public PlayerBotInteractiveInitializerFromTxt(InteractionHandler interactionHandler) {
+        this(interactionHandler, 0);
+    }
+
+    /**
+     * Constructs a PlayerBotInteractiveInitializerFromTxt with an interaction handler whose MCTS players grow
+     * a given number of trees in parallel.
+     *
+     * @param interactionHandler Interaction handler for interactive players.
+     * @param mctsWorkers        Number of trees grown in parallel by MCTS players, or 0 for StrategyMCTS's
+     *                           default.
+     */
+    public PlayerBotInteractiveInitializerFromTxt(InteractionHandler interactionHandler, int mctsWorkers) {
+        super(mctsWorkers);
         this.interactionHandler = interactionHandler;
     }
 
@@ -56,6 +69,9 @@ public class PlayerBotInteractiveInitializerFromTxt  extends PlayerBotInitialize
     protected Strategy parseStrategy(String s) throws IOException {
         return switch (s) {
             case "DUMB" -> new StrategyDumb();
+            case "OPTIMAL" -> new StrategyOptimal();
+            case "OPTIMAL_TABLE" -> new StrategyOptimalTable();
+            case "MCTS" -> createMCTS();
             case "INTERACTIVE" -> new StrategyInteractive(interactionHandler);
             default -> throw new IncorrectConfigurationException("The strategy " + s + " is not supported.");
         };
@@ -26,6 +26,7 @@
 package it.unicam.cs.giacomopessolano.formula1.player;
 
 import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * Represents a Formula 1 player with a name, strategy and last movement.
@@ -40,6 +41,11 @@ public class PlayerFormula1 implements Player {
      * Player's strategy.
      */
     private final Strategy strategy;
+    /**
+     * Strategy of the player this one was split from, or its own strategy if it wasn't split. Players
+     * split from the same player are the same player in different games.
+     */
+    private final Strategy origin;
     /**
      * Player's last move.
      */
@@ -63,10 +69,25 @@ public class PlayerFormula1 implements Player {
 
         this.name = name;
         this.strategy = strategy;
+        this.origin = strategy;
         lastMove = firstMove(choice);
         hasCrashed = false;
     }
 
+    /**
+     * Constructs a copy of another player with a different strategy.
+     *
+     * @param other    Player to copy.
+     * @param strategy Strategy of the copy.
+     */
+    private PlayerFormula1(PlayerFormula1 other, Strategy strategy) {
+        this.name = other.name;
+        this.strategy = strategy;
+        this.origin = other.origin;
+        this.lastMove = other.lastMove;
+        this.hasCrashed = other.hasCrashed;
+    }
+
     /**
      *{@inheritDoc}
      */
@@ -138,28 +159,37 @@ public class PlayerFormula1 implements Player {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PlayerFormula1 split(SplittableRandom random) {
+        assert random != null;
+        return new PlayerFormula1(this, strategy.split(random));
+    }
+
     /**
      * Compares a Player to another object.
      *
      * @param obj Object to compare the Player to.
-     * @return True if the object is of the PlayerFormula1 class, and it has the same name, strategy
-     * of the Player, false otherwise.
+     * @return True if the object is of the PlayerFormula1 class, and it has the same name and was split
+     * from the same player, false otherwise.
      */
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof PlayerFormula1 other) {
-            return name.equals(other.name) && strategy.equals(other.strategy);
+            return name.equals(other.name) && origin.equals(other.origin);
         }
         return false;
     }
 
     /**
-     * Returns hash value calculated on the Player's name and strategy.
+     * Returns hash value calculated on the Player's name and the strategy it was split from.
      *
      * @return A hash value for this Player.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name, strategy);
+        return Objects.hash(name, origin);
     }
 }
\ No newline at end of file
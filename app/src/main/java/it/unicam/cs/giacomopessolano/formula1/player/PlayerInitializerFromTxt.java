@@ -27,6 +27,7 @@ package it.unicam.cs.giacomopessolano.formula1.player;
 
 import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,15 @@ public interface PlayerInitializerFromTxt {
      */
     void initialize(String filename) throws IOException;
 
+    /**
+     * Parses player list and their position from text in the same format as the .txt files.
+     * The reader is not closed, so the caller can keep reading what follows the players.
+     *
+     * @param reader Reader positioned before the players.
+     * @throws IOException If there is an error while reading the text or its format is incorrect.
+     */
+    void initialize(BufferedReader reader) throws IOException;
+
     /**
      * Returns the list of players if initialized.
      *
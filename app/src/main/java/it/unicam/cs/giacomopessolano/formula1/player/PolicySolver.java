@@ -0,0 +1,597 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.DistanceField;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.SpeedLimits;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Offline solver that computes the PolicyTable of a track with a retrograde analysis of every state
+ * (position and velocity) a player can be in, following the rules of TurnManagerStandard and ignoring
+ * the other players.
+ * <p>
+ * A breadth-first search from the START cells, with every velocity a player can start with, finds the
+ * states that can be reached and the box of velocities of every cell, leaving out the states above the
+ * SpeedLimits of the track, which can't reach the finish line anyway. Players start at speed one at most and
+ * speed only grows by one per turn, so a player moving at speed s along an axis has covered at least
+ * s * (s + 1) / 2 - 1 cells along it, which bounds the velocities by the size of the track. The analysis then goes backwards from
+ * the finish line: states with a move crossing an END cell take one turn, and a state whose best move
+ * leads to a state taking t turns takes t + 1. The cells a move passes are a walk, so only the moves
+ * at least as long as the distance of their cell from the finish line are checked for END cells.
+ * <p>
+ * Moves are checked in constant time: for every cell the solver counts the cells that can be passed
+ * in each of the four directions before an END or OFFTRACK cell, which tells whether a straight segment
+ * is clear and otherwise which cell stops it, like Grid.traverse does one cell at a time. The predecessors of a state all start from the same cell,
+ * so the cells between the two positions are checked once for the nine of them.
+ * <p>
+ * Both searches expand each level in parallel: states are claimed with atomic operations, so every
+ * state is added to the next level exactly once.
+ */
+public final class PolicySolver {
+
+    /**
+     * Number of frontier states each parallel task expands.
+     */
+    private static final int CHUNK = 4096;
+    /**
+     * Highest speed along an axis a box can hold.
+     */
+    private static final int MAX_SPEED = Byte.MAX_VALUE;
+    /**
+     * Atomic access to the elements of the reached velocities.
+     */
+    private static final VarHandle REACHED = MethodHandles.arrayElementVarHandle(long[].class);
+    /**
+     * Atomic access to the elements of the entries.
+     */
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(short[].class);
+
+    /**
+     * Grid of the track.
+     */
+    private final Grid grid;
+    /**
+     * True to expand the levels of the searches in parallel.
+     */
+    private final boolean parallel;
+    /**
+     * Track's width.
+     */
+    private final int width;
+    /**
+     * Track's height.
+     */
+    private final int height;
+    /**
+     * Highest horizontal speed.
+     */
+    private final int speedX;
+    /**
+     * Highest vertical speed.
+     */
+    private final int speedY;
+    /**
+     * Number of velocities along each row of the velocity window.
+     */
+    private final int windowWidth;
+    /**
+     * Number of words of the bit set of each cell's reached velocities.
+     */
+    private final int words;
+    /**
+     * Index of every cell among the ones a player can stand on, -1 for the others.
+     */
+    private final int[] slots;
+    /**
+     * Number of cells that can be passed from every cell moving right.
+     */
+    private final int[] right;
+    /**
+     * Number of cells that can be passed from every cell moving left.
+     */
+    private final int[] left;
+    /**
+     * Number of cells that can be passed from every cell moving down.
+     */
+    private final int[] down;
+    /**
+     * Number of cells that can be passed from every cell moving up.
+     */
+    private final int[] up;
+    /**
+     * Highest safe speeds of the track's cells.
+     */
+    private final SpeedLimits limits;
+    /**
+     * Bit sets of the velocities every cell was reached with.
+     */
+    private long[] reached;
+    /**
+     * Index of the first entry and box of every cell, as stored in the table.
+     */
+    private int[] cells;
+    /**
+     * Entries of the states, as stored in the table.
+     */
+    private short[] entries;
+
+    /**
+     * Constructs a solver for a track.
+     *
+     * @param grid     Grid of the track.
+     * @param parallel True to expand the levels of the searches in parallel.
+     * @throws IncorrectConfigurationException If the track is too large for a table.
+     */
+    private PolicySolver(Grid grid, boolean parallel) throws IncorrectConfigurationException {
+        this.grid = grid;
+        this.parallel = parallel;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.speedX = maxSpeed(width);
+        this.speedY = maxSpeed(height);
+        if (speedX > MAX_SPEED || speedY > MAX_SPEED) {
+            throw new IncorrectConfigurationException("The track is too large for a policy table.");
+        }
+        this.windowWidth = 2 * speedX + 1;
+        this.words = (windowWidth * (2 * speedY + 1) + 63) / 64;
+
+        this.slots = new int[width * height];
+        int count = 0;
+        for (int cell = 0; cell < slots.length; cell++) {
+            CellState state = grid.getState(cell % width, cell / width);
+            slots[cell] = state == CellState.TRACK || state == CellState.START ? count++ : -1;
+        }
+        if ((long) count * words > Integer.MAX_VALUE) {
+            throw new IncorrectConfigurationException("The track is too large for a policy table.");
+        }
+
+        this.right = new int[width * height];
+        this.left = new int[width * height];
+        this.down = new int[width * height];
+        this.up = new int[width * height];
+        this.limits = grid.getSpeedLimits();
+        for (int y = 0; y < height; y++) {
+            for (int x = 1; x < width; x++) {
+                int cell = y * width + x;
+                left[cell] = passable(x - 1, y) ? left[cell - 1] + 1 : 0;
+            }
+            for (int x = width - 2; x >= 0; x--) {
+                int cell = y * width + x;
+                right[cell] = passable(x + 1, y) ? right[cell + 1] + 1 : 0;
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = 1; y < height; y++) {
+                int cell = y * width + x;
+                up[cell] = passable(x, y - 1) ? up[cell - width] + 1 : 0;
+            }
+            for (int y = height - 2; y >= 0; y--) {
+                int cell = y * width + x;
+                down[cell] = passable(x, y + 1) ? down[cell + width] + 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * Computes the table of a track, in parallel if more than one processor is available.
+     *
+     * @param grid Grid of the track. Its players are ignored.
+     * @return The track's table.
+     * @throws IncorrectConfigurationException If the track is too large for a table.
+     */
+    public static PolicyTable solve(Grid grid) throws IncorrectConfigurationException {
+        return solve(grid, Runtime.getRuntime().availableProcessors() > 1);
+    }
+
+    /**
+     * Computes the table of a track.
+     *
+     * @param grid     Grid of the track. Its players are ignored.
+     * @param parallel True to expand the levels of the searches in parallel.
+     * @return The track's table.
+     * @throws IncorrectConfigurationException If the track is too large for a table.
+     */
+    public static PolicyTable solve(Grid grid, boolean parallel) throws IncorrectConfigurationException {
+        assert grid != null;
+        PolicySolver solver = new PolicySolver(grid, parallel);
+        solver.reach();
+        solver.layOut();
+        solver.retrograde();
+        return new PolicyTable(solver.width, solver.height, grid.getFingerprint(),
+                IntBuffer.wrap(solver.cells), ShortBuffer.wrap(solver.entries));
+    }
+
+    /**
+     * Returns the highest speed a player can have along an axis of a given size, the highest s such that
+     * s * (s + 1) / 2 - 1 cells fit in a move from one end of the axis to the other.
+     *
+     * @param size Number of cells along the axis.
+     * @return Highest speed along the axis.
+     */
+    private static int maxSpeed(int size) {
+        int speed = 1;
+        while ((long) (speed + 1) * (speed + 2) / 2 <= size) speed++;
+        return speed;
+    }
+
+    /**
+     * Finds the states that can be reached from the START cells.
+     */
+    private void reach() {
+        reached = new long[(int) Arrays.stream(slots).filter(slot -> slot >= 0).count() * words];
+        int[] starts = IntStream.range(0, slots.length)
+                .filter(cell -> grid.getState(cell % width, cell / width) == CellState.START).toArray();
+        long[] frontier = new long[9 * starts.length];
+        int size = 0;
+        for (int cell : starts) {
+            for (int moveY = -1; moveY <= 1; moveY++) {
+                for (int moveX = -1; moveX <= 1; moveX++) {
+                    long state = state(cell, moveX, moveY);
+                    if (claimReached(state)) frontier[size++] = state;
+                }
+            }
+        }
+
+        frontier = Arrays.copyOf(frontier, size);
+        while (frontier.length > 0) {
+            long[] level = frontier;
+            frontier = expand(level.length, chunk -> reachChunk(level, chunk * CHUNK,
+                    Math.min(level.length, (chunk + 1) * CHUNK)));
+        }
+    }
+
+    /**
+     * Expands part of a level of the forward search, claiming the states reached for the first time.
+     *
+     * @param level States of the current level.
+     * @param from  First state of the part, inclusive.
+     * @param to    Last state of the part, exclusive.
+     * @return States claimed for the next level.
+     */
+    private long[] reachChunk(long[] level, int from, int to) {
+        long[] claimed = new long[8 * (to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int cell = cell(level[i]);
+            int x = cell % width;
+            int y = cell / width;
+            int moveX = moveX(level[i]);
+            int moveY = moveY(level[i]);
+            for (int d = 0; d < Direction.COUNT; d++) {
+                Direction direction = Direction.fromOrdinal(d);
+                int newMoveX = moveX + direction.x();
+                int newMoveY = moveY + direction.y();
+                int newX = x + newMoveX;
+                int newY = y + newMoveY;
+                if (newX < 0 || newX >= width || newY < 0 || newY >= height
+                        || (newMoveX == 0 && newMoveY == 0)) continue;
+                if (traverse(x, y, newX, newY) != CellState.TRACK
+                        || limits.isDoomed(newX, newY, newMoveX, newMoveY)) continue;
+                assert Math.abs(newMoveX) <= speedX && Math.abs(newMoveY) <= speedY;
+
+                long state = state(newY * width + newX, newMoveX, newMoveY);
+                if (claimReached(state)) claimed[size++] = state;
+            }
+        }
+        return Arrays.copyOf(claimed, size);
+    }
+
+    /**
+     * Computes the velocity box of every cell from the velocities it was reached with and allocates
+     * the entries, all unsolved.
+     *
+     * @throws IncorrectConfigurationException If the track has too many states for a table.
+     */
+    private void layOut() throws IncorrectConfigurationException {
+        cells = new int[2 * width * height];
+        stream(width * height).forEach(this::box);
+
+        long count = 0;
+        for (int cell = 0; cell < width * height; cell++) {
+            if (cells[2 * cell] < 0) continue;
+            cells[2 * cell] = (int) count;
+            count += (cells[2 * cell + 1] >>> 8 & 0xFF) * (cells[2 * cell + 1] & 0xFF);
+            if (count > Integer.MAX_VALUE) {
+                throw new IncorrectConfigurationException("The track has too many states for a policy table.");
+            }
+        }
+        reached = null;
+        entries = new short[(int) count];
+        Arrays.fill(entries, PolicyTable.UNSOLVED);
+    }
+
+    /**
+     * Stores the smallest box holding the velocities a cell was reached with, and marks the cells that
+     * were never reached.
+     *
+     * @param cell Index of the cell.
+     */
+    private void box(int cell) {
+        cells[2 * cell] = -1;
+        if (slots[cell] < 0) return;
+
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        int base = slots[cell] * words;
+        for (int word = 0; word < words; word++) {
+            for (long bits = reached[base + word]; bits != 0; bits &= bits - 1) {
+                int velocity = 64 * word + Long.numberOfTrailingZeros(bits);
+                int moveX = velocity % windowWidth - speedX;
+                int moveY = velocity / windowWidth - speedY;
+                minX = Math.min(minX, moveX);
+                maxX = Math.max(maxX, moveX);
+                minY = Math.min(minY, moveY);
+                maxY = Math.max(maxY, moveY);
+            }
+        }
+        if (minX == Integer.MAX_VALUE) return;
+
+        cells[2 * cell] = 0;
+        cells[2 * cell + 1] = (minX & 0xFF) << 24 | (minY & 0xFF) << 16 | (maxX - minX + 1) << 8 | (maxY - minY + 1);
+    }
+
+    /**
+     * Solves the states backwards from the finish line, one number of turns at a time.
+     *
+     * @throws IncorrectConfigurationException If a route is too long for a table.
+     */
+    private void retrograde() throws IncorrectConfigurationException {
+        long[] frontier = expand(width * height, chunk -> finishChunk(chunk * CHUNK,
+                Math.min(width * height, (chunk + 1) * CHUNK)));
+        for (int turns = 2; frontier.length > 0; turns++) {
+            if (turns > PolicyTable.MAX_TURNS) {
+                throw new IncorrectConfigurationException("The track's routes are too long for a policy table.");
+            }
+            long[] level = frontier;
+            int next = turns;
+            frontier = expand(level.length, chunk -> retrogradeChunk(level, chunk * CHUNK,
+                    Math.min(level.length, (chunk + 1) * CHUNK), next));
+        }
+    }
+
+    /**
+     * Solves the states of some cells that can cross an END cell with their next move.
+     *
+     * @param from First cell, inclusive.
+     * @param to   Last cell, exclusive.
+     * @return States solved in one turn.
+     */
+    private long[] finishChunk(int from, int to) {
+        DistanceField distances = grid.getDistanceField();
+        long[] solved = new long[16];
+        int size = 0;
+        for (int cell = from; cell < to; cell++) {
+            int first = cells[2 * cell];
+            if (first < 0) continue;
+            int box = cells[2 * cell + 1];
+            int minX = (byte) (box >>> 24);
+            int minY = (byte) (box >>> 16);
+            int boxWidth = box >>> 8 & 0xFF;
+            int boxHeight = box & 0xFF;
+            int x = cell % width;
+            int y = cell / width;
+            int distance = distances.getDistance(cell);
+            int longest = Math.max(Math.abs(minX), Math.abs(minX + boxWidth - 1))
+                    + Math.max(Math.abs(minY), Math.abs(minY + boxHeight - 1)) + 2;
+            if (distance > longest) continue;
+
+            for (int row = 0; row < boxHeight; row++) {
+                for (int column = 0; column < boxWidth; column++) {
+                    int moveX = minX + column;
+                    int moveY = minY + row;
+                    for (int d = 0; d < Direction.COUNT; d++) {
+                        Direction direction = Direction.fromOrdinal(d);
+                        int newMoveX = moveX + direction.x();
+                        int newMoveY = moveY + direction.y();
+                        int newX = x + newMoveX;
+                        int newY = y + newMoveY;
+                        if (newX < 0 || newX >= width || newY < 0 || newY >= height
+                                || (newMoveX == 0 && newMoveY == 0)
+                                || Math.abs(newMoveX) + Math.abs(newMoveY) < distance) continue;
+                        if (traverse(x, y, newX, newY) != CellState.END) continue;
+
+                        entries[first + row * boxWidth + column] = (short) (1 << 4 | d);
+                        if (size == solved.length) solved = Arrays.copyOf(solved, 2 * size);
+                        solved[size++] = state(cell, moveX, moveY);
+                        break;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(solved, size);
+    }
+
+    /**
+     * Expands part of a level of the retrograde analysis, solving the predecessors that have no entry yet.
+     *
+     * @param level States solved in one turn less.
+     * @param from  First state of the part, inclusive.
+     * @param to    Last state of the part, exclusive.
+     * @param turns Turns of the predecessors.
+     * @return States solved in the given turns.
+     */
+    private long[] retrogradeChunk(long[] level, int from, int to, int turns) {
+        long[] solved = new long[16];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int cell = cell(level[i]);
+            int moveX = moveX(level[i]);
+            int moveY = moveY(level[i]);
+            int x = cell % width - moveX;
+            int y = cell / width - moveY;
+            if ((moveX == 0 && moveY == 0) || x < 0 || x >= width || y < 0 || y >= height) continue;
+            int previous = y * width + x;
+            int first = cells[2 * previous];
+            if (first < 0 || traverse(x, y, x + moveX, y + moveY) != CellState.TRACK) continue;
+
+            int box = cells[2 * previous + 1];
+            int minX = (byte) (box >>> 24);
+            int minY = (byte) (box >>> 16);
+            int boxWidth = box >>> 8 & 0xFF;
+            int boxHeight = box & 0xFF;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                Direction direction = Direction.fromOrdinal(d);
+                int column = moveX - direction.x() - minX;
+                int row = moveY - direction.y() - minY;
+                if (column < 0 || column >= boxWidth || row < 0 || row >= boxHeight) continue;
+                if (ENTRIES.compareAndSet(entries, first + row * boxWidth + column,
+                        PolicyTable.UNSOLVED, (short) (turns << 4 | d))) {
+                    if (size == solved.length) solved = Arrays.copyOf(solved, 2 * size);
+                    solved[size++] = state(previous, moveX - direction.x(), moveY - direction.y());
+                }
+            }
+        }
+        return Arrays.copyOf(solved, size);
+    }
+
+    /**
+     * Checks if a cell can be passed by a move, that is if it is neither END nor OFFTRACK.
+     *
+     * @param x Horizontal coordinate of the cell.
+     * @param y Vertical coordinate of the cell.
+     * @return True if a move can pass the cell.
+     */
+    private boolean passable(int x, int y) {
+        CellState state = grid.getState(x, y);
+        return state != CellState.END && state != CellState.OFFTRACK;
+    }
+
+    /**
+     * Returns the result of a move like Grid.traverse, moving horizontally and then vertically, but
+     * in constant time.
+     *
+     * @param x    Horizontal coordinate where the move starts.
+     * @param y    Vertical coordinate where the move starts.
+     * @param newX Horizontal coordinate where the move ends.
+     * @param newY Vertical coordinate where the move ends.
+     * @return END or OFFTRACK if the move passes a cell with their state, TRACK otherwise.
+     */
+    private CellState traverse(int x, int y, int newX, int newY) {
+        int stepX = Integer.compare(newX, x);
+        int stepY = Integer.compare(newY, y);
+        int clearX = stepX > 0 ? right[y * width + x] : left[y * width + x];
+        int clearY = stepY > 0 ? down[y * width + newX] : up[y * width + newX];
+
+        CellState result = CellState.TRACK;
+        if (Math.abs(newX - x) > clearX) {
+            result = grid.getState(x + stepX * (clearX + 1), y);
+        } else if (Math.abs(newY - y) > clearY) {
+            result = grid.getState(newX, y + stepY * (clearY + 1));
+        }
+        assert result == grid.traverse(x, y, newX, newY);
+        return result;
+    }
+
+    /**
+     * Expands a level in chunks, in parallel if requested, and joins the states they return.
+     *
+     * @param length Number of elements to split in chunks.
+     * @param chunk  Expansion of a chunk given its index.
+     * @return States of the next level.
+     */
+    private long[] expand(int length, IntFunction<long[]> chunk) {
+        return stream((length + CHUNK - 1) / CHUNK).mapToObj(chunk).flatMapToLong(Arrays::stream).toArray();
+    }
+
+    /**
+     * Returns a stream of indexes, parallel if requested.
+     *
+     * @param count Number of indexes.
+     * @return Stream from 0 to count, exclusive.
+     */
+    private IntStream stream(int count) {
+        IntStream stream = IntStream.range(0, count);
+        return parallel ? stream.parallel() : stream;
+    }
+
+    /**
+     * Marks a state as reached, if no other thread did it first.
+     *
+     * @param state State to mark.
+     * @return True if the state was reached for the first time by this call.
+     */
+    private boolean claimReached(long state) {
+        int velocity = (int) state & 0xFFFF;
+        int word = slots[cell(state)] * words + velocity / 64;
+        long bit = 1L << velocity;
+        return ((long) REACHED.getAndBitwiseOr(reached, word, bit) & bit) == 0;
+    }
+
+    /**
+     * Packs a state: the index of its cell and the index of its velocity in the window.
+     *
+     * @param cell  Index of the cell.
+     * @param moveX Horizontal component of the velocity.
+     * @param moveY Vertical component of the velocity.
+     * @return Packed state.
+     */
+    private long state(int cell, int moveX, int moveY) {
+        return (long) cell << 16 | (moveY + speedY) * windowWidth + moveX + speedX;
+    }
+
+    /**
+     * Returns the cell of a packed state.
+     *
+     * @param state Packed state.
+     * @return Index of the cell.
+     */
+    private static int cell(long state) {
+        return (int) (state >>> 16);
+    }
+
+    /**
+     * Returns the horizontal velocity of a packed state.
+     *
+     * @param state Packed state.
+     * @return Horizontal component of the velocity.
+     */
+    private int moveX(long state) {
+        return ((int) state & 0xFFFF) % windowWidth - speedX;
+    }
+
+    /**
+     * Returns the vertical velocity of a packed state.
+     *
+     * @param state Packed state.
+     * @return Vertical component of the velocity.
+     */
+    private int moveY(long state) {
+        return ((int) state & 0xFFFF) / windowWidth - speedY;
+    }
+}
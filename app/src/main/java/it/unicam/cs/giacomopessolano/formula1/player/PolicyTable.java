@@ -0,0 +1,382 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Table of the best move of every state (position and velocity) of a track, computed offline by
+ * PolicySolver. For a state it gives the least number of turns needed to reach an END cell and the
+ * direction of the first of them, without searching.
+ * <p>
+ * The states of a cell are the ones whose velocity falls in a box, the smallest containing every velocity
+ * the cell can be reached with. The file starts with a header: the magic number "F1PT", the format version,
+ * the width, the height, the fingerprint of the track and the number of entries. Then, for every cell, row
+ * after row, the index of its first entry (-1 if no player can stand on it) and its box: the lowest
+ * horizontal and vertical velocities and the box's width and height, one byte each. The body holds
+ * one short per entry, the velocities of each box row after row: the turns to the finish line shifted
+ * by four bits and the ordinal of the direction, or -1 if the state can't reach an END cell.
+ * All numbers are big-endian.
+ * <p>
+ * Files are memory-mapped, so a table is ready as soon as its header and cells are checked and only
+ * the pages of the states that are looked up are read from disk.
+ */
+public final class PolicyTable {
+
+    /**
+     * Extension of the policy table files.
+     */
+    public static final String EXTENSION = ".f1p";
+    /**
+     * System property holding the directory forTrack looks for tables in.
+     */
+    public static final String DIRECTORY_PROPERTY = "policy.dir";
+    /**
+     * Directory forTrack looks for tables in, on the file system and then on the class path, if the
+     * property is not set.
+     */
+    public static final String DEFAULT_DIRECTORY = "policies";
+    /**
+     * Returned by probe when the state is not in the table or can't reach an END cell.
+     */
+    public static final int MISS = -1;
+    /**
+     * Highest number of turns an entry can hold.
+     */
+    static final int MAX_TURNS = (1 << 12) - 1;
+    /**
+     * Entry of the states that can't reach an END cell.
+     */
+    static final short UNSOLVED = -1;
+    /**
+     * First four bytes of every file, "F1PT" in ASCII.
+     */
+    private static final int MAGIC = 0x46315054;
+    /**
+     * Version of the format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the header in bytes.
+     */
+    private static final int HEADER_BYTES = 28;
+    /**
+     * Maximum number of tracks whose tables are kept by forTrack.
+     */
+    private static final int MAX_TRACKS = 4;
+    /**
+     * Tables of the tracks looked up by forTrack, or null if they have none.
+     */
+    private static final TrackCache<PolicyTable> tables = new TrackCache<>(MAX_TRACKS);
+
+    /**
+     * Width of the track.
+     */
+    private final int width;
+    /**
+     * Height of the track.
+     */
+    private final int height;
+    /**
+     * Fingerprint of the track.
+     */
+    private final long fingerprint;
+    /**
+     * Index of the first entry and box of every cell.
+     */
+    private final IntBuffer cells;
+    /**
+     * Entries of every cell's states.
+     */
+    private final ShortBuffer entries;
+
+    /**
+     * Constructs a table from its cells and entries, which must not be modified afterwards.
+     *
+     * @param width       Width of the track.
+     * @param height      Height of the track.
+     * @param fingerprint Fingerprint of the track.
+     * @param cells       Index of the first entry and box of every cell, two ints per cell.
+     * @param entries     Entries of every cell's states.
+     */
+    PolicyTable(int width, int height, long fingerprint, IntBuffer cells, ShortBuffer entries) {
+        assert width > 0 && height > 0;
+        assert cells.capacity() == 2 * width * height;
+
+        this.width = width;
+        this.height = height;
+        this.fingerprint = fingerprint;
+        this.cells = cells;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the table of a track, looking for the file named after its fingerprint in the directory of
+     * the DIRECTORY_PROPERTY and then in DEFAULT_DIRECTORY on the class path. Tables are loaded once and
+     * shared by every game on the track; only the ones of the last few tracks used are kept.
+     *
+     * @param grid Grid of the track.
+     * @return Table of the track, or null if it has none.
+     * @throws IOException If the table can't be read, its format is incorrect or it belongs to another track.
+     *                     Only the first look up of the track throws, the later ones return null.
+     */
+    public static PolicyTable forTrack(Grid grid) throws IOException {
+        return tables.get(grid, PolicyTable::find);
+    }
+
+    /**
+     * Forgets the tables looked up by forTrack, so the next look ups search the files again. Needed when
+     * the directory of the DIRECTORY_PROPERTY changes.
+     */
+    static void forgetTracks() {
+        tables.clear();
+    }
+
+    /**
+     * Returns the name of the file holding the table of a track.
+     *
+     * @param grid Grid of the track.
+     * @return The fingerprint of the track in hexadecimal, with the table extension.
+     */
+    public static String fileName(Grid grid) {
+        return String.format("%016x", grid.getFingerprint()) + EXTENSION;
+    }
+
+    /**
+     * Loads a table file by memory-mapping it.
+     *
+     * @param path Path of the file.
+     * @return The loaded table.
+     * @throws IOException If the file can't be read or its format is incorrect.
+     */
+    public static PolicyTable load(Path path) throws IOException {
+        if (!path.toString().endsWith(EXTENSION)) {
+            throw new IncorrectConfigurationException("File must have a " + EXTENSION + " extension.");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the table, replacing any file at the same path.
+     *
+     * @param path Path of the file to write.
+     * @throws IOException If there is an error while writing the file.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+        header.putLong(fingerprint).putInt(entries.capacity());
+        header.flip();
+
+        ByteBuffer cellBytes = ByteBuffer.allocate(4 * cells.capacity());
+        cellBytes.asIntBuffer().put(cells.duplicate().rewind());
+        ByteBuffer entryBytes = ByteBuffer.allocate(2 * entries.capacity());
+        entryBytes.asShortBuffer().put(entries.duplicate().rewind());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, cellBytes, entryBytes};
+            while (entryBytes.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * Looks up a state.
+     *
+     * @param x     Horizontal coordinate of the player.
+     * @param y     Vertical coordinate of the player.
+     * @param moveX Horizontal component of the player's last move.
+     * @param moveY Vertical component of the player's last move.
+     * @return The entry of the state, to be read with turns and direction, or MISS.
+     */
+    public int probe(int x, int y, int moveX, int moveY) {
+        assert x >= 0 && x < width && y >= 0 && y < height;
+        int cell = 2 * (y * width + x);
+        int first = cells.get(cell);
+        if (first < 0) return MISS;
+
+        int box = cells.get(cell + 1);
+        int column = moveX - (byte) (box >>> 24);
+        int row = moveY - (byte) (box >>> 16);
+        int boxWidth = box >>> 8 & 0xFF;
+        if (column < 0 || column >= boxWidth || row < 0 || row >= (box & 0xFF)) return MISS;
+
+        short entry = entries.get(first + row * boxWidth + column);
+        return entry == UNSOLVED ? MISS : entry & 0xFFFF;
+    }
+
+    /**
+     * Returns the turns needed to reach an END cell from the state of an entry.
+     *
+     * @param entry Entry returned by probe.
+     * @return Least number of turns to the finish line.
+     */
+    public static int turns(int entry) {
+        return entry >>> 4;
+    }
+
+    /**
+     * Returns the first direction of the route of an entry.
+     *
+     * @param entry Entry returned by probe.
+     * @return First direction of the route.
+     */
+    public static Direction direction(int entry) {
+        return Direction.fromOrdinal(entry & 0xF);
+    }
+
+    /**
+     * Returns the width of the track.
+     *
+     * @return Width of the track.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the track.
+     *
+     * @return Height of the track.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the fingerprint of the track.
+     *
+     * @return Fingerprint of the track.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the number of states in the table, including the ones that can't reach an END cell.
+     *
+     * @return Number of entries.
+     */
+    public int getEntries() {
+        return entries.capacity();
+    }
+
+    /**
+     * Looks for the file of a track and loads it.
+     *
+     * @param grid Grid of the track.
+     * @return The table of the track, or null if there is no file.
+     * @throws IOException If the file can't be read, its format is incorrect or it belongs to another track.
+     */
+    private static PolicyTable find(Grid grid) throws IOException {
+        String name = fileName(grid);
+        Path path = Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY), name);
+        PolicyTable table = null;
+        if (Files.isRegularFile(path)) {
+            table = load(path);
+        } else {
+            URL url = PolicyTable.class.getClassLoader().getResource(DEFAULT_DIRECTORY + "/" + name);
+            if (url == null) return null;
+            if (url.getProtocol().equals("file")) {
+                try {
+                    table = load(Path.of(url.toURI()));
+                } catch (URISyntaxException e) {
+                    throw new UnrecognizedFileException(name + " not found.");
+                }
+            } else {
+                //resources inside archives can't be mapped
+                try (InputStream inputStream = url.openStream()) {
+                    table = read(ByteBuffer.wrap(inputStream.readAllBytes()));
+                }
+            }
+        }
+
+        if (table.width != grid.getWidth() || table.height != grid.getHeight()
+                || table.fingerprint != grid.getFingerprint()) {
+            throw new IncorrectConfigurationException("The policy table " + name + " belongs to another track.");
+        }
+        return table;
+    }
+
+    /**
+     * Reads a table from a buffer, checking that every cell's entries are in the body.
+     *
+     * @param buffer Content of the file.
+     * @return The loaded table.
+     * @throws IOException If the format is incorrect.
+     */
+    private static PolicyTable read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new UnrecognizedFileException("The file is not a policy table.");
+            }
+            if (buffer.getInt() != VERSION) {
+                throw new UnrecognizedFileException("The policy table version is not supported.");
+            }
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            long fingerprint = buffer.getLong();
+            int count = buffer.getInt();
+            if (width <= 0 || height <= 0 || count < 0
+                    || buffer.remaining() != 8L * width * height + 2L * count) {
+                throw new IncorrectConfigurationException("The policy table has the wrong size.");
+            }
+
+            IntBuffer cells = buffer.slice(HEADER_BYTES, 8 * width * height).asIntBuffer();
+            ShortBuffer entries = buffer.slice(HEADER_BYTES + 8 * width * height, 2 * count).asShortBuffer();
+            for (int cell = 0; cell < cells.capacity(); cell += 2) {
+                int first = cells.get(cell);
+                int box = cells.get(cell + 1);
+                if (first != -1 && (first < 0 || (long) first + (box >>> 8 & 0xFF) * (box & 0xFF) > count)) {
+                    throw new IncorrectConfigurationException("The policy table is truncated or corrupted.");
+                }
+            }
+            return new PolicyTable(width, height, fingerprint, cells, entries);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IncorrectConfigurationException("The policy table is truncated or corrupted.");
+        }
+    }
+}
@@ -26,10 +26,14 @@
 package it.unicam.cs.giacomopessolano.formula1.player;
 
 import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.SpeedLimits;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Interface that describes the way a player decides its movements.
@@ -47,6 +51,58 @@ public interface Strategy {
      */
     Direction makeChoice(Grid grid, Move lastMove, Position position) throws NoPossibleMoveException;
 
+    /**
+     * Returns a movement choice that should be made before a deadline. Strategies that can trade the quality
+     * of their choice for time should return the best choice found when the deadline passes.
+     * The default implementation ignores the deadline.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param deadline Value of System.nanoTime() by which the choice should be made.
+     * @return The choice of Direction made.
+     */
+    default Direction makeChoice(Grid grid, Move lastMove, Position position, long deadline)
+            throws NoPossibleMoveException {
+        return makeChoice(grid, lastMove, position);
+    }
+
+    /**
+     * Starts making a movement choice on an executor. The grid must not be modified until the choice
+     * is made.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param deadline Value of System.nanoTime() by which the choice should be made.
+     * @param executor Executor that makes the choice.
+     * @return Future completed with the choice, or exceptionally if no move is possible or the strategy fails.
+     */
+    default CompletableFuture<Direction> makeChoiceAsync(Grid grid, Move lastMove, Position position,
+                                                         long deadline, Executor executor) {
+        CompletableFuture<Direction> choice = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                choice.complete(makeChoice(grid, lastMove, position, deadline));
+            } catch (Throwable e) {
+                //errors must complete the choice too, or the strategy would never be asked again
+                choice.completeExceptionally(e);
+            }
+        });
+        return choice;
+    }
+
+    /**
+     * Returns a strategy that makes the same kind of choices but draws its random numbers from a
+     * generator split from the given one. Strategies that don't use random numbers can return themselves.
+     *
+     * @param random Generator to split.
+     * @return Strategy with its own random number generator.
+     */
+    default Strategy split(SplittableRandom random) {
+        return this;
+    }
+
     /**
      * Gives a list of all available moves. A move is unavailable if the cell is occupied by another player
      * and the resulting new position is within the grid.
@@ -58,30 +114,95 @@ public interface Strategy {
      * @return List of available moves.
      */
     static List<Direction> possibleMoves(Grid grid, Move lastMove, Position position) {
-        List<Direction> choices = new ArrayList<>();
-        Position center = getCenter(lastMove, position);
+        return Direction.fromMask(possibleMovesMask(grid, lastMove, position));
+    }
+
+    /**
+     * Gives all available moves as a bit mask, where the bit of each direction is 1 << ordinal().
+     * Availability is the same as in possibleMoves, but nothing is allocated.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @return Bit mask of available moves.
+     */
+    static int possibleMovesMask(Grid grid, Move lastMove, Position position) {
+        return possibleMovesMask(grid, position.x(), position.y(), lastMove.x(), lastMove.y());
+    }
 
-        for (Direction direction : Direction.values()) {
-            Position newPosition = center.neighbour(direction);
-            if (newPosition.isValid(grid) &&
-                    !grid.getCell(newPosition).isOccupied()) {
-                choices.add(direction);
+    /**
+     * Gives all available moves as a bit mask, where the bit of each direction is 1 << ordinal().
+     * The center of the eight possible Positions is determined by adding the player's last move's
+     * x and y values to the player's current coordinates.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param x Horizontal coordinate of the player.
+     * @param y Vertical coordinate of the player.
+     * @param moveX Horizontal component of the player's last move.
+     * @param moveY Vertical component of the player's last move.
+     * @return Bit mask of available moves.
+     */
+    static int possibleMovesMask(Grid grid, int x, int y, int moveX, int moveY) {
+        int centerX = x + moveX;
+        int centerY = y + moveY;
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+
+        int mask = 0;
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction direction = Direction.fromOrdinal(i);
+            int newX = centerX + direction.x();
+            int newY = centerY + direction.y();
+            if (newX >= 0 && newX < width && newY >= 0 && newY < height && !grid.isOccupied(newX, newY)) {
+                mask |= 1 << i;
             }
         }
 
-        return choices;
+        return mask;
     }
 
     /**
-     * Gets the center of the eight possible Positions. It is determined by adding the player's last
-     * move's x and y values to the player's current coordinates.
+     * Gives the available moves that neither cross an OFFTRACK cell nor leave the player doomed to crash
+     * according to the grid's SpeedLimits, as a bit mask like possibleMovesMask. Moves that cross an END
+     * cell are always safe.
      *
+     * @param grid Grid where the movement takes place.
      * @param lastMove The last move executed by a player.
      * @param position The current position of a player on the grid.
-     * @return Center of the possible moves.
+     * @return Bit mask of safe moves.
      */
-    private static Position getCenter(Move lastMove, Position position) {
-        return new Position(position.x() + lastMove.x(),
-                position.y() + lastMove.y());
+    static int safeMovesMask(Grid grid, Move lastMove, Position position) {
+        return safeMovesMask(grid, position.x(), position.y(), lastMove.x(), lastMove.y());
+    }
+
+    /**
+     * Gives the available moves that neither cross an OFFTRACK cell nor leave the player doomed to crash
+     * according to the grid's SpeedLimits, as a bit mask like possibleMovesMask. Moves that cross an END
+     * cell are always safe.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param x Horizontal coordinate of the player.
+     * @param y Vertical coordinate of the player.
+     * @param moveX Horizontal component of the player's last move.
+     * @param moveY Vertical component of the player's last move.
+     * @return Bit mask of safe moves.
+     */
+    static int safeMovesMask(Grid grid, int x, int y, int moveX, int moveY) {
+        SpeedLimits limits = grid.getSpeedLimits();
+        int mask = 0;
+        for (int moves = possibleMovesMask(grid, x, y, moveX, moveY); moves != 0; moves &= moves - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(moves);
+            Direction direction = Direction.fromOrdinal(ordinal);
+            int newMoveX = moveX + direction.x();
+            int newMoveY = moveY + direction.y();
+            int newX = x + newMoveX;
+            int newY = y + newMoveY;
+            CellState result = grid.traverse(x, y, newX, newY);
+            if (result == CellState.END
+                    || result != CellState.OFFTRACK && !limits.isDoomed(newX, newY, newMoveX, newMoveY)) {
+                mask |= 1 << ordinal;
+            }
+        }
+        return mask;
     }
 }
@@ -28,19 +28,19 @@ package it.unicam.cs.giacomopessolano.formula1.player;
 import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * Implementation of Strategy that uses random chance to make its choice.
+ * Implementation of Strategy that uses random chance to make its choice. Its generator is not shared
+ * with other strategies, so games that split their own strategies from a seed can be replayed exactly.
  */
 public final class StrategyDumb implements Strategy {
 
     /**
      * Random number generator.
      */
-    Random rand = new Random();
+    private final RandomGenerator rand;
     /**
      * Name of the strategy.
      */
@@ -50,6 +50,23 @@ public final class StrategyDumb implements Strategy {
      */
     public static final String DESCRIPTION = "Player moves randomly.";
 
+    /**
+     * Constructs a StrategyDumb with an unpredictable generator.
+     */
+    public StrategyDumb() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a StrategyDumb that draws its choices from the given generator.
+     *
+     * @param rand Random number generator.
+     */
+    public StrategyDumb(RandomGenerator rand) {
+        assert rand != null;
+        this.rand = rand;
+    }
+
     /**
      * Returns a random movement choice as a Direction.
      *
@@ -64,13 +81,27 @@ public final class StrategyDumb implements Strategy {
         assert grid != null;
         assert lastMove != null;
         assert position != null;
-        List<Direction> choices = Strategy.possibleMoves(grid, lastMove, position);
-        if (choices.isEmpty()) {
+        int choices = Strategy.possibleMovesMask(grid, lastMove, position);
+        if (choices == 0) {
             throw new NoPossibleMoveException("No possible moves.");
         }
 
-        int index = rand.nextInt(choices.size());
-        return choices.get(index);
+        //drops the lowest set bits until the chosen one is the lowest
+        int index = rand.nextInt(Integer.bitCount(choices));
+        for (int i = 0; i < index; i++) {
+            choices &= choices - 1;
+        }
+        return Direction.fromOrdinal(Integer.numberOfTrailingZeros(choices));
     }
 
+    /**
+     * Returns a new StrategyDumb with a generator split from the given one.
+     *
+     * @param random Generator to split.
+     * @return StrategyDumb with its own random number generator.
+     */
+    @Override
+    public StrategyDumb split(SplittableRandom random) {
+        return new StrategyDumb(random.split());
+    }
 }
@@ -0,0 +1,608 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.DistanceField;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.SpeedLimits;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of Strategy that plans with a Monte Carlo Tree Search over the player's next moves, played
+ * against the other players on the grid. Every iteration starts from a snapshot of all the players
+ * (positions, last moves and crashes, read from its occupied cells), descends the tree choosing moves with UCB1, then
+ * finishes the game with random moves like StrategyDumb's, limited to the moves that stay on the track
+ * and don't exceed its SpeedLimits.
+ * The other players move the same way after every move of the player, so the cells they take are taken
+ * into account, and a game one of them wins is lost.
+ * <p>
+ * An iteration scores 0 for a crash or a loss, between 0.5 and 1 for a win, higher the sooner it comes,
+ * and below 0.5 for a game still running after the horizon, higher the closer the player got to the
+ * finish line. The tree only holds the player's moves: the moves of the others are drawn again in every
+ * iteration, so the snapshot is the only state that is ever copied.
+ * <p>
+ * Each worker grows its own tree on its own thread until the budget runs out, and the move chosen is the
+ * one visited the most across all trees, so more cores give more iterations for the same budget. The
+ * extra trees run on the common pool, so games that are already played alongside others that keep the
+ * processors busy, like the ones of a tournament or a server, should grow a single tree.
+ * Instances reuse their trees and are not thread safe, but every game gets its own through split.
+ */
+public final class StrategyMCTS implements Strategy {
+
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "MCTS";
+    /**
+     * Description of the strategy.
+     */
+    public static final String DESCRIPTION = "Player plans its moves playing random games against the others.";
+    /**
+     * System property holding the budget of every choice in milliseconds.
+     */
+    public static final String BUDGET_PROPERTY = "mcts.budget";
+    /**
+     * Budget of every choice in milliseconds if the property is not set.
+     */
+    public static final int DEFAULT_BUDGET_MILLIS = 100;
+    /**
+     * System property holding the number of trees grown in parallel by every choice.
+     */
+    public static final String WORKERS_PROPERTY = "mcts.workers";
+    /**
+     * Number of moves of the player simulated by an iteration.
+     */
+    private static final int HORIZON = 48;
+    /**
+     * Weight of the exploration term of UCB1.
+     */
+    private static final double EXPLORATION = 0.5;
+    /**
+     * Maximum number of nodes of a tree.
+     */
+    private static final int MAX_NODES = 1 << 18;
+    /**
+     * Ints describing a player in a snapshot: x, y, horizontal and vertical move, 1 if crashed.
+     */
+    private static final int FIELDS = 5;
+
+    /**
+     * Budget of every choice in milliseconds.
+     */
+    private final int budgetMillis;
+    /**
+     * Generator the trees' generators are split from.
+     */
+    private final SplittableRandom random;
+    /**
+     * Tree of every worker.
+     */
+    private final Tree[] trees;
+    /**
+     * Grid the distances were taken from.
+     */
+    private Grid distanceGrid;
+    /**
+     * Shortest walking distance of every cell from an END cell.
+     */
+    private DistanceField distances;
+    /**
+     * Highest safe speeds of the cells of distanceGrid.
+     */
+    private SpeedLimits limits;
+
+    /**
+     * Constructs a StrategyMCTS with the budget of the BUDGET_PROPERTY, the workers of the WORKERS_PROPERTY,
+     * one per processor if it is not set, and an unpredictable generator.
+     */
+    public StrategyMCTS() {
+        this(Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructs a StrategyMCTS with the budget of the BUDGET_PROPERTY, the given workers and an
+     * unpredictable generator. Games that are already played in parallel should use a single worker.
+     *
+     * @param workers Number of trees grown in parallel.
+     */
+    public StrategyMCTS(int workers) {
+        this(Integer.getInteger(BUDGET_PROPERTY, DEFAULT_BUDGET_MILLIS), Math.max(1, workers),
+                new SplittableRandom());
+    }
+
+    /**
+     * Constructs a StrategyMCTS.
+     *
+     * @param budgetMillis Wall-clock time of every choice in milliseconds.
+     * @param workers      Number of trees grown in parallel.
+     * @param random       Generator the trees' generators are split from.
+     */
+    public StrategyMCTS(int budgetMillis, int workers, SplittableRandom random) {
+        assert budgetMillis >= 0;
+        assert workers > 0;
+        assert random != null;
+        this.budgetMillis = budgetMillis;
+        this.random = random;
+        this.trees = new Tree[workers];
+        for (int i = 0; i < workers; i++) {
+            trees[i] = new Tree();
+        }
+    }
+
+    /**
+     * Returns the move visited the most by a search that lasts the budget.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    public Direction makeChoice(Grid grid, Move lastMove, Position position) throws NoPossibleMoveException {
+        return choose(grid, lastMove, position, System.nanoTime() + budgetMillis * 1_000_000L);
+    }
+
+    /**
+     * Returns the move visited the most by a search that lasts the budget, or until the deadline if it
+     * comes first.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param deadline Value of System.nanoTime() by which the choice should be made.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    public Direction makeChoice(Grid grid, Move lastMove, Position position, long deadline)
+            throws NoPossibleMoveException {
+        long end = System.nanoTime() + budgetMillis * 1_000_000L;
+        return choose(grid, lastMove, position, deadline - end < 0 ? deadline : end);
+    }
+
+    /**
+     * Returns a new StrategyMCTS with the same budget and workers and a generator split from the given one.
+     *
+     * @param random Generator to split.
+     * @return StrategyMCTS with its own trees and random number generator.
+     */
+    @Override
+    public StrategyMCTS split(SplittableRandom random) {
+        return new StrategyMCTS(budgetMillis, trees.length, random.split());
+    }
+
+    /**
+     * Grows the trees from a snapshot of the grid and returns the move visited the most.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param end Value of System.nanoTime() at which the search stops.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    private Direction choose(Grid grid, Move lastMove, Position position, long end)
+            throws NoPossibleMoveException {
+        assert grid != null;
+        assert lastMove != null;
+        assert position != null;
+        int choices = Strategy.possibleMovesMask(grid, lastMove, position);
+        if (choices == 0) {
+            throw new NoPossibleMoveException("No possible moves.");
+        }
+
+        if (distanceGrid == null || !grid.hasSameTrack(distanceGrid)) {
+            distances = grid.getDistanceField();
+            limits = grid.getSpeedLimits();
+            distanceGrid = grid;
+        }
+        int[] root = snapshot(grid, lastMove, position);
+        long[] seeds = new long[trees.length];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        if (trees.length == 1) {
+            trees[0].search(grid, distances, limits, root, end, seeds[0]);
+        } else {
+            IntStream.range(0, trees.length).parallel()
+                    .forEach(i -> trees[i].search(grid, distances, limits, root, end, seeds[i]));
+        }
+
+        Direction best = null;
+        long bestVisits = 0;
+        double bestReward = 0;
+        for (int moves = choices; moves != 0; moves &= moves - 1) {
+            int direction = Integer.numberOfTrailingZeros(moves);
+            long visits = 0;
+            double reward = 0;
+            for (Tree tree : trees) {
+                visits += tree.rootVisits(direction);
+                reward += tree.rootReward(direction);
+            }
+            if (visits > bestVisits || (visits == bestVisits && visits > 0 && reward > bestReward)) {
+                best = Direction.fromOrdinal(direction);
+                bestVisits = visits;
+                bestReward = reward;
+            }
+        }
+        //no iteration was run, or every move crashes
+        if (best == null) {
+            int safe = choices & Strategy.safeMovesMask(grid, lastMove, position);
+            best = Direction.fromOrdinal(Integer.numberOfTrailingZeros(safe != 0 ? safe : choices));
+        }
+        return best;
+    }
+
+    /**
+     * Reads every player on the grid. The player making the choice comes first.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by the player.
+     * @param position The current position of the player on the grid.
+     * @return Snapshot of the players, FIELDS ints each.
+     */
+    private static int[] snapshot(Grid grid, Move lastMove, Position position) {
+        List<Position> occupied = grid.getOccupiedPositions();
+        int[] players = new int[FIELDS * (occupied.size() + 1)];
+        players[0] = position.x();
+        players[1] = position.y();
+        players[2] = lastMove.x();
+        players[3] = lastMove.y();
+        int size = FIELDS;
+        for (Position other : occupied) {
+            if (other.equals(position)) continue;
+            Player player = grid.getCell(other).getPlayer();
+            players[size] = other.x();
+            players[size + 1] = other.y();
+            players[size + 2] = player.getLastMove().x();
+            players[size + 3] = player.getLastMove().y();
+            players[size + 4] = player.hasCrashed() ? 1 : 0;
+            size += FIELDS;
+        }
+        return Arrays.copyOf(players, size);
+    }
+
+    /**
+     * Search tree of a worker, whose nodes are stored in primitive arrays reused between choices.
+     * The children of a node are indexed by the ordinal of the move that leads to them.
+     */
+    private static final class Tree {
+
+        /**
+         * Index of the child of every node for every direction, -1 if it was never expanded.
+         */
+        private int[] children = new int[1024 * Direction.COUNT];
+        /**
+         * Number of iterations that passed every node.
+         */
+        private int[] visits = new int[1024];
+        /**
+         * Sum of the scores of the iterations that passed every node.
+         */
+        private double[] rewards = new double[1024];
+        /**
+         * Number of nodes.
+         */
+        private int nodeCount;
+        /**
+         * Nodes passed by the current iteration.
+         */
+        private final int[] path = new int[HORIZON + 1];
+        /**
+         * Players of the current iteration.
+         */
+        private int[] players = new int[0];
+        /**
+         * Moves of the last player checked by safeMoves that cross an END cell.
+         */
+        private int finishingMoves;
+        /**
+         * Grid of the current search.
+         */
+        private Grid grid;
+        /**
+         * Distances of the current search.
+         */
+        private DistanceField distances;
+        /**
+         * Speed limits of the current search.
+         */
+        private SpeedLimits limits;
+        /**
+         * Generator of the current search.
+         */
+        private SplittableRandom random;
+
+        /**
+         * Runs iterations from a snapshot until the end of the search, at least one.
+         *
+         * @param grid Grid where the movement takes place.
+         * @param distances Distances of the grid's cells from the finish line.
+         * @param limits Highest safe speeds of the grid's cells.
+         * @param root Snapshot of the players.
+         * @param end Value of System.nanoTime() at which the search stops.
+         * @param seed Seed of the iterations' random moves.
+         */
+        private void search(Grid grid, DistanceField distances, SpeedLimits limits, int[] root, long end,
+                            long seed) {
+            this.grid = grid;
+            this.distances = distances;
+            this.limits = limits;
+            this.random = new SplittableRandom(seed);
+            if (players.length != root.length) players = new int[root.length];
+            nodeCount = 0;
+            newNode();
+
+            int rootDistance = distances.getDistance(root[0], root[1]);
+            do {
+                System.arraycopy(root, 0, players, 0, root.length);
+                iterate(rootDistance);
+            } while (System.nanoTime() - end < 0);
+        }
+
+        /**
+         * Returns the number of iterations that started with a move.
+         *
+         * @param direction Ordinal of the move.
+         * @return Visits of the root's child, 0 if it was never expanded.
+         */
+        private int rootVisits(int direction) {
+            int child = children[direction];
+            return nodeCount == 0 || child < 0 ? 0 : visits[child];
+        }
+
+        /**
+         * Returns the sum of the scores of the iterations that started with a move.
+         *
+         * @param direction Ordinal of the move.
+         * @return Rewards of the root's child, 0 if it was never expanded.
+         */
+        private double rootReward(int direction) {
+            int child = children[direction];
+            return nodeCount == 0 || child < 0 ? 0 : rewards[child];
+        }
+
+        /**
+         * Plays a game from the snapshot in players, choosing the moves with the tree until a node is
+         * expanded and randomly afterwards, then adds its score to the nodes passed.
+         *
+         * @param rootDistance Distance of the player from the finish line in the snapshot.
+         */
+        private void iterate(int rootDistance) {
+            int node = 0;
+            int length = 0;
+            path[length++] = node;
+            double reward = -1;
+            for (int turn = 1; reward < 0; turn++) {
+                if (turn > HORIZON) {
+                    reward = progress(rootDistance);
+                    break;
+                }
+                int moves = safeMoves(0);
+                if (moves == 0) {
+                    reward = 0;
+                    break;
+                }
+
+                int direction;
+                if (node >= 0) {
+                    int created = nodeCount;
+                    direction = select(node, moves);
+                    int child = children[node * Direction.COUNT + direction];
+                    if (child >= 0) path[length++] = child;
+                    //the tree grows by one node per iteration, the rest of the game is random
+                    node = child >= created ? -1 : child;
+                } else {
+                    direction = finishingMoves != 0 ? pick(finishingMoves) : pick(moves);
+                }
+
+                if (move(0, direction) == CellState.END) {
+                    reward = 1 - 0.5 * turn / HORIZON;
+                } else if (moveOthers()) {
+                    reward = 0;
+                }
+            }
+
+            for (int i = 0; i < length; i++) {
+                visits[path[i]]++;
+                rewards[path[i]] += reward;
+            }
+        }
+
+        /**
+         * Chooses the move of the player at a node: a move never tried there, which is expanded, or
+         * else the one with the highest UCB1 among the available ones.
+         *
+         * @param node Index of the node.
+         * @param moves Bit mask of the available moves.
+         * @return Ordinal of the chosen move.
+         */
+        private int select(int node, int moves) {
+            int base = node * Direction.COUNT;
+            int untried = 0;
+            for (int rest = moves; rest != 0; rest &= rest - 1) {
+                int direction = Integer.numberOfTrailingZeros(rest);
+                if (children[base + direction] < 0) untried |= 1 << direction;
+            }
+            if (untried != 0) {
+                int direction = pick(untried);
+                //a full tree is no longer expanded, and the iteration goes on randomly
+                if (nodeCount < MAX_NODES) children[base + direction] = newNode();
+                return direction;
+            }
+
+            double logVisits = Math.log(visits[node]);
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int rest = moves; rest != 0; rest &= rest - 1) {
+                int direction = Integer.numberOfTrailingZeros(rest);
+                int child = children[base + direction];
+                double score = rewards[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+                if (score > bestScore) {
+                    best = direction;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Moves every other player that hasn't crashed with a random move that stays on the track,
+         * crossing the finish line if it can. Players with no such move crash and stay where they are.
+         *
+         * @return True if one of them crossed the finish line.
+         */
+        private boolean moveOthers() {
+            for (int player = FIELDS; player < players.length; player += FIELDS) {
+                if (players[player + 4] != 0) continue;
+                int moves = safeMoves(player);
+                if (moves == 0) {
+                    players[player + 4] = 1;
+                } else if (finishingMoves != 0) {
+                    return true;
+                } else {
+                    move(player, pick(moves));
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the moves of a player that end on a free cell of the grid without crossing an
+         * OFFTRACK cell or leaving the player doomed to crash, and stores the ones that cross an END cell
+         * in finishingMoves.
+         *
+         * @param player Index of the player's first field.
+         * @return Bit mask of the safe moves.
+         */
+        private int safeMoves(int player) {
+            int x = players[player];
+            int y = players[player + 1];
+            int moves = 0;
+            finishingMoves = 0;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                Direction direction = Direction.fromOrdinal(d);
+                int moveX = players[player + 2] + direction.x();
+                int moveY = players[player + 3] + direction.y();
+                int newX = x + moveX;
+                int newY = y + moveY;
+                if (newX < 0 || newX >= grid.getWidth() || newY < 0 || newY >= grid.getHeight()
+                        || (moveX == 0 && moveY == 0) || isOccupied(newX, newY)) continue;
+
+                CellState result = grid.traverse(x, y, newX, newY);
+                if (result == CellState.OFFTRACK
+                        || result != CellState.END && limits.isDoomed(newX, newY, moveX, moveY)) continue;
+                moves |= 1 << d;
+                if (result == CellState.END) finishingMoves |= 1 << d;
+            }
+            return moves;
+        }
+
+        /**
+         * Checks if a player of the snapshot is on a cell.
+         *
+         * @param x Horizontal coordinate of the cell.
+         * @param y Vertical coordinate of the cell.
+         * @return True if the cell is occupied.
+         */
+        private boolean isOccupied(int x, int y) {
+            for (int player = 0; player < players.length; player += FIELDS) {
+                if (players[player] == x && players[player + 1] == y) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves a player of the snapshot.
+         *
+         * @param player Index of the player's first field.
+         * @param direction Ordinal of the move.
+         * @return The result of the move.
+         */
+        private CellState move(int player, int direction) {
+            Direction choice = Direction.fromOrdinal(direction);
+            int x = players[player];
+            int y = players[player + 1];
+            players[player + 2] += choice.x();
+            players[player + 3] += choice.y();
+            players[player] += players[player + 2];
+            players[player + 1] += players[player + 3];
+            return grid.traverse(x, y, players[player], players[player + 1]);
+        }
+
+        /**
+         * Scores a game still running after the horizon by how much closer to the finish line the player got.
+         *
+         * @param rootDistance Distance of the player from the finish line in the snapshot.
+         * @return Score between 0 and 0.5.
+         */
+        private double progress(int rootDistance) {
+            int distance = distances.getDistance(players[0], players[1]);
+            if (distance == DistanceField.UNREACHABLE) return 0;
+            double progress = (rootDistance - distance) / (double) Math.max(1, rootDistance);
+            return 0.25 * (1 + Math.max(-1, Math.min(1, progress)));
+        }
+
+        /**
+         * Picks one of the moves of a mask at random.
+         *
+         * @param moves Bit mask of the moves, not empty.
+         * @return Ordinal of the move.
+         */
+        private int pick(int moves) {
+            //drops the lowest set bits until the chosen one is the lowest
+            int index = random.nextInt(Integer.bitCount(moves));
+            for (int i = 0; i < index; i++) {
+                moves &= moves - 1;
+            }
+            return Integer.numberOfTrailingZeros(moves);
+        }
+
+        /**
+         * Adds a node with no children and no visits.
+         *
+         * @return Index of the node.
+         */
+        private int newNode() {
+            if (nodeCount == visits.length) {
+                visits = Arrays.copyOf(visits, 2 * nodeCount);
+                rewards = Arrays.copyOf(rewards, 2 * nodeCount);
+                children = Arrays.copyOf(children, 2 * nodeCount * Direction.COUNT);
+            }
+            Arrays.fill(children, nodeCount * Direction.COUNT, (nodeCount + 1) * Direction.COUNT, -1);
+            visits[nodeCount] = 0;
+            rewards[nodeCount] = 0;
+            return nodeCount++;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.DistanceField;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.SpeedLimits;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Implementation of Strategy that races to the finish line in the least number of turns. It runs an A*
+ * search over the states (position, velocity) reachable from the player's own; other players are
+ * only taken into account for the first move, since they will have moved by the time the next ones are made.
+ * <p>
+ * The heuristic is the least number of turns needed to cover the grid's distance field, the shortest
+ * walk to an END cell, if the speed could grow by two cells every turn. It never
+ * overestimates and never drops by more than one turn per move, so the first goal taken from the
+ * queue is an optimal one. States are packed in longs and kept in primitive collections that are
+ * reused between decisions; once a route is found it is followed without searching again as long
+ * as the player stays on it. When the number of explored states exceeds the limit, or the deadline
+ * of a timed choice passes, the player
+ * moves towards the deepest state found, the one it is sure to survive longest, preferring the
+ * closest to the finish line.
+ * <p>
+ * Every optimal route found is stored in the TranspositionTable of the track, which is shared by all the
+ * strategies playing on it, in any game: a player in a solved state moves without searching, and a search
+ * that reaches a solved state treats it as a goal whose remaining turns are known. States above the
+ * SpeedLimits of the track are doomed to crash, so they are never queued.
+ * <p>
+ * Instances keep a cache of the last route and are not thread safe, but every game gets its own
+ * through split. The table is thread safe.
+ */
+public final class StrategyOptimal implements Strategy {
+
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "OPTIMAL";
+    /**
+     * Description of the strategy.
+     */
+    public static final String DESCRIPTION = "Player races to the finish line in the least number of turns.";
+    /**
+     * Default maximum number of states generated in a single search.
+     */
+    public static final int DEFAULT_MAX_NODES = 1 << 17;
+    /**
+     * Bits of a queue entry holding the node index.
+     */
+    private static final int NODE_BITS = 24;
+    /**
+     * Mask of the expansions after which a timed search checks its deadline.
+     */
+    private static final int DEADLINE_CHECK_MASK = 255;
+    /**
+     * Bit set on the states of nodes that cross an END cell.
+     */
+    private static final long GOAL_BIT = 1L << 63;
+
+    /**
+     * Maximum number of states generated in a single search.
+     */
+    private final int maxNodes;
+    /**
+     * Queue of the nodes to expand, ordered by estimated total turns.
+     */
+    private final LongHeap open = new LongHeap(1024);
+    /**
+     * Best node found for every state.
+     */
+    private final LongIntMap visited = new LongIntMap(1024);
+    /**
+     * Packed state of every node.
+     */
+    private long[] nodeState = new long[1024];
+    /**
+     * Index of the node every node was generated from.
+     */
+    private int[] nodeParent = new int[1024];
+    /**
+     * Turns needed to reach every node.
+     */
+    private int[] nodeTurns = new int[1024];
+    /**
+     * Number of nodes generated by the current search.
+     */
+    private int nodeCount;
+    /**
+     * Grid the distances were taken from.
+     */
+    private Grid distanceGrid;
+    /**
+     * Shortest walking distance of every cell from an END cell.
+     */
+    private DistanceField distances;
+    /**
+     * Highest safe speeds of the cells of distanceGrid.
+     */
+    private SpeedLimits limits;
+    /**
+     * Solved states shared by the strategies on the track of distanceGrid.
+     */
+    private TranspositionTable table;
+    /**
+     * Grid the cached route was found on.
+     */
+    private Grid routeGrid;
+    /**
+     * States the cached route passes through, before every move.
+     */
+    private long[] routeStates = new long[0];
+    /**
+     * Directions of the cached route as ordinals.
+     */
+    private byte[] routeDirections = new byte[0];
+    /**
+     * Number of moves in the cached route.
+     */
+    private int routeLength;
+    /**
+     * Next move of the cached route.
+     */
+    private int routeStep;
+
+    /**
+     * Constructs a StrategyOptimal with the default search limit.
+     */
+    public StrategyOptimal() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Constructs a StrategyOptimal that gives up the complete search after a number of states.
+     *
+     * @param maxNodes Maximum number of states generated in a single search.
+     */
+    public StrategyOptimal(int maxNodes) {
+        assert maxNodes > 0 && maxNodes <= 1 << NODE_BITS;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Returns the first move of a route that reaches an END cell in the least number of turns.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    public Direction makeChoice(Grid grid, Move lastMove, Position position) throws NoPossibleMoveException {
+        return choose(grid, lastMove, position, false, 0);
+    }
+
+    /**
+     * Returns the first move of a route that reaches an END cell in the least number of turns, or of the
+     * best route found when the deadline passes or the search limit is reached.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param deadline Value of System.nanoTime() by which the choice should be made.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    public Direction makeChoice(Grid grid, Move lastMove, Position position, long deadline)
+            throws NoPossibleMoveException {
+        return choose(grid, lastMove, position, true, deadline);
+    }
+
+    /**
+     * Follows the cached route if the player is still on it, otherwise searches a new one.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param timed True if the search must stop at the deadline.
+     * @param deadline Value of System.nanoTime() at which the search stops, if timed.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    private Direction choose(Grid grid, Move lastMove, Position position, boolean timed, long deadline)
+            throws NoPossibleMoveException {
+        assert grid != null;
+        assert lastMove != null;
+        assert position != null;
+        assert grid.getWidth() <= Short.MAX_VALUE && grid.getHeight() <= Short.MAX_VALUE;
+        int choices = Strategy.possibleMovesMask(grid, lastMove, position);
+        if (choices == 0) {
+            throw new NoPossibleMoveException("No possible moves.");
+        }
+
+        long state = pack(position.x(), position.y(), lastMove.x(), lastMove.y());
+        //copies of the grid, like the ones strategies get in timed turns, can follow the same route
+        if (routeGrid != null && grid.hasSameTrack(routeGrid)
+                && routeStep < routeLength && routeStates[routeStep] == state
+                && (choices & 1 << routeDirections[routeStep]) != 0) {
+            return Direction.fromOrdinal(routeDirections[routeStep++]);
+        }
+
+        if (distanceGrid == null || !grid.hasSameTrack(distanceGrid)) {
+            distances = grid.getDistanceField();
+            limits = grid.getSpeedLimits();
+            table = TranspositionTable.forTrack(grid);
+            distanceGrid = grid;
+        }
+        //states solved by any strategy on the track are left without searching
+        long solved = table.probe(state);
+        if (solved != TranspositionTable.MISS
+                && (choices & 1 << TranspositionTable.direction(solved).ordinal()) != 0) {
+            routeLength = 0;
+            return TranspositionTable.direction(solved);
+        }
+        return search(grid, state, choices, timed, deadline);
+    }
+
+    /**
+     * Returns a new StrategyOptimal with the same search limit, so that its cache is not shared.
+     *
+     * @param random Generator to split, unused.
+     * @return New StrategyOptimal.
+     */
+    @Override
+    public StrategyOptimal split(SplittableRandom random) {
+        return new StrategyOptimal(maxNodes);
+    }
+
+    /**
+     * Runs the A* search from a state and returns the first move of the best route found.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param root State of the player.
+     * @param choices Bit mask of the moves available to the player.
+     * @param timed True if the search must stop at the deadline.
+     * @param deadline Value of System.nanoTime() at which the search stops, if timed.
+     * @return The chosen Direction.
+     */
+    private Direction search(Grid grid, long root, int choices, boolean timed, long deadline) {
+        open.clear();
+        visited.clear();
+        nodeCount = 0;
+        routeLength = 0;
+
+        int rootTurns = heuristic(root);
+        int best = addNode(root, -1, 0);
+        int bestTurns = rootTurns;
+        if (rootTurns >= 0) {
+            visited.put(root, best);
+            open.push(queueEntry(rootTurns, 0, best));
+        }
+
+        int expansions = 0;
+        search:
+        while (!open.isEmpty()) {
+            long entry = open.pop();
+            int node = (int) (entry & (1 << NODE_BITS) - 1);
+            long state = nodeState[node];
+            if ((state & GOAL_BIT) != 0) {
+                return followRoute(grid, node, (int) (entry >>> 40));
+            }
+            if (visited.get(state, -1) != node) continue;
+            //the clock is read only every few expansions
+            if (timed && (++expansions & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline >= 0) break;
+
+            int x = unpackX(state);
+            int y = unpackY(state);
+            int moveX = unpackMoveX(state);
+            int moveY = unpackMoveY(state);
+            int turns = nodeTurns[node] + 1;
+            int moves = node == 0 ? choices : (1 << Direction.COUNT) - 1;
+
+            for (; moves != 0; moves &= moves - 1) {
+                Direction direction = Direction.fromOrdinal(Integer.numberOfTrailingZeros(moves));
+                int newMoveX = moveX + direction.x();
+                int newMoveY = moveY + direction.y();
+                int newX = x + newMoveX;
+                int newY = y + newMoveY;
+                if (newX < 0 || newX >= grid.getWidth() || newY < 0 || newY >= grid.getHeight()
+                        || (newMoveX == 0 && newMoveY == 0)) continue;
+
+                CellState result = grid.traverse(x, y, newX, newY);
+                if (result == CellState.OFFTRACK) continue;
+                if (nodeCount == maxNodes) break search;
+
+                long newState = pack(newX, newY, newMoveX, newMoveY);
+                if (result == CellState.END) {
+                    int goal = addNode(newState | GOAL_BIT, node, turns);
+                    open.push(queueEntry(turns, turns, goal));
+                    continue;
+                }
+                //a solved state is a goal whose remaining turns are known
+                long solved = table.probe(newState);
+                if (solved != TranspositionTable.MISS) {
+                    int goal = addNode(newState | GOAL_BIT, node, turns);
+                    open.push(queueEntry(turns + TranspositionTable.turns(solved), turns, goal));
+                    continue;
+                }
+
+                //doomed states can't reach a goal, and leaving them out keeps the queue small
+                if (limits.isDoomed(newX, newY, newMoveX, newMoveY)) continue;
+
+                int known = visited.get(newState, -1);
+                if (known >= 0 && nodeTurns[known] <= turns) continue;
+                int estimate = heuristic(newState);
+                if (estimate < 0) continue;
+
+                int child = addNode(newState, node, turns);
+                visited.put(newState, child);
+                open.push(queueEntry(turns + estimate, turns, child));
+                if (turns > nodeTurns[best] || (turns == nodeTurns[best] && estimate < bestTurns)) {
+                    best = child;
+                    bestTurns = estimate;
+                }
+            }
+        }
+
+        if (best == 0) {
+            int safe = choices & Strategy.safeMovesMask(grid, unpackX(root), unpackY(root),
+                    unpackMoveX(root), unpackMoveY(root));
+            return Direction.fromOrdinal(Integer.numberOfTrailingZeros(safe != 0 ? safe : choices));
+        }
+        return followRoute(grid, best, -1);
+    }
+
+    /**
+     * Stores the route from the root to a node and returns its first move. Only routes that reach
+     * a goal are kept for the next decisions, and their states after the first move are added to the
+     * table: the first move is the only one limited by the other players, so the root's own remaining
+     * turns might not be the least possible.
+     *
+     * @param grid Grid the route was found on.
+     * @param node Last node of the route.
+     * @param total Turns from the root to an END cell through the route, if the node is a goal.
+     * @return First move of the route.
+     */
+    private Direction followRoute(Grid grid, int node, int total) {
+        int length = nodeTurns[node];
+        if (routeStates.length < length) {
+            routeStates = new long[Math.max(length, 2 * routeStates.length)];
+            routeDirections = new byte[routeStates.length];
+        }
+
+        for (int child = node, i = length - 1; i >= 0; child = nodeParent[child], i--) {
+            long parent = nodeState[nodeParent[child]];
+            int directionX = unpackMoveX(nodeState[child]) - unpackMoveX(parent);
+            int directionY = unpackMoveY(nodeState[child]) - unpackMoveY(parent);
+            routeStates[i] = parent;
+            routeDirections[i] = (byte) toDirection(directionX, directionY).ordinal();
+        }
+
+        boolean complete = (nodeState[node] & GOAL_BIT) != 0;
+        if (complete) {
+            for (int i = 1; i < length; i++) {
+                table.store(routeStates[i], total - i, Direction.fromOrdinal(routeDirections[i]));
+            }
+        }
+        routeGrid = complete ? grid : null;
+        routeLength = complete ? length : 0;
+        routeStep = 1;
+        return Direction.fromOrdinal(routeDirections[0]);
+    }
+
+    /**
+     * Returns the least number of turns needed to reach an END cell from a state, or -1 if
+     * no END cell can be reached from its position. The speed along the shortest path can grow
+     * by at most two cells a turn, so t turns cover at most t * speed + t * (t + 1) cells.
+     *
+     * @param state Packed state.
+     * @return Lower bound on the turns to the finish line, or -1.
+     */
+    private int heuristic(long state) {
+        int distance = distances.getDistance(unpackX(state), unpackY(state));
+        if (distance == DistanceField.UNREACHABLE) return -1;
+
+        long speed = Math.abs(unpackMoveX(state)) + Math.abs(unpackMoveY(state));
+        long turns = Math.max(1, (long) Math.ceil(
+                (Math.sqrt((double) (speed + 1) * (speed + 1) + 4.0 * distance) - (speed + 1)) / 2));
+        while (turns * speed + turns * (turns + 1) < distance) turns++;
+        while (turns > 1 && (turns - 1) * speed + (turns - 1) * turns >= distance) turns--;
+        return (int) turns;
+    }
+
+    /**
+     * Appends a node to the search tree.
+     *
+     * @param state Packed state of the node.
+     * @param parent Node it was generated from, -1 for the root.
+     * @param turns Turns needed to reach it.
+     * @return Index of the node.
+     */
+    private int addNode(long state, int parent, int turns) {
+        if (nodeCount == nodeState.length) {
+            int capacity = Math.min(nodeCount * 2, maxNodes + 1);
+            nodeState = Arrays.copyOf(nodeState, capacity);
+            nodeParent = Arrays.copyOf(nodeParent, capacity);
+            nodeTurns = Arrays.copyOf(nodeTurns, capacity);
+        }
+        nodeState[nodeCount] = state;
+        nodeParent[nodeCount] = parent;
+        nodeTurns[nodeCount] = turns;
+        return nodeCount++;
+    }
+
+    /**
+     * Packs a node in a queue entry. Entries are ordered by estimated total turns, then by
+     * turns already made, the most first.
+     *
+     * @param estimate Estimated total turns.
+     * @param turns Turns needed to reach the node.
+     * @param node Index of the node.
+     * @return Queue entry.
+     */
+    private static long queueEntry(int estimate, int turns, int node) {
+        long depth = 0xFFFF - Math.min(turns, 0xFFFF);
+        return (long) estimate << 40 | depth << NODE_BITS | node;
+    }
+
+    /**
+     * Returns the Direction that changes a move by the given amounts.
+     *
+     * @param x Horizontal change.
+     * @param y Vertical change.
+     * @return The matching Direction.
+     */
+    private static Direction toDirection(int x, int y) {
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction direction = Direction.fromOrdinal(i);
+            if (direction.x() == x && direction.y() == y) return direction;
+        }
+        throw new IllegalArgumentException("No direction changes a move by " + x + ", " + y + ".");
+    }
+
+    /**
+     * Packs a position and a move in a long, 16 bits each.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @param moveX Horizontal component of the move.
+     * @param moveY Vertical component of the move.
+     * @return Packed state.
+     */
+    static long pack(int x, int y, int moveX, int moveY) {
+        return (long) x << 48 | (long) y << 32 | (long) (moveX & 0xFFFF) << 16 | moveY & 0xFFFF;
+    }
+
+    /**
+     * Returns the horizontal coordinate of a packed state.
+     *
+     * @param state Packed state.
+     * @return Horizontal coordinate.
+     */
+    static int unpackX(long state) {
+        return (int) (state >>> 48) & 0x7FFF;
+    }
+
+    /**
+     * Returns the vertical coordinate of a packed state.
+     *
+     * @param state Packed state.
+     * @return Vertical coordinate.
+     */
+    static int unpackY(long state) {
+        return (int) (state >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Returns the horizontal component of the move of a packed state.
+     *
+     * @param state Packed state.
+     * @return Horizontal component of the move.
+     */
+    static int unpackMoveX(long state) {
+        return (short) (state >>> 16);
+    }
+
+    /**
+     * Returns the vertical component of the move of a packed state.
+     *
+     * @param state Packed state.
+     * @return Vertical component of the move.
+     */
+    static int unpackMoveY(long state) {
+        return (short) state;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Implementation of Strategy that races to the finish line in the least number of turns by reading the
+ * PolicyTable of the track, so that every choice takes constant time. Tables are solved offline and
+ * looked up by PolicyTable.forTrack the first time a track is played.
+ * <p>
+ * If the best move is blocked by another player, the strategy takes the available move that leads
+ * to the state closest to the finish line. When the track has no table, or no available move leads
+ * to a solved state, the choice is left to a StrategyOptimal search.
+ */
+public final class StrategyOptimalTable implements Strategy {
+
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "OPTIMAL_TABLE";
+    /**
+     * Description of the strategy.
+     */
+    public static final String DESCRIPTION = "Player races to the finish line reading a precomputed table.";
+
+    /**
+     * Logger of the tables that can't be read.
+     */
+    private static final System.Logger LOGGER = System.getLogger(StrategyOptimalTable.class.getName());
+    /**
+     * Search used where the table can't help.
+     */
+    private final StrategyOptimal search = new StrategyOptimal();
+    /**
+     * Grid the table was looked up for.
+     */
+    private Grid tableGrid;
+    /**
+     * Table of the track of tableGrid, or null if it has none.
+     */
+    private PolicyTable table;
+
+    /**
+     * Returns the first move of a route that reaches an END cell in the least number of turns.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    public Direction makeChoice(Grid grid, Move lastMove, Position position) throws NoPossibleMoveException {
+        Direction choice = lookUp(grid, lastMove, position);
+        return choice != null ? choice : search.makeChoice(grid, lastMove, position);
+    }
+
+    /**
+     * Returns the first move of a route that reaches an END cell in the least number of turns. Only
+     * the search that replaces the table when it can't help is limited by the deadline.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @param deadline Value of System.nanoTime() by which the choice should be made.
+     * @return The chosen Direction.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    @Override
+    public Direction makeChoice(Grid grid, Move lastMove, Position position, long deadline)
+            throws NoPossibleMoveException {
+        Direction choice = lookUp(grid, lastMove, position);
+        return choice != null ? choice : search.makeChoice(grid, lastMove, position, deadline);
+    }
+
+    /**
+     * Returns a new StrategyOptimalTable, so that the cache of its search is not shared.
+     *
+     * @param random Generator to split, unused.
+     * @return New StrategyOptimalTable.
+     */
+    @Override
+    public StrategyOptimalTable split(SplittableRandom random) {
+        return new StrategyOptimalTable();
+    }
+
+    /**
+     * Reads the best available move from the table of the track.
+     *
+     * @param grid Grid where the movement takes place.
+     * @param lastMove The last move executed by a player.
+     * @param position The current position of a player on the grid.
+     * @return The chosen Direction, or null if the table can't tell.
+     * @throws NoPossibleMoveException If there is no possible move to perform.
+     */
+    private Direction lookUp(Grid grid, Move lastMove, Position position) throws NoPossibleMoveException {
+        assert grid != null;
+        assert lastMove != null;
+        assert position != null;
+        int choices = Strategy.possibleMovesMask(grid, lastMove, position);
+        if (choices == 0) {
+            throw new NoPossibleMoveException("No possible moves.");
+        }
+
+        if (tableGrid == null || !grid.hasSameTrack(tableGrid)) {
+            try {
+                table = PolicyTable.forTrack(grid);
+            } catch (IOException e) {
+                //an unreadable table is as good as none: every choice is searched, and only the first
+                //look up of the track throws, so the problem is reported once
+                LOGGER.log(System.Logger.Level.WARNING, "Policy table ignored: " + e.getMessage());
+                table = null;
+            }
+            tableGrid = grid;
+        }
+        if (table == null) return null;
+
+        int x = position.x();
+        int y = position.y();
+        int entry = table.probe(x, y, lastMove.x(), lastMove.y());
+        if (entry != PolicyTable.MISS && (choices & 1 << PolicyTable.direction(entry).ordinal()) != 0) {
+            return PolicyTable.direction(entry);
+        }
+
+        //the best move is blocked, so the next best state is looked for among the available ones
+        Direction best = null;
+        int bestTurns = Integer.MAX_VALUE;
+        for (; choices != 0; choices &= choices - 1) {
+            Direction direction = Direction.fromOrdinal(Integer.numberOfTrailingZeros(choices));
+            int moveX = lastMove.x() + direction.x();
+            int moveY = lastMove.y() + direction.y();
+            if (moveX == 0 && moveY == 0) continue;
+
+            CellState result = grid.traverse(x, y, x + moveX, y + moveY);
+            if (result == CellState.END) return direction;
+            if (result == CellState.OFFTRACK) continue;
+            int next = table.probe(x + moveX, y + moveY, moveX, moveY);
+            if (next != PolicyTable.MISS && PolicyTable.turns(next) < bestTurns) {
+                best = direction;
+                bestTurns = PolicyTable.turns(next);
+            }
+        }
+        return best;
+    }
+}
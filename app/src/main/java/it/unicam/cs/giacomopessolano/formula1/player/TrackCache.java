@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of one value per track, shared by the strategies playing on it. Tracks are told apart by their
+ * fingerprint, so the cache holds no grid and nothing of the games played on them; only the values of
+ * the last few tracks used are kept.
+ *
+ * @param <T> Type of the values.
+ */
+final class TrackCache<T> {
+
+    /**
+     * Values of the kept tracks by fingerprint, the most recently used last.
+     */
+    private final Map<Long, T> values;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity Maximum number of tracks whose values are kept.
+     */
+    TrackCache(int capacity) {
+        assert capacity > 0;
+        this.values = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the value of a track, loading it if the track is not kept. A track whose value can't be
+     * loaded is kept with a null value, so the failure is only thrown the first time.
+     *
+     * @param grid   Grid of the track.
+     * @param loader Function that loads the value of a track.
+     * @param <E>    Type of the exception thrown by the loader.
+     * @return Value of the track, or null if the loader returned null or failed before.
+     * @throws E If the loader fails.
+     */
+    synchronized <E extends Exception> T get(Grid grid, Loader<T, E> loader) throws E {
+        assert grid != null;
+        assert loader != null;
+        long fingerprint = grid.getFingerprint();
+        if (values.containsKey(fingerprint)) return values.get(fingerprint);
+
+        T value = null;
+        try {
+            value = loader.load(grid);
+        } finally {
+            values.put(fingerprint, value);
+        }
+        return value;
+    }
+
+    /**
+     * Forgets the values of every track, so they are loaded again.
+     */
+    synchronized void clear() {
+        values.clear();
+    }
+
+    /**
+     * Function that loads the value of a track.
+     *
+     * @param <T> Type of the value.
+     * @param <E> Type of the exception thrown when the value can't be loaded.
+     */
+    @FunctionalInterface
+    interface Loader<T, E extends Exception> {
+
+        /**
+         * Loads the value of a track.
+         *
+         * @param grid Grid of the track.
+         * @return Value of the track.
+         * @throws E If the value can't be loaded.
+         */
+        T load(Grid grid) throws E;
+    }
+}
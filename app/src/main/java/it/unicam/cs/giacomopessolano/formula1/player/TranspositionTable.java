@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bounded table of solved states that search strategies share across turns, players and games on the
+ * same track. A state (position and move, packed in a long) is mapped to the least number of turns
+ * its player needs to reach an END cell and to the direction of the first of those turns.
+ * <p>
+ * Entries live in two primitive arrays and are read and written without locks, so any number of threads
+ * can probe and store at the same time. Every slot keeps its data and the XOR of its key with its data:
+ * a slot whose two words were written by different threads no longer matches its key and reads as a
+ * miss instead of a wrong entry. Slots are grouped in buckets of two; a new entry takes the slot of the
+ * same key if there is one, otherwise the slot whose entry is the closest to the finish line, which is
+ * the cheapest to find again. The table never grows, so entries can be lost but memory stays bounded.
+ */
+public final class TranspositionTable {
+
+    /**
+     * Returned by probe when the state is not in the table.
+     */
+    public static final long MISS = -1;
+    /**
+     * Number of entries of the tables returned by forTrack.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 19;
+    /**
+     * Maximum number of tracks whose tables are kept by forTrack.
+     */
+    private static final int MAX_TRACKS = 4;
+    /**
+     * Bit set on the data of every entry, so that empty slots never match a key.
+     */
+    private static final long VALID_BIT = 1L << 62;
+    /**
+     * Bits of the data holding the direction.
+     */
+    private static final int DIRECTION_BITS = 8;
+    /**
+     * Access to the slots that is atomic for longs without ordering them.
+     */
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    /**
+     * Tables of the tracks returned by forTrack.
+     */
+    private static final TrackCache<TranspositionTable> tables = new TrackCache<>(MAX_TRACKS);
+
+    /**
+     * XOR of the key and the data of every slot.
+     */
+    private final long[] checks;
+    /**
+     * Data of every slot.
+     */
+    private final long[] data;
+    /**
+     * Shift that turns the upper half of a hash into the index of a bucket.
+     */
+    private final int bucketShift;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param capacity Number of entries, a power of two not lower than two.
+     */
+    public TranspositionTable(int capacity) {
+        assert capacity >= 2 && Integer.bitCount(capacity) == 1;
+        this.checks = new long[capacity];
+        this.data = new long[capacity];
+        this.bucketShift = 32 - Integer.numberOfTrailingZeros(capacity / 2);
+    }
+
+    /**
+     * Returns the table shared by the strategies playing on a track, creating it if needed. Grids with the
+     * same cells share a table, even if they were loaded separately; only the tables of the last few tracks
+     * used are kept.
+     *
+     * @param grid Grid of the track.
+     * @return Table of the track.
+     */
+    public static TranspositionTable forTrack(Grid grid) {
+        return tables.get(grid, track -> new TranspositionTable(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Packs a state in the key used by the table.
+     *
+     * @param position Position of the player.
+     * @param lastMove Last move of the player.
+     * @return Key of the state.
+     */
+    public static long key(Position position, Move lastMove) {
+        return StrategyOptimal.pack(position.x(), position.y(), lastMove.x(), lastMove.y());
+    }
+
+    /**
+     * Looks for a state in the table.
+     *
+     * @param key Packed state.
+     * @return The entry of the state, to be read with turns and direction, or MISS.
+     */
+    public long probe(long key) {
+        int slot = bucket(key);
+        for (int i = slot; i < slot + 2; i++) {
+            long value = (long) SLOTS.getOpaque(data, i);
+            if (matches(i, value, key)) return value;
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores a solved state.
+     *
+     * @param key       Packed state.
+     * @param turns     Least number of turns needed to reach an END cell from the state.
+     * @param direction First direction of a route that takes that many turns.
+     */
+    public void store(long key, int turns, Direction direction) {
+        assert turns > 0;
+        assert direction != null;
+
+        long value = VALID_BIT | (long) turns << DIRECTION_BITS | direction.ordinal();
+        int slot = bucket(key);
+        long first = (long) SLOTS.getOpaque(data, slot);
+        long second = (long) SLOTS.getOpaque(data, slot + 1);
+        int target;
+        if (matches(slot, first, key)) {
+            target = slot;
+        } else if (matches(slot + 1, second, key)) {
+            target = slot + 1;
+        } else {
+            //empty slots count as zero turns, so they are taken first
+            target = turns(second) <= turns(first) ? slot + 1 : slot;
+        }
+        SLOTS.setOpaque(data, target, value);
+        SLOTS.setOpaque(checks, target, key ^ value);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (int i = 0; i < data.length; i++) {
+            SLOTS.setOpaque(data, i, 0L);
+            SLOTS.setOpaque(checks, i, 0L);
+        }
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return Capacity of the table.
+     */
+    public int getCapacity() {
+        return data.length;
+    }
+
+    /**
+     * Returns the turns needed to reach an END cell from the state of an entry.
+     *
+     * @param entry Entry returned by probe.
+     * @return Least number of turns to the finish line, 0 for empty slots.
+     */
+    public static int turns(long entry) {
+        return (int) ((entry & ~VALID_BIT) >>> DIRECTION_BITS);
+    }
+
+    /**
+     * Returns the first direction of the route of an entry.
+     *
+     * @param entry Entry returned by probe.
+     * @return First direction of the route.
+     */
+    public static Direction direction(long entry) {
+        return Direction.fromOrdinal((int) entry & (1 << DIRECTION_BITS) - 1);
+    }
+
+    /**
+     * Checks if a slot holds the entry of a key.
+     *
+     * @param slot  Index of the slot.
+     * @param value Data read from the slot.
+     * @param key   Packed state.
+     * @return True if the slot is valid and its check matches the key.
+     */
+    private boolean matches(int slot, long value, long key) {
+        return (value & VALID_BIT) != 0 && ((long) SLOTS.getOpaque(checks, slot) ^ value) == key;
+    }
+
+    /**
+     * Returns the first slot of the bucket of a key. The halves of the key are folded before the
+     * multiplication, whose top bits depend on every bit of its operand, so positions and moves
+     * are both spread over the table.
+     *
+     * @param key Packed state.
+     * @return Index of the bucket's first slot.
+     */
+    private int bucket(long key) {
+        long hash = (key ^ key >>> 32) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32 >>> bucketShift) << 1;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.grid.ArrayGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameInitializerFromTxtTest {
+
+    @Test
+    void testSamePlayersAndGridAsSeparateInitializers() throws IOException {
+        GameInitializer initializer = new GameInitializerFromTxt("small.txt", new ArrayGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+
+        ArrayGridInitializerFromTxt gridInitializer = new ArrayGridInitializerFromTxt();
+        gridInitializer.initialize("small.txt");
+        PlayerBotInitializerFromTxt playerInitializer = new PlayerBotInitializerFromTxt();
+        playerInitializer.initialize("small.txt");
+
+        assertEquals(gridInitializer.getGrid(), initializer.parseGrid());
+        assertEquals(playerInitializer.getPlayers().size(), initializer.parseTurns().size());
+        for (int i = 0; i < initializer.parseTurns().size(); i++) {
+            Player expected = playerInitializer.getPlayers().get(i);
+            Player actual = initializer.parseTurns().get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getLastMove(), actual.getLastMove());
+            assertEquals(playerInitializer.getPositions().get(expected), initializer.parsePlayers().get(actual));
+        }
+    }
+
+    @Test
+    void testPlayersWithSameNameAndStrategy() throws IOException {
+        GameInitializer initializer = new GameInitializerFromTxt("twins.txt", new ArrayGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+        assertEquals(2, initializer.parseTurns().size());
+        assertEquals(2, initializer.parsePlayers().size());
+
+        GameManager game = new GameManagerStandard(initializer);
+        game.startGame(1);
+        Player first = game.getCurrentPlayer();
+        game.nextTurn(new TurnManagerStandard());
+        Player second = game.getCurrentPlayer();
+        assertNotEquals(first, second);
+        assertEquals("1", game.getID(first));
+        assertEquals("2", game.getID(second));
+        assertEquals(2, game.getPlayerPositions().size());
+    }
+
+    @Test
+    void testWrongFiles() {
+        assertThrows(IncorrectConfigurationException.class, () -> new GameInitializerFromTxt("wrong.json",
+                new ArrayGridInitializerFromTxt(), new PlayerBotInitializerFromTxt()));
+        assertThrows(IncorrectConfigurationException.class, () -> new GameInitializerFromTxt("wrong.txt",
+                new ArrayGridInitializerFromTxt(), new PlayerBotInitializerFromTxt()));
+        assertThrows(UnrecognizedFileException.class, () -> new GameInitializerFromTxt("non-existent.txt",
+                new ArrayGridInitializerFromTxt(), new PlayerBotInitializerFromTxt()));
+    }
+
+}
@@ -31,6 +31,7 @@ import it.unicam.cs.giacomopessolano.formula1.player.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -130,6 +131,124 @@ class GameManagerStandardTest {
         assertEquals(testPlayer1, gameManager.getWinner());
     }
 
+    @Test
+    void testFork() {
+        GameManagerStandard gameManager = new GameManagerStandard(testInitializer);
+        gameManager.startGame();
+        GameManager fork = gameManager.fork();
+
+        assertTrue(fork.isGameRunning());
+        assertEquals(gameManager.getCurrentPlayer(), fork.getCurrentPlayer());
+        assertNotSame(gameManager.getCurrentPlayer(), fork.getCurrentPlayer());
+        assertNotSame(gameManager.getGrid(), fork.getGrid());
+        assertEquals(gameManager.getPlayerPositions(), fork.getPlayerPositions());
+
+        //advancing the fork doesn't affect the original game
+        fork.nextTurn(new TurnManagerStandard());
+        assertEquals(testPlayer2, fork.getCurrentPlayer());
+        assertEquals(testPlayer1, gameManager.getCurrentPlayer());
+        assertEquals(new Position(0, 0), gameManager.getPlayerPosition(gameManager.getCurrentPlayer()));
+        assertTrue(gameManager.getGrid().isOccupied(0, 0));
+        assertEquals(gameManager.getCurrentPlayer().getLastMove(), new Move(0, 0));
+    }
+
+    @Test
+    void testForkKeepsOccupantsConsistent() {
+        GameManagerStandard gameManager = new GameManagerStandard(testInitializer);
+        gameManager.startGame();
+        GameManager fork = gameManager.fork();
+
+        Player forkedPlayer = fork.getCurrentPlayer();
+        Position position = fork.getPlayerPosition(forkedPlayer);
+        assertSame(forkedPlayer, fork.getGrid().getCell(position).getPlayer());
+
+        forkedPlayer.crash();
+        assertTrue(fork.getGrid().getCell(position).getPlayer().hasCrashed());
+        assertFalse(gameManager.getGrid().getCell(position).getPlayer().hasCrashed());
+    }
+
+    @Test
+    void testForksShareTrack() {
+        GameManagerStandard gameManager = new GameManagerStandard(testInitializer);
+        gameManager.startGame();
+        GameManager fork = gameManager.fork();
+
+        //forks of a game on an ArrayGrid don't copy its cells
+        assertInstanceOf(PackedGrid.class, fork.getGrid());
+        assertSame(gameManager.getGrid().getTrack(), fork.getGrid().getTrack());
+        assertTrue(fork.getGrid().hasSameTrack(fork.fork().getGrid()));
+        assertTrue(gameManager.getGrid().hasSameTrack(fork.getGrid()));
+        assertTrue(fork.getGrid().hasSameTrack(gameManager.getGrid()));
+        assertEquals(gameManager.getGrid().getFingerprint(), fork.getGrid().getFingerprint());
+    }
+
+    @Test
+    void testSameSeedSameGame() {
+        GameManagerStandard first = new GameManagerStandard(testInitializer);
+        GameManagerStandard second = new GameManagerStandard(testInitializer);
+        TurnManager turnManager = new TurnManagerStandard();
+        first.startGame(42);
+        second.startGame(42);
+
+        assertEquals(42, first.getSeed());
+        for (int i = 0; i < 20 && first.isGameRunning(); i++) {
+            first.nextTurn(turnManager);
+            second.nextTurn(turnManager);
+            assertEquals(first.getPlayerPositions(), second.getPlayerPositions());
+        }
+        assertEquals(first.isGameRunning(), second.isGameRunning());
+        assertEquals(first.getWinner(), second.getWinner());
+    }
+
+    private static long recomputeStateHash(GameManager game) {
+        List<Player> players = new ArrayList<>(Collections.nCopies(game.getPlayerPositions().size(), null));
+        for (Player player : game.getPlayerPositions().keySet()) {
+            players.set(Integer.parseInt(game.getID(player)) - 1, player);
+        }
+        int turn = Integer.parseInt(game.getID(game.getCurrentPlayer())) - 1;
+        return ZobristHash.of(players, game.getPlayerPositions(), turn);
+    }
+
+    @Test
+    void testStateHashIsIncremental() throws IOException {
+        GameInitializer initializer = new GameInitializerFromTxt("small.txt", new ArrayGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+        TurnManager turnManager = new TurnManagerStandard();
+        for (long seed = 0; seed < 30; seed++) {
+            GameManagerStandard game = new GameManagerStandard(initializer);
+            game.startGame(seed);
+            assertEquals(recomputeStateHash(game), game.getStateHash());
+            while (game.isGameRunning()) {
+                game.nextTurn(turnManager);
+                assertEquals(recomputeStateHash(game), game.getStateHash());
+            }
+        }
+    }
+
+    @Test
+    void testStateHashIdentifiesStates() {
+        //players that never accelerate come back to the starting state after a round
+        TurnManager standStill = new TurnManagerStandard() {
+            @Override
+            protected Direction chooseDirection(Grid grid, Player player, Position position) {
+                return Direction.CENTER;
+            }
+        };
+        GameManagerStandard gameManager = new GameManagerStandard(testInitializer);
+        gameManager.startGame(1);
+        long start = gameManager.getStateHash();
+
+        gameManager.nextTurn(standStill);
+        assertNotEquals(start, gameManager.getStateHash());
+        gameManager.nextTurn(standStill);
+        assertEquals(start, gameManager.getStateHash());
+
+        GameManager fork = gameManager.fork();
+        assertEquals(gameManager.getStateHash(), fork.getStateHash());
+        fork.nextTurn(new TurnManagerStandard());
+        assertNotEquals(gameManager.getStateHash(), fork.getStateHash());
+    }
+
     //used to initialize a game without having to load it from a file
     private static class TestGameInitializer implements GameInitializer {
         private final Grid grid;
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.ArrayGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSimulationTest {
+    private GameManagerStandard game;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GameInitializer initializer = new GameInitializerFromTxt("small.txt", new ArrayGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+        game = new GameManagerStandard(initializer);
+        game.startGame(42);
+    }
+
+    @Test
+    void testPublishesFinalState() throws InterruptedException {
+        GameSimulation simulation = new GameSimulation(game, new TurnManagerStandard());
+        Thread engine = new Thread(simulation);
+        engine.start();
+        engine.join();
+
+        assertFalse(game.isGameRunning());
+        assertTrue(simulation.getTurns() > 0);
+
+        GameManager snapshot = simulation.poll();
+        assertNotNull(snapshot);
+        assertNotSame(game, snapshot);
+        assertFalse(snapshot.isGameRunning());
+        assertEquals(new HashSet<>(game.getPlayerPositions().values()),
+                new HashSet<>(snapshot.getPlayerPositions().values()));
+        //every snapshot is taken only once
+        assertNull(simulation.poll());
+    }
+
+    @Test
+    void testPublishesLatestTurn() {
+        List<GameManager> polled = new ArrayList<>();
+        List<Set<Position>> expected = new ArrayList<>();
+        GameSimulation[] simulation = new GameSimulation[1];
+        TurnManager turnManager = new TurnManagerStandard() {
+            private int calls = 0;
+
+            @Override
+            public CellState executeMove(Grid grid, Player player, Map<Player, Position> positions) {
+                //the interface polls after two turns were played without taking a snapshot
+                if (++calls == 3) {
+                    polled.add(simulation[0].poll());
+                    expected.add(new HashSet<>(positions.values()));
+                }
+                return super.executeMove(grid, player, positions);
+            }
+        };
+        simulation[0] = new GameSimulation(game, turnManager);
+        simulation[0].run();
+
+        assertEquals(1, polled.size());
+        assertEquals(expected.get(0), new HashSet<>(polled.get(0).getPlayerPositions().values()));
+    }
+
+    @Test
+    void testSnapshotsShareTrack() {
+        GameSimulation simulation = new GameSimulation(game, new TurnManagerStandard());
+        simulation.run();
+
+        assertTrue(simulation.poll().getGrid().hasSameTrack(game.getGrid()));
+    }
+
+    @Test
+    void testStop() {
+        GameSimulation simulation = new GameSimulation(game, new TurnManagerStandard());
+        simulation.stop();
+        simulation.run();
+
+        assertEquals(0, simulation.getTurns());
+        assertTrue(game.isGameRunning());
+        assertTrue(simulation.poll().isGameRunning());
+    }
+}
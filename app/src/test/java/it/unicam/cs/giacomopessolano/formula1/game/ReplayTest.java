@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.grid.*;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+    private GameInitializer initializer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        initializer = new GameInitializerFromTxt("small.txt", new ArrayGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+    }
+
+    private Replay record(long seed, GameManagerStandard game) {
+        TurnManagerRecording recorder = new TurnManagerRecording();
+        game.startGame(seed);
+        while (game.isGameRunning()) {
+            game.nextTurn(recorder);
+        }
+        return recorder.toReplay("small.txt", initializer, seed);
+    }
+
+    private static Map<String, Position> positionsByName(GameManager game) {
+        Map<String, Position> positions = new HashMap<>();
+        for (Map.Entry<Player, Position> entry : game.getPlayerPositions().entrySet()) {
+            positions.put(entry.getKey().getName(), entry.getValue());
+        }
+        return positions;
+    }
+
+    @Test
+    void testReplayReproducesGame() throws IncorrectConfigurationException {
+        for (long seed = 0; seed < 20; seed++) {
+            GameManagerStandard game = new GameManagerStandard(initializer);
+            Replay replay = record(seed, game);
+
+            GameManagerStandard replayed = replay.playTo(initializer.parseGrid(), Long.MAX_VALUE);
+            assertFalse(replayed.isGameRunning());
+            assertEquals(positionsByName(game), positionsByName(replayed));
+            assertEquals(game.getWinner() == null ? null : game.getWinner().getName(),
+                    replayed.getWinner() == null ? null : replayed.getWinner().getName());
+        }
+    }
+
+    @Test
+    void testRoster() {
+        Replay replay = record(1, new GameManagerStandard(initializer));
+
+        assertEquals(List.of(new Replay.Entrant("Zorro", new Position(1, 1), Direction.DOWN),
+                new Replay.Entrant("Giacomo", new Position(1, 2), Direction.UP)), replay.getRoster());
+        assertEquals(1, replay.getSeed());
+        assertEquals(initializer.parseGrid().getFingerprint(), replay.getFingerprint());
+    }
+
+    @Test
+    void testMovesArePacked() {
+        TurnManagerRecording recorder = new TurnManagerRecording(new TurnManagerStandard() {
+            private int calls = 0;
+
+            @Override
+            protected Direction chooseDirection(Grid grid, Player player, Position position)
+                    throws NoPossibleMoveException {
+                if (calls++ == 1) throw new NoPossibleMoveException("No possible moves.");
+                return Direction.CENTER;
+            }
+        });
+        GameManagerStandard game = new GameManagerStandard(initializer);
+        game.startGame(7);
+        game.nextTurn(recorder);
+        game.nextTurn(recorder);
+        game.nextTurn(recorder);
+
+        Replay replay = recorder.toReplay("small.txt", initializer, 7);
+        assertEquals(3, replay.getMoveCount());
+        assertEquals(Direction.CENTER.ordinal(), replay.getMove(0));
+        assertEquals(Replay.NO_MOVE, replay.getMove(1));
+        assertEquals(Direction.CENTER.ordinal(), replay.getMove(2));
+
+        recorder.reset();
+        assertEquals(0, recorder.getMoveCount());
+    }
+
+    @Test
+    void testLogRoundTrip() throws IOException {
+        List<Replay> replays = new ArrayList<>();
+        for (long seed = 0; seed < 5; seed++) {
+            replays.add(record(seed, new GameManagerStandard(initializer)));
+        }
+
+        Path path = Files.createTempFile("replays", ReplayLog.EXTENSION);
+        try {
+            ReplayLog.append(path, replays.subList(0, 2));
+            ReplayLog.append(path, replays.subList(2, 5));
+
+            ReplayLog log = ReplayLog.open(path);
+            List<Replay> read = new ArrayList<>();
+            while (log.hasNext()) {
+                read.add(log.next());
+            }
+            assertEquals(replays, read);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testWrongFiles() throws IOException {
+        Path path = Files.createTempFile("replays", ReplayLog.EXTENSION);
+        try {
+            Files.write(path, new byte[]{1, 2, 3, 4, 5, 6});
+            assertThrows(UnrecognizedFileException.class, () -> ReplayLog.open(path).next());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static ByteBuffer crafted(long fingerprint, int x, int moveCount) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int shift = 56; shift >= 0; shift -= 8) out.write(0);
+        for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (fingerprint >>> shift));
+        Replay.writeVarint(out, 0);
+        Replay.writeVarint(out, 1);
+        Replay.writeVarint(out, 0);
+        Replay.writeVarint(out, x);
+        Replay.writeVarint(out, 0);
+        out.write(Direction.CENTER.ordinal());
+        Replay.writeVarint(out, moveCount);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    @Test
+    void testMoveCountBeyondFile() {
+        //counts larger than the file must not be allocated
+        assertThrows(UnrecognizedFileException.class, () -> Replay.read(crafted(0, 0, Integer.MAX_VALUE)));
+        assertThrows(UnrecognizedFileException.class, () -> Replay.read(crafted(0, 0, 1 << 30)));
+        assertThrows(UnrecognizedFileException.class, () -> Replay.read(crafted(0, 0, 3)));
+    }
+
+    @Test
+    void testStartOutsideTrack() throws UnrecognizedFileException {
+        Grid grid = initializer.parseGrid();
+        Replay replay = Replay.read(crafted(grid.getFingerprint(), grid.getWidth(), 0));
+
+        assertThrows(IncorrectConfigurationException.class, () -> replay.start(grid));
+    }
+
+    @Test
+    void testDifferentTrack() {
+        Replay replay = record(3, new GameManagerStandard(initializer));
+        Grid other = new PackedGrid(new byte[]{1, 0, 2}, 3, 1);
+
+        assertThrows(IncorrectConfigurationException.class, () -> replay.start(other));
+    }
+}
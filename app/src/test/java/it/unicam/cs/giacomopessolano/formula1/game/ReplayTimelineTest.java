@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.grid.*;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTimelineTest {
+    private GameInitializer initializer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        initializer = new GameInitializerFromTxt("small.txt", new ArrayGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+    }
+
+    private Replay record(long seed) {
+        GameManagerStandard game = new GameManagerStandard(initializer);
+        TurnManagerRecording recorder = new TurnManagerRecording();
+        game.startGame(seed);
+        while (game.isGameRunning()) {
+            game.nextTurn(recorder);
+        }
+        return recorder.toReplay("small.txt", initializer, seed);
+    }
+
+    private static Map<String, String> describe(GameManager game) {
+        Map<String, String> players = new HashMap<>();
+        for (Map.Entry<Player, Position> entry : game.getPlayerPositions().entrySet()) {
+            Player player = entry.getKey();
+            players.put(game.getID(player), player.getName() + " " + entry.getValue() + " "
+                    + player.getLastMove() + " " + player.hasCrashed());
+        }
+        return players;
+    }
+
+    private static void assertSameFrame(GameManager expected, GameManager actual) {
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(expected.isGameRunning(), actual.isGameRunning());
+        assertEquals(expected.getWinner() == null ? null : expected.getID(expected.getWinner()),
+                actual.getWinner() == null ? null : actual.getID(actual.getWinner()));
+        assertEquals(expected.getID(expected.getCurrentPlayer()), actual.getID(actual.getCurrentPlayer()));
+        assertEquals(expected.getStateHash(), actual.getStateHash());
+        for (Position position : expected.getPlayerPositions().values()) {
+            assertTrue(actual.getGrid().isOccupied(position.x(), position.y()));
+        }
+    }
+
+    @Test
+    void testSeekMatchesPlayedGame() throws IncorrectConfigurationException {
+        for (long seed = 0; seed < 20; seed++) {
+            Replay replay = record(seed);
+            for (int interval : new int[]{1, 3, ReplayTimeline.DEFAULT_INTERVAL}) {
+                ReplayTimeline timeline = new ReplayTimeline(replay, initializer.parseGrid(), interval);
+                //seeks backwards, so every seek goes against the previous one
+                for (int turn = timeline.getTurns(); turn >= 0; turn--) {
+                    assertSameFrame(replay.playTo(initializer.parseGrid(), turn), timeline.seek(turn));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLastFrameIsOver() throws IncorrectConfigurationException {
+        Replay replay = record(3);
+        ReplayTimeline timeline = new ReplayTimeline(replay, initializer.parseGrid(), 2);
+
+        assertTrue(timeline.getTurns() > 0);
+        assertTrue(timeline.seek(0).isGameRunning());
+        assertFalse(timeline.seek(timeline.getTurns()).isGameRunning());
+    }
+
+    @Test
+    void testFramesCanBePlayedOn() throws IncorrectConfigurationException {
+        Replay replay = record(5);
+        ReplayTimeline timeline = new ReplayTimeline(replay, initializer.parseGrid(), 3);
+        for (int turn = 0; turn <= timeline.getTurns(); turn++) {
+            GameManager frame = timeline.seek(turn);
+            TurnManagerReplay turnManager = timeline.turnManager(turn);
+            while (frame.isGameRunning() && turnManager.getNext() < replay.getMoveCount()) {
+                frame.nextTurn(turnManager);
+            }
+            assertSameFrame(replay.playTo(initializer.parseGrid(), timeline.getTurns()), frame);
+        }
+    }
+
+    @Test
+    void testFramesCanBeForked() throws IncorrectConfigurationException {
+        ReplayTimeline timeline = new ReplayTimeline(record(5), initializer.parseGrid());
+        GameManager frame = timeline.seek(0);
+
+        GameManager fork = frame.fork();
+        assertNotSame(frame.getGrid(), fork.getGrid());
+        assertSameFrame(frame, fork);
+    }
+
+    @Test
+    void testDifferentTrack() {
+        Replay replay = record(1);
+        Grid other = new PackedGrid(new byte[]{1, 0, 2}, 3, 1);
+
+        assertThrows(IncorrectConfigurationException.class, () -> new ReplayTimeline(replay, other));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.game;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.*;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnManagerDeadlineTest {
+
+    private TurnManagerDeadline turnManager;
+    private Grid grid;
+    private Map<Player, Position> positions;
+    private Position startPosition;
+
+    @BeforeEach
+    void setUp() {
+        turnManager = new TurnManagerDeadline(50, TimeUnit.MILLISECONDS);
+        startPosition = new Position(0, 0);
+        positions = new HashMap<>();
+
+        Cell[][] cells = new Cell[][]{
+                {new Cell(CellState.START), new Cell(CellState.TRACK), new Cell(CellState.END)},
+                {new Cell(CellState.TRACK), new Cell(CellState.TRACK), new Cell(CellState.TRACK)},
+                {new Cell(CellState.TRACK), new Cell(CellState.TRACK), new Cell(CellState.TRACK)}
+        };
+        grid = new ArrayGrid(cells);
+    }
+
+    private Player place(Strategy strategy, Direction lastMove) {
+        Player player = new PlayerFormula1("", strategy, lastMove);
+        positions.put(player, startPosition);
+        grid.getCell(startPosition).occupy(player);
+        return player;
+    }
+
+    @Test
+    void testChoiceInTime() {
+        Player player = place((grid1, move, pos) -> Direction.DOWN, Direction.CENTER);
+
+        CellState result = turnManager.executeMove(grid, player, positions);
+
+        assertEquals(CellState.TRACK, result);
+        assertEquals(new Position(0, 1), positions.get(player));
+    }
+
+    @Test
+    void testChoiceOnCopyOfPlayers() {
+        Map<String, Grid> seen = new HashMap<>();
+        Player player = place((grid1, move, pos) -> {
+            seen.put("grid", grid1);
+            return Direction.DOWN;
+        }, Direction.CENTER);
+
+        turnManager.executeMove(grid, player, positions);
+
+        //the copy shares the track and has its own clones of the players
+        Grid copy = seen.get("grid");
+        assertTrue(copy.hasSameTrack(grid));
+        assertTrue(copy.isOccupied(0, 0));
+        assertEquals(player, copy.getCell(startPosition).getPlayer());
+        assertNotSame(player, copy.getCell(startPosition).getPlayer());
+    }
+
+    @Test
+    void testFallbackKeepsSpeed() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Player player = place((grid1, move, pos) -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+                //the test is over
+            }
+            return Direction.DOWN;
+        }, Direction.RIGHT);
+
+        long start = System.nanoTime();
+        CellState result = turnManager.executeMove(grid, player, positions);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        //the player kept moving right instead of going down
+        assertEquals(CellState.TRACK, result);
+        assertEquals(new Position(1, 0), positions.get(player));
+
+        //the strategy is still choosing, so it is not asked again
+        turnManager.executeMove(grid, player, positions);
+        assertEquals(new Position(2, 0), positions.get(player));
+        assertEquals(1, calls.get());
+        release.countDown();
+    }
+
+    @Test
+    void testInterruptedChoiceIsNotAskedAgain() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Player player = place((grid1, move, pos) -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+                //the test is over
+            }
+            return Direction.DOWN;
+        }, Direction.RIGHT);
+
+        Thread.currentThread().interrupt();
+        turnManager.executeMove(grid, player, positions);
+        assertTrue(Thread.interrupted());
+        assertEquals(new Position(1, 0), positions.get(player));
+
+        //the strategy is still choosing after the interrupt, so it is not asked again
+        started.await();
+        turnManager.executeMove(grid, player, positions);
+        assertEquals(new Position(2, 0), positions.get(player));
+        assertEquals(1, calls.get());
+        release.countDown();
+    }
+
+    @Test
+    void testLateErrorLetsStrategyChooseAgain() throws InterruptedException, NoPossibleMoveException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Player player = place((grid1, move, pos) -> {
+            if (calls.incrementAndGet() > 1) return Direction.DOWN;
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+                //the test is over
+            }
+            failed.countDown();
+            throw new AssertionError("late failure");
+        }, Direction.RIGHT);
+
+        turnManager.executeMove(grid, player, positions);
+        assertEquals(new Position(1, 0), positions.get(player));
+
+        //once the late choice fails with an error, the strategy is asked again
+        release.countDown();
+        failed.await();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Direction choice = null;
+        while (calls.get() < 2 && System.nanoTime() < end) {
+            choice = turnManager.chooseDirection(grid, player, startPosition);
+        }
+        assertEquals(2, calls.get());
+        assertEquals(Direction.DOWN, choice);
+    }
+
+    @Test
+    void testNoPossibleMove() {
+        Player player = place((grid1, move, pos) -> {
+            throw new NoPossibleMoveException("No possible move.");
+        }, Direction.CENTER);
+
+        CellState result = turnManager.executeMove(grid, player, positions);
+
+        assertEquals(CellState.OFFTRACK, result);
+        assertEquals(startPosition, positions.get(player));
+    }
+
+    @Test
+    void testFallbackWithoutSpeed() throws NoPossibleMoveException {
+        //a still player can't stay on its own cell, so the first possible direction is taken
+        place((grid1, move, pos) -> Direction.CENTER, Direction.CENTER);
+        Direction fallback = turnManager.fallback(grid, new Move(0, 0), startPosition);
+        assertEquals(Strategy.possibleMoves(grid, new Move(0, 0), startPosition).get(0), fallback);
+    }
+}
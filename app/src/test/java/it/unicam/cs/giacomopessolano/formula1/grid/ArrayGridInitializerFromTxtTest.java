@@ -29,7 +29,9 @@ import it.unicam.cs.giacomopessolano.formula1.exceptions.*;
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
 import org.junit.jupiter.api.*;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,5 +86,23 @@ class ArrayGridInitializerFromTxtTest {
         assertThrows(UnrecognizedFileException.class, () -> {initializer.initialize(nonExistentFileName);});
 
     }
-}
 
+    @Test
+    void testInitializeFromReader() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("TRACK\r\nSRE\r\nXR\r\n\r\nERR"));
+        initializer.initialize(reader);
+        Grid grid = initializer.getGrid();
+        assertEquals(3, grid.getWidth());
+        assertEquals(4, grid.getHeight());
+        assertEquals(CellState.END, grid.getState(2, 0));
+        assertEquals(CellState.OFFTRACK, grid.getState(2, 1));
+        assertEquals(CellState.OFFTRACK, grid.getState(0, 2));
+        assertEquals(CellState.TRACK, grid.getState(2, 3));
+    }
+
+    @Test
+    void testInitializeWithoutTrack() {
+        BufferedReader reader = new BufferedReader(new StringReader("PLAYERS\nA 1 1 DUMB UP\n"));
+        assertThrows(IncorrectConfigurationException.class, () -> initializer.initialize(reader));
+    }
+}
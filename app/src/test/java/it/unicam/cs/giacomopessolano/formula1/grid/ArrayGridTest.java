@@ -25,7 +25,11 @@
 
 package it.unicam.cs.giacomopessolano.formula1.grid;
 
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerFormula1;
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import it.unicam.cs.giacomopessolano.formula1.player.StrategyDumb;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -87,4 +91,50 @@ public class ArrayGridTest {
 
     }
 
+    @Test
+    void testCloneEmpty() {
+        Player player = new PlayerFormula1("Bob", new StrategyDumb(), Direction.CENTER);
+        grid.getCell(new Position(1, 1)).occupy(player);
+        ArrayGrid emptyGrid = grid.cloneEmpty();
+
+        assertFalse(emptyGrid.isOccupied(1, 1));
+        assertTrue(grid.isOccupied(1, 1));
+        assertTrue(grid.hasSameTrack(emptyGrid));
+        assertEquals(grid.getState(1, 1), emptyGrid.getState(1, 1));
+        assertNotSame(grid.getGrid()[1][1], emptyGrid.getGrid()[1][1]);
+    }
+
+    @Test
+    void testHasSameTrack() {
+        ArrayGrid clonedGrid = grid.clone();
+
+        assertTrue(grid.hasSameTrack(clonedGrid));
+        assertTrue(clonedGrid.clone().hasSameTrack(grid));
+        assertFalse(grid.hasSameTrack(new ArrayGrid(grid.clone().getGrid())));
+    }
+
+
+    @Test
+    void testClonesShareTrack() {
+        Track track = grid.cloneEmpty().getTrack();
+
+        assertSame(track, grid.getTrack());
+        assertSame(track, grid.clone().getTrack());
+        assertEquals(grid.getFingerprint(), track.getFingerprint());
+        assertEquals(grid.getState(1, 1), track.getState(1, 1));
+    }
+
+    @Test
+    void testClonesShareComputedValues() {
+        ArrayGrid earlier = grid.clone();
+        ArrayGrid later = earlier.clone();
+
+        //the values are computed on a clone, and the original and every other clone see them
+        DistanceField field = later.getDistanceField();
+        assertSame(field, grid.getDistanceField());
+        assertSame(field, earlier.getDistanceField());
+        assertSame(earlier.getSpeedLimits(), grid.getSpeedLimits());
+        assertSame(grid.getSpeedLimits(), grid.clone().getSpeedLimits());
+        assertTrue(grid.hasSameTrack(later));
+    }
 }
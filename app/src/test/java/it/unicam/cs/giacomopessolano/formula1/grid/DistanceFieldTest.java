@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceFieldTest {
+
+    @Test
+    void testDistances() {
+        DistanceField field = DistanceField.compute(TestTracks.parse(
+                "SRRX",
+                "XXRX",
+                "ERRX",
+                "XXXR"));
+        assertEquals(0, field.getDistance(0, 2));
+        assertEquals(2, field.getDistance(2, 2));
+        assertEquals(4, field.getDistance(2, 0));
+        assertEquals(6, field.getDistance(0, 0));
+        assertEquals(DistanceField.UNREACHABLE, field.getDistance(3, 3));
+        assertEquals(DistanceField.UNREACHABLE, field.getDistance(0, 1));
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        SplittableRandom random = new SplittableRandom(8);
+        int width = 300;
+        int height = 200;
+        byte[] states = new byte[width * height];
+        for (int i = 0; i < states.length; i++) {
+            int roll = random.nextInt(100);
+            CellState state = roll < 25 ? CellState.OFFTRACK : roll < 26 ? CellState.END : CellState.TRACK;
+            states[i] = (byte) state.ordinal();
+        }
+        PackedGrid grid = new PackedGrid(states, width, height);
+
+        assertEquals(DistanceField.compute(grid, false), DistanceField.compute(grid, true));
+    }
+
+    @Test
+    void testSharedByTrack() {
+        PackedGrid grid = TestTracks.parse("SRE");
+        DistanceField field = grid.getDistanceField();
+        assertSame(field, grid.clone().getDistanceField());
+        assertSame(field, new PackedGrid(grid.getTrack()).getDistanceField());
+    }
+
+    @Test
+    void testSharedByArrayGridClones() {
+        Cell[][] cells = new Cell[][]{{new Cell(CellState.START), new Cell(CellState.END)}};
+        ArrayGrid grid = new ArrayGrid(cells);
+        DistanceField field = grid.getDistanceField();
+        assertEquals(1, field.getDistance(0, 0));
+        assertSame(field, grid.getDistanceField());
+        assertSame(field, grid.clone().getDistanceField());
+    }
+
+    @Test
+    void testInitializerComputesDistances() throws IOException {
+        ArrayGridInitializerFromTxt initializer = new ArrayGridInitializerFromTxt(true);
+        initializer.initialize("small.txt");
+        Grid grid = initializer.getGrid();
+        assertEquals(DistanceField.compute(grid), grid.getDistanceField());
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerFormula1;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import it.unicam.cs.giacomopessolano.formula1.player.StrategyDumb;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedGridTest {
+
+    private PackedGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        /*
+        SRE
+        XRX
+         */
+        byte[] states = new byte[]{
+                (byte) CellState.START.ordinal(), (byte) CellState.TRACK.ordinal(), (byte) CellState.END.ordinal(),
+                (byte) CellState.OFFTRACK.ordinal(), (byte) CellState.TRACK.ordinal(),
+                (byte) CellState.OFFTRACK.ordinal()
+        };
+        grid = new PackedGrid(states, 3, 2);
+    }
+
+    @Test
+    void testGetState() {
+        assertEquals(3, grid.getWidth());
+        assertEquals(2, grid.getHeight());
+
+        assertEquals(CellState.START, grid.getState(0, 0));
+        assertEquals(CellState.END, grid.getState(2, 0));
+        assertEquals(CellState.OFFTRACK, grid.getState(0, 1));
+        assertEquals(CellState.TRACK, grid.getCell(new Position(1, 1)).getState());
+    }
+
+    @Test
+    void testCellWritesThrough() {
+        Player player = new PlayerFormula1("Player", new StrategyDumb(), Direction.CENTER);
+        Position position = new Position(1, 0);
+
+        grid.getCell(position).occupy(player);
+
+        assertTrue(grid.isOccupied(1, 0));
+        assertSame(player, grid.getCell(position).getPlayer());
+
+        grid.getCell(position).flushPlayer();
+
+        assertFalse(grid.isOccupied(1, 0));
+        assertNull(grid.getCell(position).getPlayer());
+    }
+
+    @Test
+    void testGetOccupiedPositions() {
+        grid.getCell(new Position(1, 1)).occupy(new PlayerFormula1("Bob", new StrategyDumb(), Direction.CENTER));
+        grid.getCell(new Position(2, 0)).occupy(new PlayerFormula1("Ann", new StrategyDumb(), Direction.CENTER));
+        grid.getCell(new Position(0, 0)).occupy(new PlayerFormula1("Tom", new StrategyDumb(), Direction.CENTER));
+        grid.getCell(new Position(2, 0)).flushPlayer();
+
+        assertEquals(List.of(new Position(0, 0), new Position(1, 1)), grid.getOccupiedPositions());
+    }
+
+    @Test
+    void testClone() {
+        Player player = new PlayerFormula1("Player", new StrategyDumb(), Direction.CENTER);
+        grid.getCell(new Position(0, 0)).occupy(player);
+
+        PackedGrid clonedGrid = grid.clone();
+
+        assertNotSame(grid, clonedGrid);
+        assertEquals(grid, clonedGrid);
+        assertNotSame(player, clonedGrid.getCell(new Position(0, 0)).getPlayer());
+
+        //moving a player on the clone doesn't affect the original
+        clonedGrid.getCell(new Position(0, 0)).flushPlayer();
+        assertTrue(grid.isOccupied(0, 0));
+        assertFalse(clonedGrid.isOccupied(0, 0));
+    }
+
+    @Test
+    void testCloneEmpty() {
+        grid.getCell(new Position(0, 0)).occupy(new PlayerFormula1("Bob", new StrategyDumb(), Direction.CENTER));
+        PackedGrid emptyGrid = grid.cloneEmpty();
+
+        assertSame(grid.getTrack(), emptyGrid.getTrack());
+        assertFalse(emptyGrid.isOccupied(0, 0));
+        assertTrue(grid.isOccupied(0, 0));
+    }
+
+    @Test
+    void testClonesShareTrack() {
+        PackedGrid clonedGrid = grid.clone();
+
+        assertSame(grid.getTrack(), clonedGrid.getTrack());
+        assertArrayEquals(new int[]{0}, grid.getTrack().getStartIndexes());
+        assertArrayEquals(new int[]{2}, grid.getTrack().getEndIndexes());
+    }
+
+    @Test
+    void testHasSameTrack() {
+        assertTrue(grid.hasSameTrack(grid.clone()));
+        assertTrue(grid.clone().hasSameTrack(grid));
+        assertFalse(grid.hasSameTrack(new PackedGrid(new byte[]{0, 1, 2}, 3, 1)));
+    }
+
+    @Test
+    void testInitializerLoadsTrackOnce() {
+        PackedGridInitializerFromTxt first = new PackedGridInitializerFromTxt();
+        PackedGridInitializerFromTxt second = new PackedGridInitializerFromTxt();
+        try {
+            first.initialize("small.txt");
+            second.initialize("small.txt");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        PackedGrid firstGrid = (PackedGrid) first.getGrid();
+        PackedGrid secondGrid = (PackedGrid) second.getGrid();
+        assertNotSame(firstGrid, secondGrid);
+        assertSame(firstGrid.getTrack(), secondGrid.getTrack());
+    }
+
+    @Test
+    void testGameInitializerUsesLoadedTrack() throws IOException {
+        PackedGridInitializerFromTxt initializer = new PackedGridInitializerFromTxt();
+        initializer.initialize("small.txt");
+        GameInitializer first = new GameInitializerFromTxt("small.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+        GameInitializer second = new GameInitializerFromTxt("small.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+
+        Track track = ((PackedGrid) initializer.getGrid()).getTrack();
+        assertSame(track, ((PackedGrid) first.parseGrid()).getTrack());
+        assertSame(track, ((PackedGrid) second.parseGrid()).getTrack());
+        assertEquals(2, first.parseTurns().size());
+    }
+
+    @Test
+    void testInitializerMatchesArrayGrid() {
+        ArrayGridInitializerFromTxt arrayInitializer = new ArrayGridInitializerFromTxt();
+        PackedGridInitializerFromTxt packedInitializer = new PackedGridInitializerFromTxt();
+        try {
+            arrayInitializer.initialize("small.txt");
+            packedInitializer.initialize("small.txt");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        Grid arrayGrid = arrayInitializer.getGrid();
+        Grid packedGrid = packedInitializer.getGrid();
+        assertTrue(packedGrid instanceof PackedGrid);
+        assertEquals(arrayGrid.getWidth(), packedGrid.getWidth());
+        assertEquals(arrayGrid.getHeight(), packedGrid.getHeight());
+        assertEquals(arrayGrid.getFingerprint(), packedGrid.getFingerprint());
+        for (int y = 0; y < arrayGrid.getHeight(); y++) {
+            for (int x = 0; x < arrayGrid.getWidth(); x++) {
+                assertEquals(arrayGrid.getState(x, y), packedGrid.getState(x, y));
+            }
+        }
+    }
+
+    @Test
+    void testManyOccupants() {
+        PackedGrid bigGrid = new PackedGrid(new byte[100 * 100], 100, 100);
+        for (int i = 0; i < 100; i++) {
+            bigGrid.getCell(new Position(i, i)).occupy(new PlayerFormula1("P" + i, new StrategyDumb(),
+                    Direction.CENTER));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            bigGrid.getCell(new Position(i, i)).flushPlayer();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 1, bigGrid.isOccupied(i, i));
+            assertFalse(bigGrid.isOccupied(i, (i + 1) % 100));
+        }
+        assertEquals("P99", bigGrid.getCell(new Position(99, 99)).getPlayer().getName());
+        assertEquals(bigGrid, bigGrid.clone());
+    }
+}
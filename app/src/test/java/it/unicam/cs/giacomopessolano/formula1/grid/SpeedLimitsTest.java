@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpeedLimitsTest {
+
+    //no move of the random grids is longer
+    private static final int SPEED = 14;
+
+    private static int index(int x, int y, int moveX, int moveY, int width) {
+        return (((y * width + x) * (2 * SPEED + 1)) + moveY + SPEED) * (2 * SPEED + 1) + moveX + SPEED;
+    }
+
+    //states that can finish or move forever without crashing, found by removing the others until none is left
+    private static boolean[] survivors(Grid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        boolean[] alive = new boolean[width * height * (2 * SPEED + 1) * (2 * SPEED + 1)];
+        Arrays.fill(alive, true);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    for (int moveY = -SPEED; moveY <= SPEED; moveY++) {
+                        for (int moveX = -SPEED; moveX <= SPEED; moveX++) {
+                            int state = index(x, y, moveX, moveY, width);
+                            if (!alive[state]) continue;
+                            boolean escape = false;
+                            for (Direction direction : Direction.values()) {
+                                int newMoveX = moveX + direction.x();
+                                int newMoveY = moveY + direction.y();
+                                int newX = x + newMoveX;
+                                int newY = y + newMoveY;
+                                if (newX < 0 || newX >= width || newY < 0 || newY >= height
+                                        || (newMoveX == 0 && newMoveY == 0)) continue;
+                                CellState result = grid.traverse(x, y, newX, newY);
+                                escape = result == CellState.END || result == CellState.TRACK
+                                        && alive[index(newX, newY, newMoveX, newMoveY, width)];
+                                if (escape) break;
+                            }
+                            if (!escape) {
+                                alive[state] = false;
+                                changed = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return alive;
+    }
+
+    @Test
+    void testDeadEnd() {
+        SpeedLimits limits = SpeedLimits.compute(TestTracks.parse(
+                "XXXXXXXX",
+                "XSRRRRRX",
+                "XXXXXXXX"));
+        //braking from speed 3 takes 2 + 1 cells
+        assertFalse(limits.isDoomed(3, 1, 3, 0));
+        assertTrue(limits.isDoomed(4, 1, 3, 0));
+        assertEquals(3, limits.getLimit(3, 1, Direction.RIGHT));
+        assertEquals(1, limits.getLimit(6, 1, Direction.RIGHT));
+        assertEquals(1, limits.getLimit(3, 1, Direction.UP));
+        assertEquals(0, limits.getLimit(0, 0, Direction.LEFT));
+    }
+
+    @Test
+    void testFinishLineLiftsLimits() {
+        SpeedLimits limits = SpeedLimits.compute(TestTracks.parse(
+                "XXXXXXXXXXXXX",
+                "XSRRRRRRRRREX",
+                "XXXXXXXXXXXXX"));
+        //the finish line is crossed by any move that stays on the grid
+        assertEquals(11, limits.getLimit(2, 1, Direction.RIGHT));
+        assertFalse(limits.isDoomed(2, 1, 9, 0));
+        assertTrue(limits.isDoomed(4, 1, -4, 0));
+    }
+
+    @Test
+    void testTurnAhead() {
+        SpeedLimits limits = SpeedLimits.compute(TestTracks.parse(
+                "XXXXXXXXX",
+                "XSRRRRRRX",
+                "XXXXXXRRX",
+                "XXXXXXRRX",
+                "XXXXXXRRX",
+                "XERRRRRRX",
+                "XXXXXXXXX"));
+        //the corner can be taken with enough room to brake, but not at full speed
+        assertFalse(limits.isDoomed(4, 1, 2, 0));
+        assertTrue(limits.isDoomed(4, 1, 4, 0));
+        assertFalse(limits.isDoomed(6, 2, 0, 2));
+    }
+
+    @Test
+    void testDoomedStatesCantSurvive() {
+        SplittableRandom random = new SplittableRandom(25);
+        int doomed = 0;
+        for (int round = 0; round < 20; round++) {
+            int width = 10 + random.nextInt(6);
+            int height = 8 + random.nextInt(6);
+            byte[] states = new byte[width * height];
+            for (int i = 0; i < states.length; i++) {
+                int roll = random.nextInt(100);
+                CellState state = roll < 25 ? CellState.OFFTRACK : roll < 28 ? CellState.END : CellState.TRACK;
+                states[i] = (byte) state.ordinal();
+            }
+            PackedGrid grid = new PackedGrid(states, width, height);
+            SpeedLimits limits = grid.getSpeedLimits();
+            boolean[] alive = survivors(grid);
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (grid.getState(x, y) != CellState.TRACK) continue;
+                    for (int moveY = -SPEED; moveY <= SPEED; moveY++) {
+                        for (int moveX = -SPEED; moveX <= SPEED; moveX++) {
+                            if (!limits.isDoomed(x, y, moveX, moveY)) continue;
+                            doomed++;
+                            assertFalse(alive[index(x, y, moveX, moveY, width)]);
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(doomed > 0);
+    }
+
+    @Test
+    void testSharedByClones() {
+        PackedGrid grid = TestTracks.parse(
+                "SRRX",
+                "XXRX",
+                "ERRX");
+        assertSame(grid.getSpeedLimits(), grid.clone().getSpeedLimits());
+        assertEquals(SpeedLimits.compute(grid), grid.getSpeedLimits());
+    }
+}
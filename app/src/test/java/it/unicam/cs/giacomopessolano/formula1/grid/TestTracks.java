@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerFormula1;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import it.unicam.cs.giacomopessolano.formula1.player.Strategy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+//tracks drawn as text and helpers to race on them, shared by the grid and player tests
+public final class TestTracks {
+
+    private static final String[] CORNER = {
+            "XXXXXXXXXX",
+            "XSRRRRRRRX",
+            "XRRRRRRRRX",
+            "XXXXXXXRRX",
+            "XXXXXXXRRX",
+            "XXXXXXXRRX",
+            "XXXXXXXEEX",
+            "XXXXXXXXXX"
+    };
+
+    private static final String[] HAIRPIN = {
+            "XXXXXXXXXXXX",
+            "XSRRRRRRRRRX",
+            "XRRRRRRRRRRX",
+            "XXXXXXXXXRRX",
+            "XEERRRRRRRRX",
+            "XRRRRRRRRRRX",
+            "XXXXXXXXXXXX"
+    };
+
+    private TestTracks() {
+    }
+
+    //reads the rows as the track of a .txt file
+    public static PackedGrid parse(String... rows) {
+        PackedGridInitializerFromTxt initializer = new PackedGridInitializerFromTxt();
+        try {
+            initializer.initialize(new BufferedReader(new StringReader("TRACK\n" + String.join("\n", rows))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return (PackedGrid) initializer.getGrid();
+    }
+
+    //a right turn into a narrow straight, starting at (1, 1)
+    public static PackedGrid corner() {
+        return parse(CORNER);
+    }
+
+    //a U-turn around a wall, starting at (1, 1)
+    public static PackedGrid hairpin() {
+        return parse(HAIRPIN);
+    }
+
+    //plays the strategy alone on the grid and counts the turns needed to finish
+    public static int race(Strategy strategy, Grid grid, int startX, int startY) throws NoPossibleMoveException {
+        Player player = new PlayerFormula1("", strategy, Direction.CENTER);
+        Position position = new Position(startX, startY);
+        grid.getCell(position).occupy(player);
+        for (int turn = 1; turn < 100; turn++) {
+            Direction choice = strategy.makeChoice(grid, player.getLastMove(), position);
+            player.updateLastMove(choice);
+            Position next = new Position(position.x() + player.getLastMove().x(),
+                    position.y() + player.getLastMove().y());
+            CellState result = grid.traverse(position.x(), position.y(), next.x(), next.y());
+            assertNotEquals(CellState.OFFTRACK, result);
+            if (result == CellState.END) return turn;
+            grid.getCell(position).flushPlayer();
+            grid.getCell(next).occupy(player);
+            position = next;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.grid;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromBinary;
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackFileTest {
+
+    private static Path temporaryFile() throws IOException {
+        Path path = Files.createTempFile("track", TrackFile.EXTENSION);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+
+    //players of different initializers are different objects, so they are compared by their state
+    private static List<String> describe(GameInitializer initializer) {
+        List<String> players = new ArrayList<>();
+        for (Player player : initializer.parseTurns()) {
+            players.add(player.getName() + " " + initializer.parsePlayers().get(player) + " "
+                    + player.getLastMove() + " " + player.getStrategy().getClass().getSimpleName());
+        }
+        return players;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        TrackFile file = TrackFile.fromTxt("small.txt");
+        assertTrue(file.getRoster().startsWith("PLAYERS\nZorro 1 1 DUMB DOWN\n"));
+
+        Path path = temporaryFile();
+        file.write(path);
+        TrackFile loaded = TrackFile.load(path.toString());
+        assertEquals(file, loaded);
+        assertArrayEquals(file.getTrack().getStartIndexes(), loaded.getTrack().getStartIndexes());
+        assertArrayEquals(file.getTrack().getEndIndexes(), loaded.getTrack().getEndIndexes());
+    }
+
+    @Test
+    void testSameGameAsTxt() throws IOException {
+        Path path = temporaryFile();
+        TrackFile.fromTxt("small.txt").write(path);
+
+        GameInitializer binary = new GameInitializerFromBinary(path.toString(), new PlayerBotInitializerFromTxt());
+        GameInitializer txt = new GameInitializerFromTxt("small.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+        assertEquals(txt.parseGrid(), binary.parseGrid());
+        assertEquals(describe(txt), describe(binary));
+    }
+
+    @Test
+    void testRewrittenFileIsLoadedAgain() throws IOException {
+        Path path = temporaryFile();
+        TrackFile.fromTxt("small.txt").write(path);
+        GameInitializer before = new GameInitializerFromBinary(path.toString(), new PlayerBotInitializerFromTxt());
+
+        FileTime written = Files.getLastModifiedTime(path);
+        TrackFile.fromTxt("twins.txt").write(path);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(written.toMillis() + 2000));
+        GameInitializer after = new GameInitializerFromBinary(path.toString(), new PlayerBotInitializerFromTxt());
+
+        GameInitializer twins = new GameInitializerFromTxt("twins.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+        assertNotEquals(describe(before), describe(after));
+        assertEquals(describe(twins), describe(after));
+    }
+
+    @Test
+    void testNotATrack() throws IOException {
+        Path path = temporaryFile();
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(UnrecognizedFileException.class, () -> TrackFile.load(path.toString()));
+    }
+
+    @Test
+    void testTruncated() throws IOException {
+        Path path = temporaryFile();
+        TrackFile.fromTxt("small.txt").write(path);
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 3));
+        assertThrows(IncorrectConfigurationException.class, () -> TrackFile.load(path.toString()));
+    }
+
+    private static Path withBodyCell(CellState from, int to) throws IOException {
+        Path path = temporaryFile();
+        TrackFile file = TrackFile.fromTxt("small.txt");
+        file.write(path);
+        byte[] content = Files.readAllBytes(path);
+        int body = content.length - file.getTrack().getWidth() * file.getTrack().getHeight();
+        for (int i = content.length - 1; i >= body; i--) {
+            if (content[i] == from.ordinal()) {
+                content[i] = (byte) to;
+                break;
+            }
+        }
+        Files.write(path, content);
+        return path;
+    }
+
+    @Test
+    void testInvalidCell() throws IOException {
+        Path path = withBodyCell(CellState.TRACK, CellState.values().length + 5);
+        assertThrows(IncorrectConfigurationException.class, () -> TrackFile.load(path.toString()));
+    }
+
+    @Test
+    void testCellsMissingFromHeader() throws IOException {
+        Path start = withBodyCell(CellState.TRACK, CellState.START.ordinal());
+        assertThrows(IncorrectConfigurationException.class, () -> TrackFile.load(start.toString()));
+        Path end = withBodyCell(CellState.TRACK, CellState.END.ordinal());
+        assertThrows(IncorrectConfigurationException.class, () -> TrackFile.load(end.toString()));
+    }
+
+    @Test
+    void testWrongExtension() {
+        assertThrows(IncorrectConfigurationException.class, () -> TrackFile.load("small.txt"));
+        assertThrows(UnrecognizedFileException.class, () -> TrackFile.load("missing" + TrackFile.EXTENSION));
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolicySolverTest {
+
+    private static final String[] WALLED = {
+            "XXXXXXX",
+            "XSRRXEX",
+            "XXXXXXX"
+    };
+
+    //breadth first search over every (position, move) state, with the same rules as the game
+    private static int shortestRace(Grid grid, int startX, int startY, int startMoveX, int startMoveY) {
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        Set<Long> seen = new HashSet<>();
+        queue.add(new int[]{startX, startY, startMoveX, startMoveY, 0});
+        seen.add(StrategyOptimal.pack(startX, startY, startMoveX, startMoveY));
+        while (!queue.isEmpty()) {
+            int[] s = queue.poll();
+            for (Direction direction : Direction.values()) {
+                int moveX = s[2] + direction.x();
+                int moveY = s[3] + direction.y();
+                int x = s[0] + moveX;
+                int y = s[1] + moveY;
+                if (x < 0 || x >= grid.getWidth() || y < 0 || y >= grid.getHeight()
+                        || (moveX == 0 && moveY == 0)) continue;
+                CellState result = grid.traverse(s[0], s[1], x, y);
+                if (result == CellState.END) return s[4] + 1;
+                if (result == CellState.TRACK && seen.add(StrategyOptimal.pack(x, y, moveX, moveY))) {
+                    queue.add(new int[]{x, y, moveX, moveY, s[4] + 1});
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void testLeastTurnsFromEveryState() throws IncorrectConfigurationException {
+        Grid grid = TestTracks.hairpin();
+        PolicyTable table = PolicySolver.solve(grid);
+        int solved = 0;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                for (int moveY = -4; moveY <= 4; moveY++) {
+                    for (int moveX = -4; moveX <= 4; moveX++) {
+                        int entry = table.probe(x, y, moveX, moveY);
+                        if (entry == PolicyTable.MISS) continue;
+                        solved++;
+                        assertEquals(shortestRace(grid, x, y, moveX, moveY), PolicyTable.turns(entry));
+
+                        //the move of the entry leads to the finish line or to a state one turn closer
+                        Direction direction = PolicyTable.direction(entry);
+                        int newMoveX = moveX + direction.x();
+                        int newMoveY = moveY + direction.y();
+                        CellState result = grid.traverse(x, y, x + newMoveX, y + newMoveY);
+                        if (PolicyTable.turns(entry) == 1) {
+                            assertEquals(CellState.END, result);
+                        } else {
+                            int next = table.probe(x + newMoveX, y + newMoveY, newMoveX, newMoveY);
+                            assertEquals(PolicyTable.turns(entry) - 1, PolicyTable.turns(next));
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(solved > 0);
+    }
+
+    @Test
+    void testEveryStartSolved() throws IncorrectConfigurationException {
+        Grid grid = TestTracks.hairpin();
+        PolicyTable table = PolicySolver.solve(grid);
+        for (int moveY = -1; moveY <= 1; moveY++) {
+            for (int moveX = -1; moveX <= 1; moveX++) {
+                int expected = shortestRace(grid, 1, 1, moveX, moveY);
+                int entry = table.probe(1, 1, moveX, moveY);
+                if (expected < 0) {
+                    assertEquals(PolicyTable.MISS, entry);
+                } else {
+                    assertEquals(expected, PolicyTable.turns(entry));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelSameTurns() throws IncorrectConfigurationException {
+        Grid grid = TestTracks.hairpin();
+        PolicyTable sequential = PolicySolver.solve(grid, false);
+        PolicyTable parallel = PolicySolver.solve(grid, true);
+        assertEquals(sequential.getEntries(), parallel.getEntries());
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                for (int moveY = -4; moveY <= 4; moveY++) {
+                    for (int moveX = -4; moveX <= 4; moveX++) {
+                        int expected = sequential.probe(x, y, moveX, moveY);
+                        int entry = parallel.probe(x, y, moveX, moveY);
+                        assertEquals(expected == PolicyTable.MISS, entry == PolicyTable.MISS);
+                        assertEquals(PolicyTable.turns(expected), PolicyTable.turns(entry));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testUnreachableFinish() throws IncorrectConfigurationException {
+        Grid grid = TestTracks.parse(WALLED);
+        PolicyTable table = PolicySolver.solve(grid);
+        assertEquals(PolicyTable.MISS, table.probe(1, 1, 0, 0));
+        assertEquals(PolicyTable.MISS, table.probe(5, 1, 0, 0));
+        assertTrue(table.getEntries() > 0);
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolicyTableTest {
+
+    private static Path temporaryFile() throws IOException {
+        Path path = Files.createTempFile("policy", PolicyTable.EXTENSION);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Grid grid = TestTracks.corner();
+        PolicyTable table = PolicySolver.solve(grid);
+        Path path = temporaryFile();
+        table.write(path);
+
+        PolicyTable loaded = PolicyTable.load(path);
+        assertEquals(table.getEntries(), loaded.getEntries());
+        assertEquals(grid.getFingerprint(), loaded.getFingerprint());
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                for (int moveY = -3; moveY <= 3; moveY++) {
+                    for (int moveX = -3; moveX <= 3; moveX++) {
+                        assertEquals(table.probe(x, y, moveX, moveY), loaded.probe(x, y, moveX, moveY));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNotATable() throws IOException {
+        Path path = temporaryFile();
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(UnrecognizedFileException.class, () -> PolicyTable.load(path));
+    }
+
+    @Test
+    void testTruncated() throws IOException {
+        Path path = temporaryFile();
+        PolicySolver.solve(TestTracks.corner()).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IncorrectConfigurationException.class, () -> PolicyTable.load(path));
+    }
+
+    @Test
+    void testForTrack() throws IOException {
+        Path directory = Files.createTempDirectory("policies");
+        directory.toFile().deleteOnExit();
+        Grid grid = TestTracks.corner();
+        Path path = directory.resolve(PolicyTable.fileName(grid));
+        path.toFile().deleteOnExit();
+        PolicySolver.solve(grid).write(path);
+
+        System.setProperty(PolicyTable.DIRECTORY_PROPERTY, directory.toString());
+        PolicyTable.forgetTracks();
+        try {
+            PolicyTable table = PolicyTable.forTrack(grid);
+            assertNotNull(table);
+            assertEquals(grid.getFingerprint(), table.getFingerprint());
+            assertSame(table, PolicyTable.forTrack(grid.clone()));
+            //an identical track that isn't shared by the grids has the same table
+            assertSame(table, PolicyTable.forTrack(TestTracks.corner()));
+            assertNull(PolicyTable.forTrack(TestTracks.parse(new String[]{"SRE"})));
+        } finally {
+            System.clearProperty(PolicyTable.DIRECTORY_PROPERTY);
+            PolicyTable.forgetTracks();
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategyMCTSTest {
+
+    private static StrategyMCTS strategy(int workers) {
+        return new StrategyMCTS(20, workers, new SplittableRandom(1));
+    }
+
+    private static Player place(Grid grid, int x, int y) {
+        Player player = new PlayerFormula1("", new StrategyDumb(), Direction.CENTER);
+        grid.getCell(new Position(x, y)).occupy(player);
+        return player;
+    }
+
+    @Test
+    void testTakesFinishingMove() throws NoPossibleMoveException {
+        Grid grid = TestTracks.corner();
+        place(grid, 7, 4);
+        Direction choice = strategy(1).makeChoice(grid, new Move(0, 1), new Position(7, 4));
+        assertEquals(CellState.END, grid.traverse(7, 4, 7 + choice.x(), 5 + choice.y()));
+    }
+
+    @Test
+    void testAvoidsCrashes() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        place(grid, 8, 1);
+        //moving right at two cells per turn, the wall can only be avoided by braking
+        Direction choice = strategy(1).makeChoice(grid, new Move(2, 0), new Position(8, 1));
+        assertNotEquals(CellState.OFFTRACK, grid.traverse(8, 1, 10 + choice.x(), 1 + choice.y()));
+    }
+
+    @Test
+    void testAvoidsOccupiedCells() throws NoPossibleMoveException {
+        Grid grid = TestTracks.corner();
+        place(grid, 1, 1);
+        place(grid, 2, 2);
+        Direction choice = strategy(2).makeChoice(grid, new Move(0, 0), new Position(1, 1));
+        assertNotEquals(Direction.DOWNRIGHT, choice);
+        assertTrue(Strategy.possibleMoves(grid, new Move(0, 0), new Position(1, 1)).contains(choice));
+    }
+
+    @Test
+    void testFinishesRace() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        StrategyMCTS strategy = strategy(2);
+        Player player = place(grid, 1, 1);
+        Position position = new Position(1, 1);
+        CellState result = CellState.TRACK;
+        for (int turn = 0; turn < 40 && result == CellState.TRACK; turn++) {
+            player.updateLastMove(strategy.makeChoice(grid, player.getLastMove(), position));
+            Position next = new Position(position.x() + player.getLastMove().x(),
+                    position.y() + player.getLastMove().y());
+            result = grid.traverse(position.x(), position.y(), next.x(), next.y());
+            grid.getCell(position).flushPlayer();
+            grid.getCell(next).occupy(player);
+            position = next;
+        }
+        assertEquals(CellState.END, result);
+    }
+
+    @Test
+    void testNoBudget() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        place(grid, 1, 1);
+        Direction choice = new StrategyMCTS(0, 1, new SplittableRandom(1))
+                .makeChoice(grid, new Move(0, 0), new Position(1, 1), System.nanoTime() - 1);
+        assertTrue(Strategy.possibleMoves(grid, new Move(0, 0), new Position(1, 1)).contains(choice));
+    }
+
+    @Test
+    void testNoMoves() {
+        Grid grid = TestTracks.parse(new String[]{"S"});
+        place(grid, 0, 0);
+        assertThrows(NoPossibleMoveException.class,
+                () -> strategy(1).makeChoice(grid, new Move(0, 0), new Position(0, 0)));
+    }
+
+    @Test
+    void testSplit() {
+        StrategyMCTS strategy = strategy(1);
+        Strategy split = strategy.split(new SplittableRandom(1));
+        assertNotSame(strategy, split);
+        assertSame(StrategyMCTS.class, split.getClass());
+    }
+
+}
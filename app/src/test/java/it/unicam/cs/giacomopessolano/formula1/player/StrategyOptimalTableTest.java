@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategyOptimalTableTest {
+
+    //runs a test with the table of the grid's track in the policy directory
+    private static void withTable(Grid grid, TableTest test) throws IOException, NoPossibleMoveException {
+        Path directory = Files.createTempDirectory("policies");
+        directory.toFile().deleteOnExit();
+        Path path = directory.resolve(PolicyTable.fileName(grid));
+        path.toFile().deleteOnExit();
+        PolicySolver.solve(grid).write(path);
+
+        System.setProperty(PolicyTable.DIRECTORY_PROPERTY, directory.toString());
+        PolicyTable.forgetTracks();
+        try {
+            test.run(PolicyTable.load(path));
+        } finally {
+            System.clearProperty(PolicyTable.DIRECTORY_PROPERTY);
+            PolicyTable.forgetTracks();
+        }
+    }
+
+    private interface TableTest {
+        void run(PolicyTable table) throws NoPossibleMoveException;
+    }
+
+    @Test
+    void testLeastTurnsWithTable() throws IOException, NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        withTable(grid, table -> assertEquals(PolicyTable.turns(table.probe(1, 1, 0, 0)),
+                TestTracks.race(new StrategyOptimalTable(), grid, 1, 1)));
+    }
+
+    @Test
+    void testLeastTurnsWithoutTable() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        assertEquals(TestTracks.race(new StrategyOptimal(), TestTracks.hairpin(), 1, 1),
+                TestTracks.race(new StrategyOptimalTable(), grid, 1, 1));
+    }
+
+    @Test
+    void testBlockedBestMove() throws IOException, NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        withTable(grid, table -> {
+            Direction best = PolicyTable.direction(table.probe(1, 1, 0, 0));
+            grid.getCell(new Position(1, 1)).occupy(new PlayerFormula1("a", new StrategyDumb(), Direction.CENTER));
+            grid.getCell(new Position(1 + best.x(), 1 + best.y()))
+                    .occupy(new PlayerFormula1("b", new StrategyDumb(), Direction.CENTER));
+
+            Direction choice = new StrategyOptimalTable().makeChoice(grid, new Move(0, 0), new Position(1, 1));
+            assertNotEquals(best, choice);
+            assertTrue(Strategy.possibleMoves(grid, new Move(0, 0), new Position(1, 1)).contains(choice));
+            assertNotEquals(PolicyTable.MISS, table.probe(1 + choice.x(), 1 + choice.y(), choice.x(), choice.y()));
+        });
+    }
+
+    @Test
+    void testNoMoves() {
+        Grid grid = TestTracks.parse(new String[]{"S"});
+        grid.getCell(new Position(0, 0)).occupy(new PlayerFormula1("", new StrategyDumb(), Direction.CENTER));
+        assertThrows(NoPossibleMoveException.class,
+                () -> new StrategyOptimalTable().makeChoice(grid, new Move(0, 0), new Position(0, 0)));
+    }
+
+    @Test
+    void testSplit() {
+        StrategyOptimalTable strategy = new StrategyOptimalTable();
+        Strategy split = strategy.split(new SplittableRandom(1));
+        assertNotSame(strategy, split);
+        assertSame(StrategyOptimalTable.class, split.getClass());
+    }
+
+}
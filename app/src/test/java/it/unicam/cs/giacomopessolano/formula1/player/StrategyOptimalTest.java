@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.NoPossibleMoveException;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategyOptimalTest {
+
+    //breadth first search over every (position, move) state, with the same rules as the strategy
+    private static int shortestRace(Grid grid, int startX, int startY) {
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        Set<Long> seen = new HashSet<>();
+        queue.add(new int[]{startX, startY, 0, 0, 0});
+        seen.add(StrategyOptimal.pack(startX, startY, 0, 0));
+        while (!queue.isEmpty()) {
+            int[] s = queue.poll();
+            for (Direction direction : Direction.values()) {
+                int moveX = s[2] + direction.x();
+                int moveY = s[3] + direction.y();
+                int x = s[0] + moveX;
+                int y = s[1] + moveY;
+                if (x < 0 || x >= grid.getWidth() || y < 0 || y >= grid.getHeight()
+                        || (moveX == 0 && moveY == 0)) continue;
+                CellState result = grid.traverse(s[0], s[1], x, y);
+                if (result == CellState.END) return s[4] + 1;
+                if (result == CellState.TRACK && seen.add(StrategyOptimal.pack(x, y, moveX, moveY))) {
+                    queue.add(new int[]{x, y, moveX, moveY, s[4] + 1});
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void testCornerInLeastTurns() throws NoPossibleMoveException {
+        Grid grid = TestTracks.corner();
+        int expected = shortestRace(grid, 1, 1);
+        assertTrue(expected > 0);
+        assertEquals(expected, TestTracks.race(new StrategyOptimal(), grid, 1, 1));
+    }
+
+    @Test
+    void testHairpinInLeastTurns() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        int expected = shortestRace(grid, 1, 1);
+        assertTrue(expected > 0);
+        assertEquals(expected, TestTracks.race(new StrategyOptimal(), grid, 1, 1));
+    }
+
+    @Test
+    void testSolvedRoutesSharedOnTrack() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        int expected = shortestRace(grid, 1, 1);
+        StrategyOptimal strategy = new StrategyOptimal();
+        Direction first = strategy.makeChoice(grid, new Move(0, 0), new Position(1, 1));
+
+        //the state after the first move is solved for every strategy on the track
+        long entry = TranspositionTable.forTrack(grid).probe(TranspositionTable.key(
+                new Position(1 + first.x(), 1 + first.y()), new Move(first.x(), first.y())));
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(expected - 1, TranspositionTable.turns(entry));
+        assertEquals(expected, TestTracks.race(new StrategyOptimal(), TestTracks.hairpin(), 1, 1));
+        assertEquals(expected, TestTracks.race(new StrategyOptimal(), grid.clone(), 1, 1));
+    }
+
+    @Test
+    void testLimitedSearchStaysOnTrack() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        grid.getCell(new Position(1, 1)).occupy(new PlayerFormula1("", new StrategyOptimal(), Direction.CENTER));
+        Direction choice = new StrategyOptimal(4).makeChoice(grid, new Move(0, 0), new Position(1, 1));
+        assertNotEquals(CellState.OFFTRACK, grid.traverse(1, 1, 1 + choice.x(), 1 + choice.y()));
+    }
+
+    @Test
+    void testExpiredDeadlineStaysOnTrack() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        grid.getCell(new Position(1, 1)).occupy(new PlayerFormula1("", new StrategyOptimal(), Direction.CENTER));
+        Direction choice = new StrategyOptimal().makeChoice(grid, new Move(0, 0), new Position(1, 1),
+                System.nanoTime() - 1);
+        assertNotEquals(CellState.OFFTRACK, grid.traverse(1, 1, 1 + choice.x(), 1 + choice.y()));
+    }
+
+    @Test
+    void testRouteFollowedOnGridCopies() throws NoPossibleMoveException {
+        Grid grid = TestTracks.hairpin();
+        StrategyOptimal strategy = new StrategyOptimal();
+        Direction first = strategy.makeChoice(grid, new Move(0, 0), new Position(1, 1));
+        Move move = new Move(first.x(), first.y());
+        Position position = new Position(1 + move.x(), 1 + move.y());
+
+        //a copy of the grid, whose track is the same, gives the same choice as the grid itself
+        Direction onCopy = strategy.makeChoice(grid.clone(), move, position);
+        assertEquals(new StrategyOptimal().makeChoice(grid, move, position), onCopy);
+    }
+
+    @Test
+    void testAvoidsOccupiedCells() throws NoPossibleMoveException {
+        Grid grid = TestTracks.corner();
+        grid.getCell(new Position(1, 1)).occupy(new PlayerFormula1("a", new StrategyOptimal(), Direction.CENTER));
+        //the cell the fastest route starts with is taken
+        grid.getCell(new Position(2, 2)).occupy(new PlayerFormula1("b", new StrategyDumb(), Direction.CENTER));
+        Direction choice = new StrategyOptimal().makeChoice(grid, new Move(0, 0), new Position(1, 1));
+        assertNotEquals(Direction.DOWNRIGHT, choice);
+        assertTrue(Strategy.possibleMoves(grid, new Move(0, 0), new Position(1, 1)).contains(choice));
+    }
+
+    @Test
+    void testNoMoves() {
+        Grid grid = TestTracks.parse(new String[]{"S"});
+        grid.getCell(new Position(0, 0)).occupy(new PlayerFormula1("", new StrategyOptimal(), Direction.CENTER));
+        assertThrows(NoPossibleMoveException.class,
+                () -> new StrategyOptimal().makeChoice(grid, new Move(0, 0), new Position(0, 0)));
+    }
+
+    @Test
+    void testSplit() {
+        StrategyOptimal strategy = new StrategyOptimal();
+        Strategy split = strategy.split(new SplittableRandom(1));
+        assertNotSame(strategy, split);
+        assertSame(StrategyOptimal.class, split.getClass());
+    }
+
+}
@@ -30,9 +30,13 @@ import it.unicam.cs.giacomopessolano.formula1.grid.ArrayGrid;
 import it.unicam.cs.giacomopessolano.formula1.grid.Cell;
 import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class StrategyTest {
@@ -88,5 +92,48 @@ public class StrategyTest {
             //expected exception, test passes
         }
     }
-}
 
+    @Test
+    void testSplitStrategiesAreReproducible() {
+        Strategy first = strategy.split(new SplittableRandom(7));
+        Strategy second = strategy.split(new SplittableRandom(7));
+
+        assertSame(strategy.getClass(), first.getClass());
+        try {
+            for (int i = 0; i < 30; i++) {
+                assertEquals(first.makeChoice(grid, new Move(0, 0), new Position(1, 1)),
+                        second.makeChoice(grid, new Move(0, 0), new Position(1, 1)));
+            }
+        } catch (NoPossibleMoveException e) {
+            throw new AssertionError("Unexpected NoPossibleMoveException", e);
+        }
+    }
+
+    @Test
+    void testPossibleMovesMask() {
+        //from the center of the grid every direction is available except the occupied cell
+        grid.getCell(new Position(2, 1)).occupy(new PlayerFormula1("", strategy, Direction.CENTER));
+        int mask = Strategy.possibleMovesMask(grid, new Move(0, 0), new Position(1, 1));
+
+        assertEquals(Direction.COUNT - 1, Integer.bitCount(mask));
+        assertEquals(0, mask & (1 << Direction.RIGHT.ordinal()));
+        assertEquals(Direction.fromMask(mask), Strategy.possibleMoves(grid, new Move(0, 0), new Position(1, 1)));
+
+        //from a corner, moving with inertia to the opposite corner: UP is still occupied
+        mask = Strategy.possibleMovesMask(grid, 0, 0, 2, 2);
+        assertEquals(List.of(Direction.LEFT, Direction.UPLEFT, Direction.CENTER), Direction.fromMask(mask));
+    }
+
+    @Test
+    void testSafeMovesMask() {
+        Grid corridor = TestTracks.parse(new String[]{
+                "XXXXXXXX",
+                "XSRRRRRX",
+                "XXXXXXXX"
+        });
+        //turning crashes at once, and speeding up leaves no room to brake before the wall
+        int mask = Strategy.safeMovesMask(corridor, new Move(2, 0), new Position(3, 1));
+        assertEquals(List.of(Direction.LEFT, Direction.CENTER), Direction.fromMask(mask));
+        assertEquals(0, mask & ~Strategy.possibleMovesMask(corridor, new Move(2, 0), new Position(3, 1)));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedEvicted() {
+        TrackCache<Object> cache = new TrackCache<>(2);
+        List<Grid> loaded = new ArrayList<>();
+        TrackCache.Loader<Object, RuntimeException> loader = grid -> {
+            loaded.add(grid);
+            return new Object();
+        };
+        Grid first = TestTracks.parse("SRE");
+        Grid second = TestTracks.parse("SRRE");
+        Grid third = TestTracks.parse("SRRRE");
+
+        Object value = cache.get(first, loader);
+        cache.get(second, loader);
+        assertSame(value, cache.get(TestTracks.parse("SRE"), loader));
+        cache.get(third, loader);
+        //second was used less recently than first
+        assertSame(value, cache.get(first, loader));
+        cache.get(second, loader);
+        assertEquals(List.of(first, second, third, second), loaded);
+    }
+
+    @Test
+    void testFailureThrownOnce() throws IOException {
+        TrackCache<Object> cache = new TrackCache<>(2);
+        Grid grid = TestTracks.parse("SRE");
+
+        assertThrows(IncorrectConfigurationException.class, () -> cache.get(grid, track -> {
+            throw new IncorrectConfigurationException("Unreadable.");
+        }));
+        assertNull(cache.get(grid, track -> new Object()));
+        cache.clear();
+        assertNotNull(cache.get(grid, track -> new Object()));
+    }
+}
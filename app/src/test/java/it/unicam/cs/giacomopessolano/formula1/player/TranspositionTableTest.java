@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.player;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGrid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TestTracks;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    private static Grid grid() {
+        byte[] states = new byte[16];
+        Arrays.fill(states, (byte) CellState.TRACK.ordinal());
+        return new PackedGrid(states, 4, 4);
+    }
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(16);
+        long key = TranspositionTable.key(new Position(3, 4), new Move(-1, 2));
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, 7, Direction.UPLEFT);
+        long entry = table.probe(key);
+        assertEquals(7, TranspositionTable.turns(entry));
+        assertEquals(Direction.UPLEFT, TranspositionTable.direction(entry));
+
+        table.store(key, 5, Direction.DOWN);
+        entry = table.probe(key);
+        assertEquals(5, TranspositionTable.turns(entry));
+        assertEquals(Direction.DOWN, TranspositionTable.direction(entry));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+    }
+
+    @Test
+    void testBounded() {
+        TranspositionTable table = new TranspositionTable(8);
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                table.store(TranspositionTable.key(new Position(x, y), new Move(0, 0)), x + y + 1, Direction.CENTER);
+            }
+        }
+        int found = 0;
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                long entry = table.probe(TranspositionTable.key(new Position(x, y), new Move(0, 0)));
+                if (entry != TranspositionTable.MISS) {
+                    assertEquals(x + y + 1, TranspositionTable.turns(entry));
+                    found++;
+                }
+            }
+        }
+        assertTrue(found > 0 && found <= table.getCapacity());
+    }
+
+    @Test
+    void testConcurrentAccessNeverReturnsWrongEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(64);
+        AtomicBoolean wrong = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    int x = (i * 7 + offset) % 500;
+                    long key = TranspositionTable.key(new Position(x, x / 3), new Move(x % 5, -x % 3));
+                    //every thread stores the same entry for a key, derived from the key itself
+                    table.store(key, x + 1, Direction.fromOrdinal(x % 9));
+                    long entry = table.probe(TranspositionTable.key(new Position(i % 500, i % 500 / 3),
+                            new Move(i % 500 % 5, -(i % 500) % 3)));
+                    if (entry != TranspositionTable.MISS && (TranspositionTable.turns(entry) != i % 500 + 1
+                            || TranspositionTable.direction(entry) != Direction.fromOrdinal(i % 500 % 9))) {
+                        wrong.set(true);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertFalse(wrong.get());
+    }
+
+    @Test
+    void testForTrack() {
+        Grid grid = grid();
+        TranspositionTable table = TranspositionTable.forTrack(grid);
+        assertSame(table, TranspositionTable.forTrack(grid.clone()));
+        //tracks are recognized by their cells, so the cache holds no grid
+        assertSame(table, TranspositionTable.forTrack(grid()));
+        assertNotSame(table, TranspositionTable.forTrack(TestTracks.parse("SRR", "RRR")));
+        assertEquals(TranspositionTable.DEFAULT_CAPACITY, table.getCapacity());
+    }
+
+}
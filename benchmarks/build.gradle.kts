@@ -0,0 +1,46 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "it.unicam.cs.giacomopessolano.formula1"
+version = "unspecified"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":app"))
+}
+
+sourceSets {
+    named("jmh") {
+        java {
+            srcDirs("src/jmh/java")
+        }
+        resources {
+            //tracks are the same ones played in the root module
+            srcDirs("src/jmh/resources", "../root/src/main/resources")
+        }
+    }
+}
+
+tasks.named<ProcessResources>("processJmhResources") {
+    duplicatesStrategy = DuplicatesStrategy.INCLUDE
+}
+
+//Usage: gradle :benchmarks:jmh [-Pbench=REGEX] [-Presults=FILE]
+//results are written as JSON, so the files of two releases can be compared
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    resultFormat.set("JSON")
+    project.findProperty("bench")?.let { includes.add(it.toString()) }
+    resultsFile.set(project.findProperty("results")?.let { file(it.toString()) }
+        ?: layout.buildDirectory.file("results/jmh/results.json").get().asFile)
+}
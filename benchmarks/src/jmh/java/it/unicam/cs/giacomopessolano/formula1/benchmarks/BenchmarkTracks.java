@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.grid.ArrayGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks shared by the benchmarks, in three sizes: "small" is the for_dummies track, "medium" is the donut
+ * track and "huge" is a synthetic donut of 2048x1024 cells built in memory. Every track is kept as the text
+ * of a .txt file, so the benchmarks can parse it without touching the disk.
+ */
+final class BenchmarkTracks {
+
+    /**
+     * Width of the huge track.
+     */
+    private static final int HUGE_WIDTH = 2048;
+    /**
+     * Height of the huge track.
+     */
+    private static final int HUGE_HEIGHT = 1024;
+    /**
+     * Number of players on the huge track.
+     */
+    private static final int HUGE_PLAYERS = 4;
+
+    /**
+     * Tracks are only built through the static methods.
+     */
+    private BenchmarkTracks() {
+    }
+
+    /**
+     * Returns the text of a track whose players are all bots with the given strategy.
+     *
+     * @param size     Size of the track: small, medium or huge.
+     * @param strategy Strategy of the players, as written in the track files.
+     * @return Text of the track.
+     * @throws IOException If the track can't be read.
+     */
+    static String text(String size, String strategy) throws IOException {
+        String text = switch (size) {
+            case "small" -> resource("for_dummies.txt");
+            case "medium" -> resource("donut.txt");
+            case "huge" -> donut(HUGE_WIDTH, HUGE_HEIGHT, HUGE_PLAYERS);
+            default -> throw new IllegalArgumentException("Unknown track size " + size + ".");
+        };
+        //interactive players can't be benchmarked, so they become bots too
+        return text.replaceAll(" (DUMB|OPTIMAL|INTERACTIVE) ", " " + strategy + " ");
+    }
+
+    /**
+     * Parses the text of a track into an initializer with an ArrayGrid and bot players.
+     *
+     * @param text Text of the track.
+     * @return Initializer of the track's games.
+     * @throws IOException If the text is not a valid track.
+     */
+    static GameInitializer initializer(String text) throws IOException {
+        PlayerBotInitializerFromTxt playerInitializer = new PlayerBotInitializerFromTxt();
+        ArrayGridInitializerFromTxt gridInitializer = new ArrayGridInitializerFromTxt();
+        //players come first in the file, the grid follows them
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            playerInitializer.initialize(reader);
+            gridInitializer.initialize(reader);
+        }
+
+        Map<Player, Position> positions = playerInitializer.getPositions();
+        List<Player> players = playerInitializer.getPlayers();
+        Grid grid = gridInitializer.getGrid();
+        return new GameInitializer() {
+            @Override
+            public Map<Player, Position> parsePlayers() {
+                return positions;
+            }
+
+            @Override
+            public List<Player> parseTurns() {
+                return players;
+            }
+
+            @Override
+            public Grid parseGrid() {
+                return grid;
+            }
+        };
+    }
+
+    /**
+     * Reads a track from the classpath.
+     *
+     * @param name Name of the track.
+     * @return Text of the track.
+     * @throws IOException If the track can't be read.
+     */
+    private static String resource(String name) throws IOException {
+        try (InputStream stream = BenchmarkTracks.class.getClassLoader().getResourceAsStream(name)) {
+            if (stream == null) {
+                throw new IOException(name + " not found.");
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Builds a track shaped like the donut one: a ring around an offtrack island, with a wall that
+     * separates the start line from the finish line on the top straight. Players start left of the wall
+     * facing left and must go all the way around to finish right of it.
+     *
+     * @param width   Width of the track.
+     * @param height  Height of the track.
+     * @param players Number of players, who start one below the other.
+     * @return Text of the track.
+     */
+    private static String donut(int width, int height, int players) {
+        int wall = width / 2;
+        int straight = height / 4;
+        assert players < straight;
+
+        StringBuilder text = new StringBuilder((width + 1) * height + 64 * players);
+        text.append("PLAYERS\n");
+        for (int i = 0; i < players; i++) {
+            text.append("Bot").append(i).append(' ').append(wall - 1).append(' ').append(1 + i)
+                    .append(" DUMB LEFT\n");
+        }
+        text.append("\nTRACK\n");
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean border = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+                boolean island = x >= width / 4 && x < 3 * width / 4 && y >= straight && y < 3 * straight;
+                char cell;
+                if (border || island || (x == wall && y < straight)) {
+                    cell = 'X';
+                } else if (x == wall - 1 && y < straight) {
+                    cell = 'S';
+                } else if (x == wall + 1 && y < straight) {
+                    cell = 'E';
+                } else {
+                    cell = 'R';
+                }
+                text.append(cell);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a whole game played by bots, from its start to its end. The game is always started with
+ * the same seed, so every invocation plays the same turns. The transposition table of the optimal strategy
+ * is kept between games: {@link TranspositionTableBenchmark} compares it with a table emptied before every game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GameBenchmark {
+
+    /**
+     * Seed of every game.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Size of the track.
+     */
+    @Param({"small", "medium", "huge"})
+    public String track;
+    /**
+     * Strategy of every player.
+     */
+    @Param({"DUMB", "OPTIMAL"})
+    public String strategy;
+
+    /**
+     * Turn manager of the games.
+     */
+    private final TurnManagerStandard turnManager = new TurnManagerStandard();
+    /**
+     * Initializer of the games.
+     */
+    private GameInitializer initializer;
+
+    /**
+     * Loads the track with the benchmarked strategy.
+     *
+     * @throws IOException If the track can't be loaded.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        initializer = BenchmarkTracks.initializer(BenchmarkTracks.text(track, strategy));
+    }
+
+    /**
+     * Plays a game until it is over.
+     *
+     * @return Number of turns played.
+     */
+    @Benchmark
+    public int playGame() {
+        return play(initializer, turnManager);
+    }
+
+    /**
+     * Plays a game with the fixed seed until it is over.
+     *
+     * @param initializer Initializer of the game.
+     * @param turnManager Turn manager of the game.
+     * @return Number of turns played.
+     */
+    static int play(GameInitializer initializer, TurnManagerStandard turnManager) {
+        GameManagerStandard game = new GameManagerStandard(initializer);
+        game.startGame(SEED);
+        int turns = 0;
+        while (game.isGameRunning()) {
+            game.nextTurn(turnManager);
+            turns++;
+        }
+        return turns;
+    }
+}
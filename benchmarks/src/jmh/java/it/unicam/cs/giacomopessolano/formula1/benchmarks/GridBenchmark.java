@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.grid.ArrayGrid;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Move;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import it.unicam.cs.giacomopessolano.formula1.player.Strategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the grid operations done the most by the game and the strategies: cloning an ArrayGrid,
+ * which happens every time a game is started or forked, and computing the possible moves of a player,
+ * which the strategies do before every choice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GridBenchmark {
+
+    /**
+     * Number of player states the possible moves are computed for in every invocation.
+     */
+    private static final int SAMPLES = 1024;
+    /**
+     * Seed of the game and of the sampled states, so every run measures the same work.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Size of the track.
+     */
+    @Param({"small", "medium", "huge"})
+    public String track;
+
+    /**
+     * Grid of a started game, with the players on it.
+     */
+    private ArrayGrid grid;
+    /**
+     * Positions of the sampled player states, all on the track.
+     */
+    private final Position[] positions = new Position[SAMPLES];
+    /**
+     * Last moves of the sampled player states.
+     */
+    private final Move[] moves = new Move[SAMPLES];
+
+    /**
+     * Starts a game on the track and samples player states on it.
+     *
+     * @throws IOException If the track can't be loaded.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        GameInitializer initializer = BenchmarkTracks.initializer(BenchmarkTracks.text(track, "DUMB"));
+        GameManagerStandard game = new GameManagerStandard(initializer);
+        game.startGame(SEED);
+        grid = (ArrayGrid) game.getGrid();
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            Position position;
+            do {
+                position = new Position(random.nextInt(grid.getWidth()), random.nextInt(grid.getHeight()));
+            } while (grid.getState(position.x(), position.y()) == CellState.OFFTRACK);
+            positions[i] = position;
+            moves[i] = new Move(random.nextInt(-3, 4), random.nextInt(-3, 4));
+        }
+    }
+
+    /**
+     * Clones the grid of a started game.
+     *
+     * @return The clone.
+     */
+    @Benchmark
+    public ArrayGrid cloneGrid() {
+        return grid.clone();
+    }
+
+    /**
+     * Computes the possible moves of every sampled player state. Times are per state.
+     *
+     * @param blackhole Consumer of the moves, so they are not optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void possibleMoves(Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) {
+            blackhole.consume(Strategy.possibleMoves(grid, moves[i], positions[i]));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.ArrayGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of ArrayGridInitializerFromTxt parsing a track. The track is read from memory, so the
+ * results measure the parser and not the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InitializerBenchmark {
+
+    /**
+     * Size of the track.
+     */
+    @Param({"small", "medium", "huge"})
+    public String track;
+
+    /**
+     * Text of the track.
+     */
+    private String text;
+
+    /**
+     * Loads the text of the track.
+     *
+     * @throws IOException If the track can't be loaded.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        text = BenchmarkTracks.text(track, "DUMB");
+    }
+
+    /**
+     * Parses the track's grid.
+     *
+     * @return The parsed grid.
+     * @throws IOException If the track is not valid.
+     */
+    @Benchmark
+    public Grid initialize() throws IOException {
+        ArrayGridInitializerFromTxt initializer = new ArrayGridInitializerFromTxt();
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            initializer.initialize(reader);
+        }
+        return initializer.getGrid();
+    }
+}
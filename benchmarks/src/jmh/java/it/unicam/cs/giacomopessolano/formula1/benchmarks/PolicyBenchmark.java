@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.PolicySolver;
+import it.unicam.cs.giacomopessolano.formula1.player.PolicyTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the policy tables: solving a track offline and looking up the best move of a state,
+ * which is all the OPTIMAL_TABLE strategy does before every choice. The huge track is left out, since its
+ * solution needs more memory than the benchmark's JVM is given.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PolicyBenchmark {
+
+    /**
+     * Number of player states looked up in every invocation.
+     */
+    private static final int SAMPLES = 1024;
+    /**
+     * Seed of the sampled states, so every run measures the same work.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Size of the track.
+     */
+    @Param({"small", "medium"})
+    public String track;
+
+    /**
+     * Grid of the track.
+     */
+    private Grid grid;
+    /**
+     * Table of the track.
+     */
+    private PolicyTable table;
+    /**
+     * Sampled player states, as x, y, horizontal and vertical move.
+     */
+    private final int[] states = new int[4 * SAMPLES];
+
+    /**
+     * Parses and solves the track and samples player states on it.
+     *
+     * @throws IOException If the track can't be loaded or solved.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        grid = BenchmarkTracks.initializer(BenchmarkTracks.text(track, "DUMB")).parseGrid();
+        table = PolicySolver.solve(grid);
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < 4 * SAMPLES; i += 4) {
+            do {
+                states[i] = random.nextInt(grid.getWidth());
+                states[i + 1] = random.nextInt(grid.getHeight());
+            } while (grid.getState(states[i], states[i + 1]) == CellState.OFFTRACK);
+            states[i + 2] = random.nextInt(-3, 4);
+            states[i + 3] = random.nextInt(-3, 4);
+        }
+    }
+
+    /**
+     * Solves the track.
+     *
+     * @return The table of the track.
+     * @throws IOException If the track is too large for a table.
+     */
+    @Benchmark
+    public PolicyTable solve() throws IOException {
+        return PolicySolver.solve(grid);
+    }
+
+    /**
+     * Looks up every sampled player state. Times are per state.
+     *
+     * @param blackhole Consumer of the entries, so they are not optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void probe(Blackhole blackhole) {
+        for (int i = 0; i < 4 * SAMPLES; i += 4) {
+            blackhole.consume(table.probe(states[i], states[i + 1], states[i + 2], states[i + 3]));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.player.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a whole game played by optimal bots with a cold or a warm transposition table. The optimal
+ * strategy remembers the searches it made on a track in a table that outlives the game. With a cold table it
+ * is emptied before every game, so each game pays for its own searches; with a warm one it is kept, so after
+ * the first game the searches are mostly looked up, as when the same track is played over and over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TranspositionTableBenchmark {
+
+    /**
+     * Size of the track.
+     */
+    @Param({"small", "medium", "huge"})
+    public String track;
+    /**
+     * State of the transposition table of the track at the start of every game, cold or warm.
+     */
+    @Param({"cold", "warm"})
+    public String table;
+
+    /**
+     * Turn manager of the games.
+     */
+    private final TurnManagerStandard turnManager = new TurnManagerStandard();
+    /**
+     * Initializer of the games.
+     */
+    private GameInitializer initializer;
+
+    /**
+     * Loads the track with optimal players.
+     *
+     * @throws IOException If the track can't be loaded.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        initializer = BenchmarkTracks.initializer(BenchmarkTracks.text(track, "OPTIMAL"));
+    }
+
+    /**
+     * Empties the transposition table of the track if the games start with a cold table.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        if (table.equals("cold")) {
+            TranspositionTable.forTrack(initializer.parseGrid()).clear();
+        }
+    }
+
+    /**
+     * Plays a game until it is over.
+     *
+     * @return Number of turns played.
+     */
+    @Benchmark
+    public int playGame() {
+        return GameBenchmark.play(initializer, turnManager);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.benchmarks;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a single move executed by TurnManagerStandard. The moving player laps the smallest
+ * square of track cells around its starting cell, turning at every move, so every invocation does the
+ * same work, the state never drifts and the speed is never zero, as in a real game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TurnBenchmark {
+
+    /**
+     * Size of the track.
+     */
+    @Param({"small", "medium", "huge"})
+    public String track;
+
+    /**
+     * Turn manager being measured.
+     */
+    private final TurnManagerStandard turnManager = new TurnManagerStandard();
+    /**
+     * Grid with only the moving player on it.
+     */
+    private Grid grid;
+    /**
+     * Player that moves.
+     */
+    private Player player;
+    /**
+     * Position of the moving player.
+     */
+    private Map<Player, Position> positions;
+
+    /**
+     * Puts a lapping player on the first starting position of the track.
+     *
+     * @throws IOException If the track can't be loaded, or it has no room to lap.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        GameInitializer initializer = BenchmarkTracks.initializer(BenchmarkTracks.text(track, "DUMB"));
+        grid = initializer.parseGrid().clone();
+        Position start = initializer.parsePlayers().get(initializer.parseTurns().get(0));
+
+        player = new PlayerFormula1("Lap", lapFrom(start), Direction.CENTER);
+        positions = new HashMap<>();
+        positions.put(player, start);
+        grid.getCell(start).occupy(player);
+    }
+
+    /**
+     * Executes a move of the lapping player.
+     *
+     * @return The cells traversed by the move.
+     */
+    @Benchmark
+    public CellState executeMove() {
+        return turnManager.executeMove(grid, player, positions);
+    }
+
+    /**
+     * Finds a square of four track cells that has the starting position as a corner.
+     *
+     * @param start Starting position.
+     * @return A strategy that laps the square.
+     * @throws IOException If no such square is on the track.
+     */
+    private Lap lapFrom(Position start) throws IOException {
+        for (int sideX : new int[]{1, -1}) {
+            for (int sideY : new int[]{1, -1}) {
+                if (onTrack(start.x() + sideX, start.y()) && onTrack(start.x(), start.y() + sideY)
+                        && onTrack(start.x() + sideX, start.y() + sideY)) {
+                    return new Lap(sideX, sideY);
+                }
+            }
+        }
+        throw new IOException("The track has no room to lap.");
+    }
+
+    /**
+     * Checks if a cell is inside the grid and not off the track.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @return True if a player can stand on the cell.
+     */
+    private boolean onTrack(int x, int y) {
+        return x >= 0 && y >= 0 && x < grid.getWidth() && y < grid.getHeight()
+                && grid.getState(x, y) != CellState.OFFTRACK;
+    }
+
+    /**
+     * Strategy that moves one cell at a time around a square: horizontally, vertically, back horizontally
+     * and back vertically. Every move after the first turns by changing both components of the speed.
+     */
+    private static class Lap implements Strategy {
+
+        /**
+         * Horizontal side of the square, 1 or -1.
+         */
+        private final int sideX;
+        /**
+         * Vertical side of the square, 1 or -1.
+         */
+        private final int sideY;
+
+        /**
+         * Constructs the strategy from the sides of the square.
+         *
+         * @param sideX Horizontal side of the square, 1 or -1.
+         * @param sideY Vertical side of the square, 1 or -1.
+         */
+        private Lap(int sideX, int sideY) {
+            this.sideX = sideX;
+            this.sideY = sideY;
+        }
+
+        /**
+         * Returns the direction that turns the last move into the next side of the square.
+         *
+         * @param grid     Grid where the movement takes place.
+         * @param lastMove Player's last move.
+         * @param position Player's current position.
+         * @return The direction towards the next side.
+         */
+        @Override
+        public Direction makeChoice(Grid grid, Move lastMove, Position position) {
+            int moveX = lastMove.x();
+            int moveY = lastMove.y();
+            int nextX;
+            int nextY;
+            if (moveY == 0) {
+                //standing still only happens before the first move
+                nextX = moveX == 0 ? sideX : 0;
+                nextY = moveX == 0 ? 0 : moveX * sideX * sideY;
+            } else {
+                nextX = -moveY * sideX * sideY;
+                nextY = 0;
+            }
+            for (Direction direction : Direction.values()) {
+                if (direction.x() == nextX - moveX && direction.y() == nextY - moveY) return direction;
+            }
+            throw new IllegalStateException("The player left the square.");
+        }
+    }
+}
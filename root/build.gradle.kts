@@ -32,6 +32,75 @@ tasks.getByName("run", JavaExec::class) {
     if (project.hasProperty("cli")) {
         systemProperty("ui.mode", "cli")
     }
+
+    if (project.hasProperty("ansi")) {
+        systemProperty("ui.mode", "cli-ansi")
+    }
+
+    if (project.hasProperty("packed")) {
+        systemProperty("grid.mode", "packed")
+    }
+
+    if (project.hasProperty("canvas")) {
+        systemProperty("ui.renderer", "canvas")
+    }
+
+    if (project.hasProperty("viewport")) {
+        systemProperty("ui.renderer", "viewport")
+    }
+
+    if (project.hasProperty("autoplay")) {
+        systemProperty("game.autoplay", "true")
+    }
+
+    project.findProperty("turns")?.let { systemProperty("game.turnsPerSecond", it.toString()) }
+    project.findProperty("fps")?.let { systemProperty("ui.fps", it.toString()) }
+    project.findProperty("deadline")?.let { systemProperty("game.deadline", it.toString()) }
+    project.findProperty("replay")?.let { systemProperty("game.replay", it.toString()) }
+    project.findProperty("policies")?.let { systemProperty("policy.dir", it.toString()) }
+    project.findProperty("mcts")?.let { systemProperty("mcts.budget", it.toString()) }
+    project.findProperty("mctsWorkers")?.let { systemProperty("mcts.workers", it.toString()) }
+}
+
+tasks.register<JavaExec>("convertTrack") {
+    group = "application"
+    description = "Converts a .txt track to the binary format. Usage: -Ptrack=NAME.txt [-Pout=PATH.f1b]"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("it.unicam.cs.giacomopessolano.formula1.main.TrackConverter")
+    args = listOfNotNull(project.findProperty("track")?.toString(), project.findProperty("out")?.toString())
+}
+
+tasks.register<JavaExec>("solveTrack") {
+    group = "application"
+    description = "Writes the policy table of a track for the OPTIMAL_TABLE strategy. " +
+            "Usage: -Ptrack=NAME [-Pout=PATH.f1p] [-Ppolicies=DIR]"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("it.unicam.cs.giacomopessolano.formula1.main.TrackSolver")
+    project.findProperty("policies")?.let { systemProperty("policy.dir", it.toString()) }
+    args = listOfNotNull(project.findProperty("track")?.toString(), project.findProperty("out")?.toString())
+}
+
+tasks.register<JavaExec>("runHeadless") {
+    group = "application"
+    description = "Plays from the command line without JavaFX. " +
+            "Usage: [-Ptrack=NAME] [-Pbatch] [-Pansi] [-Ppacked] [-Pdeadline=MS] [-Precord=FILE] " +
+            "[-Preplay=FILE] [-Ppolicies=DIR] [-Pmcts=MS] [-PmctsWorkers=N]"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("it.unicam.cs.giacomopessolano.formula1.main.HeadlessMain")
+    standardInput = System.`in`
+    jvmArgs("-Djava.awt.headless=true")
+    project.findProperty("policies")?.let { systemProperty("policy.dir", it.toString()) }
+    project.findProperty("mcts")?.let { systemProperty("mcts.budget", it.toString()) }
+    project.findProperty("mctsWorkers")?.let { systemProperty("mcts.workers", it.toString()) }
+    args = listOfNotNull(
+        "--batch".takeIf { project.hasProperty("batch") },
+        "--ansi".takeIf { project.hasProperty("ansi") },
+        "--packed".takeIf { project.hasProperty("packed") },
+        project.findProperty("deadline")?.let { "--deadline=$it" },
+        project.findProperty("record")?.let { "--record=$it" },
+        project.findProperty("replay")?.let { "--replay=$it" },
+        project.findProperty("track")?.toString()
+    )
 }
 
 application {
@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.main;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.IncorrectConfigurationException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.ValidationFailedException;
+import it.unicam.cs.giacomopessolano.formula1.game.*;
+import it.unicam.cs.giacomopessolano.formula1.grid.*;
+import it.unicam.cs.giacomopessolano.formula1.player.*;
+import it.unicam.cs.giacomopessolano.formula1.ui.UserInterface;
+import it.unicam.cs.giacomopessolano.formula1.ui.UserInterfaceCLI;
+import it.unicam.cs.giacomopessolano.formula1.ui.UserInterfaceCLIAnsi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point that plays the game from the command line without ever loading the JavaFX toolkit, so it
+ * starts faster, uses less memory and runs on machines without a display. Unlike Main it is not a JavaFX
+ * Application and only refers to classes that don't depend on JavaFX.
+ * <p>
+ * Arguments: [--batch] [--ansi] [--packed] [--deadline=MS] [--record=FILE] [--replay=FILE] [TRACK].
+ * The CLI game is the same as Main's: it asks for a track if none is given and waits for the user before
+ * every turn. With --batch the track is required, only
+ * bots can play and the game runs without pauses, printing just the final grid and the results.
+ * --ansi uses the CLI that only reprints the cells that changed, --packed loads the track in a
+ * PackedGrid and --deadline gives every player that many milliseconds to choose a move, which requires
+ * --batch because interactive players would keep reading the input after their deadline, and always
+ * loads the track in a PackedGrid. --record appends
+ * a replay of the game to a file, which requires the track. --replay shows the last game of a replay file
+ * that was recorded on the track and lets the user move through its turns, forwards or backwards.
+ */
+public class HeadlessMain {
+
+    /**
+     * Folder where the tracks are located.
+     */
+    private static final String TRACK_DIR = "root/src/main/resources";
+
+    public static void main(String[] args) {
+        boolean batch = false;
+        boolean ansi = false;
+        boolean packed = false;
+        long deadline = 0;
+        Path record = null;
+        Path replay = null;
+        String track = null;
+        for (String arg : args) {
+            switch (arg) {
+                case "--batch" -> batch = true;
+                case "--ansi" -> ansi = true;
+                case "--packed" -> packed = true;
+                default -> {
+                    if (arg.startsWith("--deadline=")) {
+                        deadline = parseDeadline(arg.substring("--deadline=".length()));
+                        continue;
+                    }
+                    if (arg.startsWith("--record=")) {
+                        record = Path.of(arg.substring("--record=".length()));
+                        continue;
+                    }
+                    if (arg.startsWith("--replay=")) {
+                        replay = Path.of(arg.substring("--replay=".length()));
+                        continue;
+                    }
+                    if (arg.startsWith("--") || track != null) {
+                        usage();
+                    }
+                    track = arg;
+                }
+            }
+        }
+        if ((batch || record != null || replay != null) && track == null) {
+            usage();
+        }
+        //strategies choose on other threads when they have a deadline, which only bots can do
+        if (deadline > 0 && !batch) {
+            usage();
+        }
+
+        UserInterface ui = ansi ? new UserInterfaceCLIAnsi() : new UserInterfaceCLI();
+        PlayerInitializerFromTxt playerInitializer = batch ? new PlayerBotInitializerFromTxt()
+                : new PlayerBotInteractiveInitializerFromTxt(new InteractionHandlerCLI());
+        //strategies with a deadline choose on a copy of the grid, which only a PackedGrid makes without a scan
+        GridInitializerFromTxt gridInitializer = packed || deadline > 0 ? new PackedGridInitializerFromTxt()
+                : new ArrayGridInitializerFromTxt();
+        TurnManagerStandard turnManager = deadline > 0 ? new TurnManagerDeadline(deadline, TimeUnit.MILLISECONDS)
+                : new TurnManagerStandard();
+        //the recorder asks the other turn manager for the moves and writes them down
+        TurnManagerRecording recorder = record == null ? null : new TurnManagerRecording(turnManager);
+        if (recorder != null) {
+            turnManager = recorder;
+        }
+
+        if (replay != null) {
+            try {
+                Grid grid = createInitializer(track, gridInitializer, new PlayerBotInitializerFromTxt()).parseGrid();
+                ui.scrub(ReplayTimeline.fromLog(replay, grid));
+            } catch (IOException | ValidationFailedException e) {
+                ui.errorMessage(e.getMessage());
+                System.exit(-1);
+            }
+            return;
+        }
+
+        if (batch) {
+            try {
+                GameInitializer initializer = createInitializer(track, gridInitializer, playerInitializer);
+                GameManager game = startGame(initializer);
+                long turns = 0;
+                long start = System.nanoTime();
+                while (game.isGameRunning()) {
+                    game.nextTurn(turnManager);
+                    turns++;
+                }
+                ui.displayGrid(game);
+                ui.gameOverMessage(game);
+                System.out.printf("%d turns in %.1f ms%n", turns, (System.nanoTime() - start) / 1e6);
+                if (recorder != null) {
+                    ReplayLog.append(record, List.of(recorder.toReplay(track, initializer, game.getSeed())));
+                }
+            } catch (IOException | ValidationFailedException e) {
+                ui.errorMessage(e.getMessage());
+                System.exit(-1);
+            }
+            return;
+        }
+
+        GameInitializer initializer = null;
+        GameManager game = null;
+        while (game == null) {
+            try {
+                String trackName = track != null ? track : ui.chooseTrack(TRACK_DIR);
+                if (trackName.isEmpty()) return;
+                initializer = createInitializer(trackName, gridInitializer, playerInitializer);
+                game = startGame(initializer);
+            } catch (UnrecognizedFileException | ValidationFailedException | IncorrectConfigurationException e) {
+                ui.errorMessage(e.getMessage());
+            } catch (Exception e) {
+                ui.errorMessage("Something went wrong: " + e.getMessage());
+            }
+            //a track given as argument is tried only once
+            if (game == null && track != null) {
+                System.exit(-1);
+            }
+        }
+
+        try {
+            ui.displayGrid(game);
+            while (game.isGameRunning()) {
+                ui.pause();
+                ui.turnMessage(game);
+                game.nextTurn(turnManager);
+                ui.displayGrid(game);
+            }
+            ui.gameOverMessage(game);
+            if (recorder != null) {
+                ReplayLog.append(record, List.of(recorder.toReplay(track, initializer, game.getSeed())));
+            }
+        } catch (Exception e) {
+            System.out.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Loads and validates a track.
+     *
+     * @param trackName         Name of the track.
+     * @param gridInitializer   Class that parses .txt grids.
+     * @param playerInitializer Class that parses the players.
+     * @return Initializer of the track's games.
+     * @throws IOException               If the track can't be read or is not configured correctly.
+     * @throws ValidationFailedException If the track or the players are not valid.
+     */
+    private static GameInitializer createInitializer(String trackName, GridInitializerFromTxt gridInitializer,
+                                                     PlayerInitializerFromTxt playerInitializer)
+            throws IOException, ValidationFailedException {
+        //binary tracks always use a PackedGrid
+        GameInitializer initializer;
+        if (trackName.endsWith(TrackFile.EXTENSION)) {
+            initializer = new GameInitializerFromBinary(trackName, playerInitializer);
+        } else {
+            initializer = new GameInitializerFromTxt(trackName, gridInitializer, playerInitializer);
+        }
+        //the CLI prints tracks of any size, so only their contents are checked
+        Validator validator = new ValidatorStandard(initializer.parseGrid(), initializer.parsePlayers(),
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        if (!validator.performAllChecks()) {
+            throw new ValidationFailedException("The given configuration failed validation tests.");
+        }
+        return initializer;
+    }
+
+    /**
+     * Starts a game on a track.
+     *
+     * @param initializer Initializer of the track's games.
+     * @return The started game.
+     */
+    private static GameManager startGame(GameInitializer initializer) {
+        GameManager game = new GameManagerStandard(initializer);
+        game.startGame();
+        return game;
+    }
+
+    /**
+     * Parses the deadline of the players' moves, exiting if it is not a positive number.
+     *
+     * @param value Deadline in milliseconds.
+     * @return The deadline.
+     */
+    private static long parseDeadline(String value) {
+        try {
+            long deadline = Long.parseLong(value);
+            if (deadline > 0) return deadline;
+        } catch (NumberFormatException ignored) {
+            //handled below
+        }
+        usage();
+        return 0;
+    }
+
+    /**
+     * Prints how to use the launcher and exits.
+     */
+    private static void usage() {
+        System.out.println("Usage: [--batch] [--ansi] [--packed] [--deadline=MS] [--record=FILE] [--replay=FILE] "
+                + "[TRACK]");
+        System.exit(-1);
+    }
+}
@@ -32,18 +32,28 @@ import it.unicam.cs.giacomopessolano.formula1.game.*;
 import it.unicam.cs.giacomopessolano.formula1.grid.*;
 import it.unicam.cs.giacomopessolano.formula1.player.*;
 import it.unicam.cs.giacomopessolano.formula1.ui.*;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main class of the application.
  */
 public class Main extends Application {
 
+    /**
+     * Largest width and height of a track drawn by the renderers that show every cell at once.
+     */
+    private static final int MAX_DRAWN_SIZE = 120;
+
     /**
      * Class that keeps the game's state.
      */
@@ -72,6 +82,10 @@ public class Main extends Application {
      * Validator to perform various checks on the data extracted from the configuration file.
      */
     private Validator validator;
+    /**
+     * Largest width and height of a track the validator accepts.
+     */
+    private int maxTrackSize = Integer.MAX_VALUE;
 
     public static void main(String[] args) {
         launch(args);
@@ -79,7 +93,14 @@ public class Main extends Application {
 
     /**
      * Starts the game by assigning variables, initializing the game and then starting the game loop.
-     * Using -Pcli as a parameter in gradle run you can play in the CLI version of the app.
+     * Using -Pcli as a parameter in gradle run you can play in the CLI version of the app, and with -Pansi
+     * in a CLI that only reprints the cells that changed. -Ppacked loads the track in a PackedGrid,
+     * -Pcanvas draws the JavaFX grid on a canvas and -Pviewport draws only the visible part of it, with
+     * a minimap, for tracks bigger than the screen; the other JavaFX renderers show every cell, so they only
+     * accept tracks up to MAX_DRAWN_SIZE cells per side. -Pautoplay plays bot-only games without pauses, with
+     * the simulation decoupled from rendering, and -Pdeadline gives their bots that many milliseconds
+     * to choose a move. -Preplay shows the last game of a replay log that was recorded on the chosen track
+     * and lets the user move through its turns.
      *
      * @param primaryStage App's graphical display. Unused in the CLI version of the game.
      */
@@ -88,22 +109,61 @@ public class Main extends Application {
         String mode = System.getProperty("ui.mode", "javafx");
         //the handler will define how interactive users input their moves. It should coincide with the UI
         InteractionHandler interactionHandler;
-        if (mode.equalsIgnoreCase("cli")) {
-            ui = new UserInterfaceCLI();
+        //the ANSI version of the CLI only reprints the cells that changed
+        boolean cli = mode.equalsIgnoreCase("cli") || mode.equalsIgnoreCase("cli-ansi");
+        if (cli) {
+            ui = mode.equalsIgnoreCase("cli-ansi") ? new UserInterfaceCLIAnsi() : new UserInterfaceCLI();
             interactionHandler = new InteractionHandlerCLI();
         } else {
-            ui = new UserInterfaceJavaFX(primaryStage);
+            //the canvas renderer only repaints what changed, which keeps big tracks responsive
+            String renderer = System.getProperty("ui.renderer", "nodes");
+            //only the viewport can show tracks bigger than the screen
+            if (renderer.equalsIgnoreCase("canvas")) {
+                ui = new UserInterfaceJavaFXCanvas(primaryStage);
+                maxTrackSize = MAX_DRAWN_SIZE;
+            } else if (renderer.equalsIgnoreCase("viewport")) {
+                ui = new UserInterfaceJavaFXViewport(primaryStage);
+            } else {
+                ui = new UserInterfaceJavaFX(primaryStage);
+                maxTrackSize = MAX_DRAWN_SIZE;
+            }
             primaryStage.setOnCloseRequest(event -> stop());
             interactionHandler = new InteractionHandlerJavaFX();
         }
 
-        turnManager = new TurnManagerStandard();
-        playerInitializer = new PlayerBotInteractiveInitializerFromTxt(interactionHandler);
-        gridInitializer = new ArrayGridInitializerFromTxt();
+        //auto-played games run away from the JavaFX thread, where interactive players can't be asked for input
+        boolean autoplay = !cli && Boolean.getBoolean("game.autoplay");
+        //strategies choose on other threads when they have a deadline, which only bots can do
+        long deadline = Long.getLong("game.deadline", 0);
+        if (autoplay && deadline > 0) {
+            turnManager = new TurnManagerDeadline(deadline, TimeUnit.MILLISECONDS);
+        } else {
+            turnManager = new TurnManagerStandard();
+        }
+        //replayed games only need the track, whose players must not be asked anything
+        String replay = System.getProperty("game.replay");
+        if (autoplay || replay != null) {
+            playerInitializer = new PlayerBotInitializerFromTxt();
+        } else {
+            playerInitializer = new PlayerBotInteractiveInitializerFromTxt(interactionHandler);
+        }
+        //packed grids are better suited for big tracks, auto-played games are forked for every frame and
+        //strategies with a deadline choose on a copy of the grid, so both always use them
+        if (autoplay || System.getProperty("grid.mode", "array").equalsIgnoreCase("packed")) {
+            gridInitializer = new PackedGridInitializerFromTxt();
+        } else {
+            gridInitializer = new ArrayGridInitializerFromTxt();
+        }
         initializeGame();
+        if (replay != null) {
+            scrubReplay(Path.of(replay), cli);
+            return;
+        }
         //the two game loops do the same thing but the CLI UI is best suited for the sequential version
-        if (mode.equalsIgnoreCase("cli")) {
+        if (cli) {
             gameLoopSequential();
+        } else if (autoplay) {
+            gameLoopAutoplay();
         } else {
             gameLoop();
         }
@@ -129,9 +189,14 @@ public class Main extends Application {
                     stop();
                     break;
                 }
-                initializer = new GameInitializerFromTxt(trackName, gridInitializer, playerInitializer);
+                //binary tracks always use a PackedGrid
+                if (trackName.endsWith(TrackFile.EXTENSION)) {
+                    initializer = new GameInitializerFromBinary(trackName, playerInitializer);
+                } else {
+                    initializer = new GameInitializerFromTxt(trackName, gridInitializer, playerInitializer);
+                }
                 validator = new ValidatorStandard(initializer.parseGrid(), initializer.parsePlayers(),
-                        120, 120);
+                        maxTrackSize, maxTrackSize);
                 game = new GameManagerStandard(initializer, validator);
 
                 game.startGame();
@@ -145,6 +210,26 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Lets the user move through the turns of the last game of a replay log that was recorded on the
+     * game's track. The CLI version closes the app when the user quits, the JavaFX one when the window
+     * is closed.
+     *
+     * @param path Replay log.
+     * @param cli  States if the UI is a CLI.
+     */
+    private void scrubReplay(Path path, boolean cli) {
+        try {
+            ui.scrub(ReplayTimeline.fromLog(path, initializer.parseGrid()));
+        } catch (IOException e) {
+            ui.errorMessage(e.getMessage());
+            stop();
+        }
+        if (cli) {
+            stop();
+        }
+    }
+
     /**
      * The game's standard loop. Displays each turn the game's current state and waits for the user to unpause
      * the simulation until the game is over.
@@ -175,6 +260,62 @@ public class Main extends Application {
 
     }
 
+    /**
+     * A loop that plays the game without waiting for the user. The game runs on its own thread as fast
+     * as it can, or at the number of turns per second set with -Pturns, while the JavaFX thread draws
+     * the latest snapshot at most at the frame rate set with -Pfps; the turns played between two frames
+     * are never drawn. When the game is over the last snapshot is drawn and the app closes on unpause.
+     */
+    private void gameLoopAutoplay() {
+        long frameInterval = 1_000_000_000L / Math.max(1, Integer.getInteger("ui.fps", 30));
+        //two snapshots per frame keep the drawn state at most half a frame older than the game
+        GameSimulation simulation = new GameSimulation(game, turnManager,
+                Integer.getInteger("game.turnsPerSecond", 0), frameInterval / 2);
+        CountDownLatch gameOverShown = new CountDownLatch(1);
+
+        AnimationTimer renderer = new AnimationTimer() {
+            /**
+             * Time at which the last frame was drawn.
+             */
+            private long lastFrame = 0;
+
+            /**
+             * Draws the latest snapshot of the game, if there is one and enough time has passed.
+             *
+             * @param now Time of the current frame, in nanoseconds.
+             */
+            @Override
+            public void handle(long now) {
+                if (now - lastFrame < frameInterval) return;
+                GameManager snapshot = simulation.poll();
+                if (snapshot == null) return;
+                lastFrame = now;
+
+                ui.turnMessage(snapshot);
+                ui.displayGrid(snapshot);
+                if (!snapshot.isGameRunning()) {
+                    ui.gameOverMessage(snapshot);
+                    stop();
+                    gameOverShown.countDown();
+                }
+            }
+        };
+        renderer.start();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> {
+            simulation.run();
+            try {
+                gameOverShown.await();
+                ui.pause();
+            } catch (InterruptedException ignored) {
+                //the app is closing anyway
+            }
+            executor.shutdown();
+            stop();
+        });
+    }
+
     /**
      * A sequential implementation of the game's loop. Though the CLI version can work with the executor,
      * it's best suited for this implementation. JavaFX, on the hand, requires the executor.
@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.main;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.TrackFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line tool that converts a .txt track, read from the classpath like in the game, to the
+ * binary format read by GameInitializerFromBinary.
+ * <p>
+ * Arguments: TRACK [OUTPUT]. OUTPUT defaults to the track's name with the binary extension, in the
+ * current directory.
+ */
+public class TrackConverter {
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: TRACK [OUTPUT]");
+            System.exit(-1);
+        }
+
+        try {
+            String track = args[0];
+            String output = args.length > 1 ? args[1] : track.replaceFirst("\\.txt$", "") + TrackFile.EXTENSION;
+            long start = System.nanoTime();
+            TrackFile.fromTxt(track).write(Path.of(output));
+            System.out.printf("%s converted to %s in %.1f ms%n", track, output, (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+}
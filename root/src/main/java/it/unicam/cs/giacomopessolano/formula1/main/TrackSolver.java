@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.main;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGrid;
+import it.unicam.cs.giacomopessolano.formula1.grid.TrackFile;
+import it.unicam.cs.giacomopessolano.formula1.player.PolicySolver;
+import it.unicam.cs.giacomopessolano.formula1.player.PolicyTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command line tool that solves a track, .txt or binary, read like in the game, and writes the
+ * PolicyTable read by the OPTIMAL_TABLE strategy.
+ * <p>
+ * Arguments: TRACK [OUTPUT]. OUTPUT defaults to the file PolicyTable.forTrack looks for, named after
+ * the track's fingerprint, in the directory of the policy.dir property or in "policies".
+ */
+public class TrackSolver {
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: TRACK [OUTPUT]");
+            System.exit(-1);
+        }
+
+        try {
+            String track = args[0];
+            TrackFile file = track.endsWith(TrackFile.EXTENSION) ? TrackFile.load(track) : TrackFile.fromTxt(track);
+            Grid grid = new PackedGrid(file.getTrack());
+            Path output = args.length > 1 ? Path.of(args[1]) : Path.of(System.getProperty(
+                    PolicyTable.DIRECTORY_PROPERTY, PolicyTable.DEFAULT_DIRECTORY), PolicyTable.fileName(grid));
+
+            long start = System.nanoTime();
+            PolicyTable table = PolicySolver.solve(grid);
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            table.write(output);
+            System.out.printf("%s solved to %s in %.1f ms, %d states%n", track, output,
+                    (System.nanoTime() - start) / 1e6, table.getEntries());
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+plugins {
+    id("java")
+    id("application")
+}
+
+group = "it.unicam.cs.giacomopessolano.formula1"
+version = "unspecified"
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    //virtual threads need Java 21
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+dependencies {
+    implementation(project(":app"))
+    testImplementation(platform("org.junit:junit-bom:5.10.0"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+application {
+    mainClass.set("it.unicam.cs.giacomopessolano.formula1.server.GameServerMain")
+}
+
+sourceSets {
+    main {
+        java {
+            srcDirs("src/main/java")
+        }
+        resources {
+            //tracks are the same ones played in the root module
+            srcDirs("src/main/resources", "../root/src/main/resources")
+        }
+    }
+    test {
+        java {
+            srcDirs("src/test/java")
+        }
+        resources {
+            srcDirs("src/test/resources")
+        }
+    }
+}
+
+tasks.processResources {
+    duplicatesStrategy = DuplicatesStrategy.INCLUDE
+}
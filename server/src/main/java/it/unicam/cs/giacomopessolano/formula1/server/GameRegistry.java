@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the games hosted by a server, indexed by ID. Lookups never lock and registrations only
+ * contend on the same bin of the map, so thousands of connections can use it at once.
+ */
+public class GameRegistry {
+
+    /**
+     * Hosted games by ID.
+     */
+    private final ConcurrentMap<Long, HostedGame> games = new ConcurrentHashMap<>();
+    /**
+     * ID of the next game.
+     */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Reserves an ID for a new game.
+     *
+     * @return An ID never returned before.
+     */
+    public long nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Adds a game to the registry.
+     *
+     * @param game Game to add. Its ID must not be registered yet.
+     */
+    public void register(HostedGame game) {
+        assert game != null;
+        HostedGame previous = games.putIfAbsent(game.getId(), game);
+        assert previous == null;
+    }
+
+    /**
+     * Returns a game by ID.
+     *
+     * @param id ID of the game.
+     * @return The game, or null if there is no game with that ID.
+     */
+    public HostedGame get(long id) {
+        return games.get(id);
+    }
+
+    /**
+     * Removes a game from the registry.
+     *
+     * @param id ID of the game.
+     * @return The removed game, or null if there was no game with that ID.
+     */
+    public HostedGame remove(long id) {
+        return games.remove(id);
+    }
+
+    /**
+     * Removes the games whose loop ended at least the given time ago.
+     *
+     * @param retentionNanos Nanoseconds a game is kept after it ends.
+     * @return Number of games removed.
+     */
+    public int evictOver(long retentionNanos) {
+        assert retentionNanos >= 0;
+        long now = System.nanoTime();
+        int removed = 0;
+        for (HostedGame game : games.values()) {
+            if (game.isOver() && now - game.getOverTime() >= retentionNanos && games.remove(game.getId(), game)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns a live view of the registered games.
+     *
+     * @return The registered games.
+     */
+    public Collection<HostedGame> games() {
+        return games.values();
+    }
+
+    /**
+     * Returns the number of registered games.
+     *
+     * @return Number of games.
+     */
+    public int size() {
+        return games.size();
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.UnrecognizedFileException;
+import it.unicam.cs.giacomopessolano.formula1.exceptions.ValidationFailedException;
+import it.unicam.cs.giacomopessolano.formula1.game.*;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.grid.TrackFile;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.InteractionHandler;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInteractiveInitializerFromTxt;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Server that hosts many games at once in the same JVM. Every game and every connection runs on a virtual
+ * thread, so games waiting for a human move and idle connections hold no platform thread. Tracks are loaded
+ * once in a PackedGrid, so games on the same track share its cells and only own their players.
+ * <p>
+ * The server only listens on the loopback interface and speaks a line-based text protocol:
+ * <ul>
+ *     <li>NEW TRACK: starts a game on a track and replies GAME ID. TRACK is the file name of a .txt track
+ *     bundled with the server or of a .f1b track in the server's track directory, never a path;</li>
+ *     <li>STATE ID: describes a game, including the moves it is waiting for;</li>
+ *     <li>MOVE ID DIRECTION: plays a move for the interactive player the game is waiting for;</li>
+ *     <li>LIST: describes every game, one per line, followed by END;</li>
+ *     <li>REMOVE ID: stops a game and forgets it;</li>
+ *     <li>QUIT: closes the connection.</li>
+ * </ul>
+ * Failed commands are answered with ERROR and a message. Games that are over can still be described for
+ * a while, then they are forgotten so that a long-running server doesn't keep their grids and players.
+ */
+public class GameServer implements AutoCloseable {
+
+    /**
+     * Turns after which a game is stopped, if not specified.
+     */
+    public static final long DEFAULT_MAX_TURNS = 10_000;
+    /**
+     * Milliseconds a game is kept after it ends, if not specified.
+     */
+    public static final long DEFAULT_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    /**
+     * Longest wait in milliseconds between two removals of the games that are over.
+     */
+    private static final long EVICTION_INTERVAL_MILLIS = 1000;
+    /**
+     * Names the clients can give to NEW: file names without any directory.
+     */
+    private static final Pattern TRACK_NAME =
+            Pattern.compile("[\\w-]+(\\.txt|" + Pattern.quote(TrackFile.EXTENSION) + ")");
+
+    /**
+     * Games hosted by the server.
+     */
+    private final GameRegistry registry = new GameRegistry();
+    /**
+     * Initializers of the tracks loaded so far, by name.
+     */
+    private final Map<String, GameInitializer> tracks = new ConcurrentHashMap<>();
+    /**
+     * Handler shared by the interactive players of every game.
+     */
+    private final InteractionHandler interactionHandler = new RemoteInteractionHandler();
+    /**
+     * Class that updates every game.
+     */
+    private final TurnManager turnManager = new TurnManagerStandard();
+    /**
+     * Executor that starts a virtual thread for every game and connection.
+     */
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    /**
+     * Released when the server is closed.
+     */
+    private final CountDownLatch closed = new CountDownLatch(1);
+    /**
+     * Turns after which a game is stopped.
+     */
+    private final long maxTurns;
+    /**
+     * Directory of the binary tracks, or null if only the bundled tracks can be played.
+     */
+    private final Path trackDirectory;
+    /**
+     * Milliseconds a game is kept after it ends.
+     */
+    private final long retentionMillis;
+    /**
+     * Socket that accepts the connections.
+     */
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructs a GameServer whose games stop after the given number of turns, which only plays the bundled
+     * tracks and keeps games for DEFAULT_RETENTION_MILLIS after they end.
+     *
+     * @param maxTurns Turns after which a game is stopped. Must be higher than 0.
+     */
+    public GameServer(long maxTurns) {
+        this(maxTurns, null, DEFAULT_RETENTION_MILLIS);
+    }
+
+    /**
+     * Constructs a GameServer.
+     *
+     * @param maxTurns        Turns after which a game is stopped. Must be higher than 0.
+     * @param trackDirectory  Directory of the binary tracks, or null if only the bundled tracks can be played.
+     * @param retentionMillis Milliseconds a game is kept after it ends. Must not be negative.
+     */
+    public GameServer(long maxTurns, Path trackDirectory, long retentionMillis) {
+        assert maxTurns > 0;
+        assert retentionMillis >= 0;
+        this.maxTurns = maxTurns;
+        this.trackDirectory = trackDirectory;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Starts accepting connections on the loopback interface.
+     *
+     * @param port Port to listen on, or 0 for any free port.
+     * @throws IOException If the port can't be opened.
+     */
+    public void start(int port) throws IOException {
+        assert serverSocket == null;
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        threads.execute(this::acceptConnections);
+        threads.execute(this::evictOverGames);
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the registry of the hosted games.
+     *
+     * @return The registry.
+     */
+    public GameRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Starts a game on a track and registers it.
+     *
+     * @param track Name of the track.
+     * @return The game started.
+     * @throws IOException               If the track can't be read or is not configured correctly.
+     * @throws ValidationFailedException If the track or its players are not valid.
+     */
+    public HostedGame newGame(String track) throws IOException, ValidationFailedException {
+        GameManager game = new GameManagerStandard(loadTrack(track));
+        game.startGame();
+
+        HostedGame hosted = new HostedGame(registry.nextId(), track, game, turnManager, maxTurns);
+        registry.register(hosted);
+        threads.execute(hosted);
+        return hosted;
+    }
+
+    /**
+     * Waits until the server is closed.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void awaitClose() throws InterruptedException {
+        closed.await();
+    }
+
+    /**
+     * Stops accepting connections and interrupts every game and connection.
+     *
+     * @throws IOException If the socket can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } finally {
+            threads.shutdownNow();
+            closed.countDown();
+        }
+    }
+
+    /**
+     * Returns the initializer of a track, loading and validating it the first time.
+     *
+     * @param track Name of the track.
+     * @return Initializer shared by every game on the track.
+     * @throws IOException               If the track can't be read or is not configured correctly.
+     * @throws ValidationFailedException If the track or its players are not valid.
+     */
+    private GameInitializer loadTrack(String track) throws IOException, ValidationFailedException {
+        GameInitializer initializer = tracks.get(track);
+        if (initializer != null) return initializer;
+        if (!TRACK_NAME.matcher(track).matches()) {
+            throw new UnrecognizedFileException("Tracks must be named by a .txt or " + TrackFile.EXTENSION
+                    + " file name.");
+        }
+
+        //games already run in parallel, so MCTS players grow a single tree each
+        PlayerBotInteractiveInitializerFromTxt playerInitializer =
+                new PlayerBotInteractiveInitializerFromTxt(interactionHandler, 1);
+        if (track.endsWith(TrackFile.EXTENSION)) {
+            //binary tracks would be looked for on the whole file system, so only the track directory is used
+            Path path = trackDirectory == null ? null : trackDirectory.resolve(track);
+            if (path == null || !Files.isRegularFile(path)) {
+                throw new UnrecognizedFileException(track + " not found.");
+            }
+            initializer = new GameInitializerFromBinary(path.toString(), playerInitializer);
+        } else {
+            initializer = new GameInitializerFromTxt(track, new PackedGridInitializerFromTxt(true),
+                    playerInitializer);
+        }
+        Validator validator = new ValidatorStandard(initializer.parseGrid(), initializer.parsePlayers(),
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        if (!validator.performAllChecks()) {
+            throw new ValidationFailedException("The given configuration failed validation tests.");
+        }
+
+        //if another connection loaded the same track in the meantime, its initializer is kept
+        GameInitializer previous = tracks.putIfAbsent(track, initializer);
+        return previous == null ? initializer : previous;
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each one on its own virtual thread.
+     */
+    private void acceptConnections() {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket client = serverSocket.accept();
+                try {
+                    threads.execute(() -> serve(client));
+                } catch (RejectedExecutionException e) {
+                    //the server was closed after the connection was accepted
+                    client.close();
+                    return;
+                }
+            }
+        } catch (IOException ignored) {
+            //the socket was closed
+        }
+    }
+
+    /**
+     * Removes the games that ended more than the retention time ago, until the server is closed.
+     */
+    private void evictOverGames() {
+        long retentionNanos = TimeUnit.MILLISECONDS.toNanos(retentionMillis);
+        try {
+            while (!serverSocket.isClosed()) {
+                Thread.sleep(Math.max(1, Math.min(retentionMillis, EVICTION_INTERVAL_MILLIS)));
+                registry.evictOver(retentionNanos);
+            }
+        } catch (InterruptedException ignored) {
+            //the server was closed
+        }
+    }
+
+    /**
+     * Answers the commands of a client until it quits or disconnects.
+     *
+     * @param client Connection to the client.
+     */
+    private void serve(Socket client) {
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(),
+                     StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(client.getOutputStream(),
+                     StandardCharsets.UTF_8)))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = execute(line.trim());
+                if (reply == null) break;
+                out.println(reply);
+                out.flush();
+            }
+        } catch (IOException ignored) {
+            //the client disconnected
+        }
+    }
+
+    /**
+     * Executes a command of the protocol.
+     *
+     * @param command Line sent by the client.
+     * @return The reply, or null if the connection must be closed.
+     */
+    private String execute(String command) {
+        String[] words = command.split("\\s+");
+        try {
+            switch (words[0].toUpperCase()) {
+                case "NEW" -> {
+                    checkArguments(words, 2);
+                    return "GAME " + newGame(words[1]).getId();
+                }
+                case "STATE" -> {
+                    checkArguments(words, 2);
+                    return findGame(words[1]).describe();
+                }
+                case "MOVE" -> {
+                    checkArguments(words, 3);
+                    Direction direction = parseDirection(words[2]);
+                    return findGame(words[1]).submitMove(direction) ? "OK" : "ERROR Move not expected.";
+                }
+                case "LIST" -> {
+                    checkArguments(words, 1);
+                    StringBuilder list = new StringBuilder();
+                    for (HostedGame game : registry.games()) {
+                        list.append(game.getId()).append(' ').append(game.getTrack()).append(' ')
+                                .append(game.describe()).append('\n');
+                    }
+                    return list.append("END").toString();
+                }
+                case "REMOVE" -> {
+                    checkArguments(words, 2);
+                    HostedGame game = registry.remove(findGame(words[1]).getId());
+                    if (game != null) {
+                        game.stop();
+                    }
+                    return "OK";
+                }
+                case "QUIT" -> {
+                    return null;
+                }
+                default -> {
+                    return "ERROR Unknown command.";
+                }
+            }
+        } catch (IOException | ValidationFailedException | IllegalArgumentException e) {
+            return "ERROR " + e.getMessage();
+        }
+    }
+
+    /**
+     * Checks that a command has the expected number of words.
+     *
+     * @param words    Words of the command.
+     * @param expected Expected number of words.
+     * @throws IllegalArgumentException If the number of words is different.
+     */
+    private static void checkArguments(String[] words, int expected) {
+        if (words.length != expected) {
+            throw new IllegalArgumentException("Wrong number of arguments.");
+        }
+    }
+
+    /**
+     * Translates a word to a direction.
+     *
+     * @param word Name of the direction, in any case.
+     * @return The direction.
+     * @throws IllegalArgumentException If the word is not a direction.
+     */
+    private static Direction parseDirection(String word) {
+        try {
+            return Direction.valueOf(word.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown direction " + word + ".");
+        }
+    }
+
+    /**
+     * Finds a registered game by ID.
+     *
+     * @param id ID of the game, as sent by the client.
+     * @return The game.
+     * @throws IllegalArgumentException If the ID is not a number or there is no game with that ID.
+     */
+    private HostedGame findGame(String id) {
+        HostedGame game = registry.get(Long.parseLong(id));
+        if (game == null) {
+            throw new IllegalArgumentException("No game with ID " + id + ".");
+        }
+        return game;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Starts a GameServer on the loopback interface and keeps it running until the JVM is stopped.
+ * <p>
+ * Arguments: [PORT] [MAX-TURNS] [TRACK-DIRECTORY]. PORT defaults to 7878 and MAX-TURNS to
+ * GameServer.DEFAULT_MAX_TURNS. Binary tracks can only be played if TRACK-DIRECTORY is given, and only
+ * from that directory.
+ */
+public class GameServerMain {
+
+    /**
+     * Port used if none is specified.
+     */
+    private static final int DEFAULT_PORT = 7878;
+
+    public static void main(String[] args) {
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            long maxTurns = args.length > 1 ? Long.parseLong(args[1]) : GameServer.DEFAULT_MAX_TURNS;
+            Path trackDirectory = args.length > 2 ? Path.of(args[2]) : null;
+
+            GameServer server = new GameServer(maxTurns, trackDirectory, GameServer.DEFAULT_RETENTION_MILLIS);
+            server.start(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ignored) {
+                    //the JVM is stopping anyway
+                }
+            }));
+            System.out.println("Listening on 127.0.0.1:" + server.getPort());
+            server.awaitClose();
+        } catch (IOException | IllegalArgumentException | InterruptedException e) {
+            System.out.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManager;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Game hosted by a GameServer. Its loop is meant to run on a virtual thread of its own: when an interactive
+ * player has to move, the thread parks until a client submits a move, so a waiting game holds no platform
+ * thread and costs little more than its players and their positions. Stopping a game that is waiting
+ * abandons the turn, so the game is left as it was before the player's move.
+ * <p>
+ * Every wait for a move publishes a request of its own, which a submitted move completes. A move that
+ * arrives after the request was answered finds it completed and is rejected, so it can't be played in a
+ * later turn, possibly for another player.
+ */
+public class HostedGame implements Runnable {
+
+    /**
+     * Game whose loop is running on the current thread.
+     */
+    private static final ThreadLocal<HostedGame> CURRENT = new ThreadLocal<>();
+
+    /**
+     * ID of the game.
+     */
+    private final long id;
+    /**
+     * Name of the track.
+     */
+    private final String track;
+    /**
+     * Game being played.
+     */
+    private final GameManager game;
+    /**
+     * Class that updates the game. It must be thread-safe.
+     */
+    private final TurnManager turnManager;
+    /**
+     * Turns after which the game is stopped.
+     */
+    private final long maxTurns;
+    /**
+     * Request of the turn waiting for a move, or null if the game is not waiting for input.
+     */
+    private volatile MoveRequest request;
+    /**
+     * Player the game is waiting for, or null if the game is not waiting for input.
+     */
+    private volatile Player waitingFor;
+    /**
+     * Number of turns played.
+     */
+    private volatile long turns = 0;
+    /**
+     * Checks if the loop has ended.
+     */
+    private volatile boolean over = false;
+    /**
+     * Value of System.nanoTime() when the loop ended.
+     */
+    private volatile long overTime;
+    /**
+     * Checks if the game has been asked to stop.
+     */
+    private volatile boolean stopped = false;
+    /**
+     * Thread running the game's loop, or null if the loop hasn't started.
+     */
+    private volatile Thread thread;
+
+    /**
+     * Constructs a HostedGame.
+     *
+     * @param id          ID of the game.
+     * @param track       Name of the track.
+     * @param game        Game to play. It must have been started.
+     * @param turnManager Class that updates the game. It must be thread-safe.
+     * @param maxTurns    Turns after which the game is stopped. Must be higher than 0.
+     */
+    public HostedGame(long id, String track, GameManager game, TurnManager turnManager, long maxTurns) {
+        assert track != null;
+        assert game != null;
+        assert turnManager != null;
+        assert maxTurns > 0;
+
+        this.id = id;
+        this.track = track;
+        this.game = game;
+        this.turnManager = turnManager;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Returns the game whose loop is running on the current thread.
+     *
+     * @return The current game, or null if the thread is not running a game.
+     */
+    static HostedGame current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Plays the game until it ends, it reaches the maximum number of turns, it is stopped or the thread
+     * is interrupted.
+     */
+    @Override
+    public void run() {
+        CURRENT.set(this);
+        thread = Thread.currentThread();
+        try {
+            while (game.isGameRunning() && turns < maxTurns && !stopped && !thread.isInterrupted()) {
+                waitingFor = game.getCurrentPlayer();
+                game.nextTurn(turnManager);
+                turns++;
+            }
+        } catch (CancellationException e) {
+            //the game was stopped while waiting for a move, the turn is not played
+        } finally {
+            waitingFor = null;
+            overTime = System.nanoTime();
+            over = true;
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Waits until a client submits one of the given moves. Called by the game's own thread.
+     *
+     * @param possibleDirections Moves the player can choose from.
+     * @return The move submitted.
+     * @throws CancellationException If the game is stopped while waiting.
+     */
+    Direction awaitMove(List<Direction> possibleDirections) {
+        MoveRequest current = new MoveRequest(possibleDirections, new CompletableFuture<>());
+        request = current;
+        try {
+            return current.move().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The game was stopped.");
+        } catch (ExecutionException e) {
+            //requests are only ever completed normally
+            throw new AssertionError(e);
+        } finally {
+            request = null;
+        }
+    }
+
+    /**
+     * Submits a move for the player the game is waiting for.
+     *
+     * @param direction Move to play.
+     * @return True if the move was accepted, false if the game is not waiting for input, the move is not
+     * possible or another move was submitted first for the same turn.
+     */
+    public boolean submitMove(Direction direction) {
+        assert direction != null;
+        MoveRequest current = request;
+        return current != null && current.choices().contains(direction) && current.move().complete(direction);
+    }
+
+    /**
+     * Asks the game to stop, waking it up if it is waiting for a move.
+     */
+    public void stop() {
+        stopped = true;
+        Thread running = thread;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * Returns the moves the game is waiting for.
+     *
+     * @return The moves the current player can choose from, or null if the game is not waiting for input.
+     */
+    public List<Direction> getChoices() {
+        MoveRequest current = request;
+        return current == null || current.move().isDone() ? null : current.choices();
+    }
+
+    /**
+     * Describes the state of the game on one line: whether it is running, the turns played, the player
+     * whose turn it is, the moves they can choose from and the winner.
+     *
+     * @return Description of the game.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        description.append(over ? "OVER" : "RUNNING").append(" TURNS ").append(turns);
+        Player player = waitingFor;
+        List<Direction> possibleDirections = getChoices();
+        if (player != null && possibleDirections != null) {
+            description.append(" WAITING ").append(player.getName());
+            for (Direction direction : possibleDirections) {
+                description.append(' ').append(direction);
+            }
+        }
+        if (over) {
+            Player winner = game.getWinner();
+            description.append(" WINNER ").append(winner == null ? "-" : winner.getName());
+        }
+        return description.toString();
+    }
+
+    /**
+     * Returns the ID of the game.
+     *
+     * @return ID of the game.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the track.
+     *
+     * @return Name of the track.
+     */
+    public String getTrack() {
+        return track;
+    }
+
+    /**
+     * Checks if the game loop has ended.
+     *
+     * @return True if the game is over, false otherwise.
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Returns when the game loop ended.
+     *
+     * @return Value of System.nanoTime() when the loop ended, meaningful only if the game is over.
+     */
+    public long getOverTime() {
+        return overTime;
+    }
+
+    /**
+     * Request for the move of one turn.
+     *
+     * @param choices Moves the player can choose from.
+     * @param move    Completed with the move submitted for the turn.
+     */
+    private record MoveRequest(List<Direction> choices, CompletableFuture<Direction> move) {
+    }
+}
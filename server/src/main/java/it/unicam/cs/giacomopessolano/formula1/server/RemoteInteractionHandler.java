@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.InteractionHandler;
+
+import java.util.List;
+
+/**
+ * Interaction handler shared by all the games of a server. Moves are asked to the game whose loop runs on
+ * the calling thread, which waits for a client to submit one.
+ */
+class RemoteInteractionHandler implements InteractionHandler {
+
+    /**
+     * Waits for a client to submit a move for the current game.
+     *
+     * @param possibleDirections Possible choices of movement.
+     * @return Direction chosen.
+     */
+    @Override
+    public Direction takeInput(List<Direction> possibleDirections) {
+        assert possibleDirections != null;
+        assert !possibleDirections.isEmpty();
+
+        HostedGame game = HostedGame.current();
+        if (game == null) {
+            throw new IllegalStateException("Interactive players can only move inside a hosted game.");
+        }
+        return game.awaitMove(possibleDirections);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRegistryTest {
+
+    private GameRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new GameRegistry();
+    }
+
+    private HostedGame newGame() throws IOException {
+        GameManagerStandard game = new GameManagerStandard(new GameInitializerFromTxt("for_dummies.txt",
+                new PackedGridInitializerFromTxt(), new PlayerBotInitializerFromTxt()));
+        game.startGame(1);
+        return new HostedGame(registry.nextId(), "for_dummies.txt", game, new TurnManagerStandard(), 1000);
+    }
+
+    @Test
+    void testRegisterAndRemove() throws IOException {
+        HostedGame first = newGame();
+        HostedGame second = newGame();
+        assertNotEquals(first.getId(), second.getId());
+
+        registry.register(first);
+        registry.register(second);
+        assertEquals(2, registry.size());
+        assertSame(first, registry.get(first.getId()));
+
+        assertSame(first, registry.remove(first.getId()));
+        assertNull(registry.get(first.getId()));
+        assertNull(registry.remove(first.getId()));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void testEvictOver() throws IOException {
+        HostedGame over = newGame();
+        HostedGame running = newGame();
+        registry.register(over);
+        registry.register(running);
+        //the bots play until the game ends on this thread
+        over.run();
+        assertTrue(over.isOver());
+
+        assertEquals(0, registry.evictOver(Long.MAX_VALUE));
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.evictOver(0));
+        assertNull(registry.get(over.getId()));
+        assertSame(running, registry.get(running.getId()));
+    }
+}
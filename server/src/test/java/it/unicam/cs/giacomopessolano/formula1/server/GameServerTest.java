@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import it.unicam.cs.giacomopessolano.formula1.grid.TrackFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+
+    private Path directory;
+    private GameServer server;
+    private Socket socket;
+    private BufferedReader in;
+    private PrintWriter out;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("tracks");
+        TrackFile.fromTxt("for_dummies.txt").write(directory.resolve("dummies" + TrackFile.EXTENSION));
+        server = start(new GameServer(1000, directory, GameServer.DEFAULT_RETENTION_MILLIS));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        socket.close();
+        server.close();
+        Files.delete(directory.resolve("dummies" + TrackFile.EXTENSION));
+        Files.delete(directory);
+    }
+
+    private GameServer start(GameServer server) throws IOException {
+        server.start(0);
+        if (socket != null) socket.close();
+        socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        return server;
+    }
+
+    private String send(String command) throws IOException {
+        out.println(command);
+        return in.readLine();
+    }
+
+    private long newGame(String track) throws IOException {
+        String reply = send("NEW " + track);
+        assertTrue(reply.startsWith("GAME "));
+        return Long.parseLong(reply.substring(5));
+    }
+
+    private String awaitState(long id, String prefix) throws IOException, InterruptedException {
+        long end = System.nanoTime() + 5_000_000_000L;
+        String state;
+        while (!(state = send("STATE " + id)).startsWith(prefix)) {
+            assertTrue(System.nanoTime() - end < 0);
+            Thread.sleep(1);
+        }
+        return state;
+    }
+
+    @Test
+    void testMove() throws IOException, InterruptedException {
+        long id = newGame("donut.txt");
+        String state = awaitState(id, "RUNNING TURNS 3 WAITING User");
+
+        String[] words = state.split(" ");
+        assertTrue(words.length > 5);
+        assertEquals("ERROR Unknown direction SIDEWAYS.", send("MOVE " + id + " SIDEWAYS"));
+        assertEquals("OK", send("MOVE " + id + " " + words[5].toLowerCase()));
+        assertTrue(send("MOVE " + (id + 1) + " " + words[5]).startsWith("ERROR"));
+    }
+
+    @Test
+    void testListAndRemove() throws IOException, InterruptedException {
+        long first = newGame("for_dummies.txt");
+        long second = newGame("dummies" + TrackFile.EXTENSION);
+        awaitState(first, "OVER");
+        awaitState(second, "OVER");
+        assertEquals("ERROR Move not expected.", send("MOVE " + first + " UP"));
+
+        out.println("LIST");
+        List<String> lines = new ArrayList<>();
+        String line;
+        while (!(line = in.readLine()).equals("END")) {
+            lines.add(line);
+        }
+        assertEquals(2, lines.size());
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith(first + " for_dummies.txt OVER")));
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith(second + " dummies" + TrackFile.EXTENSION + " OVER")));
+
+        assertEquals("OK", send("REMOVE " + first));
+        assertTrue(send("STATE " + first).startsWith("ERROR"));
+        assertTrue(send("REMOVE " + first).startsWith("ERROR"));
+        assertEquals(1, server.getRegistry().size());
+    }
+
+    @Test
+    void testWrongCommands() throws IOException {
+        assertEquals("ERROR Unknown command.", send("JUMP"));
+        assertEquals("ERROR Wrong number of arguments.", send("STATE"));
+        assertTrue(send("STATE one").startsWith("ERROR"));
+        assertNull(send("QUIT"));
+    }
+
+    @Test
+    void testOnlyTrackNamesAccepted() throws IOException {
+        String absolute = directory.resolve("dummies" + TrackFile.EXTENSION).toString();
+        assertTrue(send("NEW " + absolute).startsWith("ERROR"));
+        assertTrue(send("NEW ../donut.txt").startsWith("ERROR"));
+        assertTrue(send("NEW missing.txt").startsWith("ERROR"));
+        assertTrue(send("NEW missing" + TrackFile.EXTENSION).startsWith("ERROR"));
+        assertEquals(0, server.getRegistry().size());
+
+        //without a track directory only the bundled tracks can be played
+        server.close();
+        server = start(new GameServer(1000));
+        assertTrue(send("NEW dummies" + TrackFile.EXTENSION).startsWith("ERROR"));
+        assertTrue(send("NEW for_dummies.txt").startsWith("GAME "));
+    }
+
+    @Test
+    void testOverGamesEvicted() throws IOException, InterruptedException {
+        server.close();
+        server = start(new GameServer(1000, null, 0));
+        long id = newGame("for_dummies.txt");
+
+        long end = System.nanoTime() + 5_000_000_000L;
+        while (server.getRegistry().get(id) != null) {
+            assertTrue(System.nanoTime() - end < 0);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testThousandsOfWaitingGames() throws Exception {
+        for (int i = 0; i < 10_000; i++) {
+            server.newGame("donut.txt");
+        }
+
+        //every game parks its virtual thread while it waits for the user
+        long end = System.nanoTime() + 30_000_000_000L;
+        long waiting;
+        while ((waiting = server.getRegistry().games().stream()
+                .filter(game -> game.describe().contains(" WAITING User")).count()) < 10_000) {
+            assertTrue(System.nanoTime() - end < 0);
+            Thread.sleep(10);
+        }
+        assertEquals(10_000, waiting);
+        assertTrue(ManagementFactory.getThreadMXBean().getThreadCount() < 1_000);
+    }
+}
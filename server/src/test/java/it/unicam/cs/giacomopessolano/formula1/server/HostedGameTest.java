@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.server;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Direction;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInteractiveInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import it.unicam.cs.giacomopessolano.formula1.player.Strategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostedGameTest {
+
+    private GameManagerStandard game;
+    private HostedGame hosted;
+    private Thread thread;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        //the bots move first, then the game waits for User
+        game = new GameManagerStandard(new GameInitializerFromTxt("donut.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInteractiveInitializerFromTxt(new RemoteInteractionHandler())));
+        game.startGame(3);
+        hosted = new HostedGame(1, "donut.txt", game, new TurnManagerStandard(), 1000);
+        thread = new Thread(hosted);
+        thread.start();
+    }
+
+    private List<Direction> awaitChoices() throws InterruptedException {
+        long end = System.nanoTime() + 5_000_000_000L;
+        List<Direction> choices;
+        while ((choices = hosted.getChoices()) == null) {
+            assertTrue(System.nanoTime() - end < 0);
+            Thread.sleep(1);
+        }
+        return choices;
+    }
+
+    private Map<String, Position> positions() {
+        Map<String, Position> positions = new HashMap<>();
+        for (Map.Entry<Player, Position> entry : game.getPlayerPositions().entrySet()) {
+            positions.put(entry.getKey().getName(), entry.getValue());
+        }
+        return positions;
+    }
+
+    @Test
+    void testSubmittedMoveIsPlayed() throws InterruptedException {
+        List<Direction> choices = awaitChoices();
+        assertTrue(hosted.describe().contains("WAITING User"));
+        for (Direction direction : Direction.values()) {
+            if (!choices.contains(direction)) assertFalse(hosted.submitMove(direction));
+        }
+
+        Player user = game.getCurrentPlayer();
+        Position before = game.getPlayerPositions().get(user);
+        int safe = Strategy.safeMovesMask(game.getGrid(), user.getLastMove(), before);
+        Direction choice = Direction.fromOrdinal(Integer.numberOfTrailingZeros(safe));
+        assertTrue(hosted.submitMove(choice));
+        //the game waits for User again after the bots' turns
+        long end = System.nanoTime() + 5_000_000_000L;
+        while (!hosted.describe().startsWith("RUNNING TURNS 7 WAITING")) {
+            assertTrue(System.nanoTime() - end < 0);
+            Thread.sleep(1);
+        }
+        assertNotEquals(before, positions().get(user.getName()));
+
+        hosted.stop();
+        thread.join(5000);
+        assertTrue(hosted.isOver());
+    }
+
+    @Test
+    void testLateMoveIsNotPlayedNextTurn() throws InterruptedException {
+        hosted.stop();
+        thread.join(5000);
+        HostedGame waiting = new HostedGame(2, "donut.txt", game, new TurnManagerStandard(), 1000);
+        List<Direction> choices = List.of(Direction.UP, Direction.DOWN, Direction.LEFT);
+        for (int turn = 0; turn < 200; turn++) {
+            Direction[] played = new Direction[1];
+            Thread player = new Thread(() -> played[0] = waiting.awaitMove(choices));
+            player.start();
+            while (waiting.getChoices() == null) {
+                Thread.onSpinWait();
+            }
+            assertTrue(waiting.submitMove(Direction.UP));
+            //sent for the turn that was just answered, while the game may still be picking up the move
+            assertFalse(waiting.submitMove(Direction.LEFT));
+            player.join(5000);
+            assertEquals(Direction.UP, played[0]);
+            assertNull(waiting.getChoices());
+            assertFalse(waiting.submitMove(Direction.LEFT));
+        }
+    }
+
+    @Test
+    void testStopLeavesTurnUnplayed() throws InterruptedException {
+        awaitChoices();
+        Map<String, Position> positions = positions();
+        Player waiting = game.getCurrentPlayer();
+        long hash = game.getStateHash();
+
+        hosted.stop();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertTrue(hosted.isOver());
+        assertEquals(positions, positions());
+        assertSame(waiting, game.getCurrentPlayer());
+        assertEquals(hash, game.getStateHash());
+        assertFalse(waiting.hasCrashed());
+        assertTrue(hosted.describe().startsWith("OVER TURNS 3"));
+    }
+}
@@ -14,3 +14,6 @@ rootProject.name = "it.unicam.cs.giacomopessolano.formula1"
 include("root")
 include("app")
 include("ui")
+include("tournament")
+include("server")
+include("benchmarks")
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.tournament;
+
+import it.unicam.cs.giacomopessolano.formula1.exceptions.ValidationFailedException;
+import it.unicam.cs.giacomopessolano.formula1.game.*;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.grid.TrackFile;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entry point of the headless tournament runner. Plays a number of bot-only games on a track and prints
+ * the aggregate results. No user interface is ever created.
+ * <p>
+ * Arguments: TRACK GAMES [THREADS] [MAX-TURNS] [SEED]. The track is read from the classpath, like in the
+ * main application, and its PLAYERS section is the roster; binary tracks can also be given as a path.
+ * THREADS defaults to the number of available processors, MAX-TURNS to 10000 and SEED to a random value,
+ * which is printed so the run can be repeated.
+ * <p>
+ * THREADS can also be a comma-separated list, like 1,2,4,8: the same games are then played once with each
+ * number of threads, after a few untimed warm-up runs, and the time of every run is printed with its speedup
+ * over the first one, so the scaling of the runner can be measured on a given machine.
+ */
+public class TournamentMain {
+
+    /**
+     * Turns after which a game is stopped, if not specified.
+     */
+    private static final long DEFAULT_MAX_TURNS = 10_000;
+    /**
+     * Untimed runs played before the runs of a list of thread counts.
+     */
+    private static final int WARMUP_RUNS = 3;
+
+    /**
+     * Computes the distance field and the speed limits of the track before the workers start. Both are
+     * shared by every game on the track, so no game waits for them and the measured rate only counts
+     * the games themselves.
+     *
+     * @param initializer Initializer of the track.
+     */
+    private static void prepareTrack(GameInitializer initializer) {
+        Grid grid = initializer.parseGrid();
+        grid.getDistanceField();
+        grid.getSpeedLimits();
+    }
+
+    /**
+     * Parses the numbers of threads of the runs.
+     *
+     * @param value Number of threads, or comma-separated numbers of threads.
+     * @return The numbers of threads, in the order given.
+     * @throws NumberFormatException If a number is not valid or not positive.
+     */
+    private static int[] parseThreads(String value) {
+        String[] parts = value.split(",");
+        int[] threadCounts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            threadCounts[i] = Integer.parseInt(parts[i].trim());
+            if (threadCounts[i] <= 0) {
+                throw new NumberFormatException("Thread counts must be positive.");
+            }
+        }
+        return threadCounts;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: TRACK GAMES [THREADS] [MAX-TURNS] [SEED]");
+            System.exit(-1);
+        }
+
+        try {
+            String track = args[0];
+            long games = Long.parseLong(args[1]);
+            int[] threadCounts = args.length > 2 ? parseThreads(args[2])
+                    : new int[]{Runtime.getRuntime().availableProcessors()};
+            long maxTurns = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_MAX_TURNS;
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : ThreadLocalRandom.current().nextLong();
+
+            //games already run in parallel, so MCTS players grow a single tree each
+            GameInitializer initializer;
+            if (track.endsWith(TrackFile.EXTENSION)) {
+                initializer = new GameInitializerFromBinary(track, new PlayerBotInitializerFromTxt(1));
+            } else {
+                initializer = new GameInitializerFromTxt(track, new PackedGridInitializerFromTxt(),
+                        new PlayerBotInitializerFromTxt(1));
+            }
+            prepareTrack(initializer);
+            Validator validator = new ValidatorStandard(initializer.parseGrid(), initializer.parsePlayers(),
+                    Integer.MAX_VALUE, Integer.MAX_VALUE);
+            if (!validator.performAllChecks()) {
+                throw new ValidationFailedException("The given configuration failed validation tests.");
+            }
+
+            System.out.println("Seed: " + seed);
+            //without a warm-up the first runs would also time the compilation of the game's code
+            for (int i = 0; threadCounts.length > 1 && i < WARMUP_RUNS; i++) {
+                new TournamentRunner(initializer, new TurnManagerStandard(), threadCounts[0], maxTurns, seed)
+                        .run(games);
+            }
+            double firstSeconds = 0;
+            for (int i = 0; i < threadCounts.length; i++) {
+                int threads = threadCounts[i];
+                TournamentRunner runner = new TournamentRunner(initializer, new TurnManagerStandard(), threads,
+                        maxTurns, seed);
+                long start = System.nanoTime();
+                TournamentResult result = runner.run(games);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                //every run plays the same games, so the results are only printed once
+                if (i == 0) {
+                    firstSeconds = seconds;
+                    System.out.print(result);
+                }
+                System.out.printf("%d games on %d threads in %.2f s (%.0f games/s, speedup %.2f)%n", games,
+                        threads, seconds, games / seconds, firstSeconds / seconds);
+            }
+        } catch (IOException | ValidationFailedException | NumberFormatException | InterruptedException e) {
+            System.out.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.tournament;
+
+import java.util.List;
+
+/**
+ * Aggregate results of a batch of games played with the same roster. Players are identified by their
+ * index in the roster. A result is not thread-safe: each worker fills its own and they're merged at the end.
+ */
+public class TournamentResult {
+
+    /**
+     * Names of the players in the roster.
+     */
+    private final List<String> names;
+    /**
+     * Games won by each player.
+     */
+    private final long[] wins;
+    /**
+     * Games in which each player crashed.
+     */
+    private final long[] crashes;
+    /**
+     * Turns played in the games won by each player.
+     */
+    private final long[] winningTurns;
+    /**
+     * Number of games played.
+     */
+    private long games;
+    /**
+     * Number of games that ended without a winner.
+     */
+    private long gamesWithoutWinner;
+    /**
+     * Number of games stopped because they reached the turn limit.
+     */
+    private long unfinishedGames;
+
+    /**
+     * Constructs an empty result for the given roster.
+     *
+     * @param names Names of the players in the roster.
+     */
+    public TournamentResult(List<String> names) {
+        assert names != null;
+
+        this.names = List.copyOf(names);
+        this.wins = new long[names.size()];
+        this.crashes = new long[names.size()];
+        this.winningTurns = new long[names.size()];
+    }
+
+    /**
+     * Records the outcome of a game.
+     *
+     * @param winner  Index of the winner, or -1 if nobody won.
+     * @param crashed Whether each player crashed, by index.
+     * @param turns   Number of turns played.
+     * @param stopped True if the game was stopped because it reached the turn limit.
+     */
+    public void record(int winner, boolean[] crashed, long turns, boolean stopped) {
+        assert crashed.length == names.size();
+
+        games++;
+        if (stopped) {
+            unfinishedGames++;
+        } else if (winner < 0) {
+            gamesWithoutWinner++;
+        } else {
+            wins[winner]++;
+            winningTurns[winner] += turns;
+        }
+
+        for (int i = 0; i < crashed.length; i++) {
+            if (crashed[i]) crashes[i]++;
+        }
+    }
+
+    /**
+     * Adds the outcomes recorded by another result for the same roster.
+     *
+     * @param other Result to add.
+     */
+    public void merge(TournamentResult other) {
+        assert names.equals(other.names);
+
+        games += other.games;
+        gamesWithoutWinner += other.gamesWithoutWinner;
+        unfinishedGames += other.unfinishedGames;
+        for (int i = 0; i < names.size(); i++) {
+            wins[i] += other.wins[i];
+            crashes[i] += other.crashes[i];
+            winningTurns[i] += other.winningTurns[i];
+        }
+    }
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return Number of games.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games won by a player.
+     *
+     * @param player Index of the player.
+     * @return Number of wins.
+     */
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+    /**
+     * Returns the number of games in which a player crashed.
+     *
+     * @param player Index of the player.
+     * @return Number of crashes.
+     */
+    public long getCrashes(int player) {
+        return crashes[player];
+    }
+
+    /**
+     * Returns the fraction of games won by a player.
+     *
+     * @param player Index of the player.
+     * @return Win rate between 0 and 1.
+     */
+    public double getWinRate(int player) {
+        return games == 0 ? 0 : (double) wins[player] / games;
+    }
+
+    /**
+     * Returns the fraction of games in which a player crashed.
+     *
+     * @param player Index of the player.
+     * @return Crash rate between 0 and 1.
+     */
+    public double getCrashRate(int player) {
+        return games == 0 ? 0 : (double) crashes[player] / games;
+    }
+
+    /**
+     * Returns the average number of turns the games won by a player lasted.
+     *
+     * @param player Index of the player.
+     * @return Average turns to finish, or 0 if the player never won.
+     */
+    public double getAverageTurnsToFinish(int player) {
+        return wins[player] == 0 ? 0 : (double) winningTurns[player] / wins[player];
+    }
+
+    /**
+     * Returns the number of games that ended without a winner.
+     *
+     * @return Number of games without a winner.
+     */
+    public long getGamesWithoutWinner() {
+        return gamesWithoutWinner;
+    }
+
+    /**
+     * Returns the number of games stopped because they reached the turn limit.
+     *
+     * @return Number of unfinished games.
+     */
+    public long getUnfinishedGames() {
+        return unfinishedGames;
+    }
+
+    /**
+     * Returns a table with the statistics of every player.
+     *
+     * @return The results as text.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Games: ").append(games)
+                .append(", without winner: ").append(gamesWithoutWinner)
+                .append(", unfinished: ").append(unfinishedGames).append('\n');
+        builder.append(String.format("%-20s %10s %10s %10s%n", "Player", "Win rate", "Crash rate", "Turns"));
+        for (int i = 0; i < names.size(); i++) {
+            builder.append(String.format("%-20s %9.2f%% %9.2f%% %10.1f%n", names.get(i),
+                    getWinRate(i) * 100, getCrashRate(i) * 100, getAverageTurnsToFinish(i)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.tournament;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManager;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many games between bots on the same track, without any user interface, and aggregates
+ * their results. Games are spread over a pool of worker threads: each worker claims small batches of
+ * games from a shared counter and records them in its own TournamentResult, so the workers only
+ * synchronize when claiming a batch and when the results are merged.
+ * <p>
+ * All games are created from the same initializer, so they share its grid: with a PackedGrid the track
+ * is never copied and starting a game only costs the players.
+ * <p>
+ * The seed of each game depends only on the tournament's seed and the game's number, not on the thread
+ * that plays it, so any game of a tournament can be replayed on its own.
+ */
+public class TournamentRunner {
+
+    /**
+     * Games claimed by a worker at a time.
+     */
+    private static final int BATCH_SIZE = 16;
+    /**
+     * Initializer shared by all games.
+     */
+    private final GameInitializer initializer;
+    /**
+     * Handles the game's logic. It must be usable by several threads at once.
+     */
+    private final TurnManager turnManager;
+    /**
+     * Number of worker threads.
+     */
+    private final int threads;
+    /**
+     * Turns after which a game is stopped.
+     */
+    private final long maxTurns;
+    /**
+     * Seed the seeds of the games are derived from.
+     */
+    private final long seed;
+    /**
+     * Names of the players in the roster.
+     */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Constructs a TournamentRunner.
+     *
+     * @param initializer Initializer of the track and the roster. Its players must all be bots.
+     * @param turnManager TurnManager to handle the game's logic. It must be thread-safe.
+     * @param threads     Number of worker threads. Must be higher than 0.
+     * @param maxTurns    Turns after which a game is stopped. Must be higher than 0.
+     * @param seed        Seed the seeds of the games are derived from.
+     */
+    public TournamentRunner(GameInitializer initializer, TurnManager turnManager, int threads, long maxTurns,
+                            long seed) {
+        assert initializer != null;
+        assert turnManager != null;
+        assert threads > 0;
+        assert maxTurns > 0;
+
+        this.initializer = initializer;
+        this.turnManager = turnManager;
+        this.threads = threads;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+        for (Player player : initializer.parseTurns()) {
+            names.add(player.getName());
+        }
+    }
+
+    /**
+     * Plays the given number of games and returns their aggregate results.
+     *
+     * @param games Number of games to play.
+     * @return Results of all games.
+     * @throws InterruptedException If the thread is interrupted while waiting for the workers.
+     */
+    public TournamentResult run(long games) throws InterruptedException {
+        assert games >= 0;
+
+        AtomicLong nextGame = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<TournamentResult>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> work(nextGame, games)));
+        }
+        executor.shutdown();
+
+        TournamentResult result = new TournamentResult(names);
+        try {
+            for (Future<TournamentResult> worker : workers) {
+                result.merge(worker.get());
+            }
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new IllegalStateException("A game failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        return result;
+    }
+
+    /**
+     * Worker loop: claims batches of games until all of them have been played.
+     *
+     * @param nextGame Counter of the games claimed so far.
+     * @param games    Number of games to play.
+     * @return Results of the games played by this worker.
+     */
+    private TournamentResult work(AtomicLong nextGame, long games) {
+        TournamentResult result = new TournamentResult(names);
+        boolean[] crashed = new boolean[names.size()];
+
+        long first;
+        while ((first = nextGame.getAndAdd(BATCH_SIZE)) < games) {
+            long last = Math.min(first + BATCH_SIZE, games);
+            for (long game = first; game < last; game++) {
+                playGame(game, result, crashed);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the seed of a game of the tournament.
+     *
+     * @param number Number of the game.
+     * @return Seed of the game.
+     */
+    public long gameSeed(long number) {
+        //the first output of a SplittableRandom is a well-mixed hash of its seed
+        return new SplittableRandom(seed + number).nextLong();
+    }
+
+    /**
+     * Plays a single game and records its outcome.
+     *
+     * @param number  Number of the game.
+     * @param result  Result to record the outcome in.
+     * @param crashed Array reused to collect which players crashed.
+     */
+    private void playGame(long number, TournamentResult result, boolean[] crashed) {
+        GameManager game = new GameManagerStandard(initializer);
+        game.startGame(gameSeed(number));
+
+        long turns = 0;
+        while (game.isGameRunning() && turns < maxTurns) {
+            game.nextTurn(turnManager);
+            turns++;
+        }
+
+        for (Player player : game.getPlayerPositions().keySet()) {
+            crashed[rosterIndex(game, player)] = player.hasCrashed();
+        }
+        Player winner = game.getWinner();
+        result.record(winner == null ? -1 : rosterIndex(game, winner), crashed, turns, game.isGameRunning());
+    }
+
+    /**
+     * Returns the index in the roster of a player of a game. Games play clones of the roster in its order,
+     * so the index is the player's ID minus one.
+     *
+     * @param game   Game the player belongs to.
+     * @param player Player of the game.
+     * @return Index of the player in the roster.
+     */
+    private static int rosterIndex(GameManager game, Player player) {
+        return Integer.parseInt(game.getID(player)) - 1;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.tournament;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentResultTest {
+
+    private static final List<String> NAMES = List.of("Bob", "Alice");
+
+    @Test
+    void testRecord() {
+        TournamentResult result = new TournamentResult(NAMES);
+        result.record(0, new boolean[]{false, true}, 10, false);
+        result.record(-1, new boolean[]{true, true}, 4, false);
+        result.record(-1, new boolean[]{false, false}, 100, true);
+
+        assertEquals(3, result.getGames());
+        assertEquals(1, result.getWins(0));
+        assertEquals(0, result.getWins(1));
+        assertEquals(1, result.getCrashes(0));
+        assertEquals(2, result.getCrashes(1));
+        assertEquals(1, result.getGamesWithoutWinner());
+        assertEquals(1, result.getUnfinishedGames());
+        assertEquals(10.0, result.getAverageTurnsToFinish(0));
+    }
+
+    @Test
+    void testMerge() {
+        TournamentResult all = new TournamentResult(NAMES);
+        TournamentResult first = new TournamentResult(NAMES);
+        TournamentResult second = new TournamentResult(NAMES);
+        for (int game = 0; game < 10; game++) {
+            int winner = game % 3 - 1;
+            boolean[] crashed = {game % 2 == 0, game % 5 == 0};
+            all.record(winner, crashed, game, game == 7);
+            (game < 4 ? first : second).record(winner, crashed, game, game == 7);
+        }
+
+        first.merge(second);
+        assertEquals(all.toString(), first.toString());
+        assertEquals(10, first.getGames());
+        assertEquals(all.getWins(1), first.getWins(1));
+        assertEquals(all.getCrashes(0), first.getCrashes(0));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.tournament;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializer;
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentRunnerTest {
+
+    private GameInitializer initializer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        initializer = new GameInitializerFromTxt("for_dummies.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt());
+    }
+
+    private TournamentResult run(int threads, long games) throws InterruptedException {
+        return new TournamentRunner(initializer, new TurnManagerStandard(), threads, 1000, 42).run(games);
+    }
+
+    @Test
+    void testEveryGamePlayedOnce() throws InterruptedException {
+        //not a multiple of the batch size, so the last batch is cut short
+        TournamentResult result = run(4, 37);
+
+        assertEquals(37, result.getGames());
+        long outcomes = result.getGamesWithoutWinner() + result.getUnfinishedGames();
+        for (int player = 0; player < 3; player++) {
+            outcomes += result.getWins(player);
+        }
+        assertEquals(37, outcomes);
+        assertEquals(0, run(2, 0).getGames());
+    }
+
+    @Test
+    void testResultsIndependentOfThreads() throws InterruptedException {
+        //the games only depend on their seeds, so merging the workers' results gives the same totals
+        assertEquals(run(1, 100).toString(), run(4, 100).toString());
+        assertEquals(run(3, 100).toString(), run(3, 100).toString());
+    }
+
+    @Test
+    void testGameSeeds() {
+        TournamentRunner runner = new TournamentRunner(initializer, new TurnManagerStandard(), 1, 1000, 42);
+        TournamentRunner other = new TournamentRunner(initializer, new TurnManagerStandard(), 4, 1000, 42);
+
+        assertEquals(runner.gameSeed(5), other.gameSeed(5));
+        assertNotEquals(runner.gameSeed(5), runner.gameSeed(6));
+    }
+}
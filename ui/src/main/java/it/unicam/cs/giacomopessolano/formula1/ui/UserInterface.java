@@ -26,6 +26,7 @@
 package it.unicam.cs.giacomopessolano.formula1.ui;
 
 import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
+import it.unicam.cs.giacomopessolano.formula1.game.ReplayTimeline;
 
 import java.io.IOException;
 
@@ -69,6 +70,13 @@ public interface UserInterface {
      */
     void gameOverMessage(GameManager manager);
 
+    /**
+     * Shows a replayed game and lets the user move through its turns, forwards or backwards.
+     *
+     * @param timeline Timeline of the replayed game.
+     */
+    void scrub(ReplayTimeline timeline);
+
     /**
      * Generic error message.
      *
@@ -26,7 +26,8 @@
 package it.unicam.cs.giacomopessolano.formula1.ui;
 
 import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
-import it.unicam.cs.giacomopessolano.formula1.grid.Cell;
+import it.unicam.cs.giacomopessolano.formula1.game.ReplayTimeline;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
 import it.unicam.cs.giacomopessolano.formula1.player.Player;
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
@@ -77,7 +78,7 @@ public class UserInterfaceCLI implements UserInterface {
 
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                gridToString.append(parseCellState(manager, grid.getCell(new Position(x, y))));
+                gridToString.append(parseCellState(manager, grid, x, y));
             }
             gridToString.append("\n");
         }
@@ -114,6 +115,45 @@ public class UserInterfaceCLI implements UserInterface {
         scanner.nextLine();
     }
 
+    /**
+     * Shows the turns of a replayed game chosen by the user until they quit.
+     *
+     * @param timeline Timeline of the replayed game.
+     */
+    @Override
+    public void scrub(ReplayTimeline timeline) {
+        assert timeline != null;
+        int turn = 0;
+        while (true) {
+            GameManager frame = timeline.seek(turn);
+            displayGrid(frame);
+            String command = askSeek(frame, turn, timeline.getTurns());
+            if (command.equals("q")) return;
+            turn = Math.max(0, Math.min(timeline.getTurns(), parseSeek(command, turn)));
+        }
+    }
+
+    /**
+     * Displays the state of a replayed game and asks the user where to move in it.
+     *
+     * @param manager Frame of the replayed game.
+     * @param turn    Turn being displayed.
+     * @param turns   Number of turns of the game.
+     * @return The user's command, q if there is no more input.
+     */
+    protected String askSeek(GameManager manager, int turn, int turns) {
+        assert manager != null;
+        if (manager.isGameRunning()) {
+            turnMessage(manager);
+        } else {
+            gameOverMessage(manager);
+        }
+        System.out.println("Turn " + turn + " of " + turns + ". Enter: next turn, p: previous turn, "
+                + "a number: that turn, +N or -N: N turns forwards or backwards, q: quit.");
+        //the end of the input quits, or the loop would never end
+        return scanner.hasNextLine() ? scanner.nextLine().trim() : "q";
+    }
+
     /**
      * Displays a message to indicate the end of the game and its winner.
      *
@@ -141,18 +181,51 @@ public class UserInterfaceCLI implements UserInterface {
         System.out.println(message);
     }
 
+    /**
+     * Translates a command of the user into the turn to show. Unknown commands stay on the same turn.
+     *
+     * @param command Command of the user.
+     * @param turn    Turn being displayed.
+     * @return The turn to show.
+     */
+    private int parseSeek(String command, int turn) {
+        if (command.isEmpty() || command.equals("n")) return turn + 1;
+        if (command.equals("p")) return turn - 1;
+        try {
+            int value = Integer.parseInt(command);
+            return command.startsWith("+") || command.startsWith("-") ? turn + value : value;
+        } catch (NumberFormatException e) {
+            return turn;
+        }
+    }
+
     /**
      * Translates a cell state to a character. If the cell is occupied, the character will be the first
      * character of the player's ID.
      *
      * @param manager Game being played.
-     * @param cell    Cell to examine.
+     * @param grid    Grid of the game.
+     * @param x       Horizontal coordinate of the cell to examine.
+     * @param y       Vertical coordinate of the cell to examine.
      * @return Character representing the cell or player on the cell.
      */
-    private char parseCellState(GameManager manager, Cell cell) {
-        if (cell.isOccupied()) return String.valueOf(manager.getID(cell.getPlayer())).charAt(0);
+    private char parseCellState(GameManager manager, Grid grid, int x, int y) {
+        if (grid.isOccupied(x, y)) {
+            Player player = grid.getCell(new Position(x, y)).getPlayer();
+            return String.valueOf(manager.getID(player)).charAt(0);
+        }
+
+        return parseCellState(grid.getState(x, y));
+    }
 
-        switch (cell.getState()) {
+    /**
+     * Translates a cell state to a character.
+     *
+     * @param state State of the cell.
+     * @return Character representing the state.
+     */
+    protected char parseCellState(CellState state) {
+        switch (state) {
             case END -> {
                 return '@';
             }
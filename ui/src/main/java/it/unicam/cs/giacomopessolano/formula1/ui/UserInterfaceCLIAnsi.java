@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.ui;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of UserInterfaceCLI for ANSI terminals. The track is printed once, then every turn only
+ * the cells that players left or entered are rewritten by moving the cursor onto them, so the output per
+ * turn depends on the number of players rather than on the size of the track. Each frame is built in
+ * a single buffer and written at once.
+ * <p>
+ * Messages are shown below the track, in an area that is cleared every turn, so the track never scrolls
+ * away. The whole track must fit in the terminal.
+ */
+public class UserInterfaceCLIAnsi extends UserInterfaceCLI {
+
+    /**
+     * Escape sequence that starts every control sequence.
+     */
+    private static final String CSI = "\033[";
+    /**
+     * Escape sequence that saves the cursor position.
+     */
+    private static final String SAVE_CURSOR = "\0337";
+    /**
+     * Escape sequence that restores the saved cursor position.
+     */
+    private static final String RESTORE_CURSOR = "\0338";
+
+    /**
+     * Grid that was printed last.
+     */
+    private Grid drawnGrid;
+    /**
+     * Characters of the players printed on the track, indexed by cell.
+     */
+    private Map<Integer, Character> drawnPlayers = new HashMap<>();
+
+    /**
+     * Constructs the user interface and opens its input channel.
+     */
+    public UserInterfaceCLIAnsi() {
+        super();
+    }
+
+    /**
+     * Displays the grid. The whole track is printed only when the track changes, otherwise the cells
+     * left by the players are cleared and the cells they moved to are printed.
+     *
+     * @param manager Game whose grid is displayed.
+     */
+    @Override
+    public void displayGrid(GameManager manager) {
+        assert manager != null;
+        Grid grid = manager.getGrid();
+        int width = grid.getWidth();
+        StringBuilder frame = new StringBuilder();
+
+        if (drawnGrid == null || !grid.hasSameTrack(drawnGrid)) {
+            drawTrack(frame, grid);
+            drawnGrid = grid;
+            drawnPlayers.clear();
+        }
+        frame.append(SAVE_CURSOR);
+        int updates = frame.length();
+
+        Map<Integer, Character> players = new HashMap<>();
+        for (Map.Entry<Player, Position> entry : manager.getPlayerPositions().entrySet()) {
+            Position position = entry.getValue();
+            if (grid.isOccupied(position.x(), position.y())) {
+                players.put(position.y() * width + position.x(), manager.getID(entry.getKey()).charAt(0));
+            }
+        }
+        for (Integer index : drawnPlayers.keySet()) {
+            if (!players.containsKey(index)) {
+                drawCell(frame, index % width, index / width, parseCellState(grid.getState(index % width,
+                        index / width)));
+            }
+        }
+        for (Map.Entry<Integer, Character> entry : players.entrySet()) {
+            if (!entry.getValue().equals(drawnPlayers.get(entry.getKey()))) {
+                drawCell(frame, entry.getKey() % width, entry.getKey() / width, entry.getValue());
+            }
+        }
+        drawnPlayers = players;
+
+        if (frame.length() == updates) {
+            frame.setLength(updates - SAVE_CURSOR.length());
+            if (frame.isEmpty()) return;
+        } else {
+            frame.append(RESTORE_CURSOR);
+        }
+        System.out.print(frame);
+        System.out.flush();
+    }
+
+    /**
+     * Clears the messages of the previous turn, then stops the game until the user inputs anything.
+     */
+    @Override
+    public void pause() {
+        clearMessages();
+        super.pause();
+    }
+
+    /**
+     * Clears the messages of the previous turn, then asks the user where to move in a replayed game.
+     *
+     * @param manager Frame of the replayed game.
+     * @param turn    Turn being displayed.
+     * @param turns   Number of turns of the game.
+     * @return The user's command.
+     */
+    @Override
+    protected String askSeek(GameManager manager, int turn, int turns) {
+        clearMessages();
+        return super.askSeek(manager, turn, turns);
+    }
+
+    /**
+     * Moves the cursor below the track and clears everything after it.
+     */
+    private void clearMessages() {
+        if (drawnGrid != null) {
+            //messages start on the second line below the track
+            System.out.print(CSI + (drawnGrid.getHeight() + 2) + ";1H" + CSI + "J");
+        }
+    }
+
+    /**
+     * Clears the screen and appends the whole track to a frame, leaving the cursor below it.
+     *
+     * @param frame Frame being built.
+     * @param grid  Grid to draw.
+     */
+    private void drawTrack(StringBuilder frame, Grid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        frame.ensureCapacity(frame.length() + (width + 1) * height + 16);
+        frame.append(CSI).append("H").append(CSI).append("2J");
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                frame.append(parseCellState(grid.getState(x, y)));
+            }
+            frame.append('\n');
+        }
+        frame.append('\n');
+    }
+
+    /**
+     * Appends to a frame the sequence that prints a character on a cell.
+     *
+     * @param frame Frame being built.
+     * @param x     Horizontal coordinate of the cell.
+     * @param y     Vertical coordinate of the cell.
+     * @param c     Character to print.
+     */
+    private void drawCell(StringBuilder frame, int x, int y, char c) {
+        //terminal rows and columns start from 1
+        frame.append(CSI).append(y + 1).append(';').append(x + 1).append('H').append(c);
+    }
+}
@@ -26,15 +26,19 @@
 package it.unicam.cs.giacomopessolano.formula1.ui;
 
 import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
-import it.unicam.cs.giacomopessolano.formula1.grid.Cell;
+import it.unicam.cs.giacomopessolano.formula1.game.ReplayTimeline;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
 import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
 import it.unicam.cs.giacomopessolano.formula1.player.Player;
 
 import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
@@ -51,11 +55,15 @@ public class UserInterfaceJavaFX implements UserInterface {
     /**
      * Size of the grid's cells in the graphical display.
      */
-    private static final int CELL_SIZE = 15;
+    protected static final int CELL_SIZE = 15;
     /**
      * UI's primary stage.
      */
     private final Stage primaryStage;
+    /**
+     * Layout of the scene.
+     */
+    private final BorderPane root = new BorderPane();
     /**
      * GridPane used to represent a game's grid.
      */
@@ -95,7 +103,6 @@ public class UserInterfaceJavaFX implements UserInterface {
             }
         });
 
-        BorderPane root = new BorderPane();
         root.setTop(message);
         root.setCenter(gridPane);
         root.setBottom(unpauseButton);
@@ -136,18 +143,20 @@ public class UserInterfaceJavaFX implements UserInterface {
 
         gridPane.getChildren().clear();
 
-        for (int x = 0; x < gameGrid.getWidth(); x++) {
-            for (int y = 0; y < gameGrid.getHeight(); y++) {
+        //rows are scanned one after the other, which is the order the grid keeps its cells
+        for (int y = 0; y < gameGrid.getHeight(); y++) {
+            for (int x = 0; x < gameGrid.getWidth(); x++) {
                 //puts a rectangle at each cell with a color based on its state
-                Position position = new Position(x, y);
-                Cell gameCell = gameGrid.getCell(position);
                 Rectangle rectangle = new Rectangle(CELL_SIZE, CELL_SIZE);
-                rectangle.setFill(parseCellState(gameCell));
 
                 //adds player ID on top of the rectangle, if there is a player on the cell
                 Text text = new Text("");
-                if (gameCell.isOccupied()) {
-                    text.setText(manager.getID(gameCell.getPlayer()).substring(0, 1));
+                if (gameGrid.isOccupied(x, y)) {
+                    Player player = gameGrid.getCell(new Position(x, y)).getPlayer();
+                    rectangle.setFill(parsePlayer(player));
+                    text.setText(manager.getID(player).substring(0, 1));
+                } else {
+                    rectangle.setFill(parseCellState(gameGrid.getState(x, y)));
                 }
                 rectangle.setOpacity(0.5);
 
@@ -221,6 +230,56 @@ public class UserInterfaceJavaFX implements UserInterface {
        unpauseButton.setText("Exit Game");
     }
 
+    /**
+     * Replaces the unpause button with a slider that moves through the turns of a replayed game, with
+     * buttons to step one turn at a time. Every change of the slider displays the turn it points to.
+     *
+     * @param timeline Timeline of the replayed game.
+     */
+    @Override
+    public void scrub(ReplayTimeline timeline) {
+        assert timeline != null;
+        Slider slider = new Slider(0, timeline.getTurns(), 0);
+        slider.setMajorTickUnit(1);
+        slider.setBlockIncrement(1);
+        slider.setSnapToTicks(true);
+        Label turnLabel = new Label();
+        Button previous = new Button("<");
+        Button next = new Button(">");
+
+        //the slider keeps its value between its bounds
+        previous.setOnAction(press -> slider.setValue(slider.getValue() - 1));
+        next.setOnAction(press -> slider.setValue(slider.getValue() + 1));
+        slider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            //dragging goes through fractional values, which only show a new frame when the turn changes
+            if (oldValue.intValue() != newValue.intValue()) {
+                showFrame(timeline, newValue.intValue(), turnLabel);
+            }
+        });
+
+        HBox.setHgrow(slider, Priority.ALWAYS);
+        root.setBottom(new HBox(5, previous, slider, next, turnLabel));
+        showFrame(timeline, 0, turnLabel);
+    }
+
+    /**
+     * Displays a turn of a replayed game with its message.
+     *
+     * @param timeline  Timeline of the replayed game.
+     * @param turn      Turn to display.
+     * @param turnLabel Label with the number of the turn.
+     */
+    private void showFrame(ReplayTimeline timeline, int turn, Label turnLabel) {
+        GameManager frame = timeline.seek(turn);
+        displayGrid(frame);
+        if (frame.isGameRunning()) {
+            turnMessage(frame);
+        } else {
+            gameOverMessage(frame);
+        }
+        turnLabel.setText("Turn " + turn + " of " + timeline.getTurns());
+    }
+
     /**
      * Displays an error message as an alert.
      *
@@ -234,6 +293,25 @@ public class UserInterfaceJavaFX implements UserInterface {
         showAlert("Error", message);
     }
 
+    /**
+     * Replaces the node that represents the grid in the center of the scene.
+     *
+     * @param board Node representing the grid.
+     */
+    protected void setBoard(Node board) {
+        assert board != null;
+        root.setCenter(board);
+    }
+
+    /**
+     * Returns the UI's primary stage.
+     *
+     * @return The primary stage of the graphical interface.
+     */
+    protected Stage getPrimaryStage() {
+        return primaryStage;
+    }
+
     /**
      * Creates an alert.
      *
@@ -249,26 +327,30 @@ public class UserInterfaceJavaFX implements UserInterface {
     }
 
     /**
-     * Translates a cell state to a color.
+     * Translates a player to a color based on whether it crashed.
      *
-     * @param cell Cell to examine.
-     * @return Color representing the cell's state.
+     * @param player Player to examine.
+     * @return Color representing the player.
      */
-    private Color parseCellState(Cell cell) {
-        if (cell.isOccupied()) {
-            Player player = cell.getPlayer();
-            if (player.hasCrashed()) {
-                return Color.RED;
-            } else {
-                return Color.BLUE;
-            }
+    protected Color parsePlayer(Player player) {
+        if (player.hasCrashed()) {
+            return Color.RED;
+        } else {
+            return Color.BLUE;
         }
+    }
 
-        return switch (cell.getState()) {
+    /**
+     * Translates a cell state to a color.
+     *
+     * @param state State to examine.
+     * @return Color representing the cell's state.
+     */
+    protected Color parseCellState(CellState state) {
+        return switch (state) {
             case END -> Color.GREEN;
             case OFFTRACK -> Color.BLACK;
             default -> Color.LIGHTGRAY;
         };
     }
 }
-
@@ -0,0 +1,221 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.ui;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+
+import java.util.*;
+
+/**
+ * Implementation of UserInterfaceJavaFX that draws the grid on a single Canvas instead of creating a node
+ * for every cell. The track is drawn once per grid and stays on the canvas; every turn only the cells
+ * whose occupancy changed since the previous turn are repainted, so the cost of a frame depends on the
+ * number of players rather than on the size of the track.
+ */
+public class UserInterfaceJavaFXCanvas extends UserInterfaceJavaFX {
+
+    /**
+     * Canvas the grid is drawn on.
+     */
+    private final Canvas canvas = new Canvas();
+    /**
+     * Grid whose track is currently drawn on the canvas.
+     */
+    private Grid drawnGrid;
+    /**
+     * Position at which every player, by ID, was drawn.
+     */
+    private final Map<String, Position> drawnPositions = new HashMap<>();
+    /**
+     * IDs of the players that were drawn as crashed.
+     */
+    private final Set<String> drawnCrashes = new HashSet<>();
+
+    /**
+     * Constructs an UserInterfaceJavaFXCanvas with an empty canvas in the center of the scene.
+     *
+     * @param stage The primary stage of the graphical interface.
+     */
+    public UserInterfaceJavaFXCanvas(Stage stage) {
+        super(stage);
+        setBoard(canvas);
+    }
+
+    /**
+     * Draws the GameManager's current grid. The whole track is drawn only when the track changes,
+     * otherwise the cells left by the players are cleared and the players that moved or crashed are
+     * drawn again, even if the grid is a copy like the snapshots of a GameSimulation. The stage is
+     * displayed when the grid has been drawn.
+     *
+     * @param manager Game to take the grid from.
+     */
+    @Override
+    public void displayGrid(GameManager manager) {
+        assert manager != null;
+        Grid grid = manager.getGrid();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        if (drawnGrid == null || !grid.hasSameTrack(drawnGrid)) {
+            drawTrack(gc, grid);
+            drawnGrid = grid;
+            drawnPositions.clear();
+            drawnCrashes.clear();
+        }
+
+        //cells left empty are cleared first, so that a player who moved in is not erased
+        List<Player> changed = new ArrayList<>();
+        for (Map.Entry<Player, Position> entry : manager.getPlayerPositions().entrySet()) {
+            Player player = entry.getKey();
+            String id = manager.getID(player);
+            Position position = entry.getValue();
+            Position oldPosition = drawnPositions.put(id, position);
+            boolean crashChanged = player.hasCrashed() ? drawnCrashes.add(id) : drawnCrashes.remove(id);
+
+            if (!position.equals(oldPosition) || crashChanged) {
+                if (oldPosition != null && !oldPosition.equals(position)) {
+                    drawCell(gc, grid, oldPosition.x(), oldPosition.y());
+                }
+                changed.add(player);
+            }
+        }
+        for (Player player : changed) {
+            Position position = manager.getPlayerPositions().get(player);
+            drawPlayer(gc, manager, player, position.x(), position.y());
+        }
+
+        getPrimaryStage().show();
+    }
+
+    /**
+     * Returns the canvas the grid is drawn on.
+     *
+     * @return The canvas.
+     */
+    protected Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Resizes the canvas to the grid and draws the state of every cell.
+     *
+     * @param gc Graphics context of the canvas.
+     * @param grid Grid to draw.
+     */
+    protected void drawTrack(GraphicsContext gc, Grid grid) {
+        canvas.setWidth(grid.getWidth() * CELL_SIZE);
+        canvas.setHeight(grid.getHeight() * CELL_SIZE);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                drawCell(gc, grid, x, y);
+            }
+        }
+    }
+
+    /**
+     * Draws a cell with the color of its state.
+     *
+     * @param gc Graphics context of the canvas.
+     * @param grid Grid the cell belongs to.
+     * @param x Horizontal coordinate of the cell.
+     * @param y Vertical coordinate of the cell.
+     */
+    protected void drawCell(GraphicsContext gc, Grid grid, int x, int y) {
+        gc.setFill(blend(parseCellState(grid.getState(x, y))));
+        gc.fillRect(cellLeft(x), cellTop(y), cellSize(), cellSize());
+    }
+
+    /**
+     * Draws a player on a cell, with its ID on top.
+     *
+     * @param gc Graphics context of the canvas.
+     * @param manager Game the player belongs to.
+     * @param player Player to draw.
+     * @param x Horizontal coordinate of the cell.
+     * @param y Vertical coordinate of the cell.
+     */
+    protected void drawPlayer(GraphicsContext gc, GameManager manager, Player player, int x, int y) {
+        gc.setFill(blend(parsePlayer(player)));
+        gc.fillRect(cellLeft(x), cellTop(y), cellSize(), cellSize());
+        //the ID would not be readable on smaller cells
+        if (cellSize() >= CELL_SIZE / 2) {
+            gc.setFill(Color.BLACK);
+            gc.fillText(manager.getID(player).substring(0, 1), cellLeft(x) + cellSize() / 2.0,
+                    cellTop(y) + cellSize() / 2.0);
+        }
+    }
+
+    /**
+     * Returns the horizontal coordinate on the canvas of a column's left edge.
+     *
+     * @param x Horizontal coordinate of the cell.
+     * @return Coordinate on the canvas.
+     */
+    protected double cellLeft(int x) {
+        return x * CELL_SIZE;
+    }
+
+    /**
+     * Returns the vertical coordinate on the canvas of a row's top edge.
+     *
+     * @param y Vertical coordinate of the cell.
+     * @return Coordinate on the canvas.
+     */
+    protected double cellTop(int y) {
+        return y * CELL_SIZE;
+    }
+
+    /**
+     * Returns the side of a cell on the canvas.
+     *
+     * @return Side of a cell.
+     */
+    protected int cellSize() {
+        return CELL_SIZE;
+    }
+
+    /**
+     * Returns the color a half transparent fill takes on the white background, which is how the
+     * cells look in UserInterfaceJavaFX.
+     *
+     * @param color Color of the fill.
+     * @return Opaque color of the cell.
+     */
+    protected static Color blend(Color color) {
+        return Color.WHITE.interpolate(color, 0.5);
+    }
+}
@@ -0,0 +1,485 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package it.unicam.cs.giacomopessolano.formula1.ui;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameManager;
+import it.unicam.cs.giacomopessolano.formula1.grid.CellState;
+import it.unicam.cs.giacomopessolano.formula1.grid.Grid;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Implementation of UserInterfaceJavaFXCanvas for tracks too big to fit on the screen. The canvas is as
+ * big as the window and shows a scrollable, zoomable viewport on the grid: only the visible cells are
+ * drawn, row by row into a pixel buffer, so the cost of a frame is proportional to the screen rather than
+ * to the track. Players that move outside the viewport cost nothing.
+ * <p>
+ * A downsampled minimap of the whole track is built once per track and shows the players and the
+ * viewport; clicking on it moves the viewport there. The viewport is dragged with the mouse or scrolled
+ * with the wheel or the arrow keys, and zoomed with ctrl and the wheel or the + and - keys.
+ */
+public class UserInterfaceJavaFXViewport extends UserInterfaceJavaFXCanvas {
+
+    /**
+     * Smallest side of a cell, in pixels.
+     */
+    private static final int MIN_CELL_SIZE = 1;
+    /**
+     * Biggest side of a cell, in pixels.
+     */
+    private static final int MAX_CELL_SIZE = 4 * CELL_SIZE;
+    /**
+     * Longest side of the minimap, in pixels.
+     */
+    private static final int MINIMAP_SIZE = 160;
+    /**
+     * Cells sampled along each side of a minimap pixel.
+     */
+    private static final int MINIMAP_SAMPLES = 4;
+    /**
+     * Initial size of the viewport.
+     */
+    private static final int VIEW_SIZE = 600;
+    /**
+     * Color of the area outside the track.
+     */
+    private static final int BACKGROUND = 0xFFFFFFFF;
+
+    /**
+     * Pane the canvas fills, which follows the size of the window.
+     */
+    private final Pane view;
+    /**
+     * Canvas the minimap is drawn on.
+     */
+    private final Canvas minimap = new Canvas(MINIMAP_SIZE, MINIMAP_SIZE);
+    /**
+     * Side of a cell, in pixels.
+     */
+    private int cellSize = CELL_SIZE;
+    /**
+     * Horizontal pixel of the zoomed track shown at the left edge of the canvas.
+     */
+    private int viewX;
+    /**
+     * Vertical pixel of the zoomed track shown at the top edge of the canvas.
+     */
+    private int viewY;
+    /**
+     * Game displayed last.
+     */
+    private GameManager manager;
+    /**
+     * Grid the minimap was built for.
+     */
+    private Grid minimapGrid;
+    /**
+     * Downsampled image of the track.
+     */
+    private WritableImage minimapImage;
+    /**
+     * Minimap pixels per cell.
+     */
+    private double minimapScale;
+    /**
+     * Pixel buffer the visible cells are drawn into, reused between frames.
+     */
+    private int[] pixels = new int[0];
+    /**
+     * Horizontal position of the last mouse press or drag.
+     */
+    private double dragX;
+    /**
+     * Vertical position of the last mouse press or drag.
+     */
+    private double dragY;
+
+    /**
+     * Constructs an UserInterfaceJavaFXViewport with an empty viewport in the center of the scene and the
+     * minimap in its top right corner.
+     *
+     * @param stage The primary stage of the graphical interface.
+     */
+    public UserInterfaceJavaFXViewport(Stage stage) {
+        super(stage);
+        Canvas canvas = getCanvas();
+        view = new Pane(canvas);
+        view.setPrefSize(VIEW_SIZE, VIEW_SIZE);
+        view.setMinSize(0, 0);
+        view.widthProperty().addListener((observable, oldWidth, width) -> {
+            canvas.setWidth(width.doubleValue());
+            redraw();
+        });
+        view.heightProperty().addListener((observable, oldHeight, height) -> {
+            canvas.setHeight(height.doubleValue());
+            redraw();
+        });
+
+        view.setFocusTraversable(true);
+        view.setOnScroll(this::scroll);
+        view.setOnKeyPressed(this::keyPressed);
+        view.setOnMousePressed(event -> {
+            view.requestFocus();
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        view.setOnMouseDragged(event -> {
+            moveView((int) (dragX - event.getX()), (int) (dragY - event.getY()));
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        minimap.setOnMouseClicked(event -> {
+            if (manager == null) return;
+            centerOn(event.getX() / minimapScale, event.getY() / minimapScale);
+        });
+
+        StackPane board = new StackPane(view, minimap);
+        StackPane.setAlignment(minimap, Pos.TOP_RIGHT);
+        setBoard(board);
+    }
+
+    /**
+     * Draws the GameManager's current grid and updates the minimap.
+     *
+     * @param manager Game to take the grid from.
+     */
+    @Override
+    public void displayGrid(GameManager manager) {
+        assert manager != null;
+        this.manager = manager;
+        super.displayGrid(manager);
+        drawMinimap();
+    }
+
+    /**
+     * Draws the visible part of the track. When the track changes, the minimap is built again and the
+     * viewport is centered on the first player.
+     *
+     * @param gc Graphics context of the canvas.
+     * @param grid Grid to draw.
+     */
+    @Override
+    protected void drawTrack(GraphicsContext gc, Grid grid) {
+        if (minimapGrid == null || !grid.hasSameTrack(minimapGrid)) {
+            buildMinimap(grid);
+            Position first = manager.getPlayerPositions().values().stream().findFirst().orElse(new Position(0, 0));
+            viewX = (first.x() * cellSize) - (int) getCanvas().getWidth() / 2;
+            viewY = (first.y() * cellSize) - (int) getCanvas().getHeight() / 2;
+        }
+        clampView(grid);
+
+        int width = (int) getCanvas().getWidth();
+        int height = (int) getCanvas().getHeight();
+        if (width <= 0 || height <= 0) return;
+        if (pixels.length < width * height) {
+            pixels = new int[width * height];
+        }
+
+        int[] colors = new int[CellState.values().length];
+        for (CellState state : CellState.values()) {
+            colors[state.ordinal()] = toArgb(blend(parseCellState(state)));
+        }
+
+        int row = -1;
+        for (int py = 0; py < height; py++) {
+            int y = (viewY + py) / cellSize;
+            int offset = py * width;
+            if (y >= grid.getHeight()) {
+                Arrays.fill(pixels, offset, offset + width, BACKGROUND);
+            } else if (y == row) {
+                //pixel rows of the same cell row are identical
+                System.arraycopy(pixels, offset - width, pixels, offset, width);
+            } else {
+                drawRow(grid, y, colors, offset, width);
+            }
+            row = y < grid.getHeight() ? y : -1;
+        }
+
+        gc.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double cellLeft(int x) {
+        return (double) x * cellSize - viewX;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double cellTop(int y) {
+        return (double) y * cellSize - viewY;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int cellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Fills a pixel row with the colors of the visible cells of a grid row.
+     *
+     * @param grid Grid to draw.
+     * @param y Vertical coordinate of the grid row.
+     * @param colors Color of every cell state.
+     * @param offset Index of the pixel row in the buffer.
+     * @param width Width of the canvas.
+     */
+    private void drawRow(Grid grid, int y, int[] colors, int offset, int width) {
+        int px = 0;
+        while (px < width) {
+            int x = (viewX + px) / cellSize;
+            if (x >= grid.getWidth()) {
+                Arrays.fill(pixels, offset + px, offset + width, BACKGROUND);
+                return;
+            }
+            int end = Math.min(width, (x + 1) * cellSize - viewX);
+            Arrays.fill(pixels, offset + px, offset + end, colors[grid.getState(x, y).ordinal()]);
+            px = end;
+        }
+    }
+
+    /**
+     * Draws the visible part of the track and every player on it again.
+     */
+    private void redraw() {
+        if (manager == null) return;
+        GraphicsContext gc = getCanvas().getGraphicsContext2D();
+        drawTrack(gc, manager.getGrid());
+        for (Map.Entry<Player, Position> entry : manager.getPlayerPositions().entrySet()) {
+            drawPlayer(gc, manager, entry.getKey(), entry.getValue().x(), entry.getValue().y());
+        }
+        drawMinimap();
+    }
+
+    /**
+     * Moves the viewport by a number of pixels and draws it again.
+     *
+     * @param dx Horizontal movement.
+     * @param dy Vertical movement.
+     */
+    private void moveView(int dx, int dy) {
+        viewX += dx;
+        viewY += dy;
+        redraw();
+    }
+
+    /**
+     * Centers the viewport on a point of the grid and draws it again.
+     *
+     * @param x Horizontal coordinate, in cells.
+     * @param y Vertical coordinate, in cells.
+     */
+    private void centerOn(double x, double y) {
+        viewX = (int) (x * cellSize - getCanvas().getWidth() / 2);
+        viewY = (int) (y * cellSize - getCanvas().getHeight() / 2);
+        redraw();
+    }
+
+    /**
+     * Changes the size of the cells, keeping the cell under a point of the canvas in place.
+     *
+     * @param newSize New side of a cell.
+     * @param x Horizontal coordinate of the point on the canvas.
+     * @param y Vertical coordinate of the point on the canvas.
+     */
+    private void zoom(int newSize, double x, double y) {
+        newSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, newSize));
+        if (newSize == cellSize) return;
+        viewX = (int) ((viewX + x) * newSize / cellSize - x);
+        viewY = (int) ((viewY + y) * newSize / cellSize - y);
+        cellSize = newSize;
+        redraw();
+    }
+
+    /**
+     * Scrolls the viewport, or zooms it if ctrl is down.
+     *
+     * @param event Scroll event.
+     */
+    private void scroll(ScrollEvent event) {
+        if (event.isControlDown()) {
+            int newSize = event.getDeltaY() > 0 ? cellSize * 2 : cellSize / 2;
+            zoom(newSize, event.getX(), event.getY());
+        } else {
+            moveView((int) -event.getDeltaX(), (int) -event.getDeltaY());
+        }
+        event.consume();
+    }
+
+    /**
+     * Scrolls the viewport with the arrow keys and zooms it with + and -.
+     *
+     * @param event Key event.
+     */
+    private void keyPressed(KeyEvent event) {
+        int step = 3 * cellSize;
+        double centerX = getCanvas().getWidth() / 2;
+        double centerY = getCanvas().getHeight() / 2;
+        switch (event.getCode()) {
+            case LEFT -> moveView(-step, 0);
+            case RIGHT -> moveView(step, 0);
+            case UP -> moveView(0, -step);
+            case DOWN -> moveView(0, step);
+            case PLUS, ADD, EQUALS -> zoom(cellSize * 2, centerX, centerY);
+            case MINUS, SUBTRACT -> zoom(cellSize / 2, centerX, centerY);
+            default -> {
+                return;
+            }
+        }
+        event.consume();
+    }
+
+    /**
+     * Keeps the viewport within the zoomed track.
+     *
+     * @param grid Grid displayed.
+     */
+    private void clampView(Grid grid) {
+        int maxX = grid.getWidth() * cellSize - (int) getCanvas().getWidth();
+        int maxY = grid.getHeight() * cellSize - (int) getCanvas().getHeight();
+        viewX = Math.max(0, Math.min(viewX, maxX));
+        viewY = Math.max(0, Math.min(viewY, maxY));
+    }
+
+    /**
+     * Builds the minimap of a grid. Each pixel samples a few cells of the area it covers and takes the
+     * color of the most relevant one, so that thin roads and finish lines don't disappear.
+     *
+     * @param grid Grid to draw.
+     */
+    private void buildMinimap(Grid grid) {
+        minimapGrid = grid;
+        minimapScale = Math.min(1.0, (double) MINIMAP_SIZE / Math.max(grid.getWidth(), grid.getHeight()));
+        int width = Math.max(1, (int) (grid.getWidth() * minimapScale));
+        int height = Math.max(1, (int) (grid.getHeight() * minimapScale));
+        double cells = 1 / minimapScale;
+
+        int[] colors = new int[CellState.values().length];
+        for (CellState state : CellState.values()) {
+            colors[state.ordinal()] = toArgb(parseCellState(state));
+        }
+
+        int[] buffer = new int[width * height];
+        for (int my = 0; my < height; my++) {
+            for (int mx = 0; mx < width; mx++) {
+                CellState best = CellState.OFFTRACK;
+                for (int sy = 0; sy < MINIMAP_SAMPLES; sy++) {
+                    int y = Math.min(grid.getHeight() - 1, (int) ((my + (sy + 0.5) / MINIMAP_SAMPLES) * cells));
+                    for (int sx = 0; sx < MINIMAP_SAMPLES; sx++) {
+                        int x = Math.min(grid.getWidth() - 1, (int) ((mx + (sx + 0.5) / MINIMAP_SAMPLES) * cells));
+                        best = moreRelevant(best, grid.getState(x, y));
+                    }
+                }
+                buffer[my * width + mx] = colors[best.ordinal()];
+            }
+        }
+
+        minimapImage = new WritableImage(width, height);
+        minimapImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(),
+                buffer, 0, width);
+        minimap.setWidth(width);
+        minimap.setHeight(height);
+    }
+
+    /**
+     * Draws the minimap with the players and the outline of the viewport.
+     */
+    private void drawMinimap() {
+        if (minimapImage == null) return;
+        GraphicsContext gc = minimap.getGraphicsContext2D();
+        gc.drawImage(minimapImage, 0, 0);
+
+        for (Map.Entry<Player, Position> entry : manager.getPlayerPositions().entrySet()) {
+            gc.setFill(parsePlayer(entry.getKey()));
+            gc.fillRect(entry.getValue().x() * minimapScale - 1, entry.getValue().y() * minimapScale - 1, 3, 3);
+        }
+
+        gc.setStroke(Color.YELLOW);
+        gc.strokeRect(viewX * minimapScale / cellSize, viewY * minimapScale / cellSize,
+                getCanvas().getWidth() * minimapScale / cellSize, getCanvas().getHeight() * minimapScale / cellSize);
+    }
+
+    /**
+     * Returns the state that should be shown on the minimap between two.
+     *
+     * @param a First state.
+     * @param b Second state.
+     * @return END over anything else, then TRACK and START, then OFFTRACK.
+     */
+    private static CellState moreRelevant(CellState a, CellState b) {
+        return relevance(b) > relevance(a) ? b : a;
+    }
+
+    /**
+     * Ranks a state by how much it matters on the minimap.
+     *
+     * @param state State to rank.
+     * @return Rank of the state.
+     */
+    private static int relevance(CellState state) {
+        return switch (state) {
+            case OFFTRACK -> 0;
+            case TRACK, START -> 1;
+            case END -> 2;
+        };
+    }
+
+    /**
+     * Converts a color to an opaque ARGB value.
+     *
+     * @param color Color to convert.
+     * @return ARGB value.
+     */
+    private static int toArgb(Color color) {
+        return 0xFF000000 | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Giacomo Pessolano
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package it.unicam.cs.giacomopessolano.formula1.ui;
+
+import it.unicam.cs.giacomopessolano.formula1.game.GameInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.game.GameManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.game.TurnManagerStandard;
+import it.unicam.cs.giacomopessolano.formula1.grid.PackedGridInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.PlayerBotInitializerFromTxt;
+import it.unicam.cs.giacomopessolano.formula1.player.Player;
+import it.unicam.cs.giacomopessolano.formula1.player.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserInterfaceCLIAnsiTest {
+
+    private final PrintStream console = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private GameManagerStandard game;
+    private UserInterfaceCLIAnsi ui;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        game = new GameManagerStandard(new GameInitializerFromTxt("open.txt", new PackedGridInitializerFromTxt(),
+                new PlayerBotInitializerFromTxt()));
+        game.startGame(7);
+        ui = new UserInterfaceCLIAnsi();
+        System.setOut(new PrintStream(output, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(console);
+    }
+
+    private String written() {
+        String written = output.toString();
+        output.reset();
+        return written;
+    }
+
+    private static String cell(Position position, char c) {
+        return "\033[" + (position.y() + 1) + ";" + (position.x() + 1) + "H" + c;
+    }
+
+    @Test
+    void testOnlyChangedCellsAreRedrawn() {
+        ui.displayGrid(game);
+        String first = written();
+        assertTrue(first.startsWith("\033[H\033[2J"));
+        assertTrue(first.contains("XXXXXXXXX\nX       X\n"));
+
+        Player moving = game.getCurrentPlayer();
+        Position before = game.getPlayerPositions().get(moving);
+        game.nextTurn(new TurnManagerStandard());
+        Position after = game.getPlayerPositions().get(moving);
+        assertNotEquals(before, after);
+
+        ui.displayGrid(game);
+        char left = ui.parseCellState(game.getGrid().getState(before.x(), before.y()));
+        char id = game.getID(moving).charAt(0);
+        assertEquals("\0337" + cell(before, left) + cell(after, id) + "\0338", written());
+    }
+
+    @Test
+    void testNothingWrittenWithoutChanges() {
+        ui.displayGrid(game);
+        written();
+
+        ui.displayGrid(game);
+        assertEquals("", written());
+    }
+}